@@ -5,6 +5,7 @@ import com.ultrascale.scheduler.model.TaskResult;
 import com.ultrascale.scheduler.model.TaskStatus;
 import com.ultrascale.scheduler.repository.TaskDefinitionRepository;
 import com.ultrascale.scheduler.repository.TaskResultRepository;
+import com.ultrascale.scheduler.service.TaskResultSink;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -27,6 +28,9 @@ public class DashboardController {
     @Autowired
     private TaskResultRepository taskResultRepository;
 
+    @Autowired
+    private TaskResultSink taskResultSink;
+
     @GetMapping("/metrics")
     public ResponseEntity<Map<String, Object>> getMetrics() {
         Map<String, Object> metrics = new HashMap<>();
@@ -86,6 +90,14 @@ public class DashboardController {
         metrics.put("successfulExecutions", successfulTasks);
         metrics.put("failedExecutions", failedResults);
         metrics.put("averageExecutionTimeMs", avgExecutionTime);
+        
+        // Write-behind result buffer
+        metrics.put("resultsPendingWrite", taskResultSink.getPendingCount());
+        metrics.put("resultBufferCapacity", taskResultSink.getCapacity());
+        metrics.put("resultsDropped", taskResultSink.getDroppedCount());
+        metrics.put("resultsFailedWrite", taskResultSink.getFailedCount());
+        metrics.put("resultFlushLagMs", taskResultSink.getLastFlushLagMs());
+        metrics.put("maxResultFlushLagMs", taskResultSink.getMaxFlushLagMs());
         metrics.put("lastUpdated", LocalDateTime.now().toString());
         
         return ResponseEntity.ok(metrics);
@@ -13,7 +13,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -27,6 +26,9 @@ public class EnhancedTaskSchedulerService {
     @Autowired
     private TaskResultRepository taskResultRepository;
     
+    @Autowired
+    private TaskResultSink taskResultSink;
+    
     @Autowired
     private SampleCalculationTask calculationTask;
     
@@ -68,8 +70,8 @@ public class EnhancedTaskSchedulerService {
         TaskWrapper wrapper = createTaskWrapper(task);
         TaskResult result = wrapper.execute();
         
-        // Save the result
-        result = taskResultRepository.save(result);
+        // Stored by the next batch insert, so the returned result has no id yet
+        taskResultSink.submit(result);
         
         return CompletableFuture.completedFuture(result);
     }
@@ -0,0 +1,241 @@
+package com.ultrascale.scheduler.service;
+
+import com.ultrascale.scheduler.model.TaskResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind store for task results. Executions only append to a bounded ring buffer; a
+ * single flusher thread writes the buffered results with one JDBC batch once
+ * {@code task.results.batch-size} of them are waiting or the oldest has waited
+ * {@code task.results.flush-interval-ms}, whichever comes first.
+ *
+ * <p>At most {@code task.results.buffer-capacity} results, or one flush interval's worth, are
+ * lost if the process dies. When the database falls behind and the buffer is full, new results
+ * are dropped and counted rather than blocking the executing task.
+ */
+@Component
+public class TaskResultSink {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskResultSink.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO task_results (task_definition_id, status, result, error_message, started_at, completed_at, execution_time_ms) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${task.results.buffer-capacity:10000}")
+    private int capacity;
+
+    @Value("${task.results.batch-size:200}")
+    private int batchSize;
+
+    @Value("${task.results.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+
+    // Ring buffer, guarded by lock: results[head] is the oldest, enqueuedAt holds System.nanoTime()
+    private TaskResult[] results;
+    private long[] enqueuedAt;
+    private int head;
+    private int size;
+    private boolean running;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastFlushLagMs;
+    private volatile long maxFlushLagMs;
+
+    private Thread flusher;
+
+    public TaskResultSink(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        results = new TaskResult[capacity];
+        enqueuedAt = new long[capacity];
+        running = true;
+        flusher = new Thread(this::flushLoop, "task-result-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Queues a result for the next batch insert.
+     * @return false if the buffer was full and the result was dropped
+     */
+    public boolean submit(TaskResult result) {
+        lock.lock();
+        try {
+            if (size == capacity || !running) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            int tail = (head + size) % capacity;
+            results[tail] = result;
+            enqueuedAt[tail] = System.nanoTime();
+            size++;
+            if (size == batchSize || size == 1) {
+                // A full batch is flushed now; a first entry starts the flush interval
+                flushNeeded.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        List<TaskResult> batch = new ArrayList<>(batchSize);
+        while (true) {
+            long oldest;
+            lock.lock();
+            try {
+                long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (running && !batchDue(intervalNanos)) {
+                    long wait = size == 0 ? intervalNanos : enqueuedAt[head] + intervalNanos - System.nanoTime();
+                    flushNeeded.awaitNanos(wait);
+                }
+                if (!running && size == 0) {
+                    return;
+                }
+                oldest = enqueuedAt[head];
+                int count = Math.min(size, batchSize);
+                for (int i = 0; i < count; i++) {
+                    batch.add(results[head]);
+                    results[head] = null;
+                    head = (head + 1) % capacity;
+                }
+                size -= count;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            write(batch);
+            long lagMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+            lastFlushLagMs = lagMs;
+            maxFlushLagMs = Math.max(maxFlushLagMs, lagMs);
+            batch.clear();
+        }
+    }
+
+    private boolean batchDue(long intervalNanos) {
+        return size >= batchSize || (size > 0 && System.nanoTime() - enqueuedAt[head] >= intervalNanos);
+    }
+
+    private void write(List<TaskResult> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), TaskResultSink::bind));
+            written.addAndGet(batch.size());
+        } catch (DataAccessException e) {
+            // One bad row (e.g. its task was deleted meanwhile) must not take the whole batch with it
+            log.warn("Batch insert of {} task results failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (TaskResult result : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, result));
+                    written.incrementAndGet();
+                } catch (DataAccessException rowError) {
+                    failed.incrementAndGet();
+                    log.error("Could not store result of task {}: {}", result.getTaskDefinition().getId(), rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, TaskResult result) throws SQLException {
+        ps.setLong(1, result.getTaskDefinition().getId());
+        ps.setString(2, result.getStatus().name());
+        ps.setString(3, result.getResult());
+        ps.setString(4, result.getErrorMessage());
+        ps.setTimestamp(5, timestamp(result.getStartedAt()));
+        ps.setTimestamp(6, timestamp(result.getCompletedAt()));
+        if (result.getExecutionTimeMs() != null) {
+            ps.setLong(7, result.getExecutionTimeMs());
+        } else {
+            ps.setNull(7, Types.BIGINT);
+        }
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        // The flusher writes out whatever is still buffered before it exits
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public int getPendingCount() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /** How long the oldest result of the last flushed batch waited before it was stored. */
+    public long getLastFlushLagMs() {
+        return lastFlushLagMs;
+    }
+
+    public long getMaxFlushLagMs() {
+        return maxFlushLagMs;
+    }
+}
@@ -7,6 +7,7 @@ import com.ultrascale.scheduler.model.TaskStatus;
 
 import java.time.LocalDateTime;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 public class CallableTaskWrapper<T> implements TaskWrapper {
     
@@ -23,21 +24,26 @@ public class CallableTaskWrapper<T> implements TaskWrapper {
         TaskResult result = new TaskResult();
         result.setTaskDefinition(taskDefinition);
         result.setStatus(TaskStatus.RUNNING);
-        result.setStartedAt(LocalDateTime.now());
+        // One wall-clock read for the start; the duration and the end time come from nanoTime
+        LocalDateTime startedAt = LocalDateTime.now();
+        result.setStartedAt(startedAt);
+        long startNanos = System.nanoTime();
         
         try {
-            long startTime = System.currentTimeMillis();
             T taskResult = task.call();
-            long endTime = System.currentTimeMillis();
+            long elapsedNanos = System.nanoTime() - startNanos;
             
             result.setStatus(TaskStatus.COMPLETED);
-            result.setCompletedAt(LocalDateTime.now());
-            result.setExecutionTimeMs(endTime - startTime);
+            result.setCompletedAt(startedAt.plusNanos(elapsedNanos));
+            result.setExecutionTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             result.setResult(taskResult != null ? taskResult.toString() : "Task completed with null result");
             
         } catch (Exception e) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            
             result.setStatus(TaskStatus.FAILED);
-            result.setCompletedAt(LocalDateTime.now());
+            result.setCompletedAt(startedAt.plusNanos(elapsedNanos));
+            result.setExecutionTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             result.setErrorMessage(e.getMessage());
         }
         
@@ -6,6 +6,7 @@ import com.ultrascale.scheduler.model.TaskStatus;
 
 
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
 public class RunnableTaskWrapper implements TaskWrapper {
     
@@ -22,21 +23,25 @@ public class RunnableTaskWrapper implements TaskWrapper {
         TaskResult result = new TaskResult();
         result.setTaskDefinition(taskDefinition);
         result.setStatus(TaskStatus.RUNNING);
-        result.setStartedAt(LocalDateTime.now());
+        LocalDateTime startedAt = LocalDateTime.now();
+        result.setStartedAt(startedAt);
+        long startNanos = System.nanoTime();
         
         try {
-            long startTime = System.currentTimeMillis();
             task.run();
-            long endTime = System.currentTimeMillis();
+            long elapsedNanos = System.nanoTime() - startNanos;
             
             result.setStatus(TaskStatus.COMPLETED);
-            result.setCompletedAt(LocalDateTime.now());
-            result.setExecutionTimeMs(endTime - startTime);
+            result.setCompletedAt(startedAt.plusNanos(elapsedNanos));
+            result.setExecutionTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             result.setResult("Task executed successfully");
             
         } catch (Exception e) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            
             result.setStatus(TaskStatus.FAILED);
-            result.setCompletedAt(LocalDateTime.now());
+            result.setCompletedAt(startedAt.plusNanos(elapsedNanos));
+            result.setExecutionTimeMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
             result.setErrorMessage(e.getMessage());
         }
         
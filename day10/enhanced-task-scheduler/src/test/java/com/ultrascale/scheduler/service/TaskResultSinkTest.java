@@ -0,0 +1,145 @@
+package com.ultrascale.scheduler.service;
+
+import com.ultrascale.scheduler.model.TaskDefinition;
+import com.ultrascale.scheduler.model.TaskResult;
+import com.ultrascale.scheduler.model.TaskStatus;
+import com.ultrascale.scheduler.model.TaskType;
+import com.ultrascale.scheduler.repository.TaskDefinitionRepository;
+import com.ultrascale.scheduler.repository.TaskResultRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskResultSinkTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TaskDefinitionRepository taskDefinitionRepository;
+
+    @Autowired
+    private TaskResultRepository taskResultRepository;
+
+    private TaskDefinition task;
+    private TaskResultSink sink;
+
+    @BeforeEach
+    void setUp() {
+        taskResultRepository.deleteAll();
+        task = new TaskDefinition();
+        task.setName("Sink Test Task");
+        task.setType(TaskType.CUSTOM);
+        task.setCronExpression("0 * * * * ?");
+        task = taskDefinitionRepository.save(task);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (sink != null) {
+            sink.shutdown();
+        }
+    }
+
+    @Test
+    void fullBatchIsStoredWithoutWaitingForInterval() throws InterruptedException {
+        sink = startSink(100, 10, 60_000);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(sink.submit(result(i)));
+        }
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (taskResultRepository.count() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(10, taskResultRepository.count());
+        assertEquals(10, sink.getWrittenCount());
+        assertTrue(sink.getLastFlushLagMs() < 60_000);
+    }
+
+    @Test
+    void partialBatchIsStoredAfterFlushInterval() throws InterruptedException {
+        sink = startSink(100, 50, 200);
+
+        sink.submit(result(1));
+        sink.submit(result(2));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (taskResultRepository.count() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, taskResultRepository.count());
+        assertEquals(0, sink.getPendingCount());
+        assertTrue(sink.getLastFlushLagMs() >= 200);
+    }
+
+    @Test
+    void fullBufferDropsNewResultsAndShutdownDrainsTheRest() throws InterruptedException {
+        // The batch never fills and the interval never passes, so nothing is flushed before shutdown
+        sink = startSink(5, 10, 60_000);
+
+        for (int i = 0; i < 8; i++) {
+            sink.submit(result(i));
+        }
+        assertEquals(5, sink.getPendingCount());
+        assertEquals(3, sink.getDroppedCount());
+
+        sink.shutdown();
+        sink = null;
+        assertEquals(5, taskResultRepository.count());
+    }
+
+    @Test
+    void rowsOfDeletedTasksDoNotFailTheirBatch() throws InterruptedException {
+        sink = startSink(100, 3, 60_000);
+        TaskDefinition deleted = new TaskDefinition();
+        deleted.setId(Long.MAX_VALUE);
+
+        sink.submit(result(1));
+        TaskResult orphan = result(2);
+        orphan.setTaskDefinition(deleted);
+        sink.submit(orphan);
+        sink.submit(result(3));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sink.getWrittenCount() + sink.getFailedCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, taskResultRepository.count());
+        assertEquals(1, sink.getFailedCount());
+    }
+
+    private TaskResultSink startSink(int capacity, int batchSize, long flushIntervalMs) {
+        TaskResultSink started = new TaskResultSink(jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(started, "capacity", capacity);
+        ReflectionTestUtils.setField(started, "batchSize", batchSize);
+        ReflectionTestUtils.setField(started, "flushIntervalMs", flushIntervalMs);
+        started.start();
+        return started;
+    }
+
+    private TaskResult result(int n) {
+        TaskResult result = new TaskResult();
+        result.setTaskDefinition(task);
+        result.setStatus(TaskStatus.COMPLETED);
+        result.setResult("run " + n);
+        result.setStartedAt(LocalDateTime.now());
+        result.setCompletedAt(LocalDateTime.now());
+        result.setExecutionTimeMs(1L);
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.taskscheduler.config;
+
+import com.taskscheduler.service.LocalLockTable;
+import com.taskscheduler.service.LockReleaseNotifier;
+import com.taskscheduler.service.PostgresLockReleaseNotifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class DistributedLockConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedLockConfig.class);
+
+    /**
+     * Cross-instance release notifications. Only PostgreSQL has LISTEN/NOTIFY; on other
+     * databases waiters fall back to the recheck interval and lease expiry.
+     */
+    @Bean
+    public LockReleaseNotifier lockReleaseNotifier(DataSource dataSource, LocalLockTable localLocks,
+            @Value("${app.distributed-locks.notify-channel:task_lock_released}") String channel) {
+        if (isPostgres(dataSource)) {
+            return new PostgresLockReleaseNotifier(dataSource, localLocks, channel);
+        }
+        logger.info("Lock release notifications unavailable; remote releases are seen on recheck");
+        return LockReleaseNotifier.NONE;
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(JdbcUtils.commonDatabaseName(product));
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not determine database product: {}", e.getMessage());
+            return false;
+        }
+    }
+}
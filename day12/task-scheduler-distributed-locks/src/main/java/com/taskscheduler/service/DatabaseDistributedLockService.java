@@ -1,169 +1,187 @@
 package com.taskscheduler.service;
 
-import com.taskscheduler.entity.TaskLock;
-import com.taskscheduler.repository.TaskLockRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Lease-based distributed locks on top of the configured {@link LockProvider} (the
+ * {@code task_locks} table by default).
+ *
+ * <p>Contenders in the same JVM queue on the {@link LocalLockTable}, so only one thread per
+ * key ever reaches the provider. That thread waits for a lease held by another instance
+ * without holding a connection: it parks until a release notification arrives, the current
+ * lease expires, or the recheck interval passes, whichever comes first.
+ */
 @Service
 public class DatabaseDistributedLockService implements DistributedLockService {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(DatabaseDistributedLockService.class);
-    
-    private final TaskLockRepository lockRepository;
+
+    private final LockProvider lockProvider;
+    private final LocalLockTable localLocks;
     private final String instanceId;
-    
+
     // Statistics
     private final AtomicLong acquisitionCount = new AtomicLong(0);
     private final AtomicLong releaseCount = new AtomicLong(0);
     private final AtomicLong timeoutCount = new AtomicLong(0);
     private final AtomicLong failureCount = new AtomicLong(0);
-    
+    private final Timer holdTimer;
+    private final Timer waitTimer;
+
     @Value("${app.distributed-locks.default-timeout-seconds:30}")
     private long defaultTimeoutSeconds;
-    
+
     @Value("${app.distributed-locks.max-wait-seconds:10}")
     private long maxWaitSeconds;
-    
-    public DatabaseDistributedLockService(TaskLockRepository lockRepository) {
-        this.lockRepository = lockRepository;
+
+    @Value("${app.distributed-locks.recheck-interval-ms:1000}")
+    private long recheckIntervalMs;
+
+    public DatabaseDistributedLockService(LockProvider lockProvider, LocalLockTable localLocks,
+                                          MeterRegistry meterRegistry) {
+        this.lockProvider = lockProvider;
+        this.localLocks = localLocks;
         this.instanceId = generateInstanceId();
-        logger.info("Initialized DistributedLockService with instanceId: {}", instanceId);
+        this.holdTimer = latencyTimer("distributed.lock.hold", "Time between acquiring and releasing a lock", meterRegistry);
+        this.waitTimer = latencyTimer("distributed.lock.wait", "Time spent waiting to acquire a lock", meterRegistry);
+        logger.info("Initialized DistributedLockService with instanceId: {} and provider: {}",
+                   instanceId, lockProvider.getClass().getSimpleName());
+    }
+
+    private static Timer latencyTimer(String name, String description, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
-    
+
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.READ_COMMITTED)
     public LockHandle acquireLock(String lockKey, Duration holdDuration, Duration waitTimeout) {
-        logger.debug("Attempting to acquire lock: {} for duration: {} with timeout: {}", 
+        logger.debug("Attempting to acquire lock: {} for duration: {} with timeout: {}",
                     lockKey, holdDuration, waitTimeout);
-        
-        LocalDateTime startTime = LocalDateTime.now();
-        LocalDateTime deadline = startTime.plus(waitTimeout);
-        LocalDateTime expiresAt = startTime.plus(holdDuration);
-        
-        while (LocalDateTime.now().isBefore(deadline)) {
-            try {
-                // Try to acquire the lock
-                Optional<TaskLock> existingLock = lockRepository.findByLockKeyForUpdate(lockKey);
-                
-                if (existingLock.isEmpty()) {
-                    // No existing lock, create new one
-                    TaskLock newLock = new TaskLock(lockKey, instanceId, expiresAt);
-                    lockRepository.save(newLock);
-                    
-                    LockHandle handle = new LockHandle(lockKey, instanceId, startTime, expiresAt, this);
+
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + waitTimeout.toNanos();
+        long recheckNanos = TimeUnit.MILLISECONDS.toNanos(recheckIntervalMs);
+
+        long ticket;
+        try {
+            ticket = localLocks.enter(lockKey, deadlineNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ticket = 0;
+        }
+        if (ticket == 0) {
+            return timedOut(lockKey, waitTimeout);
+        }
+
+        // Owners are unique per acquisition, so a late release of a stale handle can never
+        // drop a lease this instance took over afterwards.
+        String owner = instanceId + "#" + ticket;
+        boolean acquired = false;
+        try {
+            while (true) {
+                long generation = localLocks.releaseGeneration(lockKey);
+                LockProvider.Lease lease = lockProvider.tryAcquire(lockKey, owner, holdDuration);
+                long now = System.nanoTime();
+
+                if (lease.isOwnedBy(owner)) {
+                    localLocks.extend(lockKey, ticket, now + holdDuration.toNanos());
+                    acquired = true;
                     acquisitionCount.incrementAndGet();
-                    logger.debug("Successfully acquired new lock: {}", lockKey);
-                    return handle;
-                    
-                } else {
-                    TaskLock lock = existingLock.get();
-                    
-                    // Check if existing lock is expired
-                    if (lock.isExpired()) {
-                        // Take over expired lock
-                        lock.setOwnerInstance(instanceId);
-                        lock.setExpiresAt(expiresAt);
-                        lockRepository.save(lock);
-                        
-                        LockHandle handle = new LockHandle(lockKey, instanceId, startTime, expiresAt, this);
-                        acquisitionCount.incrementAndGet();
-                        logger.debug("Successfully acquired expired lock: {}", lockKey);
-                        return handle;
-                    }
-                    
-                    // Lock is held by another instance, wait briefly and retry
-                    logger.trace("Lock {} is held by {}, waiting...", lockKey, lock.getOwnerInstance());
+                    waitTimer.record(now - startNanos, TimeUnit.NANOSECONDS);
+                    logger.debug("Successfully acquired lock: {}", lockKey);
+                    return new LockHandle(lockKey, owner, LocalDateTime.now(), lease.expiresAt(), ticket, this);
                 }
-                
-                // Wait before retry
-                try {
-                    Thread.sleep(100); // 100ms
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
-                
-            } catch (DataIntegrityViolationException e) {
-                // Unique constraint violation - another thread acquired the lock
-                logger.trace("Concurrent acquisition detected for lock: {}", lockKey);
-                try {
-                    Thread.sleep(50); // Brief wait before retry
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
+
+                long remaining = deadlineNanos - now;
+                if (remaining <= 0) {
                     break;
                 }
-            } catch (Exception e) {
-                logger.error("Unexpected error acquiring lock: {}", lockKey, e);
-                failureCount.incrementAndGet();
-                break;
+                long untilExpiry = Math.max(0, Duration.between(LocalDateTime.now(), lease.expiresAt()).toNanos());
+                logger.trace("Lock {} is held by {}, waiting...", lockKey, lease.owner());
+                localLocks.awaitRelease(lockKey, generation, Math.min(remaining, Math.min(untilExpiry, recheckNanos)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Unexpected error acquiring lock: {}", lockKey, e);
+            failureCount.incrementAndGet();
+            return null;
+        } finally {
+            if (!acquired) {
+                localLocks.exit(lockKey, ticket);
             }
         }
-        
+
+        return timedOut(lockKey, waitTimeout);
+    }
+
+    private LockHandle timedOut(String lockKey, Duration waitTimeout) {
         timeoutCount.incrementAndGet();
         logger.debug("Failed to acquire lock: {} within timeout: {}", lockKey, waitTimeout);
         return null;
     }
-    
+
     @Override
     public LockHandle acquireLock(String lockKey, Duration holdDuration) {
         return acquireLock(lockKey, holdDuration, Duration.ofSeconds(maxWaitSeconds));
     }
-    
+
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public boolean releaseLock(LockHandle lockHandle) {
         if (lockHandle == null || lockHandle.isReleased()) {
             return true;
         }
-        
+
         try {
-            int deleted = lockRepository.deleteByLockKeyAndOwner(
-                lockHandle.getLockKey(), 
-                lockHandle.getOwnerInstance()
-            );
-            
-            if (deleted > 0) {
+            boolean released = lockProvider.release(lockHandle.getLockKey(), lockHandle.getOwnerInstance());
+
+            if (released) {
                 lockHandle.markReleased();
                 releaseCount.incrementAndGet();
+                holdTimer.record(System.nanoTime() - lockHandle.getAcquiredNanos(), TimeUnit.NANOSECONDS);
                 logger.debug("Successfully released lock: {}", lockHandle.getLockKey());
                 return true;
             } else {
                 logger.warn("Failed to release lock - not found or not owned: {}", lockHandle.getLockKey());
                 return false;
             }
-            
+
         } catch (Exception e) {
             logger.error("Error releasing lock: {}", lockHandle.getLockKey(), e);
             failureCount.incrementAndGet();
             return false;
+        } finally {
+            // Hand the key to the next local contender only once the lease is gone.
+            localLocks.exit(lockHandle.getLockKey(), lockHandle.getLocalTicket());
         }
     }
-    
+
     @Override
     public <T> T executeWithLock(String lockKey, Duration holdDuration, Duration waitTimeout, Callable<T> task) throws Exception {
         LockHandle lock = acquireLock(lockKey, holdDuration, waitTimeout);
         if (lock == null) {
             throw new IllegalStateException("Failed to acquire lock: " + lockKey);
         }
-        
+
         try (lock) {
             return task.call();
         }
     }
-    
+
     @Override
     public void executeWithLock(String lockKey, Duration holdDuration, Duration waitTimeout, Runnable task) {
         try {
@@ -177,64 +195,49 @@ public class DatabaseDistributedLockService implements DistributedLockService {
             throw new RuntimeException("Error executing task with lock", e);
         }
     }
-    
+
     @Override
-    @Transactional(readOnly = true)
     public boolean isLockHeld(String lockKey) {
-        return lockRepository.existsActiveLock(lockKey, LocalDateTime.now());
+        return lockProvider.isHeld(lockKey);
     }
-    
+
     @Override
-    @Transactional(readOnly = true)
     public LockInfo getLockInfo(String lockKey) {
-        Optional<TaskLock> lock = lockRepository.findByLockKey(lockKey);
-        
-        if (lock.isEmpty()) {
-            return LockInfo.notFound(lockKey);
-        }
-        
-        TaskLock taskLock = lock.get();
-        return new LockInfo(
-            taskLock.getLockKey(),
-            taskLock.getOwnerInstance(),
-            taskLock.getAcquiredAt(),
-            taskLock.getExpiresAt(),
-            taskLock.getTaskType(),
-            taskLock.getDescription(),
-            taskLock.isExpired()
-        );
+        return lockProvider.getLockInfo(lockKey);
     }
-    
+
     @Override
-    @Transactional
     public int cleanupExpiredLocks() {
-        LocalDateTime now = LocalDateTime.now();
-        int deleted = lockRepository.deleteExpiredLocks(now);
-        
+        int deleted = lockProvider.cleanupExpired();
+
         if (deleted > 0) {
             logger.info("Cleaned up {} expired locks", deleted);
         }
-        
+
         return deleted;
     }
-    
+
     @Override
     public LockStatistics getStatistics() {
-        long activeLocks = lockRepository.countActiveLocks(LocalDateTime.now());
-        
+        long activeLocks = lockProvider.countActive();
+        LockStatistics.LatencySummary holdTime = LockStatistics.LatencySummary.of(holdTimer.takeSnapshot());
+        LockStatistics.LatencySummary waitTime = LockStatistics.LatencySummary.of(waitTimer.takeSnapshot());
+
         return new LockStatistics(
             activeLocks,
             acquisitionCount.get(),
             releaseCount.get(),
             timeoutCount.get(),
             failureCount.get(),
-            0.0 // TODO: Implement average hold time calculation
+            holdTime.meanMs(),
+            holdTime,
+            waitTime
         );
     }
-    
+
     private String generateInstanceId() {
-        return "instance-" + System.currentTimeMillis() + "-" + 
-               Thread.currentThread().getId() + "-" + 
+        return "instance-" + System.currentTimeMillis() + "-" +
+               Thread.currentThread().getId() + "-" +
                System.nanoTime() % 10000;
     }
 }
@@ -0,0 +1,133 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.entity.TaskLock;
+import com.taskscheduler.repository.TaskLockRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Leases stored in {@code task_locks}. Each attempt runs in its own short transaction: the
+ * row lock from {@code SELECT ... FOR UPDATE} is held only while the lease is inspected and
+ * taken over, never while a caller waits.
+ */
+@Component
+@ConditionalOnProperty(name = "app.distributed-locks.provider", havingValue = "database", matchIfMissing = true)
+public class DatabaseLockProvider implements LockProvider {
+
+    private static final int MAX_INSERT_RACES = 3;
+
+    private final TaskLockRepository lockRepository;
+    private final LockReleaseNotifier releaseNotifier;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate cleanupTransaction;
+
+    public DatabaseLockProvider(TaskLockRepository lockRepository, LockReleaseNotifier releaseNotifier,
+                                PlatformTransactionManager transactionManager) {
+        this.lockRepository = lockRepository;
+        this.releaseNotifier = releaseNotifier;
+
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+
+        // Cleanup joins the caller's transaction, like the other bulk maintenance operations.
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Lease tryAcquire(String lockKey, String owner, Duration leaseDuration) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTransaction.execute(status -> acquireOrTakeOver(lockKey, owner, leaseDuration));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance inserted the row first; read what it holds.
+                Optional<TaskLock> current = lockRepository.findByLockKey(lockKey);
+                if (current.isPresent()) {
+                    return toLease(current.get());
+                }
+                if (attempt == MAX_INSERT_RACES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Lease acquireOrTakeOver(String lockKey, String owner, Duration leaseDuration) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(leaseDuration);
+
+        Optional<TaskLock> existing = lockRepository.findByLockKeyForUpdate(lockKey);
+        if (existing.isEmpty()) {
+            lockRepository.saveAndFlush(new TaskLock(lockKey, owner, expiresAt));
+            return new Lease(lockKey, owner, expiresAt);
+        }
+
+        TaskLock lock = existing.get();
+        if (!lock.isExpired()) {
+            return toLease(lock);
+        }
+        lock.setOwnerInstance(owner);
+        lock.setAcquiredAt(now);
+        lock.setExpiresAt(expiresAt);
+        return new Lease(lockKey, owner, expiresAt);
+    }
+
+    @Override
+    public boolean release(String lockKey, String owner) {
+        return Boolean.TRUE.equals(writeTransaction.execute(status -> {
+            if (lockRepository.deleteByLockKeyAndOwner(lockKey, owner) == 0) {
+                return false;
+            }
+            releaseNotifier.publishRelease(lockKey);
+            return true;
+        }));
+    }
+
+    @Override
+    public boolean isHeld(String lockKey) {
+        return Boolean.TRUE.equals(readTransaction.execute(status ->
+            lockRepository.existsActiveLock(lockKey, LocalDateTime.now())));
+    }
+
+    @Override
+    public LockInfo getLockInfo(String lockKey) {
+        return readTransaction.execute(status -> lockRepository.findByLockKey(lockKey)
+            .map(lock -> new LockInfo(
+                lock.getLockKey(),
+                lock.getOwnerInstance(),
+                lock.getAcquiredAt(),
+                lock.getExpiresAt(),
+                lock.getTaskType(),
+                lock.getDescription(),
+                lock.isExpired()))
+            .orElseGet(() -> LockInfo.notFound(lockKey)));
+    }
+
+    @Override
+    public int cleanupExpired() {
+        Integer deleted = cleanupTransaction.execute(status ->
+            lockRepository.deleteExpiredLocks(LocalDateTime.now()));
+        return deleted != null ? deleted : 0;
+    }
+
+    @Override
+    public long countActive() {
+        return lockRepository.countActiveLocks(LocalDateTime.now());
+    }
+
+    private static Lease toLease(TaskLock lock) {
+        return new Lease(lock.getLockKey(), lock.getOwnerInstance(), lock.getExpiresAt());
+    }
+}
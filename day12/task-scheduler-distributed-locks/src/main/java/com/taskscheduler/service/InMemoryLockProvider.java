@@ -0,0 +1,84 @@
+package com.taskscheduler.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Leases kept in this JVM only, for a single instance or for tests. Every operation is one
+ * atomic update of the key's map entry.
+ */
+@Component
+@ConditionalOnProperty(name = "app.distributed-locks.provider", havingValue = "in-memory")
+public class InMemoryLockProvider implements LockProvider {
+
+    private final ConcurrentMap<String, Entry> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public Lease tryAcquire(String lockKey, String owner, Duration leaseDuration) {
+        Entry entry = leases.compute(lockKey, (key, current) -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (current != null && now.isBefore(current.expiresAt)) {
+                return current;
+            }
+            return new Entry(owner, now, now.plus(leaseDuration));
+        });
+        return new Lease(lockKey, entry.owner, entry.expiresAt);
+    }
+
+    @Override
+    public boolean release(String lockKey, String owner) {
+        boolean[] released = new boolean[1];
+        leases.computeIfPresent(lockKey, (key, current) -> {
+            if (!current.owner.equals(owner)) {
+                return current;
+            }
+            released[0] = true;
+            return null;
+        });
+        return released[0];
+    }
+
+    @Override
+    public boolean isHeld(String lockKey) {
+        Entry entry = leases.get(lockKey);
+        return entry != null && !entry.isExpired();
+    }
+
+    @Override
+    public LockInfo getLockInfo(String lockKey) {
+        Entry entry = leases.get(lockKey);
+        if (entry == null) {
+            return LockInfo.notFound(lockKey);
+        }
+        return new LockInfo(lockKey, entry.owner, entry.acquiredAt, entry.expiresAt, null, null, entry.isExpired());
+    }
+
+    @Override
+    public int cleanupExpired() {
+        int removed = 0;
+        for (var lease : leases.entrySet()) {
+            // Conditional remove, so a lease taken over since it was read is kept.
+            if (lease.getValue().isExpired() && leases.remove(lease.getKey(), lease.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public long countActive() {
+        return leases.values().stream().filter(entry -> !entry.isExpired()).count();
+    }
+
+    private record Entry(String owner, LocalDateTime acquiredAt, LocalDateTime expiresAt) {
+
+        boolean isExpired() {
+            return LocalDateTime.now().isAfter(expiresAt);
+        }
+    }
+}
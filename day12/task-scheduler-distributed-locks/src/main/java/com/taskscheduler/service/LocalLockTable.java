@@ -0,0 +1,154 @@
+package com.taskscheduler.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Same-JVM side of the distributed locks. A thread first claims the key here, so at most one
+ * thread per JVM talks to the {@link LockProvider} for a key and the others park on a local
+ * condition until the claim is given up. Threads waiting for a lease held elsewhere park on the
+ * same condition and are woken by {@link #signalRelease}.
+ *
+ * <p>Keys hash onto a fixed number of stripes; each stripe has its own lock, condition, claim
+ * map and release generation.
+ */
+@Component
+public class LocalLockTable {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicLong tickets = new AtomicLong();
+
+    public LocalLockTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Waits until no other thread in this JVM holds or is acquiring {@code lockKey}.
+     * @return a ticket identifying the claim, or 0 if the deadline passed first
+     */
+    public long enter(String lockKey, long deadlineNanos) throws InterruptedException {
+        Stripe stripe = stripeFor(lockKey);
+        stripe.lock.lock();
+        try {
+            while (true) {
+                Claim claim = stripe.claims.get(lockKey);
+                long now = System.nanoTime();
+                if (claim == null || now - claim.expiresAtNanos >= 0) {
+                    long ticket = tickets.incrementAndGet();
+                    // An acquiring claim never expires; extend() bounds it once a lease is held.
+                    stripe.claims.put(lockKey, new Claim(ticket, Long.MAX_VALUE));
+                    return ticket;
+                }
+                long remaining = deadlineNanos - now;
+                if (remaining <= 0) {
+                    return 0;
+                }
+                stripe.changed.awaitNanos(Math.min(remaining, claim.expiresAtNanos - now));
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Bounds a claim by its lease, so a handle that is never released stops blocking local
+     * contenders once the lease runs out.
+     */
+    public void extend(String lockKey, long ticket, long expiresAtNanos) {
+        Stripe stripe = stripeFor(lockKey);
+        stripe.lock.lock();
+        try {
+            Claim claim = stripe.claims.get(lockKey);
+            if (claim != null && claim.ticket == ticket) {
+                stripe.claims.put(lockKey, new Claim(ticket, expiresAtNanos));
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void exit(String lockKey, long ticket) {
+        Stripe stripe = stripeFor(lockKey);
+        stripe.lock.lock();
+        try {
+            Claim claim = stripe.claims.get(lockKey);
+            if (claim != null && claim.ticket == ticket) {
+                stripe.claims.remove(lockKey);
+                stripe.changed.signalAll();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Read before a provider attempt and passed to {@link #awaitRelease}, so a release that
+     * lands between the attempt and the wait is not missed.
+     */
+    public long releaseGeneration(String lockKey) {
+        Stripe stripe = stripeFor(lockKey);
+        stripe.lock.lock();
+        try {
+            return stripe.releaseGeneration;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Parks until a release is signalled on the key's stripe or the timeout passes.
+     * @return true if a release was signalled since {@code generation} was read
+     */
+    public boolean awaitRelease(String lockKey, long generation, long timeoutNanos) throws InterruptedException {
+        Stripe stripe = stripeFor(lockKey);
+        stripe.lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (stripe.releaseGeneration == generation && remaining > 0) {
+                remaining = stripe.changed.awaitNanos(remaining);
+            }
+            return stripe.releaseGeneration != generation;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes threads waiting for a lease on {@code lockKey} that was released by another
+     * instance.
+     */
+    public void signalRelease(String lockKey) {
+        Stripe stripe = stripeFor(lockKey);
+        stripe.lock.lock();
+        try {
+            stripe.releaseGeneration++;
+            stripe.changed.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String lockKey) {
+        int h = lockKey.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final Map<String, Claim> claims = new HashMap<>();
+        private long releaseGeneration;
+    }
+
+    private record Claim(long ticket, long expiresAtNanos) {
+    }
+}
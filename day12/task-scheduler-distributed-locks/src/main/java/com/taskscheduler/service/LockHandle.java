@@ -12,15 +12,19 @@ public class LockHandle implements AutoCloseable {
     private final String ownerInstance;
     private final LocalDateTime acquiredAt;
     private final LocalDateTime expiresAt;
+    private final long localTicket;
+    private final long acquiredNanos;
     private final DistributedLockService lockService;
     private volatile boolean released = false;
     
     public LockHandle(String lockKey, String ownerInstance, LocalDateTime acquiredAt, 
-                     LocalDateTime expiresAt, DistributedLockService lockService) {
+                     LocalDateTime expiresAt, long localTicket, DistributedLockService lockService) {
         this.lockKey = lockKey;
         this.ownerInstance = ownerInstance;
         this.acquiredAt = acquiredAt;
         this.expiresAt = expiresAt;
+        this.localTicket = localTicket;
+        this.acquiredNanos = System.nanoTime();
         this.lockService = lockService;
     }
     
@@ -47,6 +51,10 @@ public class LockHandle implements AutoCloseable {
         release();
     }
     
+    long getLocalTicket() { return localTicket; }
+    
+    long getAcquiredNanos() { return acquiredNanos; }
+    
     void markReleased() {
         this.released = true;
     }
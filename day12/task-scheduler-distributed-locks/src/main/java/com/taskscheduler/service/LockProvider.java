@@ -0,0 +1,39 @@
+package com.taskscheduler.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Lease store behind {@link DistributedLockService}. Every call is a single short attempt;
+ * waiting, same-JVM exclusion and statistics are handled by the service, so a provider never
+ * holds a connection or a row lock while a caller waits.
+ */
+public interface LockProvider {
+
+    /**
+     * Takes the lease for {@code owner} if the key is free or its lease has expired.
+     * @return the lease now in force for the key, which belongs to another owner if the
+     *         attempt failed
+     */
+    Lease tryAcquire(String lockKey, String owner, Duration leaseDuration);
+
+    /**
+     * Drops the lease if it is still held by {@code owner}.
+     */
+    boolean release(String lockKey, String owner);
+
+    boolean isHeld(String lockKey);
+
+    LockInfo getLockInfo(String lockKey);
+
+    int cleanupExpired();
+
+    long countActive();
+
+    record Lease(String lockKey, String owner, LocalDateTime expiresAt) {
+
+        public boolean isOwnedBy(String instanceId) {
+            return owner.equals(instanceId);
+        }
+    }
+}
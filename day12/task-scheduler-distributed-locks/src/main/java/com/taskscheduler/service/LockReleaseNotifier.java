@@ -0,0 +1,12 @@
+package com.taskscheduler.service;
+
+/**
+ * Tells other instances that a lease was released, so their waiters retry at once instead of
+ * at the next recheck. Called inside the release transaction.
+ */
+public interface LockReleaseNotifier {
+
+    LockReleaseNotifier NONE = lockKey -> { };
+
+    void publishRelease(String lockKey);
+}
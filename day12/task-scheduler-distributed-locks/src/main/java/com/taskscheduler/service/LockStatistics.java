@@ -1,10 +1,41 @@
 package com.taskscheduler.service;
 
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.concurrent.TimeUnit;
+
 public record LockStatistics(
     long totalActiveLocks,
     long totalAcquisitions,
     long totalReleases,
     long totalTimeouts,
     long totalFailures,
-    double averageHoldTimeMs
-) {}
+    double averageHoldTimeMs,
+    LatencySummary holdTime,
+    LatencySummary waitTime
+) {
+
+    /**
+     * Distribution of one lock latency in milliseconds. Percentiles and max cover the recent
+     * histogram window; count and mean cover the lifetime of the instance.
+     */
+    public record LatencySummary(long count, double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        static LatencySummary of(HistogramSnapshot snapshot) {
+            double p50 = 0, p95 = 0, p99 = 0;
+            for (ValueAtPercentile value : snapshot.percentileValues()) {
+                double ms = value.value(TimeUnit.MILLISECONDS);
+                if (value.percentile() == 0.5) {
+                    p50 = ms;
+                } else if (value.percentile() == 0.95) {
+                    p95 = ms;
+                } else if (value.percentile() == 0.99) {
+                    p99 = ms;
+                }
+            }
+            return new LatencySummary(snapshot.count(), snapshot.mean(TimeUnit.MILLISECONDS),
+                p50, p95, p99, snapshot.max(TimeUnit.MILLISECONDS));
+        }
+    }
+}
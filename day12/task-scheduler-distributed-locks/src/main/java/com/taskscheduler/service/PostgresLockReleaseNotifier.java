@@ -0,0 +1,106 @@
+package com.taskscheduler.service;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Lease release notifications over PostgreSQL LISTEN/NOTIFY. Releases issue
+ * {@code pg_notify(channel, lockKey)} inside the release transaction, so the notification is only
+ * delivered once the row is gone; a listener thread holds one connection on the channel and
+ * wakes local waiters for the key.
+ */
+public class PostgresLockReleaseNotifier implements LockReleaseNotifier, SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresLockReleaseNotifier.class);
+
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalLockTable localLocks;
+    private final String channel;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresLockReleaseNotifier(DataSource dataSource, LocalLockTable localLocks, String channel) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.localLocks = localLocks;
+        this.channel = channel;
+    }
+
+    @Override
+    public void publishRelease(String lockKey) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, lockKey);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().name("lock-release-listener").daemon(true).start(this::listen);
+        logger.info("Listening for lock releases on channel {}", channel);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        localLocks.signalRelease(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Lock release listener lost its connection, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
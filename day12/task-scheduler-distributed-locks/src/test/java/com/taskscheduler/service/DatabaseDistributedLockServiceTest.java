@@ -68,8 +68,8 @@ class DatabaseDistributedLockServiceTest {
                     LockHandle handle = lockService.acquireLock(lockKey, holdDuration, waitTimeout);
                     if (handle != null) {
                         successCount.incrementAndGet();
-                        // Simulate work
-                        Thread.sleep(100);
+                        // Simulate work that outlasts the other threads' wait timeout
+                        Thread.sleep(1500);
                         handle.release();
                     } else {
                         failureCount.incrementAndGet();
@@ -90,6 +90,84 @@ class DatabaseDistributedLockServiceTest {
         assertEquals(threadCount - 1, failureCount.get());
     }
     
+    @Test
+    void shouldHandLockToWaitersAsSoonAsItIsReleased() throws InterruptedException {
+        String lockKey = "hand-off-lock";
+        Duration holdDuration = Duration.ofSeconds(5);
+        Duration waitTimeout = Duration.ofSeconds(5);
+        
+        int threadCount = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger holders = new AtomicInteger(0);
+        AtomicInteger maxHolders = new AtomicInteger(0);
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < threadCount; i++) {
+            executor.submit(() -> {
+                try {
+                    LockHandle handle = lockService.acquireLock(lockKey, holdDuration, waitTimeout);
+                    if (handle != null) {
+                        maxHolders.accumulateAndGet(holders.incrementAndGet(), Math::max);
+                        Thread.sleep(100);
+                        holders.decrementAndGet();
+                        if (handle.release()) {
+                            successCount.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        
+        latch.await();
+        executor.shutdown();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        
+        // Every waiter gets the lock in turn, one holder at a time, without sleep-polling
+        assertEquals(threadCount, successCount.get());
+        assertEquals(1, maxHolders.get());
+        assertTrue(elapsedMs < 2000, "hand-off took " + elapsedMs + " ms");
+        assertFalse(lockService.isLockHeld(lockKey));
+    }
+    
+    @Test
+    void shouldTakeOverLeaseOfHandleThatWasNeverReleased() {
+        String lockKey = "leaked-lock";
+        
+        LockHandle leaked = lockService.acquireLock(lockKey, Duration.ofMillis(300), Duration.ofSeconds(1));
+        assertNotNull(leaked);
+        
+        LockHandle next = lockService.acquireLock(lockKey, Duration.ofMinutes(1), Duration.ofSeconds(3));
+        assertNotNull(next);
+        assertNotEquals(leaked.getOwnerInstance(), next.getOwnerInstance());
+        
+        // The stale handle must not drop the lease that replaced it
+        assertFalse(leaked.release());
+        assertTrue(lockService.isLockHeld(lockKey));
+        assertTrue(next.release());
+    }
+    
+    @Test
+    void shouldRecordHoldAndWaitTimes() throws InterruptedException {
+        LockStatistics before = lockService.getStatistics();
+        
+        LockHandle handle = lockService.acquireLock("timed-lock", Duration.ofMinutes(1), Duration.ofSeconds(1));
+        assertNotNull(handle);
+        Thread.sleep(50);
+        assertTrue(handle.release());
+        
+        LockStatistics after = lockService.getStatistics();
+        assertEquals(before.holdTime().count() + 1, after.holdTime().count());
+        assertEquals(before.waitTime().count() + 1, after.waitTime().count());
+        assertTrue(after.holdTime().maxMs() >= 50, "max hold " + after.holdTime().maxMs());
+        assertTrue(after.averageHoldTimeMs() > 0);
+    }
+    
     @Test
     void shouldExecuteWithLockAutoManagement() throws Exception {
         String lockKey = "auto-managed-lock";
@@ -0,0 +1,130 @@
+package com.scheduler.repository;
+
+import com.scheduler.entity.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Claims a batch of due tasks in one short transaction. Up to N claimable rows are locked
+ * with {@code FOR UPDATE SKIP LOCKED}, so concurrent processors each get a disjoint batch
+ * instead of racing for the same rows, and the claimed rows come back with their new version.
+ */
+@Repository
+public class TaskClaimRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskClaimRepository.class);
+
+    private static final String CLAIMABLE =
+        "status IN ('PENDING', 'RETRYING') AND scheduled_time <= ? AND retry_count < max_retries";
+
+    private static final String POSTGRESQL_CLAIM =
+        "UPDATE tasks SET status = 'RUNNING', processor_id = ?, started_at = ?, updated_at = ?, " +
+        "version = version + 1 " +
+        "WHERE id IN (" +
+        "SELECT id FROM tasks WHERE " + CLAIMABLE + " " +
+        "ORDER BY scheduled_time ASC LIMIT ? " +
+        "FOR UPDATE SKIP LOCKED) " +
+        "RETURNING *";
+
+    // H2 locks every matching row before it sorts, so an ORDER BY would let the first claimer
+    // lock the whole backlog; without one it walks the status/scheduled_time index and stops
+    // after LIMIT rows. H2 also has no UPDATE ... RETURNING and does not skip correctly when the
+    // locking select is nested in the update, so it locks first and updates the ids it got.
+    private static final String H2_LOCK =
+        "SELECT id FROM tasks WHERE " + CLAIMABLE + " LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String H2_CLAIM =
+        "SELECT * FROM FINAL TABLE (" +
+        "UPDATE tasks SET status = 'RUNNING', processor_id = ?, started_at = ?, updated_at = ?, " +
+        "version = version + 1 " +
+        "WHERE id = ANY(?))";
+
+    enum Dialect {
+        H2, POSTGRESQL
+    }
+
+    private static final RowMapper<Task> TASK_ROW_MAPPER = TaskClaimRepository::mapTask;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    public TaskClaimRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = resolveDialect(dataSource);
+        logger.info("Batch task claims use the {} dialect", dialect);
+    }
+
+    /**
+     * Moves up to {@code limit} due tasks to RUNNING for {@code processorId}. Rows locked by
+     * another processor's claim are skipped rather than waited on.
+     */
+    @Transactional
+    public List<Task> claimBatch(String processorId, LocalDateTime now, int limit) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        if (dialect == Dialect.POSTGRESQL) {
+            return jdbcTemplate.query(POSTGRESQL_CLAIM, TASK_ROW_MAPPER,
+                processorId, timestamp, timestamp, timestamp, limit);
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(H2_LOCK, Long.class, timestamp, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(H2_CLAIM, TASK_ROW_MAPPER,
+            processorId, timestamp, timestamp, ids.toArray(new Long[0]));
+    }
+
+    private static Dialect resolveDialect(DataSource dataSource) {
+        String productName;
+        try {
+            productName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not determine database product for task claims", e);
+        }
+        String product = JdbcUtils.commonDatabaseName(productName);
+        if ("H2".equalsIgnoreCase(product)) {
+            return Dialect.H2;
+        }
+        if ("PostgreSQL".equalsIgnoreCase(product)) {
+            return Dialect.POSTGRESQL;
+        }
+        throw new IllegalStateException("SKIP LOCKED task claims are not supported on " + productName);
+    }
+
+    private static Task mapTask(ResultSet rs, int rowNum) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getLong("id"));
+        task.setName(rs.getString("name"));
+        task.setDescription(rs.getString("description"));
+        task.setStatus(Task.TaskStatus.valueOf(rs.getString("status")));
+        task.setScheduledTime(toLocalDateTime(rs.getTimestamp("scheduled_time")));
+        task.setStartedAt(toLocalDateTime(rs.getTimestamp("started_at")));
+        task.setCompletedAt(toLocalDateTime(rs.getTimestamp("completed_at")));
+        task.setProcessorId(rs.getString("processor_id"));
+        task.setErrorMessage(rs.getString("error_message"));
+        task.setRetryCount(rs.getInt("retry_count"));
+        task.setMaxRetries(rs.getInt("max_retries"));
+        task.setVersion(rs.getLong("version"));
+        task.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        task.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return task;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
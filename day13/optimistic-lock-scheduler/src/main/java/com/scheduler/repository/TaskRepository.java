@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,6 +26,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     // Optimistic lock-aware update for claiming a task
     @Modifying
+    @Transactional
     @Query("UPDATE Task t SET " +
            "t.status = 'RUNNING', " +
            "t.processorId = :processorId, " +
@@ -41,6 +43,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     // Update task to completed status
     @Modifying
+    @Transactional
     @Query("UPDATE Task t SET " +
            "t.status = 'COMPLETED', " +
            "t.completedAt = :completedAt, " +
@@ -56,6 +59,7 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     // Update task to failed status
     @Modifying
+    @Transactional
     @Query("UPDATE Task t SET " +
            "t.status = :status, " +
            "t.errorMessage = :errorMessage, " +
@@ -12,6 +12,7 @@ public class MetricsService {
     private final Counter tasksFailedCounter;
     private final Counter optimisticLockConflictsCounter;
     private final Counter optimisticLockSuccessCounter;
+    private final Counter tasksClaimedCounter;
     private final Timer taskProcessingTimer;
     
     public MetricsService(MeterRegistry meterRegistry) {
@@ -31,6 +32,10 @@ public class MetricsService {
                 .description("Total number of successful optimistic lock acquisitions")
                 .register(meterRegistry);
                 
+        this.tasksClaimedCounter = Counter.builder("tasks.claimed.total")
+                .description("Total number of tasks claimed for processing")
+                .register(meterRegistry);
+                
         this.taskProcessingTimer = Timer.builder("task.processing.duration")
                 .description("Time taken to process tasks")
                 .register(meterRegistry);
@@ -52,6 +57,10 @@ public class MetricsService {
         optimisticLockSuccessCounter.increment();
     }
     
+    public void incrementTasksClaimed(int count) {
+        tasksClaimedCounter.increment(count);
+    }
+    
     public Timer.Sample startProcessingTimer() {
         return Timer.start();
     }
@@ -2,10 +2,12 @@ package com.scheduler.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 @Component
+@Profile("!benchmark")
 public class ScheduledTaskProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTaskProcessor.class);
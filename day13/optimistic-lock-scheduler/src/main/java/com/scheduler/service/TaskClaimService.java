@@ -0,0 +1,126 @@
+package com.scheduler.service;
+
+import com.scheduler.entity.Task;
+import com.scheduler.repository.TaskClaimRepository;
+import com.scheduler.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Moves due tasks to RUNNING for a processor. Each claim commits on its own, so task
+ * execution never holds the claim transaction open.
+ */
+@Service
+public class TaskClaimService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskClaimService.class);
+
+    public enum Strategy {
+        /** One {@code UPDATE ... FOR UPDATE SKIP LOCKED} statement claims the whole batch. */
+        SKIP_LOCKED,
+        /** Reads candidates, then claims them one by one with a version check and backoff. */
+        OPTIMISTIC
+    }
+
+    public record ClaimResult(List<Task> claimed, int attempts, int conflicts) {
+    }
+
+    private final TaskRepository taskRepository;
+    private final TaskClaimRepository taskClaimRepository;
+    private final MetricsService metricsService;
+
+    @Value("${scheduler.task.processor.retry.max-attempts:3}")
+    private int maxRetryAttempts;
+
+    @Value("${scheduler.task.processor.retry.delay-ms:100}")
+    private long baseDelayMs;
+
+    @Value("${scheduler.task.processor.retry.multiplier:2.0}")
+    private double delayMultiplier;
+
+    public TaskClaimService(TaskRepository taskRepository, TaskClaimRepository taskClaimRepository,
+                            MetricsService metricsService) {
+        this.taskRepository = taskRepository;
+        this.taskClaimRepository = taskClaimRepository;
+        this.metricsService = metricsService;
+    }
+
+    public ClaimResult claim(Strategy strategy, String processorId, int batchSize) {
+        return strategy == Strategy.SKIP_LOCKED
+            ? claimSkipLocked(processorId, batchSize)
+            : claimOptimistically(processorId, batchSize);
+    }
+
+    public ClaimResult claimSkipLocked(String processorId, int batchSize) {
+        List<Task> claimed = taskClaimRepository.claimBatch(processorId, LocalDateTime.now(), batchSize);
+        metricsService.incrementTasksClaimed(claimed.size());
+        logger.debug("Processor {} claimed {} tasks with SKIP LOCKED", processorId, claimed.size());
+        return new ClaimResult(claimed, 1, 0);
+    }
+
+    public ClaimResult claimOptimistically(String processorId, int batchSize) {
+        List<Task> candidates = taskRepository.findAvailableTasksForProcessing(
+            LocalDateTime.now(), PageRequest.of(0, batchSize));
+
+        List<Task> claimed = new ArrayList<>(candidates.size());
+        int attempts = 0;
+        int conflicts = 0;
+
+        for (Task candidate : candidates) {
+            Task current = candidate;
+            for (int attempt = 1; attempt <= maxRetryAttempts; attempt++) {
+                attempts++;
+                LocalDateTime now = LocalDateTime.now();
+                int updatedRows = taskRepository.claimTaskOptimistically(
+                    current.getId(), current.getVersion(), processorId, now, now);
+
+                if (updatedRows == 1) {
+                    current.markAsRunning(processorId);
+                    current.setVersion(current.getVersion() + 1);
+                    claimed.add(current);
+                    metricsService.incrementOptimisticLockSuccess();
+                    break;
+                }
+
+                conflicts++;
+                metricsService.incrementOptimisticLockConflicts();
+                logger.debug("Failed to claim task {} on attempt {}/{} - version conflict or status changed",
+                           current.getId(), attempt, maxRetryAttempts);
+                if (attempt == maxRetryAttempts) {
+                    break;
+                }
+
+                Optional<Task> refreshed = backOffAndRefresh(current.getId(), attempt);
+                if (refreshed.isEmpty()) {
+                    break;
+                }
+                current = refreshed.get();
+            }
+        }
+
+        metricsService.incrementTasksClaimed(claimed.size());
+        return new ClaimResult(claimed, attempts, conflicts);
+    }
+
+    private Optional<Task> backOffAndRefresh(Long taskId, int attempt) {
+        // Exponential backoff with jitter
+        long delay = (long) (baseDelayMs * Math.pow(delayMultiplier, attempt - 1));
+        delay += ThreadLocalRandom.current().nextLong(0, Math.max(1, delay / 2));
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+        return taskRepository.findById(taskId);
+    }
+}
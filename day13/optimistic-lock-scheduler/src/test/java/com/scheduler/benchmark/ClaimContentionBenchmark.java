@@ -0,0 +1,152 @@
+package com.scheduler.benchmark;
+
+import com.scheduler.entity.Task;
+import com.scheduler.service.TaskClaimService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Claim-only contention benchmark: {@code nodes} simulated processors, each with its own
+ * processor id and thread, drain the same backlog of due tasks with one claim strategy at a
+ * time. Task execution is left out so the numbers reflect claiming alone.
+ *
+ * <p>Lives with the tests so it stays out of the application jar. Run it on the test classpath
+ * with {@code mvn spring-boot:test-run -Dspring-boot.run.profiles=benchmark}.
+ */
+@Component
+@Profile("benchmark")
+public class ClaimContentionBenchmark implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClaimContentionBenchmark.class);
+
+    private final TaskClaimService taskClaimService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.claim.nodes:8}")
+    private int nodes;
+
+    @Value("${benchmark.claim.tasks:2000}")
+    private int taskCount;
+
+    @Value("${benchmark.claim.batch-size:10}")
+    private int batchSize;
+
+    public ClaimContentionBenchmark(TaskClaimService taskClaimService, JdbcTemplate jdbcTemplate) {
+        this.taskClaimService = taskClaimService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (TaskClaimService.Strategy strategy : TaskClaimService.Strategy.values()) {
+            results.add(runStrategy(strategy));
+        }
+
+        StringBuilder report = new StringBuilder(String.format(
+            "%nClaim contention: %d nodes, %d tasks, batch size %d%n", nodes, taskCount, batchSize));
+        report.append(String.format("%-12s %10s %12s %10s %10s %14s %11s%n",
+            "strategy", "claimed", "claims/s", "attempts", "conflicts", "conflict rate", "duplicates"));
+        for (Result result : results) {
+            report.append(String.format("%-12s %10d %12.0f %10d %10d %13.1f%% %11d%n",
+                result.strategy, result.claimed, result.claimsPerSecond(), result.attempts,
+                result.conflicts, result.conflictRate() * 100, result.duplicates));
+        }
+        logger.info(report.toString());
+    }
+
+    private Result runStrategy(TaskClaimService.Strategy strategy) throws InterruptedException {
+        seedTasks();
+
+        Map<Long, String> owners = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        AtomicLong attempts = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(nodes);
+
+        for (int node = 0; node < nodes; node++) {
+            String processorId = "bench-node-" + node;
+            threads.add(Thread.ofPlatform().name(processorId).start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // A node stops only once nothing claimable is left, not on its first empty batch.
+                while (owners.size() < taskCount && remainingTasks() > 0) {
+                    TaskClaimService.ClaimResult result = taskClaimService.claim(strategy, processorId, batchSize);
+                    attempts.addAndGet(result.attempts());
+                    conflicts.addAndGet(result.conflicts());
+                    for (Task task : result.claimed()) {
+                        if (owners.putIfAbsent(task.getId(), processorId) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        Integer running = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tasks WHERE status = 'RUNNING'", Integer.class);
+        if (running == null || running != owners.size()) {
+            logger.warn("{}: {} rows are RUNNING but {} claims were returned", strategy, running, owners.size());
+        }
+
+        return new Result(strategy, owners.size(), elapsedNanos, attempts.get(), conflicts.get(), duplicates.get());
+    }
+
+    private void seedTasks() {
+        jdbcTemplate.update("DELETE FROM tasks");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp due = Timestamp.valueOf(LocalDateTime.now().minusMinutes(1));
+        List<Object[]> rows = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            rows.add(new Object[]{"bench-" + i, due, now, now});
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO tasks (name, status, scheduled_time, retry_count, max_retries, version, created_at, updated_at) " +
+            "VALUES (?, 'PENDING', ?, 0, 3, 0, ?, ?)", rows);
+    }
+
+    private int remainingTasks() {
+        Integer remaining = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tasks WHERE status IN ('PENDING', 'RETRYING')", Integer.class);
+        return remaining != null ? remaining : 0;
+    }
+
+    private record Result(TaskClaimService.Strategy strategy, int claimed, long elapsedNanos,
+                          long attempts, long conflicts, int duplicates) {
+
+        double claimsPerSecond() {
+            return claimed / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double conflictRate() {
+            return attempts == 0 ? 0 : (double) conflicts / attempts;
+        }
+    }
+}
@@ -41,7 +41,10 @@ public class TaskController {
     @GetMapping("/api/stats")
     @ResponseBody
     public Map<String, Object> getStats() {
-        return taskService.getSystemStats();
+        Map<String, Object> stats = taskService.getSystemStats();
+        stats.put("executorSlots", executorService.getSlots());
+        stats.put("executorRunningTasks", executorService.getRunningTaskCount());
+        return stats;
     }
     
     @GetMapping("/api/running-tasks")
@@ -1,6 +1,7 @@
 package com.taskscheduler.repository;
 
 import com.taskscheduler.model.Task;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,6 +13,9 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT t FROM Task t WHERE t.status = 'PENDING' ORDER BY t.createdAt ASC")
     List<Task> findPendingTasks();
     
+    @Query("SELECT t FROM Task t WHERE t.status = 'PENDING' ORDER BY t.createdAt ASC")
+    List<Task> findPendingTasks(Pageable pageable);
+    
     @Query("SELECT t FROM Task t WHERE t.status = 'RUNNING' ORDER BY t.startedAt DESC")
     List<Task> findRunningTasks();
     
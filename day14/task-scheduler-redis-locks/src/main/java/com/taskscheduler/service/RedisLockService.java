@@ -1,11 +1,18 @@
 package com.taskscheduler.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 @Service
 public class RedisLockService {
@@ -22,6 +29,12 @@ public class RedisLockService {
         "return redis.call('del', KEYS[1]) " +
         "else return 0 end";
     
+    // Lua script for atomic lock renewal
+    private static final String REFRESH_SCRIPT = 
+        "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+        "return redis.call('pexpire', KEYS[1], ARGV[2]) " +
+        "else return 0 end";
+    
     public boolean acquireLock(String taskId, String executorId) {
         return acquireLock(taskId, executorId, DEFAULT_LOCK_TIMEOUT);
     }
@@ -32,15 +45,62 @@ public class RedisLockService {
         return Boolean.TRUE.equals(result);
     }
     
+    /**
+     * Tries to lock every task in one pipelined round trip of {@code SET NX PX} commands.
+     * @return the ids whose lock was acquired, in the order given
+     */
+    public List<String> acquireLocks(List<String> taskIds, String executorId, Duration timeout) {
+        if (taskIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        byte[] owner = bytes(executorId);
+        Expiration expiration = Expiration.from(timeout);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String taskId : taskIds) {
+                connection.stringCommands().set(bytes(LOCK_PREFIX + taskId), owner, expiration, SetOption.SET_IF_ABSENT);
+            }
+            return null;
+        });
+        
+        List<String> acquired = new ArrayList<>();
+        for (int i = 0; i < taskIds.size(); i++) {
+            if (Boolean.TRUE.equals(results.get(i))) {
+                acquired.add(taskIds.get(i));
+            }
+        }
+        return acquired;
+    }
+    
     public boolean refreshLock(String taskId, String executorId, Duration timeout) {
-        String lockKey = LOCK_PREFIX + taskId;
-        String currentOwner = redisTemplate.opsForValue().get(lockKey);
+        return refreshLocks(List.of(taskId), executorId, timeout).isEmpty();
+    }
+    
+    /**
+     * Resets the TTL of every lock still owned by {@code executorId} in one pipelined round
+     * trip; the owner check and the expire run atomically per key.
+     * @return the ids whose lock is no longer owned by {@code executorId}
+     */
+    public List<String> refreshLocks(List<String> taskIds, String executorId, Duration timeout) {
+        if (taskIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        byte[] script = bytes(REFRESH_SCRIPT);
+        byte[] owner = bytes(executorId);
+        byte[] ttl = bytes(String.valueOf(timeout.toMillis()));
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String taskId : taskIds) {
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1, bytes(LOCK_PREFIX + taskId), owner, ttl);
+            }
+            return null;
+        });
         
-        if (executorId.equals(currentOwner)) {
-            redisTemplate.expire(lockKey, timeout);
-            return true;
+        List<String> lost = new ArrayList<>();
+        for (int i = 0; i < taskIds.size(); i++) {
+            if (!Long.valueOf(1L).equals(results.get(i))) {
+                lost.add(taskIds.get(i));
+            }
         }
-        return false;
+        return lost;
     }
     
     public boolean releaseLock(String taskId, String executorId) {
@@ -59,4 +119,8 @@ public class RedisLockService {
         String lockKey = LOCK_PREFIX + taskId;
         return redisTemplate.opsForValue().get(lockKey);
     }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
 }
@@ -2,83 +2,202 @@ package com.taskscheduler.service;
 
 import com.taskscheduler.model.Task;
 import com.taskscheduler.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Runs up to {@code task.executor.slots} tasks at once. Each poll claims as many pending tasks
+ * as there are free slots with pipelined {@code SET NX} calls, and the locks of running tasks
+ * are renewed together in one batch, so a lock only has to outlive the renewal interval rather
+ * than the task.
+ */
 @Service
 public class TaskExecutorService {
-    
+
+    // Pending tasks read per free slot, so losing a few races to other executors still fills the slots
+    private static final int CANDIDATES_PER_SLOT = 4;
+
     @Autowired
     private TaskRepository taskRepository;
-    
+
     @Autowired
     private RedisLockService lockService;
-    
+
+    @Value("${task.executor.slots:4}")
+    private int slots;
+
+    @Value("${task.executor.lock-ttl-ms:15000}")
+    private long lockTtlMs;
+
     private final String executorId = "executor-" + UUID.randomUUID().toString().substring(0, 8);
-    
+    private final Map<String, Task> heldTasks = new ConcurrentHashMap<>();
+    private Semaphore freeSlots;
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void start() {
+        freeSlots = new Semaphore(slots);
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(executorId + "-", 0).factory());
+    }
+
     @Scheduled(fixedDelay = 2000) // Poll every 2 seconds
     public void pollAndExecuteTasks() {
-        List<Task> pendingTasks = taskRepository.findPendingTasks();
-        
-        for (Task task : pendingTasks) {
-            if (tryExecuteTask(task)) {
-                break; // Execute one task at a time per executor
+        // Only the poller takes slots, running tasks give them back as they finish
+        int claimable = freeSlots.drainPermits();
+        if (claimable == 0) {
+            return;
+        }
+
+        int started = 0;
+        try {
+            List<Task> candidates = taskRepository.findPendingTasks(PageRequest.of(0, claimable * CANDIDATES_PER_SLOT));
+            int next = 0;
+            while (started < claimable && next < candidates.size()) {
+                List<Task> round = candidates.subList(next, Math.min(candidates.size(), next + claimable - started));
+                next += round.size();
+                started += claim(round);
             }
+        } finally {
+            freeSlots.release(claimable - started);
         }
     }
-    
-    private boolean tryExecuteTask(Task task) {
-        String taskId = task.getId().toString();
-        
-        // Try to acquire lock
-        if (lockService.acquireLock(taskId, executorId)) {
+
+    private int claim(List<Task> tasks) {
+        Map<String, Task> byId = new HashMap<>();
+        for (Task task : tasks) {
+            byId.put(task.getId().toString(), task);
+        }
+
+        int started = 0;
+        for (String taskId : lockService.acquireLocks(new ArrayList<>(byId.keySet()), executorId, lockTtl())) {
             System.out.println("🔒 Executor " + executorId + " acquired lock for task " + taskId);
-            
+            if (startTask(byId.get(taskId))) {
+                started++;
+            }
+        }
+        return started;
+    }
+
+    private boolean startTask(Task task) {
+        String taskId = task.getId().toString();
+        try {
             // Update task status to RUNNING
             task.setStatus("RUNNING");
             task.setStartedAt(LocalDateTime.now());
             task.setExecutorId(executorId);
             taskRepository.save(task);
-            
-            // Execute task asynchronously
-            CompletableFuture.runAsync(() -> executeTaskAsync(task));
-            return true;
+        } catch (Exception e) {
+            System.err.println("❌ Could not start task " + taskId + ": " + e.getMessage());
+            lockService.releaseLock(taskId, executorId);
+            return false;
         }
-        return false;
+
+        heldTasks.put(taskId, task);
+        executor.submit(() -> executeTaskAsync(task));
+        return true;
     }
-    
+
     private void executeTaskAsync(Task task) {
+        String taskId = task.getId().toString();
         try {
-            String taskId = task.getId().toString();
-            
             // Simulate task execution
             System.out.println("🚀 Executor " + executorId + " executing task: " + task.getName());
             Thread.sleep(task.getExecutionTimeMs());
-            
+
+            if (!stillOwns(taskId)) {
+                return;
+            }
             // Update task completion
             task.setStatus("COMPLETED");
             task.setCompletedAt(LocalDateTime.now());
             taskRepository.save(task);
-            
+
             System.out.println("✅ Executor " + executorId + " completed task: " + task.getName());
-            
+
         } catch (Exception e) {
             System.err.println("❌ Task execution failed: " + e.getMessage());
-            task.setStatus("FAILED");
-            taskRepository.save(task);
+            if (stillOwns(taskId)) {
+                task.setStatus("FAILED");
+                taskRepository.save(task);
+            }
         } finally {
-            // Always release the lock
-            lockService.releaseLock(task.getId().toString(), executorId);
-            System.out.println("🔓 Executor " + executorId + " released lock for task " + task.getId());
+            // Stop renewing before releasing, so the renewal never sees a released lock as lost
+            heldTasks.remove(taskId);
+            try {
+                lockService.releaseLock(taskId, executorId);
+                System.out.println("🔓 Executor " + executorId + " released lock for task " + taskId);
+            } catch (Exception e) {
+                // The lock still expires on its own, but the slot must come back either way
+                System.err.println("❌ Could not release lock for task " + taskId + ": " + e.getMessage());
+            } finally {
+                freeSlots.release();
+            }
+        }
+    }
+
+    /**
+     * Whether this executor may still write the task's outcome: the renewal has not reported
+     * the lock lost, and the lock is still ours right now (checked by extending it). Once the
+     * lock is gone another executor may have claimed the task, so the result is dropped.
+     */
+    private boolean stillOwns(String taskId) {
+        if (heldTasks.containsKey(taskId) && lockService.refreshLock(taskId, executorId, lockTtl())) {
+            return true;
+        }
+        heldTasks.remove(taskId);
+        System.err.println("⚠️ Executor " + executorId + " no longer holds the lock for task " + taskId + ", dropping its result");
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${task.executor.lock-renew-interval-ms:5000}")
+    public void renewHeldLocks() {
+        if (heldTasks.isEmpty()) {
+            return;
         }
+
+        List<String> lost = lockService.refreshLocks(new ArrayList<>(heldTasks.keySet()), executorId, lockTtl());
+        for (String taskId : lost) {
+            // The task keeps running, but stillOwns stops it from writing an outcome
+            if (heldTasks.remove(taskId) != null) {
+                System.err.println("⚠️ Executor " + executorId + " lost lock for running task " + taskId);
+            }
+        }
+    }
+
+    private Duration lockTtl() {
+        return Duration.ofMillis(lockTtlMs);
     }
-    
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
     public String getExecutorId() {
         return executorId;
     }
+
+    public int getSlots() {
+        return slots;
+    }
+
+    public int getRunningTaskCount() {
+        return heldTasks.size();
+    }
 }
@@ -10,6 +10,9 @@ import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -46,4 +49,24 @@ public class RedisLockServiceTest {
         // Now other executor should be able to acquire
         assertTrue(lockService.acquireLock(taskId, "other-executor"));
     }
+    
+    @Test
+    public void testBatchAcquireAndRefresh() {
+        String executorId = "batch-executor";
+        Duration timeout = Duration.ofSeconds(5);
+        assertTrue(lockService.acquireLock("batch-2", "other-executor"));
+        
+        // Only the free locks are acquired
+        List<String> acquired = lockService.acquireLocks(List.of("batch-1", "batch-2", "batch-3"), executorId, timeout);
+        assertEquals(List.of("batch-1", "batch-3"), acquired);
+        
+        // Locks owned by someone else are reported as lost and left alone
+        List<String> lost = lockService.refreshLocks(List.of("batch-1", "batch-2", "batch-3"), executorId, Duration.ofSeconds(30));
+        assertEquals(List.of("batch-2"), lost);
+        assertEquals("other-executor", lockService.getLockOwner("batch-2"));
+        assertTrue(lockService.refreshLock("batch-1", executorId, Duration.ofSeconds(30)));
+        
+        assertTrue(lockService.releaseLock("batch-1", executorId));
+        assertFalse(lockService.refreshLock("batch-1", executorId, Duration.ofSeconds(30)));
+    }
 }
@@ -20,10 +20,11 @@ public class RedlockConfig {
     private int retryCount = 3;
     private long retryDelay = 200;
     private double clockDriftFactor = 0.01;
+    private long instanceTimeout = 50;
 
-    @Bean
+    @Bean(destroyMethod = "close")
     public RedlockManager redlockManager() {
-        return new RedlockManager(instances, retryCount, retryDelay, clockDriftFactor);
+        return new RedlockManager(instances, retryCount, retryDelay, clockDriftFactor, instanceTimeout);
     }
 
     @Bean
@@ -54,4 +55,6 @@ public class RedlockConfig {
     public void setRetryDelay(long retryDelay) { this.retryDelay = retryDelay; }
     public double getClockDriftFactor() { return clockDriftFactor; }
     public void setClockDriftFactor(double clockDriftFactor) { this.clockDriftFactor = clockDriftFactor; }
+    public long getInstanceTimeout() { return instanceTimeout; }
+    public void setInstanceTimeout(long instanceTimeout) { this.instanceTimeout = instanceTimeout; }
 }
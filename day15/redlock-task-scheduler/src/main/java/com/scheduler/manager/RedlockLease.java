@@ -0,0 +1,82 @@
+package com.scheduler.manager;
+
+import com.scheduler.model.RedlockResult;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A lock kept alive by the {@link RedlockManager} watchdog. Closing the lease stops the
+ * renewals and releases the lock.
+ */
+public class RedlockLease implements AutoCloseable {
+
+    private final RedlockManager manager;
+    private final String resource;
+    private final RedlockResult result;
+    private final AtomicBoolean renewing = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile long validUntilNanos;
+    private volatile boolean lost;
+    private volatile ScheduledFuture<?> renewal;
+
+    RedlockLease(RedlockManager manager, String resource, RedlockResult result, long acquiredNanos) {
+        this.manager = manager;
+        this.resource = resource;
+        this.result = result;
+        this.validUntilNanos = acquiredNanos + TimeUnit.MILLISECONDS.toNanos(result.getValidityTime());
+    }
+
+    public boolean isAcquired() { return result.isSuccess(); }
+    public String getResource() { return resource; }
+    public String getLockValue() { return result.getLockValue(); }
+    public int getAcquiredInstances() { return result.getAcquiredInstances(); }
+
+    /**
+     * @return true while the lock is known to be held: it was acquired, no extension has
+     *         failed and the last validity time has not run out
+     */
+    public boolean isValid() {
+        return isAcquired() && !lost && !closed.get() && System.nanoTime() - validUntilNanos < 0;
+    }
+
+    public long getRemainingValidity() {
+        return isValid() ? TimeUnit.NANOSECONDS.toMillis(validUntilNanos - System.nanoTime()) : 0;
+    }
+
+    void setRenewal(ScheduledFuture<?> renewal) {
+        this.renewal = renewal;
+    }
+
+    boolean startRenewal() {
+        return !closed.get() && !lost && renewing.compareAndSet(false, true);
+    }
+
+    void renewed(long validUntilNanos) {
+        this.validUntilNanos = validUntilNanos;
+        renewing.set(false);
+    }
+
+    void lost() {
+        lost = true;
+        renewing.set(false);
+        cancelRenewal();
+    }
+
+    private void cancelRenewal() {
+        ScheduledFuture<?> current = renewal;
+        if (current != null) {
+            current.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!isAcquired() || !closed.compareAndSet(false, true)) {
+            return;
+        }
+        cancelRenewal();
+        manager.unlock(resource, result.getLockValue());
+    }
+}
@@ -2,93 +2,134 @@ package com.scheduler.manager;
 
 import com.scheduler.config.RedlockConfig.RedisInstance;
 import com.scheduler.model.RedlockResult;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.DefaultRedisScript;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Redlock over N independent Redis instances.
+ *
+ * <p>Every operation is sent to all instances at once through one shared Lettuce client and a
+ * single multiplexed connection per instance, and completes as soon as its outcome is decided,
+ * so acquisition costs roughly the slowest round trip of the quorum rather than the sum of all
+ * of them. Commands on a connection are answered in order, which is what lets a release be
+ * queued behind acquisitions that are still in flight.
+ */
+public class RedlockManager implements AutoCloseable {
 
-public class RedlockManager {
-    
     private static final Logger log = LoggerFactory.getLogger(RedlockManager.class);
-    private final List<RedisTemplate<String, String>> redisTemplates;
+    private static final long DEFAULT_INSTANCE_TIMEOUT = 50;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(1);
+
+    // Lua script for atomic lock release
+    private static final String UNLOCK_SCRIPT =
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+
+    // Lua script for atomic lock extension
+    private static final String EXTEND_SCRIPT =
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end";
+
+    private final ClientResources clientResources;
+    private final RedisClient redisClient;
+    private final List<Node> nodes;
+    private final int quorum;
     private final int retryCount;
     private final long retryDelay;
     private final double clockDriftFactor;
-    
-    private final DefaultRedisScript<String> lockScript;
-    private final DefaultRedisScript<Long> unlockScript;
+    private final long instanceTimeout;
+    private final ScheduledExecutorService watchdog;
 
     public RedlockManager(List<RedisInstance> instances, int retryCount, long retryDelay, double clockDriftFactor) {
+        this(instances, retryCount, retryDelay, clockDriftFactor, DEFAULT_INSTANCE_TIMEOUT);
+    }
+
+    /**
+     * @param instanceTimeout how long a single instance may take to answer, in milliseconds;
+     *                        it should be small next to the lock TTL so a dead instance costs
+     *                        little of the validity time
+     */
+    public RedlockManager(List<RedisInstance> instances, int retryCount, long retryDelay, double clockDriftFactor,
+                          long instanceTimeout) {
         this.retryCount = retryCount;
         this.retryDelay = retryDelay;
         this.clockDriftFactor = clockDriftFactor;
-        this.redisTemplates = initializeRedisTemplates(instances);
-        
-        // Lua script for atomic lock acquisition
-        this.lockScript = new DefaultRedisScript<>(
-            "if redis.call('set', KEYS[1], ARGV[1], 'nx', 'px', ARGV[2]) then return 'OK' else return nil end",
-            String.class
-        );
-        
-        // Lua script for atomic lock release
-        this.unlockScript = new DefaultRedisScript<>(
-            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
-            Long.class
-        );
-    }
+        this.instanceTimeout = instanceTimeout;
+        this.quorum = instances.size() / 2 + 1;
 
-    private List<RedisTemplate<String, String>> initializeRedisTemplates(List<RedisInstance> instances) {
-        List<RedisTemplate<String, String>> templates = new ArrayList<>();
-        
+        this.clientResources = DefaultClientResources.create();
+        this.redisClient = RedisClient.create(clientResources);
+        this.redisClient.setOptions(ClientOptions.builder()
+            .timeoutOptions(TimeoutOptions.enabled(Duration.ofMillis(instanceTimeout)))
+            .socketOptions(SocketOptions.builder().connectTimeout(CONNECT_TIMEOUT).build())
+            .build());
+
+        List<Node> connected = new ArrayList<>(instances.size());
         for (RedisInstance instance : instances) {
-            RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-            config.setHostName(instance.getHost());
-            config.setPort(instance.getPort());
-            
-            LettuceConnectionFactory factory = new LettuceConnectionFactory(config);
-            factory.afterPropertiesSet();
-            
-            RedisTemplate<String, String> template = new RedisTemplate<>();
-            template.setConnectionFactory(factory);
-            template.setKeySerializer(new StringRedisSerializer());
-            template.setValueSerializer(new StringRedisSerializer());
-            template.afterPropertiesSet();
-            
-            templates.add(template);
+            connected.add(new Node(RedisURI.builder()
+                .withHost(instance.getHost())
+                .withPort(instance.getPort())
+                // Bounds the connection handshake only; commands use the instance timeout above
+                .withTimeout(CONNECT_TIMEOUT)
+                .build()));
         }
-        
-        return templates;
+        this.nodes = List.copyOf(connected);
+
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "redlock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public RedlockResult lock(String resource, long ttlMillis) {
         String lockValue = UUID.randomUUID().toString();
-        
+
         for (int i = 0; i < retryCount; i++) {
-            long startTime = System.currentTimeMillis();
-            
-            RedlockResult result = attemptLock(resource, lockValue, ttlMillis);
-            
-            if (result.isSuccess()) {
-                long elapsedTime = System.currentTimeMillis() - startTime;
-                long validityTime = ttlMillis - elapsedTime - (long) (ttlMillis * clockDriftFactor);
-                
+            long startTime = System.nanoTime();
+
+            int acquired = await(fanOut(
+                commands -> commands.set(resource, lockValue, SetArgs.Builder.nx().px(ttlMillis)),
+                "OK"::equals, quorum), ttlMillis);
+
+            if (acquired >= quorum) {
+                long validityTime = validityTime(ttlMillis, startTime);
+
                 if (validityTime > 0) {
-                    log.info("Lock acquired successfully for resource: {} with value: {} validity: {}ms", 
+                    log.info("Lock acquired successfully for resource: {} with value: {} validity: {}ms",
                             resource, lockValue, validityTime);
-                    return new RedlockResult(true, lockValue, validityTime, result.getAcquiredInstances());
-                } else {
-                    // Lock expired during acquisition, release it
-                    unlock(resource, lockValue);
+                    return new RedlockResult(true, lockValue, validityTime, acquired);
                 }
             }
-            
+
+            // Release everywhere, not just where the SET has already answered: a late SET is
+            // answered before the release queued behind it on the same connection.
+            releaseAsync(resource, lockValue);
+
             // Wait before retry
             try {
                 Thread.sleep(ThreadLocalRandom.current().nextLong(retryDelay));
@@ -97,78 +138,186 @@ public class RedlockManager {
                 break;
             }
         }
-        
+
         log.warn("Failed to acquire lock for resource: {} after {} retries", resource, retryCount);
         return new RedlockResult(false, null, 0, 0);
     }
 
-    private RedlockResult attemptLock(String resource, String lockValue, long ttlMillis) {
-        int successCount = 0;
-        List<Boolean> results = new ArrayList<>(redisTemplates.size());
-        
-        for (RedisTemplate<String, String> template : redisTemplates) {
-            try {
-                String result = template.execute(lockScript, 
-                    Collections.singletonList(resource), 
-                    lockValue, 
-                    String.valueOf(ttlMillis)
-                );
-                
-                boolean acquired = "OK".equals(result);
-                results.add(acquired);
-                if (acquired) {
-                    successCount++;
-                }
-            } catch (Exception e) {
-                log.warn("Failed to acquire lock on Redis instance: {}", e.getMessage());
-                results.add(false);
-            }
+    /**
+     * Acquires the lock and keeps extending it in the background until the returned lease is
+     * closed. The lease stops renewing, and reports itself invalid, once an extension fails to
+     * reach a quorum or the validity runs out.
+     */
+    public RedlockLease lockWithWatchdog(String resource, long ttlMillis) {
+        RedlockResult result = lock(resource, ttlMillis);
+        RedlockLease lease = new RedlockLease(this, resource, result, System.nanoTime());
+        if (result.isSuccess()) {
+            long period = Math.max(1, ttlMillis / 3);
+            lease.setRenewal(watchdog.scheduleAtFixedRate(() -> renew(lease, ttlMillis),
+                period, period, TimeUnit.MILLISECONDS));
+        }
+        return lease;
+    }
+
+    private void renew(RedlockLease lease, long ttlMillis) {
+        if (!lease.startRenewal()) {
+            return; // closed, lost, or the previous extension has not answered yet
         }
-        
-        boolean success = successCount >= (redisTemplates.size() / 2 + 1);
-        
-        if (!success) {
-            // Release any locks that were acquired
-            releaseLocks(resource, lockValue, results);
+        long startTime = System.nanoTime();
+        extendAsync(lease.getResource(), lease.getLockValue(), ttlMillis).whenComplete((extended, error) -> {
+            long validityTime = validityTime(ttlMillis, startTime);
+            if (error == null && extended >= quorum && validityTime > 0) {
+                lease.renewed(startTime + TimeUnit.MILLISECONDS.toNanos(validityTime));
+            } else {
+                log.warn("Lost lock for resource: {} - extension reached {} of {} instances",
+                        lease.getResource(), error == null ? extended : 0, nodes.size());
+                lease.lost();
+            }
+        });
+    }
+
+    /**
+     * Resets the TTL of a lock this caller still holds.
+     * @return a successful result with the new validity time if a quorum of instances still
+     *         held {@code lockValue}
+     */
+    public RedlockResult extend(String resource, String lockValue, long ttlMillis) {
+        long startTime = System.nanoTime();
+        int extended = await(extendAsync(resource, lockValue, ttlMillis), ttlMillis);
+        long validityTime = validityTime(ttlMillis, startTime);
+
+        if (extended >= quorum && validityTime > 0) {
+            log.debug("Extended lock for resource: {} validity: {}ms", resource, validityTime);
+            return new RedlockResult(true, lockValue, validityTime, extended);
         }
-        
-        return new RedlockResult(success, lockValue, 0, successCount);
+        log.warn("Failed to extend lock for resource: {} - extended on {} instances", resource, extended);
+        return new RedlockResult(false, lockValue, 0, extended);
+    }
+
+    private CompletableFuture<Integer> extendAsync(String resource, String lockValue, long ttlMillis) {
+        return fanOut(commands -> commands.<Long>eval(EXTEND_SCRIPT, ScriptOutputType.INTEGER,
+                new String[]{resource}, lockValue, String.valueOf(ttlMillis)),
+            reply -> Long.valueOf(1).equals(reply), quorum);
     }
 
+    /**
+     * Releases the lock on every instance.
+     * @return {@code true} once a quorum has released it, which is what frees the resource for
+     *         another caller; releases on slower instances still go ahead in the background
+     */
     public boolean unlock(String resource, String lockValue) {
-        int successCount = 0;
-        
-        for (RedisTemplate<String, String> template : redisTemplates) {
-            try {
-                Long result = template.execute(unlockScript, 
-                    Collections.singletonList(resource), 
-                    lockValue
-                );
-                
-                if (result != null && result == 1) {
-                    successCount++;
-                }
-            } catch (Exception e) {
-                log.warn("Failed to release lock on Redis instance: {}", e.getMessage());
-            }
+        int released = await(releaseAsync(resource, lockValue), instanceTimeout);
+
+        if (released >= quorum) {
+            log.info("Released lock for resource: {} on a quorum of {} instances", resource, nodes.size());
+            return true;
+        }
+        log.warn("Failed to confirm release of lock for resource: {} - released on {} of {} instances",
+                resource, released, nodes.size());
+        return false;
+    }
+
+    private CompletableFuture<Integer> releaseAsync(String resource, String lockValue) {
+        return fanOut(commands -> commands.<Long>eval(UNLOCK_SCRIPT, ScriptOutputType.INTEGER,
+                new String[]{resource}, lockValue),
+            reply -> Long.valueOf(1).equals(reply), quorum);
+    }
+
+    private long validityTime(long ttlMillis, long startNanos) {
+        long elapsedTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return ttlMillis - elapsedTime - (long) (ttlMillis * clockDriftFactor);
+    }
+
+    /**
+     * Sends one command to every instance at once.
+     * @return the number of accepted replies, completed as soon as {@code required} replies
+     *         were accepted or too few instances are left to get there
+     */
+    private CompletableFuture<Integer> fanOut(Function<RedisAsyncCommands<String, String>, CompletionStage<?>> command,
+                                              Predicate<Object> accepted, int required) {
+        CompletableFuture<Integer> outcome = new CompletableFuture<>();
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger answered = new AtomicInteger();
+        int total = nodes.size();
+
+        for (Node node : nodes) {
+            node.connection()
+                .thenCompose(connection -> command.apply(connection.async()))
+                .whenComplete((reply, error) -> {
+                    int ok = error == null && accepted.test(reply) ? successes.incrementAndGet() : successes.get();
+                    if (error != null) {
+                        log.warn("Redis instance {} failed: {}", node.uri, rootMessage(error));
+                    }
+                    int done = answered.incrementAndGet();
+                    if (ok >= required || done == total || total - done + ok < required) {
+                        outcome.complete(ok);
+                    }
+                });
+        }
+        return outcome;
+    }
+
+    private static int await(CompletableFuture<Integer> outcome, long timeoutMillis) {
+        try {
+            return outcome.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException | TimeoutException e) {
+            return 0;
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+        for (Node node : nodes) {
+            node.close();
         }
-        
-        log.info("Released lock for resource: {} on {} instances", resource, successCount);
-        return successCount > 0;
+        redisClient.shutdown();
+        clientResources.shutdown();
     }
 
-    private void releaseLocks(String resource, String lockValue, List<Boolean> acquisitionResults) {
-        for (int i = 0; i < redisTemplates.size(); i++) {
-            if (acquisitionResults.get(i)) {
-                try {
-                    redisTemplates.get(i).execute(unlockScript, 
-                        Collections.singletonList(resource), 
-                        lockValue
-                    );
-                } catch (Exception e) {
-                    log.warn("Failed to release lock during cleanup: {}", e.getMessage());
+    /**
+     * One Redis instance. The connection is opened in the background and opened again on next
+     * use if it could not be established; once up, Lettuce reconnects it by itself.
+     */
+    private final class Node {
+        private final RedisURI uri;
+        private volatile CompletableFuture<StatefulRedisConnection<String, String>> connection;
+
+        private Node(RedisURI uri) {
+            this.uri = uri;
+            this.connection = connect();
+        }
+
+        private CompletableFuture<StatefulRedisConnection<String, String>> connect() {
+            return redisClient.connectAsync(StringCodec.UTF8, uri).toCompletableFuture();
+        }
+
+        private CompletableFuture<StatefulRedisConnection<String, String>> connection() {
+            CompletableFuture<StatefulRedisConnection<String, String>> current = connection;
+            if (current.isCompletedExceptionally()) {
+                synchronized (this) {
+                    if (connection == current) {
+                        connection = connect();
+                    }
+                    current = connection;
                 }
             }
+            return current;
+        }
+
+        private void close() {
+            connection.thenAccept(StatefulRedisConnection::close);
         }
     }
 }
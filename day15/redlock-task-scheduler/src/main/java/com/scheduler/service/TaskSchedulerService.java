@@ -1,7 +1,7 @@
 package com.scheduler.service;
 
+import com.scheduler.manager.RedlockLease;
 import com.scheduler.manager.RedlockManager;
-import com.scheduler.model.RedlockResult;
 import com.scheduler.model.Task;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,39 +65,44 @@ public class TaskSchedulerService {
     private void executeTaskWithRedlock(Task task) {
         String lockKey = "task_lock:" + task.getId();
         
-        RedlockResult lockResult = redlockManager.lock(lockKey, LOCK_TTL);
-        
-        if (lockResult.isSuccess()) {
-            try {
-                log.info("Instance {} acquired lock for task: {}", instanceId, task.getId());
-                
-                // Simulate task execution
-                task.setStatus(Task.TaskStatus.RUNNING);
-                task.setExecutedBy(instanceId);
-                task.setExecutedTime(LocalDateTime.now());
-                task.setLockValue(lockResult.getLockValue());
-                
-                // Update in Redis
-                redisTemplate.opsForHash().put("tasks", task.getId(), task);
-                
-                // Simulate work
-                Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 3000));
-                
-                task.setStatus(Task.TaskStatus.COMPLETED);
-                redisTemplate.opsForHash().put("tasks", task.getId(), task);
-                
-                log.info("Instance {} completed task: {}", instanceId, task.getId());
-                
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        // The watchdog keeps extending the lock while the task runs and releases it on close
+        try (RedlockLease lease = redlockManager.lockWithWatchdog(lockKey, LOCK_TTL)) {
+            if (!lease.isAcquired()) {
+                log.debug("Instance {} failed to acquire lock for task: {}", instanceId, task.getId());
+                return;
+            }
+
+            log.info("Instance {} acquired lock for task: {}", instanceId, task.getId());
+            
+            // Simulate task execution
+            task.setStatus(Task.TaskStatus.RUNNING);
+            task.setExecutedBy(instanceId);
+            task.setExecutedTime(LocalDateTime.now());
+            task.setLockValue(lease.getLockValue());
+            
+            // Update in Redis
+            redisTemplate.opsForHash().put("tasks", task.getId(), task);
+            
+            // Simulate work
+            Thread.sleep(ThreadLocalRandom.current().nextInt(1000, 3000));
+            
+            if (!lease.isValid()) {
+                // Another instance may have taken the lock, so the result cannot be trusted
                 task.setStatus(Task.TaskStatus.FAILED);
-                log.error("Task execution interrupted: {}", task.getId());
-            } finally {
-                // Always release the lock
-                redlockManager.unlock(lockKey, lockResult.getLockValue());
+                redisTemplate.opsForHash().put("tasks", task.getId(), task);
+                log.warn("Instance {} lost the lock while running task: {}", instanceId, task.getId());
+                return;
             }
-        } else {
-            log.debug("Instance {} failed to acquire lock for task: {}", instanceId, task.getId());
+
+            task.setStatus(Task.TaskStatus.COMPLETED);
+            redisTemplate.opsForHash().put("tasks", task.getId(), task);
+            
+            log.info("Instance {} completed task: {}", instanceId, task.getId());
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            task.setStatus(Task.TaskStatus.FAILED);
+            log.error("Task execution interrupted: {}", task.getId());
         }
     }
 
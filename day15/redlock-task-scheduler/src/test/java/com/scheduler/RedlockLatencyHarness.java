@@ -0,0 +1,258 @@
+package com.scheduler;
+
+import com.scheduler.config.RedlockConfig;
+import com.scheduler.manager.RedlockManager;
+import com.scheduler.model.RedlockResult;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acquisition latency of the parallel Redlock quorum against the old one-instance-after-another
+ * loop.
+ *
+ * <p>By default it starts five in-process Redis stand-ins that answer after 1 to 5 ms, so the
+ * round trips are visible on localhost. Pass {@code host:port} arguments to measure real
+ * redis-server instances instead, e.g. five started with {@code redis-server --port 6379..6383}.
+ * Run from the IDE or with the test runtime classpath:
+ * {@code java -cp <test classpath> com.scheduler.RedlockLatencyHarness [host:port ...]}.
+ */
+public class RedlockLatencyHarness {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+    private static final long TTL = 10000;
+
+    public static void main(String[] args) throws Exception {
+        List<StandIn> standIns = new ArrayList<>();
+        List<RedlockConfig.RedisInstance> instances = new ArrayList<>();
+        if (args.length == 0) {
+            for (int i = 0; i < 5; i++) {
+                StandIn standIn = new StandIn(i + 1);
+                standIns.add(standIn);
+                instances.add(instance("localhost", standIn.port()));
+            }
+        } else {
+            for (String arg : args) {
+                String[] hostPort = arg.split(":");
+                instances.add(instance(hostPort[0], Integer.parseInt(hostPort[1])));
+            }
+        }
+
+        long[] sequential = measureSequential(instances);
+        long[] parallel = measureParallel(instances);
+
+        System.out.printf("Redlock acquisition over %d instances, %d iterations%n", instances.size(), ITERATIONS);
+        System.out.printf("%-12s %10s %10s %10s%n", "mode", "p50 ms", "p99 ms", "mean ms");
+        print("sequential", sequential);
+        print("parallel", parallel);
+
+        for (StandIn standIn : standIns) {
+            standIn.close();
+        }
+    }
+
+    /** The previous acquisition path: one blocking SET NX PX per instance, in turn. */
+    private static long[] measureSequential(List<RedlockConfig.RedisInstance> instances) {
+        RedisClient client = RedisClient.create();
+        List<StatefulRedisConnection<String, String>> connections = new ArrayList<>();
+        for (RedlockConfig.RedisInstance instance : instances) {
+            connections.add(client.connect(RedisURI.create(instance.getHost(), instance.getPort())));
+        }
+
+        long[] samples = new long[ITERATIONS];
+        for (int i = -WARMUP; i < ITERATIONS; i++) {
+            String resource = "harness-sequential-" + i;
+            long start = System.nanoTime();
+            for (StatefulRedisConnection<String, String> connection : connections) {
+                connection.sync().set(resource, "value", SetArgs.Builder.nx().px(TTL));
+            }
+            if (i >= 0) {
+                samples[i] = System.nanoTime() - start;
+            }
+            for (StatefulRedisConnection<String, String> connection : connections) {
+                connection.sync().del(resource);
+            }
+        }
+
+        connections.forEach(StatefulRedisConnection::close);
+        client.shutdown();
+        return samples;
+    }
+
+    private static long[] measureParallel(List<RedlockConfig.RedisInstance> instances) {
+        long[] samples = new long[ITERATIONS];
+        try (RedlockManager manager = new RedlockManager(instances, 3, 50, 0.01, 1000)) {
+            for (int i = -WARMUP; i < ITERATIONS; i++) {
+                String resource = "harness-parallel-" + i;
+                long start = System.nanoTime();
+                RedlockResult result = manager.lock(resource, TTL);
+                long elapsed = System.nanoTime() - start;
+                if (!result.isSuccess()) {
+                    throw new IllegalStateException("Lock not acquired for " + resource);
+                }
+                if (i >= 0) {
+                    samples[i] = elapsed;
+                }
+                manager.unlock(resource, result.getLockValue());
+            }
+        }
+        return samples;
+    }
+
+    private static void print(String mode, long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        System.out.printf("%-12s %10.2f %10.2f %10.2f%n", mode,
+            sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6, mean / 1e6);
+    }
+
+    private static RedlockConfig.RedisInstance instance(String host, int port) {
+        RedlockConfig.RedisInstance instance = new RedlockConfig.RedisInstance();
+        instance.setHost(host);
+        instance.setPort(port);
+        return instance;
+    }
+
+    /**
+     * Speaks just enough RESP for the Redlock commands: SET NX PX, DEL, and the release and
+     * extend scripts, told apart by the command they call. Every reply is delayed by a fixed
+     * number of milliseconds to stand in for the network round trip.
+     */
+    private static final class StandIn implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final long delayMillis;
+        private final Map<String, Entry> data = new ConcurrentHashMap<>();
+
+        StandIn(long delayMillis) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.delayMillis = delayMillis;
+            Thread.ofVirtual().start(this::accept);
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread.ofVirtual().start(() -> serve(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 InputStream in = new BufferedInputStream(socket.getInputStream());
+                 OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+                List<String> command;
+                while ((command = readCommand(in)) != null) {
+                    String reply = execute(command);
+                    Thread.sleep(delayMillis);
+                    out.write(reply.getBytes(StandardCharsets.UTF_8));
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // client went away
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private String execute(List<String> command) {
+            String name = command.get(0).toUpperCase();
+            long now = System.currentTimeMillis();
+            switch (name) {
+                case "PING":
+                    return "+PONG\r\n";
+                case "SET": {
+                    // SET key value with NX and PX ttl in any order
+                    String key = command.get(1);
+                    long ttl = Long.parseLong(command.get(command.indexOf("PX") + 1));
+                    Entry entry = new Entry(command.get(2), now + ttl);
+                    boolean set = data.compute(key, (k, current) ->
+                        current == null || current.expiresAt <= now ? entry : current) == entry;
+                    return set ? "+OK\r\n" : "$-1\r\n";
+                }
+                case "DEL":
+                    return data.remove(command.get(1)) != null ? ":1\r\n" : ":0\r\n";
+                case "EVAL": {
+                    // EVAL script 1 key value [ttl]
+                    String script = command.get(1);
+                    String key = command.get(3);
+                    String value = command.get(4);
+                    Entry current = data.get(key);
+                    if (current == null || current.expiresAt <= now || !current.value.equals(value)) {
+                        return ":0\r\n";
+                    }
+                    if (script.contains("pexpire")) {
+                        data.put(key, new Entry(value, now + Long.parseLong(command.get(5))));
+                        return ":1\r\n";
+                    }
+                    return data.remove(key, current) ? ":1\r\n" : ":0\r\n";
+                }
+                default:
+                    return "-ERR unknown command '" + name + "'\r\n";
+            }
+        }
+
+        private static List<String> readCommand(InputStream in) throws IOException {
+            String header = readLine(in);
+            if (header == null) {
+                return null;
+            }
+            int count = Integer.parseInt(header.substring(1));
+            List<String> parts = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = Integer.parseInt(readLine(in).substring(1));
+                byte[] bytes = in.readNBytes(length);
+                in.readNBytes(2);
+                parts.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            return parts;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\r') {
+                    in.read();
+                    return line.toString();
+                }
+                line.append((char) b);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private record Entry(String value, long expiresAt) {
+        }
+    }
+}
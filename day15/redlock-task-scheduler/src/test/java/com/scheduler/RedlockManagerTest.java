@@ -1,6 +1,7 @@
 package com.scheduler;
 
 import com.scheduler.config.RedlockConfig;
+import com.scheduler.manager.RedlockLease;
 import com.scheduler.manager.RedlockManager;
 import com.scheduler.model.RedlockResult;
 import org.junit.jupiter.api.Test;
@@ -87,6 +88,48 @@ public class RedlockManagerTest {
         assertTrue(successCount.get() <= 10);
     }
 
+    @Test
+    void testExtendRequiresOwnership() {
+        try (RedlockManager manager = new RedlockManager(instances(), 3, 200, 0.01)) {
+            RedlockResult result = manager.lock("extend-test", 1000);
+            assertTrue(result.isSuccess());
+
+            RedlockResult extended = manager.extend("extend-test", result.getLockValue(), 10000);
+            assertTrue(extended.isSuccess());
+            assertTrue(extended.getValidityTime() > 1000);
+
+            assertFalse(manager.extend("extend-test", "not-the-owner", 10000).isSuccess());
+            assertTrue(manager.unlock("extend-test", result.getLockValue()));
+        }
+    }
+
+    @Test
+    void testWatchdogKeepsLockPastTtl() throws InterruptedException {
+        try (RedlockManager manager = new RedlockManager(instances(), 3, 200, 0.01)) {
+            try (RedlockLease lease = manager.lockWithWatchdog("watchdog-test", 600)) {
+                assertTrue(lease.isAcquired());
+
+                Thread.sleep(2000);
+
+                assertTrue(lease.isValid());
+                assertFalse(manager.lock("watchdog-test", 600).isSuccess());
+            }
+
+            // Closing the lease stops the renewals and releases the lock
+            RedlockResult result = manager.lock("watchdog-test", 600);
+            assertTrue(result.isSuccess());
+            manager.unlock("watchdog-test", result.getLockValue());
+        }
+    }
+
+    private List<RedlockConfig.RedisInstance> instances() {
+        return Arrays.asList(
+            createInstance(redis1.getHost(), redis1.getFirstMappedPort()),
+            createInstance(redis2.getHost(), redis2.getFirstMappedPort()),
+            createInstance(redis3.getHost(), redis3.getFirstMappedPort())
+        );
+    }
+
     private RedlockConfig.RedisInstance createInstance(String host, Integer port) {
         RedlockConfig.RedisInstance instance = new RedlockConfig.RedisInstance();
         instance.setHost(host);
@@ -0,0 +1,25 @@
+package com.scheduler.leader.notification;
+
+import java.util.function.Consumer;
+
+/**
+ * Tells every instance when the leadership row changes hands, so followers can wait for the
+ * change instead of polling the table for it.
+ */
+public interface LeadershipChannel {
+    
+    /**
+     * Announces that the leader is now {@code leaderId} ({@code RELEASED} after a graceful
+     * release). Call it once the change has committed.
+     */
+    void publish(String leaderId);
+    
+    /**
+     * Registers a listener for changes, this instance's own included. It is called with the new
+     * leader id, or with {@code null} when changes may have been missed and the row should be
+     * read again.
+     */
+    void subscribe(Consumer<String> listener);
+    
+    void unsubscribe(Consumer<String> listener);
+}
@@ -0,0 +1,30 @@
+package com.scheduler.leader.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Configuration
+public class LeadershipChannelConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LeadershipChannelConfig.class);
+    
+    @Bean
+    public LeadershipChannel leadershipChannel(DataSource dataSource) throws SQLException {
+        String product;
+        try (Connection connection = dataSource.getConnection()) {
+            product = connection.getMetaData().getDatabaseProductName();
+        }
+        if ("PostgreSQL".equals(product)) {
+            logger.info("Leadership changes via LISTEN/NOTIFY");
+            return new PostgresLeadershipChannel(dataSource);
+        }
+        logger.info("Leadership changes via the in-process channel ({} has no LISTEN/NOTIFY)", product);
+        return new LocalLeadershipChannel();
+    }
+}
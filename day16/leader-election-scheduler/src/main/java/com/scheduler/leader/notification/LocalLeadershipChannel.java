@@ -0,0 +1,55 @@
+package com.scheduler.leader.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for LISTEN/NOTIFY, used with H2 and in tests. Every service sharing the
+ * channel sees every change, delivered asynchronously on one dispatch thread as Postgres would.
+ */
+public class LocalLeadershipChannel implements LeadershipChannel {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LocalLeadershipChannel.class);
+    
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leadership-channel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    @Override
+    public void publish(String leaderId) {
+        dispatcher.execute(() -> deliver(leaderId));
+    }
+    
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+    
+    @Override
+    public void unsubscribe(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+    
+    private void deliver(String leaderId) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(leaderId);
+            } catch (RuntimeException e) {
+                logger.warn("Leadership listener failed on change to {}", leaderId, e);
+            }
+        }
+    }
+    
+    public void close() {
+        dispatcher.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package com.scheduler.leader.notification;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * LISTEN/NOTIFY on the leadership table. A trigger on {@code scheduler_leadership} notifies
+ * {@value #CHANNEL} whenever {@code leader_id} changes, and Postgres only delivers it once that
+ * transaction commits, so {@link #publish} has nothing left to do. One pooled connection is kept
+ * listening on a daemon thread; waiting on it is a socket read, not a query.
+ */
+public class PostgresLeadershipChannel implements LeadershipChannel {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PostgresLeadershipChannel.class);
+    
+    static final String CHANNEL = "leadership_changed";
+    
+    private static final String CREATE_FUNCTION = """
+        CREATE OR REPLACE FUNCTION notify_leadership_changed() RETURNS trigger AS $$
+        BEGIN
+            IF TG_OP = 'INSERT' OR OLD.leader_id IS DISTINCT FROM NEW.leader_id THEN
+                PERFORM pg_notify('leadership_changed', NEW.leader_id);
+            END IF;
+            RETURN NEW;
+        END;
+        $$ LANGUAGE plpgsql
+        """;
+    
+    private static final String CREATE_TRIGGER = """
+        CREATE OR REPLACE TRIGGER leadership_changed
+            AFTER INSERT OR UPDATE ON scheduler_leadership
+            FOR EACH ROW EXECUTE FUNCTION notify_leadership_changed()
+        """;
+    
+    private static final int WAIT_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 5000;
+    
+    private final DataSource dataSource;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+    
+    public PostgresLeadershipChannel(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    @Override
+    public void publish(String leaderId) {
+        // The trigger sends it when the change commits
+    }
+    
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listeners.add(listener);
+        start();
+    }
+    
+    @Override
+    public void unsubscribe(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+    
+    // Started on first use rather than at construction, so the schema exists by then
+    private synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute(CREATE_FUNCTION);
+            jdbcTemplate.execute(CREATE_TRIGGER);
+        } catch (DataAccessException e) {
+            logger.warn("Could not install the leadership trigger; followers will fall back to the lease expiry", e);
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "leadership-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+    
+    private void listen() {
+        long backoff = 100;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                backoff = 100;
+                // Anything sent while we were not listening is gone
+                deliver(null);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(WAIT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                logger.warn("Leadership listener connection failed, reconnecting in {}ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+    
+    private void deliver(String leaderId) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(leaderId);
+            } catch (RuntimeException e) {
+                logger.warn("Leadership listener failed on change to {}", leaderId, e);
+            }
+        }
+    }
+    
+    public synchronized void close() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.join(WAIT_MILLIS * 2L);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -16,16 +17,24 @@ public interface LeadershipRepository extends JpaRepository<Leadership, String>
     @Query("SELECT l FROM Leadership l WHERE l.id = 'SCHEDULER_LEADER'")
     Optional<Leadership> findCurrentLeadership();
     
+    @Transactional
     @Modifying
-    @Query("UPDATE Leadership l SET l.leaderId = :leaderId, l.leaseStart = :start, l.leaseEnd = :end, l.updatedAt = :now WHERE l.id = 'SCHEDULER_LEADER' AND l.leaseEnd < :now")
+    @Query("UPDATE Leadership l SET l.leaderId = :leaderId, l.leaseStart = :start, l.leaseEnd = :end, l.updatedAt = :now WHERE l.id = 'SCHEDULER_LEADER' AND (l.leaseEnd < :now OR l.leaderId = 'RELEASED')")
     int attemptLeadershipTakeover(@Param("leaderId") String leaderId, 
                                   @Param("start") LocalDateTime start, 
                                   @Param("end") LocalDateTime end, 
                                   @Param("now") LocalDateTime now);
     
+    @Transactional
     @Modifying
     @Query("UPDATE Leadership l SET l.leaseEnd = :newEnd, l.updatedAt = :now WHERE l.id = 'SCHEDULER_LEADER' AND l.leaderId = :leaderId AND l.leaseEnd > :now")
     int renewLease(@Param("leaderId") String leaderId, 
                    @Param("newEnd") LocalDateTime newEnd, 
                    @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Leadership l SET l.leaderId = 'RELEASED', l.leaseEnd = :now, l.updatedAt = :now WHERE l.id = 'SCHEDULER_LEADER' AND l.leaderId = :leaderId")
+    int releaseLeadership(@Param("leaderId") String leaderId, 
+                          @Param("now") LocalDateTime now);
 }
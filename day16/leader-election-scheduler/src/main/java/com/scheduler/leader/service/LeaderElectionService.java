@@ -1,26 +1,60 @@
 package com.scheduler.leader.service;
 
 import com.scheduler.leader.model.Leadership;
+import com.scheduler.leader.notification.LeadershipChannel;
 import com.scheduler.leader.repository.LeadershipRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
+/**
+ * Lease-based leader election driven by change events rather than polling.
+ *
+ * <p>The leader renews its lease every heartbeat. Followers read the lease once and then wait:
+ * for a {@link LeadershipChannel} event, which arrives as soon as the leader releases or the
+ * leadership changes hands, or for the lease end, in case the leader died without a word. An
+ * idle follower therefore reads the table about once per lease instead of every heartbeat, and a
+ * graceful release is taken over within one round trip.
+ */
 @Service
 public class LeaderElectionService {
     
     private static final Logger logger = LoggerFactory.getLogger(LeaderElectionService.class);
     
+    private static final String RELEASED = "RELEASED";
+    
     private final LeadershipRepository leadershipRepository;
+    private final LeadershipChannel leadershipChannel;
+    private final MeterRegistry meterRegistry;
     private final AtomicBoolean isLeader = new AtomicBoolean(false);
     private final AtomicReference<String> currentState = new AtomicReference<>("STARTUP");
+    private final AtomicReference<ScheduledFuture<?>> leaseWatch = new AtomicReference<>();
+    private final AtomicReference<LocalDateTime> standDownUntil = new AtomicReference<>(LocalDateTime.MIN);
+    private final AtomicReference<Consumer<String>> changeListener = new AtomicReference<>();
+    private final Object electionLock = new Object();
+    private final ScheduledExecutorService electionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leader-election");
+        thread.setDaemon(true);
+        return thread;
+    });
     
     @Value("${scheduler.instance.id}")
     private String instanceId;
@@ -31,70 +65,175 @@ public class LeaderElectionService {
     @Value("${scheduler.leader.heartbeat-interval}")
     private long heartbeatInterval;
     
-    public LeaderElectionService(LeadershipRepository leadershipRepository) {
+    public LeaderElectionService(LeadershipRepository leadershipRepository,
+                                 LeadershipChannel leadershipChannel,
+                                 MeterRegistry meterRegistry) {
         this.leadershipRepository = leadershipRepository;
+        this.leadershipChannel = leadershipChannel;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Consumer<String> listener = this::onLeadershipChanged;
+        changeListener.set(listener);
+        leadershipChannel.subscribe(listener);
+        electionExecutor.execute(this::maintainLeadership);
+        electionExecutor.scheduleWithFixedDelay(this::renewIfLeader,
+            heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+    }
+    
+    /** Releases the lease if we hold it, then stops. */
+    @PreDestroy
+    public void shutdown() {
+        releaseLeadership();
+        stop();
+    }
+    
+    /** Stops taking part without touching the lease, as if the process had died. */
+    public void stop() {
+        Consumer<String> listener = changeListener.getAndSet(null);
+        if (listener != null) {
+            leadershipChannel.unsubscribe(listener);
+        }
+        electionExecutor.shutdownNow();
     }
     
-    @Scheduled(fixedDelayString = "${scheduler.leader.heartbeat-interval}")
-    @Transactional
     public void maintainLeadership() {
-        try {
-            if (isLeader.get()) {
-                renewLease();
-            } else {
-                attemptLeadershipAcquisition();
+        synchronized (electionLock) {
+            try {
+                if (isLeader.get()) {
+                    renewLease();
+                } else {
+                    attemptLeadershipAcquisition();
+                }
+            } catch (Exception e) {
+                logger.error("Error in leadership maintenance", e);
+                handleElectionFailure();
+                watchLease(LocalDateTime.now().plus(Duration.ofMillis(heartbeatInterval)));
             }
-        } catch (Exception e) {
-            logger.error("Error in leadership maintenance", e);
-            handleElectionFailure();
+        }
+    }
+    
+    private void renewIfLeader() {
+        if (isLeader.get()) {
+            maintainLeadership();
+        }
+    }
+    
+    private void onLeadershipChanged(String leaderId) {
+        if (instanceId.equals(leaderId)) {
+            return; // our own takeover
+        }
+        try {
+            // A leader renews, which finds out whether someone else has taken over in the meantime
+            electionExecutor.execute(this::maintainLeadership);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Ignoring leadership change to {} after stop", leaderId);
         }
     }
     
     private void attemptLeadershipAcquisition() {
-        currentState.set("CANDIDATE");
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime leaseEnd = now.plusSeconds(leaseDuration / 1000);
+        if (now.isBefore(standDownUntil.get())) {
+            currentState.set("FOLLOWER");
+            watchLease(standDownUntil.get());
+            return;
+        }
+        currentState.set("CANDIDATE");
+        LocalDateTime leaseEnd = now.plus(Duration.ofMillis(leaseDuration));
         
         // Try to create initial leadership record
-        if (!leadershipRepository.findCurrentLeadership().isPresent()) {
+        Optional<Leadership> current = leadershipRepository.findCurrentLeadership();
+        if (current.isEmpty()) {
             try {
                 Leadership leadership = new Leadership(instanceId, now, leaseEnd, (int) heartbeatInterval);
                 leadershipRepository.save(leadership);
-                becomeLeader();
+                becomeLeader(null, now);
                 return;
-            } catch (Exception e) {
-                logger.debug("Failed to create leadership record, attempting takeover");
+            } catch (RuntimeException e) {
+                logger.debug("Failed to create leadership record, reading the one that won");
+                current = leadershipRepository.findCurrentLeadership();
+                if (current.isEmpty()) {
+                    throw e;
+                }
             }
         }
         
-        // Try to take over expired lease
-        int updated = leadershipRepository.attemptLeadershipTakeover(instanceId, now, leaseEnd, now);
-        if (updated > 0) {
-            becomeLeader();
-        } else {
-            becomeFollower();
+        Leadership lease = current.get();
+        if (instanceId.equals(lease.getLeaderId()) && !lease.isExpired()) {
+            // Restarted under the same id while our lease still runs
+            becomeLeader(null, now);
+            return;
         }
+        
+        // Try to take over a released or expired lease
+        if (RELEASED.equals(lease.getLeaderId()) || lease.getLeaseEnd().isBefore(now)) {
+            int updated = leadershipRepository.attemptLeadershipTakeover(instanceId, now, leaseEnd, now);
+            if (updated > 0) {
+                becomeLeader(lease, now);
+                return;
+            }
+            lease = leadershipRepository.findCurrentLeadership().orElse(lease);
+        }
+        becomeFollower();
+        watchLease(lease.getLeaseEnd());
     }
     
     private void renewLease() {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime newEnd = now.plusSeconds(leaseDuration / 1000);
+        LocalDateTime newEnd = now.plus(Duration.ofMillis(leaseDuration));
         
         int renewed = leadershipRepository.renewLease(instanceId, newEnd, now);
         if (renewed == 0) {
             logger.warn("Failed to renew lease - lost leadership");
             loseLeadership();
+            attemptLeadershipAcquisition();
+        }
+    }
+    
+    // Wakes up just after the lease ends; an event usually gets there first
+    private void watchLease(LocalDateTime until) {
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), until).toMillis() + 1);
+        try {
+            ScheduledFuture<?> watch = electionExecutor.schedule(this::maintainLeadership, delay, TimeUnit.MILLISECONDS);
+            cancel(leaseWatch.getAndSet(watch));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Not watching the lease after stop");
+        }
+    }
+    
+    private void cancel(ScheduledFuture<?> watch) {
+        if (watch != null) {
+            watch.cancel(false);
         }
     }
     
-    private void becomeLeader() {
+    private void becomeLeader(Leadership previous, LocalDateTime acquiredAt) {
+        cancel(leaseWatch.getAndSet(null));
         if (!isLeader.get()) {
+            if (previous != null) {
+                recordTransition(previous, acquiredAt);
+            }
             isLeader.set(true);
             currentState.set("LEADER");
             logger.info("✓ BECAME LEADER: Instance {} acquired leadership", instanceId);
+            leadershipChannel.publish(instanceId);
         }
     }
     
+    // Time the leadership stood vacant: from the release, or the lease end, to the takeover
+    private void recordTransition(Leadership previous, LocalDateTime acquiredAt) {
+        String cause = RELEASED.equals(previous.getLeaderId()) ? "released" : "expired";
+        Duration vacant = Duration.between(previous.getLeaseEnd(), acquiredAt);
+        Timer.builder("scheduler.leadership.transition")
+            .description("Time from the previous leader releasing or losing its lease to a new leader taking over")
+            .tags("instance", instanceId, "cause", cause)
+            .register(meterRegistry)
+            .record(vacant.isNegative() ? Duration.ZERO : vacant);
+        logger.info("Leadership was vacant for {}ms ({})", vacant.toMillis(), cause);
+    }
+    
     private void becomeFollower() {
         if (isLeader.get()) {
             loseLeadership();
@@ -128,16 +267,25 @@ public class LeaderElectionService {
         return instanceId;
     }
     
-    @Transactional
+    /**
+     * Gives up the lease at once so a follower can take over on the change event, and stays out
+     * of the next election for one lease duration.
+     */
     public void releaseLeadership() {
-        if (isLeader.get()) {
-            try {
-                LocalDateTime now = LocalDateTime.now();
-                leadershipRepository.attemptLeadershipTakeover("RELEASED", now, now, now);
-                loseLeadership();
-                logger.info("✓ Released leadership gracefully");
-            } catch (Exception e) {
-                logger.error("Error releasing leadership", e);
+        synchronized (electionLock) {
+            if (isLeader.get()) {
+                try {
+                    LocalDateTime now = LocalDateTime.now();
+                    standDownUntil.set(now.plus(Duration.ofMillis(leaseDuration)));
+                    if (leadershipRepository.releaseLeadership(instanceId, now) > 0) {
+                        leadershipChannel.publish(RELEASED);
+                    }
+                    loseLeadership();
+                    watchLease(standDownUntil.get());
+                    logger.info("✓ Released leadership gracefully");
+                } catch (Exception e) {
+                    logger.error("Error releasing leadership", e);
+                }
             }
         }
     }
@@ -0,0 +1,115 @@
+package com.scheduler.leader;
+
+import com.scheduler.leader.notification.LeadershipChannel;
+import com.scheduler.leader.repository.LeadershipRepository;
+import com.scheduler.leader.service.LeaderElectionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:failover;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "scheduler.instance.id=node-a",
+    "scheduler.leader.lease-duration=1000",
+    "scheduler.leader.heartbeat-interval=200"
+})
+@ActiveProfiles("test")
+class LeaderFailoverTest {
+    
+    @Autowired
+    private LeaderElectionService nodeA;
+    
+    @Autowired
+    private LeadershipRepository leadershipRepository;
+    
+    @Autowired
+    private LeadershipChannel leadershipChannel;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final AtomicInteger followerQueries = new AtomicInteger();
+    
+    @Test
+    void followersWaitQuietlyAndTakeOverOnReleaseOrExpiry() throws Exception {
+        await(nodeA::isLeader, 3000);
+        LeaderElectionService nodeB = follower("node-b");
+        LeaderElectionService nodeC = follower("node-c");
+        try {
+            await(() -> "FOLLOWER".equals(nodeB.getCurrentState()) && "FOLLOWER".equals(nodeC.getCurrentState()), 2000);
+            
+            // Polling on the 200ms heartbeat would be about 15 queries per follower here
+            followerQueries.set(0);
+            Thread.sleep(1500);
+            assertTrue(followerQueries.get() <= 4, "idle followers ran " + followerQueries.get() + " queries");
+            assertTrue(nodeA.isLeader());
+            
+            // A cold start can outlast the first 1s lease, so count transitions from here on
+            long released = transitions("released");
+            long expired = transitions("expired");
+            long releasedAt = System.nanoTime();
+            nodeA.releaseLeadership();
+            await(() -> nodeB.isLeader() || nodeC.isLeader(), 1000);
+            long failoverMillis = (System.nanoTime() - releasedAt) / 1_000_000;
+            assertTrue(failoverMillis < 250, "failover after release took " + failoverMillis + "ms");
+            Thread.sleep(100);
+            assertEquals(1, List.of(nodeA, nodeB, nodeC).stream().filter(LeaderElectionService::isLeader).count());
+            assertEquals(released + 1, transitions("released"));
+            
+            // A crashed leader says nothing, so the others wait out its lease
+            LeaderElectionService crashed = nodeB.isLeader() ? nodeB : nodeC;
+            LeaderElectionService survivor = crashed == nodeB ? nodeC : nodeB;
+            crashed.stop();
+            await(() -> survivor.isLeader() || nodeA.isLeader(), 2000);
+            assertEquals(expired + 1, transitions("expired"));
+        } finally {
+            nodeB.stop();
+            nodeC.stop();
+        }
+    }
+    
+    private LeaderElectionService follower(String instanceId) {
+        LeadershipRepository counting = (LeadershipRepository) Proxy.newProxyInstance(
+            LeadershipRepository.class.getClassLoader(), new Class<?>[] { LeadershipRepository.class },
+            (proxy, method, args) -> {
+                followerQueries.incrementAndGet();
+                try {
+                    return method.invoke(leadershipRepository, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        LeaderElectionService service = new LeaderElectionService(counting, leadershipChannel, meterRegistry);
+        ReflectionTestUtils.setField(service, "instanceId", instanceId);
+        ReflectionTestUtils.setField(service, "leaseDuration", 1000L);
+        ReflectionTestUtils.setField(service, "heartbeatInterval", 200L);
+        service.start();
+        return service;
+    }
+    
+    private long transitions(String cause) {
+        return meterRegistry.find("scheduler.leadership.transition").tag("cause", cause).timers().stream()
+            .mapToLong(Timer::count)
+            .sum();
+    }
+    
+    private static void await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within " + timeoutMillis + "ms");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -2,12 +2,22 @@ CREATE DATABASE IF NOT EXISTS task_scheduler;
 USE task_scheduler;
 
 CREATE TABLE IF NOT EXISTS leader_election (
-    service_name VARCHAR(100) PRIMARY KEY,
+    service_name VARCHAR(100) NOT NULL,
+    shard_id INT NOT NULL,
     leader_instance_id VARCHAR(255) NOT NULL,
     lease_expires_at TIMESTAMP(6) NOT NULL,
     heartbeat_interval_ms INT NOT NULL,
     created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6),
-    updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+    updated_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (service_name, shard_id)
+);
+
+CREATE TABLE IF NOT EXISTS scheduler_member (
+    service_name VARCHAR(100) NOT NULL,
+    instance_id VARCHAR(255) NOT NULL,
+    joined_at TIMESTAMP(6) NOT NULL,
+    heartbeat_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (service_name, instance_id)
 );
 
 -- Create index for performance
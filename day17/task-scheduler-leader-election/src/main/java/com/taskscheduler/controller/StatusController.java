@@ -25,11 +25,18 @@ public class StatusController {
         return Map.of(
             "instanceId", leaderElectionService.getInstanceId(),
             "isLeader", leaderElectionService.isLeader(),
-            "currentLeader", leaderElectionService.getCurrentLeader(),
-            "processedTasks", taskProcessorService.getProcessedTaskCount()
+            "ownedShards", leaderElectionService.getOwnedShards(),
+            "shardCount", leaderElectionService.getShardCount(),
+            "processedTasks", taskProcessorService.getProcessedTaskCount(),
+            "processedTasksByShard", taskProcessorService.getProcessedTasksByShard()
         );
     }
     
+    @GetMapping("/shards")
+    public Map<Integer, String> getShardLeaders() {
+        return leaderElectionService.getShardLeaders();
+    }
+    
     @GetMapping("/health")
     public Map<String, String> getHealth() {
         return Map.of(
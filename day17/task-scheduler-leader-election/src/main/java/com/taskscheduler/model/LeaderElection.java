@@ -4,14 +4,23 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
+/**
+ * The lease on one shard of a service. Each of the {@code leader.election.shard-count} shards
+ * has its own row and its own leader.
+ */
 @Entity
 @Table(name = "leader_election")
+@IdClass(LeaderElectionId.class)
 public class LeaderElection {
     
     @Id
     @Column(name = "service_name", length = 100)
     private String serviceName;
     
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+    
     @NotNull
     @Column(name = "leader_instance_id")
     private String leaderInstanceId;
@@ -33,9 +42,10 @@ public class LeaderElection {
     // Constructors
     public LeaderElection() {}
     
-    public LeaderElection(String serviceName, String leaderInstanceId, 
+    public LeaderElection(String serviceName, Integer shardId, String leaderInstanceId, 
                          LocalDateTime leaseExpiresAt, Integer heartbeatIntervalMs) {
         this.serviceName = serviceName;
+        this.shardId = shardId;
         this.leaderInstanceId = leaderInstanceId;
         this.leaseExpiresAt = leaseExpiresAt;
         this.heartbeatIntervalMs = heartbeatIntervalMs;
@@ -47,6 +57,9 @@ public class LeaderElection {
     public String getServiceName() { return serviceName; }
     public void setServiceName(String serviceName) { this.serviceName = serviceName; }
     
+    public Integer getShardId() { return shardId; }
+    public void setShardId(Integer shardId) { this.shardId = shardId; }
+    
     public String getLeaderInstanceId() { return leaderInstanceId; }
     public void setLeaderInstanceId(String leaderInstanceId) { this.leaderInstanceId = leaderInstanceId; }
     
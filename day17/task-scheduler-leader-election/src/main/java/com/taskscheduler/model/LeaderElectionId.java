@@ -0,0 +1,32 @@
+package com.taskscheduler.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class LeaderElectionId implements Serializable {
+    
+    private String serviceName;
+    private Integer shardId;
+    
+    public LeaderElectionId() {}
+    
+    public LeaderElectionId(String serviceName, Integer shardId) {
+        this.serviceName = serviceName;
+        this.shardId = shardId;
+    }
+    
+    public String getServiceName() { return serviceName; }
+    public Integer getShardId() { return shardId; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LeaderElectionId other)) return false;
+        return Objects.equals(serviceName, other.serviceName) && Objects.equals(shardId, other.shardId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(serviceName, shardId);
+    }
+}
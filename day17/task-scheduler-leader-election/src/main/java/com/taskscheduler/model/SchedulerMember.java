@@ -0,0 +1,54 @@
+package com.taskscheduler.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * A running instance of a service. Shards are split evenly among the members whose heartbeat
+ * is younger than one lease, including those that do not hold any shard yet.
+ */
+@Entity
+@Table(name = "scheduler_member")
+@IdClass(SchedulerMemberId.class)
+public class SchedulerMember {
+    
+    @Id
+    @Column(name = "service_name", length = 100)
+    private String serviceName;
+    
+    @Id
+    @Column(name = "instance_id")
+    private String instanceId;
+    
+    @NotNull
+    @Column(name = "joined_at")
+    private LocalDateTime joinedAt;
+    
+    @NotNull
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+    
+    // Constructors
+    public SchedulerMember() {}
+    
+    public SchedulerMember(String serviceName, String instanceId, LocalDateTime heartbeatAt) {
+        this.serviceName = serviceName;
+        this.instanceId = instanceId;
+        this.joinedAt = heartbeatAt;
+        this.heartbeatAt = heartbeatAt;
+    }
+    
+    // Getters and Setters
+    public String getServiceName() { return serviceName; }
+    public void setServiceName(String serviceName) { this.serviceName = serviceName; }
+    
+    public String getInstanceId() { return instanceId; }
+    public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+    
+    public LocalDateTime getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(LocalDateTime joinedAt) { this.joinedAt = joinedAt; }
+    
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+}
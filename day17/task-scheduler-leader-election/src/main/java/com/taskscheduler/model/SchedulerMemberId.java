@@ -0,0 +1,32 @@
+package com.taskscheduler.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+public class SchedulerMemberId implements Serializable {
+    
+    private String serviceName;
+    private String instanceId;
+    
+    public SchedulerMemberId() {}
+    
+    public SchedulerMemberId(String serviceName, String instanceId) {
+        this.serviceName = serviceName;
+        this.instanceId = instanceId;
+    }
+    
+    public String getServiceName() { return serviceName; }
+    public String getInstanceId() { return instanceId; }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SchedulerMemberId other)) return false;
+        return Objects.equals(serviceName, other.serviceName) && Objects.equals(instanceId, other.instanceId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(serviceName, instanceId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.taskscheduler.repository;
 
 import com.taskscheduler.model.LeaderElection;
+import com.taskscheduler.model.LeaderElectionId;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,19 +9,20 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface LeaderElectionRepository extends JpaRepository<LeaderElection, String> {
+public interface LeaderElectionRepository extends JpaRepository<LeaderElection, LeaderElectionId> {
     
-    @Query("SELECT le FROM LeaderElection le WHERE le.serviceName = :serviceName")
-    Optional<LeaderElection> findByServiceName(@Param("serviceName") String serviceName);
+    @Query("SELECT le FROM LeaderElection le WHERE le.serviceName = :serviceName ORDER BY le.shardId")
+    List<LeaderElection> findByServiceName(@Param("serviceName") String serviceName);
     
     @Modifying
     @Transactional
     @Query(value = """
-        INSERT INTO leader_election (service_name, leader_instance_id, lease_expires_at, heartbeat_interval_ms, created_at, updated_at)
-        VALUES (:serviceName, :instanceId, :expiresAt, :heartbeatInterval, :now, :now)
+        INSERT INTO leader_election (service_name, shard_id, leader_instance_id, lease_expires_at, heartbeat_interval_ms, created_at, updated_at)
+        VALUES (:serviceName, :shardId, :instanceId, :expiresAt, :heartbeatInterval, :now, :now)
         ON DUPLICATE KEY UPDATE
             leader_instance_id = CASE 
                 WHEN lease_expires_at < :now THEN :instanceId
@@ -34,11 +36,27 @@ public interface LeaderElectionRepository extends JpaRepository<LeaderElection,
             updated_at = :now
         """, nativeQuery = true)
     int tryAcquireOrRenewLease(@Param("serviceName") String serviceName,
+                              @Param("shardId") Integer shardId,
                               @Param("instanceId") String instanceId,
                               @Param("expiresAt") LocalDateTime expiresAt,
                               @Param("heartbeatInterval") Integer heartbeatInterval,
                               @Param("now") LocalDateTime now);
     
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeaderElection le SET le.leaseExpiresAt = :expiresAt, le.updatedAt = :now WHERE le.serviceName = :serviceName AND le.leaderInstanceId = :instanceId AND le.leaseExpiresAt > :now")
+    int renewLeases(@Param("serviceName") String serviceName,
+                    @Param("instanceId") String instanceId,
+                    @Param("expiresAt") LocalDateTime expiresAt,
+                    @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LeaderElection le WHERE le.serviceName = :serviceName AND le.leaderInstanceId = :instanceId AND le.shardId IN :shardIds")
+    int releaseLeases(@Param("serviceName") String serviceName,
+                      @Param("instanceId") String instanceId,
+                      @Param("shardIds") Collection<Integer> shardIds);
+    
     @Modifying
     @Transactional
     @Query("DELETE FROM LeaderElection le WHERE le.serviceName = :serviceName AND le.leaderInstanceId = :instanceId")
@@ -0,0 +1,41 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.SchedulerMember;
+import com.taskscheduler.model.SchedulerMemberId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SchedulerMemberRepository extends JpaRepository<SchedulerMember, SchedulerMemberId> {
+    
+    @Query("SELECT m.instanceId FROM SchedulerMember m WHERE m.serviceName = :serviceName AND m.heartbeatAt > :since ORDER BY m.instanceId")
+    List<String> findLiveInstanceIds(@Param("serviceName") String serviceName,
+                                     @Param("since") LocalDateTime since);
+    
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO scheduler_member (service_name, instance_id, joined_at, heartbeat_at)
+        VALUES (:serviceName, :instanceId, :now, :now)
+        ON DUPLICATE KEY UPDATE heartbeat_at = :now
+        """, nativeQuery = true)
+    int heartbeat(@Param("serviceName") String serviceName,
+                  @Param("instanceId") String instanceId,
+                  @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SchedulerMember m WHERE m.serviceName = :serviceName AND m.heartbeatAt < :before")
+    int deleteSilentSince(@Param("serviceName") String serviceName, @Param("before") LocalDateTime before);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SchedulerMember m WHERE m.serviceName = :serviceName AND m.instanceId = :instanceId")
+    int leave(@Param("serviceName") String serviceName, @Param("instanceId") String instanceId);
+}
@@ -2,6 +2,7 @@ package com.taskscheduler.service;
 
 import com.taskscheduler.model.LeaderElection;
 import com.taskscheduler.repository.LeaderElectionRepository;
+import com.taskscheduler.repository.SchedulerMemberRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,27 +12,55 @@ import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.net.InetAddress;
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Leader election per shard. The service's work is split into {@code leader.election.shard-count}
+ * shards, each with its own lease row, and every instance leads a fair share of them (see
+ * {@link ShardBalancer}), so processing capacity grows with the number of instances.
+ *
+ * <p>On every heartbeat an instance renews its leases and its membership, then takes free shards
+ * up to its share or releases what it holds beyond it.
+ */
 @Service
 public class LeaderElectionService {
     
     private static final Logger logger = LoggerFactory.getLogger(LeaderElectionService.class);
     
+    // Members silent for this many leases are deleted, every PURGE_EVERY heartbeats
+    private static final int PURGE_AFTER_LEASES = 10;
+    private static final int PURGE_EVERY = 20;
+    
     private final LeaderElectionRepository repository;
+    private final SchedulerMemberRepository memberRepository;
+    private final ShardBalancer balancer;
     private final String serviceName;
     private final int heartbeatIntervalMs;
     private final int leaseDurationMs;
     private final String instanceId;
-    private final AtomicBoolean isLeader = new AtomicBoolean(false);
+    // Shards we lead, with the lease expiry last written for them
+    private final Map<Integer, LocalDateTime> ownedShards = new ConcurrentHashMap<>();
     private final AtomicBoolean isRunning = new AtomicBoolean(true);
+    private final AtomicLong heartbeats = new AtomicLong();
     
     public LeaderElectionService(LeaderElectionRepository repository,
+                               SchedulerMemberRepository memberRepository,
                                @Value("${leader.election.service-name:task-scheduler}") String serviceName,
                                @Value("${leader.election.heartbeat-interval-ms:5000}") int heartbeatIntervalMs,
-                               @Value("${leader.election.lease-duration-ms:15000}") int leaseDurationMs) {
+                               @Value("${leader.election.lease-duration-ms:15000}") int leaseDurationMs,
+                               @Value("${leader.election.shard-count:16}") int shardCount) {
         this.repository = repository;
+        this.memberRepository = memberRepository;
+        this.balancer = new ShardBalancer(shardCount);
         this.serviceName = serviceName;
         this.heartbeatIntervalMs = heartbeatIntervalMs;
         this.leaseDurationMs = leaseDurationMs;
@@ -40,9 +69,9 @@ public class LeaderElectionService {
     
     @PostConstruct
     public void initialize() {
-        logger.info("Initializing Leader Election Service for service: {}, instance: {}", 
-                   serviceName, instanceId);
-        logger.info("Heartbeat interval: {}ms, Lease duration: {}ms", 
+        logger.info("Initializing Leader Election Service for service: {}, instance: {}, shards: {}",
+                   serviceName, instanceId, balancer.getShardCount());
+        logger.info("Heartbeat interval: {}ms, Lease duration: {}ms",
                    heartbeatIntervalMs, leaseDurationMs);
     }
     
@@ -55,69 +84,112 @@ public class LeaderElectionService {
         try {
             LocalDateTime now = LocalDateTime.now();
             LocalDateTime expiresAt = now.plusNanos(leaseDurationMs * 1_000_000L);
+            LocalDateTime liveSince = now.minusNanos(leaseDurationMs * 1_000_000L);
             
-            int result = repository.tryAcquireOrRenewLease(
-                serviceName, instanceId, expiresAt, heartbeatIntervalMs, now);
+            memberRepository.heartbeat(serviceName, instanceId, now);
+            if (heartbeats.incrementAndGet() % PURGE_EVERY == 0) {
+                memberRepository.deleteSilentSince(serviceName, now.minusNanos(PURGE_AFTER_LEASES * leaseDurationMs * 1_000_000L));
+            }
+            repository.renewLeases(serviceName, instanceId, expiresAt, now);
             
-            // Check if we successfully acquired/renewed the lease
-            boolean newLeaderStatus = checkLeadershipStatus();
+            List<String> liveMembers = memberRepository.findLiveInstanceIds(serviceName, liveSince);
+            Map<Integer, LeaderElection> leases = currentLeases(now);
+            Map<Integer, String> owners = new HashMap<>();
+            leases.forEach((shard, lease) -> owners.put(shard, lease.getLeaderInstanceId()));
             
-            if (newLeaderStatus && !isLeader.get()) {
-                logger.info("✅ Acquired leadership for service: {}, instance: {}", serviceName, instanceId);
-                isLeader.set(true);
-            } else if (!newLeaderStatus && isLeader.get()) {
-                logger.warn("❌ Lost leadership for service: {}, instance: {}", serviceName, instanceId);
-                isLeader.set(false);
+            ShardBalancer.Plan plan = balancer.plan(instanceId, liveMembers, owners);
+            if (!plan.release().isEmpty()) {
+                // Stop processing them before anyone else can take them
+                plan.release().forEach(ownedShards::remove);
+                repository.releaseLeases(serviceName, instanceId, plan.release());
+            }
+            for (int shard : plan.acquire()) {
+                repository.tryAcquireOrRenewLease(serviceName, shard, instanceId, expiresAt, heartbeatIntervalMs, now);
+            }
+            if (!plan.isEmpty()) {
+                // Other instances may have won some of the free shards we went for
+                leases = currentLeases(now);
             }
+            updateOwnedShards(leases);
             
             if (logger.isDebugEnabled()) {
-                logger.debug("Leadership maintenance - Service: {}, Instance: {}, IsLeader: {}", 
-                           serviceName, instanceId, isLeader.get());
+                logger.debug("Leadership maintenance - Service: {}, Instance: {}, Members: {}, Shards: {}",
+                           serviceName, instanceId, liveMembers.size(), getOwnedShards());
             }
-            
+        
         } catch (Exception e) {
             logger.error("Error during leadership maintenance for instance: " + instanceId, e);
-            isLeader.set(false);
+            ownedShards.clear();
         }
     }
     
-    private boolean checkLeadershipStatus() {
-        try {
-            Optional<LeaderElection> currentLeader = repository.findByServiceName(serviceName);
-            if (currentLeader.isPresent()) {
-                LeaderElection leader = currentLeader.get();
-                LocalDateTime now = LocalDateTime.now();
-                
-                // Check if lease is not expired and we are the leader
-                return leader.getLeaseExpiresAt().isAfter(now) && 
-                       instanceId.equals(leader.getLeaderInstanceId());
+    // Unexpired leases of this service by shard
+    private Map<Integer, LeaderElection> currentLeases(LocalDateTime now) {
+        Map<Integer, LeaderElection> leases = new TreeMap<>();
+        for (LeaderElection lease : repository.findByServiceName(serviceName)) {
+            if (lease.getShardId() < balancer.getShardCount() && lease.getLeaseExpiresAt().isAfter(now)) {
+                leases.put(lease.getShardId(), lease);
             }
-            return false;
-        } catch (Exception e) {
-            logger.error("Error checking leadership status", e);
-            return false;
         }
+        return leases;
     }
     
+    private void updateOwnedShards(Map<Integer, LeaderElection> leases) {
+        Set<Integer> previous = new TreeSet<>(ownedShards.keySet());
+        Map<Integer, LocalDateTime> current = new HashMap<>();
+        leases.forEach((shard, lease) -> {
+            if (instanceId.equals(lease.getLeaderInstanceId())) {
+                current.put(shard, lease.getLeaseExpiresAt());
+            }
+        });
+        ownedShards.keySet().retainAll(current.keySet());
+        ownedShards.putAll(current);
+        
+        Set<Integer> acquired = new TreeSet<>(current.keySet());
+        acquired.removeAll(previous);
+        previous.removeAll(current.keySet());
+        if (!acquired.isEmpty()) {
+            logger.info("✅ Acquired leadership of shards {} for service: {}, instance: {}", acquired, serviceName, instanceId);
+        }
+        if (!previous.isEmpty()) {
+            logger.warn("❌ Gave up leadership of shards {} for service: {}, instance: {}", previous, serviceName, instanceId);
+        }
+    }
+    
+    /** Whether this instance leads {@code shardId} and its lease has not run out. */
+    public boolean ownsShard(int shardId) {
+        LocalDateTime expiresAt = ownedShards.get(shardId);
+        return isRunning.get() && expiresAt != null && expiresAt.isAfter(LocalDateTime.now());
+    }
+    
+    public SortedSet<Integer> getOwnedShards() {
+        SortedSet<Integer> shards = new TreeSet<>();
+        ownedShards.keySet().forEach(shard -> {
+            if (ownsShard(shard)) {
+                shards.add(shard);
+            }
+        });
+        return shards;
+    }
+    
+    /** Whether this instance leads at least one shard. */
     public boolean isLeader() {
-        return isLeader.get() && isRunning.get();
+        return !getOwnedShards().isEmpty();
     }
     
-    public String getCurrentLeader() {
+    public int getShardCount() {
+        return balancer.getShardCount();
+    }
+    
+    /** Current leader of each shard that has one. */
+    public Map<Integer, String> getShardLeaders() {
         try {
-            Optional<LeaderElection> currentLeader = repository.findByServiceName(serviceName);
-            if (currentLeader.isPresent()) {
-                LeaderElection leader = currentLeader.get();
-                LocalDateTime now = LocalDateTime.now();
-                
-                if (leader.getLeaseExpiresAt().isAfter(now)) {
-                    return leader.getLeaderInstanceId();
-                }
-            }
-            return null;
+            Map<Integer, String> leaders = new TreeMap<>();
+            currentLeases(LocalDateTime.now()).forEach((shard, lease) -> leaders.put(shard, lease.getLeaderInstanceId()));
+            return leaders;
         } catch (Exception e) {
-            logger.error("Error getting current leader", e);
-            return null;
+            logger.error("Error getting shard leaders", e);
+            return Map.of();
         }
     }
     
@@ -130,16 +202,16 @@ public class LeaderElectionService {
         logger.info("Shutting down Leader Election Service for instance: {}", instanceId);
         isRunning.set(false);
         
-        if (isLeader.get()) {
-            try {
-                repository.releaseLease(serviceName, instanceId);
-                logger.info("Released leadership lease for instance: {}", instanceId);
-            } catch (Exception e) {
-                logger.error("Error releasing leadership lease", e);
-            }
+        try {
+            // Frees our shards for the others now rather than when the leases run out
+            int released = repository.releaseLease(serviceName, instanceId);
+            memberRepository.leave(serviceName, instanceId);
+            logger.info("Released {} shard leases for instance: {}", released, instanceId);
+        } catch (Exception e) {
+            logger.error("Error releasing shard leases", e);
         }
         
-        isLeader.set(false);
+        ownedShards.clear();
     }
     
     private String generateInstanceId() {
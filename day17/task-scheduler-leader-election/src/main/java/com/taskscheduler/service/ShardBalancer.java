@@ -0,0 +1,99 @@
+package com.taskscheduler.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Decides which shard leases one member should take or give up, given the live members and
+ * who holds each shard.
+ *
+ * <p>Every member gets {@code shardCount / members} shards and the remainder goes, one each, to
+ * the members already holding the most, so a member keeps what it has unless it holds more than
+ * its share. Members working from the same view agree on all targets, so on a join or a leave
+ * only the surplus moves. Which shards to take or drop follows a per-member preference order
+ * (rendezvous hashing), so members reaching for free shards at the same time mostly reach for
+ * different ones.
+ */
+public final class ShardBalancer {
+    
+    public record Plan(List<Integer> acquire, List<Integer> release) {
+        public boolean isEmpty() {
+            return acquire.isEmpty() && release.isEmpty();
+        }
+    }
+    
+    private final int shardCount;
+    
+    public ShardBalancer(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+    
+    public int getShardCount() {
+        return shardCount;
+    }
+    
+    /**
+     * @param self        the member planning
+     * @param liveMembers members with a current heartbeat; {@code self} is added if missing
+     * @param owners      holder of every shard with an unexpired lease
+     */
+    public Plan plan(String self, Collection<String> liveMembers, Map<Integer, String> owners) {
+        TreeSet<String> members = new TreeSet<>(liveMembers);
+        members.add(self);
+        Map<String, Integer> held = new HashMap<>();
+        for (String owner : owners.values()) {
+            held.merge(owner, 1, Integer::sum);
+        }
+        int target = targets(members, held).get(self);
+        
+        List<Integer> owned = new ArrayList<>();
+        List<Integer> free = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            String owner = owners.get(shard);
+            if (self.equals(owner)) {
+                owned.add(shard);
+            } else if (owner == null) {
+                free.add(shard);
+            }
+        }
+        Comparator<Integer> preferred = Comparator.comparingLong((Integer shard) -> score(shard, self)).reversed();
+        
+        if (owned.size() > target) {
+            owned.sort(preferred);
+            return new Plan(List.of(), List.copyOf(owned.subList(target, owned.size())));
+        }
+        free.sort(preferred);
+        int wanted = Math.min(target - owned.size(), free.size());
+        return new Plan(List.copyOf(free.subList(0, wanted)), List.of());
+    }
+    
+    /** Shards each member should hold: the even split, plus one for the biggest holders. */
+    Map<String, Integer> targets(Collection<String> members, Map<String, Integer> held) {
+        List<String> byHoldings = new ArrayList<>(members);
+        byHoldings.sort(Comparator.comparing((String member) -> held.getOrDefault(member, 0)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+        int base = shardCount / byHoldings.size();
+        int extra = shardCount % byHoldings.size();
+        Map<String, Integer> targets = new HashMap<>();
+        for (int i = 0; i < byHoldings.size(); i++) {
+            targets.put(byHoldings.get(i), base + (i < extra ? 1 : 0));
+        }
+        return targets;
+    }
+    
+    // Same on every node and JVM, as String.hashCode is specified
+    static long score(int shard, String member) {
+        long z = member.hashCode() * 0x9E3779B97F4A7C15L + shard;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
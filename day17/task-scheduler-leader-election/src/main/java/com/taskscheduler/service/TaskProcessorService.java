@@ -5,6 +5,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Service
@@ -14,6 +18,7 @@ public class TaskProcessorService {
     
     private final LeaderElectionService leaderElectionService;
     private final AtomicLong taskCounter = new AtomicLong(0);
+    private final Map<Integer, AtomicLong> tasksByShard = new ConcurrentHashMap<>();
     
     public TaskProcessorService(LeaderElectionService leaderElectionService) {
         this.leaderElectionService = leaderElectionService;
@@ -21,10 +26,22 @@ public class TaskProcessorService {
     
     @Scheduled(fixedDelay = 3000) // Process tasks every 3 seconds
     public void processTasks() {
-        if (leaderElectionService.isLeader()) {
+        SortedSet<Integer> shards = leaderElectionService.getOwnedShards();
+        if (shards.isEmpty()) {
+            logger.debug("⏸️ Leading no shards, skipping task processing (Shard leaders: {})", 
+                        leaderElectionService.getShardLeaders());
+            return;
+        }
+        
+        for (int shard : shards) {
+            // The lease may have run out or been handed over while the previous shard was processed
+            if (!leaderElectionService.ownsShard(shard)) {
+                continue;
+            }
             long taskId = taskCounter.incrementAndGet();
-            logger.info("🚀 Processing task #{} at {} (Leader: {})", 
-                       taskId, LocalDateTime.now(), leaderElectionService.getInstanceId());
+            tasksByShard.computeIfAbsent(shard, s -> new AtomicLong()).incrementAndGet();
+            logger.info("🚀 Processing task #{} of shard {} at {} (Leader: {})", 
+                       taskId, shard, LocalDateTime.now(), leaderElectionService.getInstanceId());
             
             // Simulate task processing
             try {
@@ -33,14 +50,18 @@ public class TaskProcessorService {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
                 logger.error("Task #{} interrupted", taskId);
+                return;
             }
-        } else {
-            logger.debug("⏸️ Not leader, skipping task processing (Current leader: {})", 
-                        leaderElectionService.getCurrentLeader());
         }
     }
     
     public long getProcessedTaskCount() {
         return taskCounter.get();
     }
+    
+    public Map<Integer, Long> getProcessedTasksByShard() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        tasksByShard.forEach((shard, count) -> counts.put(shard, count.get()));
+        return counts;
+    }
 }
@@ -0,0 +1,216 @@
+package com.taskscheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link ShardBalancer} for several nodes against an in-memory lease table that behaves
+ * like the real one: leases expire unless renewed, and a shard can only be acquired while free.
+ * One tick is one heartbeat.
+ */
+public class ShardBalancerSimulationTest {
+    
+    private static final int SHARDS = 16;
+    private static final int LEASE_TICKS = 3;
+    private static final int TASKS_PER_SHARD_PER_TICK = 10;
+    private static final int TASKS_PER_NODE_PER_TICK = 20;
+    
+    @Test
+    public void testSchedulingCapacityScalesWithNodeCount() {
+        Map<Integer, Double> throughput = new TreeMap<>();
+        for (int nodes : new int[] { 1, 2, 4, 8 }) {
+            Cluster cluster = new Cluster(nodes);
+            for (int i = 1; i <= nodes; i++) {
+                cluster.join("node-" + i);
+            }
+            cluster.run(10);
+            assertBalanced(cluster);
+            
+            long processed = 0;
+            for (int tick = 0; tick < 20; tick++) {
+                processed += cluster.step();
+            }
+            throughput.put(nodes, processed / 20.0);
+        }
+        // A single leader would stay at one node's worth however many nodes run
+        for (Map.Entry<Integer, Double> entry : throughput.entrySet()) {
+            assertEquals(entry.getKey() * TASKS_PER_NODE_PER_TICK, entry.getValue(), 0.001,
+                "tasks per tick by node count: " + throughput);
+        }
+    }
+    
+    @Test
+    public void testJoinAndLeaveMoveOnlyTheSurplus() {
+        Cluster cluster = new Cluster(42);
+        for (int i = 1; i <= 4; i++) {
+            cluster.join("node-" + i);
+        }
+        cluster.run(10);
+        assertBalanced(cluster);
+        
+        // 4 x 4 shards -> 4 + 3 + 3 + 3 + 3: three shards move to the newcomer, nothing else
+        cluster.acquisitions = 0;
+        cluster.join("node-5");
+        cluster.run(10);
+        assertBalanced(cluster);
+        assertEquals(3, cluster.held("node-5"));
+        assertEquals(3, cluster.acquisitions);
+        
+        // A graceful leave frees its shards at once; only those move
+        int leaving = cluster.held("node-3");
+        cluster.acquisitions = 0;
+        cluster.leave("node-3");
+        cluster.run(2);
+        assertBalanced(cluster);
+        assertEquals(leaving, cluster.acquisitions);
+        
+        // A crashed node's shards move once its leases run out
+        int crashing = cluster.held("node-2");
+        cluster.acquisitions = 0;
+        cluster.crash("node-2");
+        cluster.run(LEASE_TICKS - 1);
+        assertEquals(0, cluster.acquisitions);
+        cluster.run(LEASE_TICKS + 2);
+        assertBalanced(cluster);
+        assertEquals(crashing, cluster.acquisitions);
+    }
+    
+    private static void assertBalanced(Cluster cluster) {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        int total = 0;
+        for (String node : cluster.running) {
+            int held = cluster.held(node);
+            min = Math.min(min, held);
+            max = Math.max(max, held);
+            total += held;
+        }
+        assertEquals(SHARDS, total, "every shard has a leader among the running nodes");
+        assertTrue(max - min <= 1, "shards per node between " + min + " and " + max);
+    }
+    
+    private record Lease(String owner, long expiresAt) {}
+    
+    private static final class Cluster {
+        
+        private final ShardBalancer balancer = new ShardBalancer(SHARDS);
+        private final Random random;
+        private final Map<Integer, Lease> leases = new HashMap<>();
+        private final Map<String, Long> heartbeats = new HashMap<>();
+        private final Set<String> running = new LinkedHashSet<>();
+        private final long[] backlog = new long[SHARDS];
+        private long tick;
+        private int acquisitions;
+        
+        Cluster(long seed) {
+            this.random = new Random(seed);
+        }
+        
+        void join(String node) {
+            running.add(node);
+        }
+        
+        void leave(String node) {
+            running.remove(node);
+            heartbeats.remove(node);
+            leases.values().removeIf(lease -> lease.owner().equals(node));
+        }
+        
+        void crash(String node) {
+            running.remove(node);
+        }
+        
+        void run(int ticks) {
+            for (int i = 0; i < ticks; i++) {
+                step();
+            }
+        }
+        
+        /** One heartbeat of every running node, in random order, then one tick of work; returns the tasks done. */
+        long step() {
+            tick++;
+            List<String> order = new ArrayList<>(running);
+            Collections.shuffle(order, random);
+            for (String node : order) {
+                heartbeat(node);
+            }
+            
+            for (int shard = 0; shard < SHARDS; shard++) {
+                backlog[shard] += TASKS_PER_SHARD_PER_TICK;
+            }
+            long processed = 0;
+            for (String node : running) {
+                long budget = TASKS_PER_NODE_PER_TICK;
+                List<Integer> owned = owned(node);
+                // Round-robin over the node's shards until its capacity or their backlog runs out
+                for (boolean progress = true; budget > 0 && progress; ) {
+                    progress = false;
+                    for (int shard : owned) {
+                        if (budget > 0 && backlog[shard] > 0) {
+                            backlog[shard]--;
+                            budget--;
+                            processed++;
+                            progress = true;
+                        }
+                    }
+                }
+            }
+            return processed;
+        }
+        
+        // What LeaderElectionService.maintainLeadership does, against the maps
+        private void heartbeat(String node) {
+            heartbeats.put(node, tick);
+            leases.replaceAll((shard, lease) -> lease.owner().equals(node) && lease.expiresAt() > tick
+                ? new Lease(node, tick + LEASE_TICKS) : lease);
+            
+            List<String> live = new ArrayList<>();
+            heartbeats.forEach((member, beat) -> {
+                if (tick - beat < LEASE_TICKS) {
+                    live.add(member);
+                }
+            });
+            Map<Integer, String> owners = new HashMap<>();
+            leases.forEach((shard, lease) -> {
+                if (lease.expiresAt() > tick) {
+                    owners.put(shard, lease.owner());
+                }
+            });
+            
+            ShardBalancer.Plan plan = balancer.plan(node, live, owners);
+            plan.release().forEach(leases::remove);
+            for (int shard : plan.acquire()) {
+                Lease lease = leases.get(shard);
+                if (lease == null || lease.expiresAt() <= tick) {
+                    leases.put(shard, new Lease(node, tick + LEASE_TICKS));
+                    acquisitions++;
+                }
+            }
+        }
+        
+        List<Integer> owned(String node) {
+            List<Integer> owned = new ArrayList<>();
+            leases.forEach((shard, lease) -> {
+                if (lease.owner().equals(node) && lease.expiresAt() > tick) {
+                    owned.add(shard);
+                }
+            });
+            return owned;
+        }
+        
+        int held(String node) {
+            return owned(node).size();
+        }
+    }
+}
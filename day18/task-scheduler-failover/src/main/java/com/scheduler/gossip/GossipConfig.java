@@ -0,0 +1,35 @@
+package com.scheduler.gossip;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Configuration
+public class GossipConfig {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GossipConfig.class);
+    
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public GossipMembership gossipMembership(@Value("${scheduler.node.id}") String nodeId,
+                                             @Value("${scheduler.gossip.port:7946}") int port,
+                                             @Value("${scheduler.gossip.seeds:}") String seeds,
+                                             @Value("${scheduler.gossip.protocol-period:1000}") long protocolPeriod,
+                                             @Value("${scheduler.gossip.ping-timeout:300}") long pingTimeout,
+                                             @Value("${scheduler.gossip.indirect-probes:3}") int indirectProbes,
+                                             @Value("${scheduler.gossip.suspicion-timeout:4000}") long suspicionTimeout) {
+        List<String> seedList = Arrays.stream(seeds.split(","))
+                .map(String::trim)
+                .filter(seed -> !seed.isEmpty())
+                .toList();
+        if (seedList.isEmpty()) {
+            // Unknown nodes count as healthy, so an unseeded node fails nobody over on gossip
+            logger.warn("No scheduler.gossip.seeds configured; node {} will only learn of nodes that contact it", nodeId);
+        }
+        return new GossipMembership(nodeId, port, seedList, protocolPeriod, pingTimeout, indirectProbes, suspicionTimeout);
+    }
+}
@@ -0,0 +1,28 @@
+package com.scheduler.gossip;
+
+import com.scheduler.model.NodeHealth;
+
+import java.net.InetSocketAddress;
+
+/**
+ * One node as the local membership view sees it.
+ *
+ * @param address        where its gossip socket listens; {@code null} for the local node
+ * @param incarnation    raised only by the node itself, to refute suspicion or announce a new status
+ * @param lastSeenMillis when we last heard from it directly
+ */
+public record GossipMember(String nodeId,
+                           InetSocketAddress address,
+                           long incarnation,
+                           State state,
+                           NodeHealth.HealthStatus status,
+                           long lastSeenMillis) {
+    
+    public enum State {
+        ALIVE, SUSPECT, DEAD
+    }
+    
+    public boolean isDead() {
+        return state == State.DEAD;
+    }
+}
@@ -0,0 +1,589 @@
+package com.scheduler.gossip;
+
+import com.scheduler.gossip.GossipMember.State;
+import com.scheduler.model.NodeHealth.HealthStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * SWIM-style membership over UDP: failure detection by probing, dissemination by piggybacking.
+ *
+ * <p>Every protocol period a node pings one member, taking them in shuffled round-robin order.
+ * If no ack arrives within the ping timeout it asks a few other members to ping the target for
+ * it, and if the period ends without any ack the target becomes SUSPECT. A suspect that does not
+ * refute the suspicion (by gossiping ALIVE with a higher incarnation) within the suspicion
+ * timeout is declared DEAD. A slow or briefly unreachable node therefore gets a chance to clear
+ * itself instead of being failed on one missed heartbeat, and a dead one is found within about a
+ * period plus the suspicion timeout, whatever the cluster size.
+ *
+ * <p>Membership changes and health status ride on the pings and acks, each retransmitted about
+ * {@code 3·log2(n+1)} times, so nothing is sent besides the probes themselves and every node
+ * holds the whole view in memory.
+ */
+public class GossipMembership {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GossipMembership.class);
+    
+    private static final byte PING = 1;
+    private static final byte ACK = 2;
+    private static final byte PING_REQ = 3;
+    
+    // Keeps a packet well under a typical MTU
+    private static final int MAX_UPDATES = 16;
+    private static final int RETRANSMIT_MULTIPLIER = 3;
+    
+    private final String nodeId;
+    private final int port;
+    private final List<String> seeds;
+    private final long protocolPeriodMs;
+    private final long pingTimeoutMs;
+    private final int indirectProbes;
+    private final long suspicionTimeoutMs;
+    
+    private final Object lock = new Object();
+    // Everyone but us, including the dead so stale gossip cannot bring them back
+    private final Map<String, Node> members = new HashMap<>();
+    private final Map<String, Broadcast> broadcasts = new LinkedHashMap<>();
+    // Our own probes still waiting for an ack, and pings we sent on behalf of others
+    private final Map<Long, String> probes = new HashMap<>();
+    private final Map<Long, Relay> relays = new HashMap<>();
+    private final List<String> probeOrder = new ArrayList<>();
+    private final List<Consumer<GossipMember>> listeners = new CopyOnWriteArrayList<>();
+    private int probeIndex;
+    private long sequence;
+    private long incarnation;
+    private HealthStatus status = HealthStatus.HEALTHY;
+    // Set once we have said goodbye, so the news of our death coming back is not refuted
+    private boolean leaving;
+    
+    private volatile boolean running;
+    private DatagramSocket socket;
+    private ScheduledExecutorService protocolExecutor;
+    private ExecutorService eventExecutor;
+    
+    /**
+     * @param port  UDP port to listen on, or 0 for any free one
+     * @param seeds {@code host:port} of nodes to join through; our own address may be among them
+     */
+    public GossipMembership(String nodeId, int port, List<String> seeds, long protocolPeriodMs,
+                            long pingTimeoutMs, int indirectProbes, long suspicionTimeoutMs) {
+        if (pingTimeoutMs >= protocolPeriodMs) {
+            throw new IllegalArgumentException("ping timeout must be shorter than the protocol period");
+        }
+        this.nodeId = nodeId;
+        this.port = port;
+        this.seeds = List.copyOf(seeds);
+        this.protocolPeriodMs = protocolPeriodMs;
+        this.pingTimeoutMs = pingTimeoutMs;
+        this.indirectProbes = indirectProbes;
+        this.suspicionTimeoutMs = suspicionTimeoutMs;
+    }
+    
+    public void start() throws SocketException {
+        socket = new DatagramSocket(port);
+        synchronized (lock) {
+            // Above anything gossiped about a previous run of this node, so a restart is not left dead
+            incarnation = System.currentTimeMillis();
+        }
+        running = true;
+        protocolExecutor = Executors.newSingleThreadScheduledExecutor(daemon("gossip-protocol"));
+        eventExecutor = Executors.newSingleThreadExecutor(daemon("gossip-events"));
+        daemon("gossip-receiver").newThread(this::receive).start();
+        protocolExecutor.scheduleWithFixedDelay(this::protocolRound, 0, protocolPeriodMs, TimeUnit.MILLISECONDS);
+        logger.info("Gossip for node {} on UDP port {}, seeds {}", nodeId, getLocalPort(), seeds);
+    }
+    
+    /** Tells the members we know that we are leaving, then stops. */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        List<InetSocketAddress> targets = new ArrayList<>();
+        byte[] farewell;
+        synchronized (lock) {
+            leaving = true;
+            members.values().stream().filter(node -> node.state != State.DEAD).forEach(node -> targets.add(node.address));
+            farewell = encode(PING, 0, null, List.of(new Update(nodeId, "", 0, incarnation, State.DEAD, status)));
+        }
+        for (InetSocketAddress target : targets) {
+            send(target, farewell);
+        }
+        stop();
+    }
+    
+    /** Stops without a word, as if the process had died. */
+    public void stop() {
+        running = false;
+        if (protocolExecutor != null) {
+            protocolExecutor.shutdownNow();
+            eventExecutor.shutdownNow();
+        }
+        if (socket != null) {
+            socket.close();
+        }
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+    
+    /** Announces a new health status for this node, under a new incarnation. */
+    public void setLocalStatus(HealthStatus newStatus) {
+        synchronized (lock) {
+            if (status != newStatus) {
+                status = newStatus;
+                incarnation++;
+                enqueue(self());
+            }
+        }
+    }
+    
+    /** Called, on one thread and in order, whenever another member's state or status changes. */
+    public void addListener(Consumer<GossipMember> listener) {
+        listeners.add(listener);
+    }
+    
+    public Optional<GossipMember> getMember(String memberId) {
+        synchronized (lock) {
+            if (nodeId.equals(memberId)) {
+                return Optional.of(selfSnapshot());
+            }
+            Node node = members.get(memberId);
+            return node == null ? Optional.empty() : Optional.of(node.snapshot());
+        }
+    }
+    
+    /** This node first, then the others by id. */
+    public List<GossipMember> getMembers() {
+        synchronized (lock) {
+            List<GossipMember> view = new ArrayList<>();
+            members.values().forEach(node -> view.add(node.snapshot()));
+            view.sort(Comparator.comparing(GossipMember::nodeId));
+            view.add(0, selfSnapshot());
+            return view;
+        }
+    }
+    
+    // -- failure detection
+    
+    private void protocolRound() {
+        try {
+            long now = System.currentTimeMillis();
+            boolean alone;
+            synchronized (lock) {
+                expireSuspects(now);
+                relays.values().removeIf(relay -> relay.expiresAt < now);
+                alone = members.values().stream().allMatch(node -> node.state == State.DEAD);
+            }
+            if (alone) {
+                joinSeeds();
+            }
+            probe();
+        } catch (RuntimeException e) {
+            logger.warn("Gossip round failed for node {}", nodeId, e);
+        }
+    }
+    
+    // Seeds answer an unknown sender with the whole view
+    private void joinSeeds() {
+        byte[] ping = encode(PING, 0, null, List.of());
+        for (String seed : seeds) {
+            int colon = seed.lastIndexOf(':');
+            InetSocketAddress address = new InetSocketAddress(seed.substring(0, colon).trim(),
+                Integer.parseInt(seed.substring(colon + 1).trim()));
+            if (!address.isUnresolved()) {
+                send(address, ping);
+            }
+        }
+    }
+    
+    private void probe() {
+        Node target;
+        long seq;
+        synchronized (lock) {
+            target = nextProbeTarget();
+            if (target == null) {
+                return;
+            }
+            seq = ++sequence;
+            probes.put(seq, target.id);
+        }
+        send(target.address, encode(PING, seq, null, null));
+        schedule(() -> probeIndirectly(seq, target), pingTimeoutMs);
+        schedule(() -> endProbe(seq, target.id), protocolPeriodMs);
+    }
+    
+    // Shuffled round robin: every member is probed once in each pass over the list
+    private Node nextProbeTarget() {
+        for (int pass = 0; pass < 2; pass++) {
+            while (probeIndex < probeOrder.size()) {
+                Node node = members.get(probeOrder.get(probeIndex++));
+                if (node != null && node.state != State.DEAD) {
+                    return node;
+                }
+            }
+            probeOrder.clear();
+            members.values().stream().filter(node -> node.state != State.DEAD).forEach(node -> probeOrder.add(node.id));
+            Collections.shuffle(probeOrder);
+            probeIndex = 0;
+        }
+        return null;
+    }
+    
+    private void probeIndirectly(long seq, Node target) {
+        List<Node> helpers = new ArrayList<>();
+        synchronized (lock) {
+            if (!probes.containsKey(seq)) {
+                return;
+            }
+            members.values().stream()
+                .filter(node -> node.state == State.ALIVE && !node.id.equals(target.id))
+                .forEach(helpers::add);
+        }
+        Collections.shuffle(helpers, ThreadLocalRandom.current());
+        byte[] request = encode(PING_REQ, seq, target, null);
+        helpers.stream().limit(indirectProbes).forEach(helper -> send(helper.address, request));
+    }
+    
+    private void endProbe(long seq, String targetId) {
+        synchronized (lock) {
+            Node target = members.get(targetId);
+            if (probes.remove(seq) != null && target != null && target.state == State.ALIVE) {
+                logger.info("No ack from {} within {}ms, suspecting it", targetId, protocolPeriodMs);
+                apply(target.update(State.SUSPECT), System.currentTimeMillis());
+            }
+        }
+    }
+    
+    private void expireSuspects(long now) {
+        for (Node node : List.copyOf(members.values())) {
+            if (node.state == State.SUSPECT && now - node.suspectedAt >= suspicionTimeoutMs) {
+                logger.warn("Node {} did not refute suspicion within {}ms, declaring it dead", node.id, suspicionTimeoutMs);
+                apply(node.update(State.DEAD), now);
+            }
+        }
+    }
+    
+    // -- messages
+    
+    private void receive() {
+        byte[] buffer = new byte[65_507];
+        while (running) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                handle(packet);
+            } catch (SocketException e) {
+                if (running) {
+                    logger.error("Gossip socket failed for node {}", nodeId, e);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Dropping malformed gossip packet from {}", packet.getSocketAddress(), e);
+            }
+        }
+    }
+    
+    private void handle(DatagramPacket packet) throws IOException {
+        DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(packet.getData(), packet.getOffset(), packet.getLength()));
+        byte type = in.readByte();
+        long seq = in.readLong();
+        Update sender = Update.read(in);
+        if (nodeId.equals(sender.nodeId)) {
+            return; // we are among our own seeds
+        }
+        InetSocketAddress from = (InetSocketAddress) packet.getSocketAddress();
+        String targetId = null;
+        InetSocketAddress target = null;
+        if (type == PING_REQ) {
+            targetId = in.readUTF();
+            target = new InetSocketAddress(in.readUTF(), in.readInt());
+        }
+        int count = in.readUnsignedShort();
+        List<Update> updates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            updates.add(Update.read(in));
+        }
+        
+        long now = System.currentTimeMillis();
+        boolean newcomer;
+        synchronized (lock) {
+            newcomer = !members.containsKey(sender.nodeId);
+            heardFrom(sender, from, now);
+            updates.forEach(update -> apply(update, now));
+        }
+        
+        switch (type) {
+            case PING -> send(from, encode(ACK, seq, null, newcomer ? fullView() : null));
+            case PING_REQ -> {
+                long relaySeq;
+                synchronized (lock) {
+                    relaySeq = ++sequence;
+                    relays.put(relaySeq, new Relay(from, seq, now + protocolPeriodMs));
+                }
+                logger.debug("Pinging {} for {}", targetId, sender.nodeId);
+                send(target, encode(PING, relaySeq, null, null));
+            }
+            case ACK -> {
+                Relay relay;
+                synchronized (lock) {
+                    probes.remove(seq);
+                    relay = relays.remove(seq);
+                }
+                if (relay != null) {
+                    send(relay.origin, encode(ACK, relay.seq, null, null));
+                }
+            }
+            default -> logger.debug("Unknown gossip message type {} from {}", type, from);
+        }
+    }
+    
+    // Whatever the message, its sender is alive and reachable at the address it came from
+    private void heardFrom(Update sender, InetSocketAddress from, long now) {
+        Node node = members.get(sender.nodeId);
+        if (node == null) {
+            apply(new Update(sender.nodeId, from.getAddress().getHostAddress(), from.getPort(),
+                sender.incarnation, State.ALIVE, sender.status), now);
+            return;
+        }
+        node.address = from;
+        node.lastSeen = now;
+        apply(sender, now);
+        if (node.state != State.ALIVE && !broadcasts.containsKey(node.id)) {
+            // It may not know yet; tell it so it can refute
+            enqueue(node.update(node.state));
+        }
+    }
+    
+    /**
+     * SWIM precedence: ALIVE overrides at a higher incarnation, SUSPECT overrides ALIVE at the
+     * same one, and DEAD overrides anything at the same one. Only the node itself raises its
+     * incarnation, so only it can clear a suspicion.
+     */
+    private void apply(Update update, long now) {
+        if (nodeId.equals(update.nodeId)) {
+            if (update.state != State.ALIVE && update.incarnation >= incarnation && !leaving) {
+                incarnation = update.incarnation + 1;
+                logger.info("Refuting {} of node {} with incarnation {}", update.state, nodeId, incarnation);
+                enqueue(self());
+            }
+            return;
+        }
+        
+        Node node = members.get(update.nodeId);
+        if (node == null) {
+            if (update.host.isEmpty()) {
+                return; // no address to reach it at; we will hear from it directly
+            }
+            node = new Node(update.nodeId, new InetSocketAddress(update.host, update.port));
+            node.lastSeen = now;
+            members.put(node.id, node);
+        } else {
+            boolean overrides = switch (update.state) {
+                case ALIVE -> update.incarnation > node.incarnation;
+                case SUSPECT -> update.incarnation > node.incarnation
+                    || (update.incarnation == node.incarnation && node.state == State.ALIVE);
+                case DEAD -> update.incarnation > node.incarnation
+                    || (update.incarnation == node.incarnation && node.state != State.DEAD);
+            };
+            if (!overrides) {
+                return;
+            }
+        }
+        
+        State previousState = node.state;
+        HealthStatus previousStatus = node.status;
+        node.incarnation = update.incarnation;
+        node.state = update.state;
+        node.status = update.status;
+        if (update.state == State.SUSPECT) {
+            node.suspectedAt = now;
+        }
+        enqueue(node.update(node.state));
+        if (node.state != previousState || node.status != previousStatus) {
+            logger.info("Node {} is now {} ({}), incarnation {}", node.id, node.state, node.status, node.incarnation);
+            GossipMember member = node.snapshot();
+            try {
+                eventExecutor.execute(() -> listeners.forEach(listener -> listener.accept(member)));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Not reporting {} after stop", member);
+            }
+        }
+    }
+    
+    private void enqueue(Update update) {
+        // A newer update about a node replaces whatever was still going out about it
+        broadcasts.remove(update.nodeId);
+        broadcasts.put(update.nodeId, new Broadcast(update));
+    }
+    
+    private Update self() {
+        return new Update(nodeId, "", 0, incarnation, State.ALIVE, status);
+    }
+    
+    private GossipMember selfSnapshot() {
+        return new GossipMember(nodeId, null, incarnation, State.ALIVE, status, System.currentTimeMillis());
+    }
+    
+    private List<Update> fullView() {
+        synchronized (lock) {
+            List<Update> view = new ArrayList<>();
+            members.values().forEach(node -> view.add(node.update(node.state)));
+            return view;
+        }
+    }
+    
+    /**
+     * @param updates what to carry; {@code null} for the pending broadcasts that were sent least
+     */
+    private byte[] encode(byte type, long seq, Node target, List<Update> updates) {
+        synchronized (lock) {
+            List<Update> carried = updates != null ? updates : piggyback();
+            try {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeByte(type);
+                out.writeLong(seq);
+                self().write(out);
+                if (target != null) {
+                    out.writeUTF(target.id);
+                    out.writeUTF(target.address.getAddress().getHostAddress());
+                    out.writeInt(target.address.getPort());
+                }
+                int count = Math.min(carried.size(), MAX_UPDATES);
+                out.writeShort(count);
+                for (int i = 0; i < count; i++) {
+                    carried.get(i).write(out);
+                }
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+    
+    private List<Update> piggyback() {
+        int limit = RETRANSMIT_MULTIPLIER * (32 - Integer.numberOfLeadingZeros(members.size() + 1));
+        List<Broadcast> pending = new ArrayList<>(broadcasts.values());
+        pending.sort(Comparator.comparingInt(broadcast -> broadcast.transmits));
+        List<Update> carried = new ArrayList<>();
+        for (Broadcast broadcast : pending.subList(0, Math.min(pending.size(), MAX_UPDATES))) {
+            carried.add(broadcast.update);
+            if (++broadcast.transmits >= limit) {
+                broadcasts.remove(broadcast.update.nodeId);
+            }
+        }
+        return carried;
+    }
+    
+    private void send(InetSocketAddress address, byte[] message) {
+        try {
+            socket.send(new DatagramPacket(message, message.length, address));
+        } catch (IOException e) {
+            if (running) {
+                logger.debug("Could not send gossip to {}: {}", address, e.getMessage());
+            }
+        }
+    }
+    
+    private void schedule(Runnable task, long delayMs) {
+        try {
+            protocolExecutor.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Not scheduling gossip work after stop");
+        }
+    }
+    
+    private ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + nodeId);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static final class Node {
+        
+        private final String id;
+        private InetSocketAddress address;
+        private long incarnation;
+        private State state = State.ALIVE;
+        private HealthStatus status = HealthStatus.UNKNOWN;
+        private long lastSeen;
+        private long suspectedAt;
+        
+        private Node(String id, InetSocketAddress address) {
+            this.id = id;
+            this.address = address;
+        }
+        
+        private Update update(State newState) {
+            return new Update(id, address.getAddress().getHostAddress(), address.getPort(), incarnation, newState, status);
+        }
+        
+        private GossipMember snapshot() {
+            return new GossipMember(id, address, incarnation, state, status, lastSeen);
+        }
+    }
+    
+    // What one node claims about another; an empty host means the sender is talking about itself
+    private record Update(String nodeId, String host, int port, long incarnation, State state, HealthStatus status) {
+        
+        private void write(DataOutputStream out) throws IOException {
+            out.writeUTF(nodeId);
+            out.writeUTF(host);
+            out.writeInt(port);
+            out.writeLong(incarnation);
+            out.writeByte(state.ordinal());
+            out.writeByte(status.ordinal());
+        }
+        
+        private static Update read(DataInputStream in) throws IOException {
+            return new Update(in.readUTF(), in.readUTF(), in.readInt(), in.readLong(),
+                State.values()[in.readByte()], HealthStatus.values()[in.readByte()]);
+        }
+    }
+    
+    private static final class Broadcast {
+        
+        private final Update update;
+        private int transmits;
+        
+        private Broadcast(Update update) {
+            this.update = update;
+        }
+    }
+    
+    private record Relay(InetSocketAddress origin, long seq, long expiresAt) {}
+}
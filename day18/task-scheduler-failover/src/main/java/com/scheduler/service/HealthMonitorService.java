@@ -1,5 +1,7 @@
 package com.scheduler.service;
 
+import com.scheduler.gossip.GossipMember;
+import com.scheduler.gossip.GossipMembership;
 import com.scheduler.model.NodeHealth;
 import com.scheduler.repository.NodeHealthRepository;
 import org.slf4j.Logger;
@@ -7,58 +9,89 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.annotation.PostConstruct;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import com.sun.management.OperatingSystemMXBean;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Node health from the gossip membership view (see {@link GossipMembership}).
+ *
+ * <p>This node's metrics are sampled every heartbeat and kept in memory; only a change of status
+ * is gossiped and written to {@code node_health}, for this node and for the others as the view
+ * learns of them. Health checks, including the leader's, are reads of the local view.
+ */
 @Service
 public class HealthMonitorService {
     private static final Logger logger = LoggerFactory.getLogger(HealthMonitorService.class);
     
     private final NodeHealthRepository nodeHealthRepository;
+    private final GossipMembership gossipMembership;
     private final OperatingSystemMXBean osBean;
     private final MemoryMXBean memoryBean;
+    private final AtomicReference<NodeHealth> localHealth = new AtomicReference<>();
+    // Status last written per node, so unchanged ones are not written again
+    private final Map<String, NodeHealth.HealthStatus> persistedStatus = new ConcurrentHashMap<>();
     
     @Value("${scheduler.node.id}")
     private String nodeId;
     
-    @Value("${scheduler.leader.heartbeat-interval:5000}")
-    private int heartbeatInterval;
-    
-    public HealthMonitorService(NodeHealthRepository nodeHealthRepository) {
+    public HealthMonitorService(NodeHealthRepository nodeHealthRepository, GossipMembership gossipMembership) {
         this.nodeHealthRepository = nodeHealthRepository;
+        this.gossipMembership = gossipMembership;
         this.osBean = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
         this.memoryBean = ManagementFactory.getMemoryMXBean();
     }
     
+    @PostConstruct
+    public void subscribe() {
+        gossipMembership.addListener(this::onMemberChanged);
+    }
+    
     @Scheduled(fixedDelayString = "${scheduler.leader.heartbeat-interval}")
-    @Transactional
     public void updateNodeHealth() {
         try {
-            NodeHealth health = nodeHealthRepository.findById(nodeId)
-                    .orElse(new NodeHealth(nodeId));
-            
-            // Update system metrics
+            NodeHealth health = new NodeHealth(nodeId);
             health.setCpuUsage(getCpuUsage());
             health.setMemoryUsage(getMemoryUsage());
-            health.setLastHeartbeat(LocalDateTime.now());
             health.setStatus(calculateHealthStatus(health));
+            localHealth.set(health);
             
-            nodeHealthRepository.save(health);
+            gossipMembership.setLocalStatus(health.getStatus());
+            persistIfChanged(health);
             
-            logger.debug("Updated health for node {}: CPU={}%, Memory={}%, Status={}", 
+            logger.debug("Updated health for node {}: CPU={}%, Memory={}%, Status={}",
                     nodeId, health.getCpuUsage(), health.getMemoryUsage(), health.getStatus());
-                    
+        
         } catch (Exception e) {
             logger.error("Error updating node health", e);
         }
     }
     
+    private void onMemberChanged(GossipMember member) {
+        try {
+            persistIfChanged(toNodeHealth(member));
+        } catch (Exception e) {
+            logger.error("Error recording health of node {}", member.nodeId(), e);
+        }
+    }
+    
+    private void persistIfChanged(NodeHealth health) {
+        if (persistedStatus.get(health.getNodeId()) != health.getStatus()) {
+            nodeHealthRepository.save(health);
+            persistedStatus.put(health.getNodeId(), health.getStatus());
+            logger.info("Node {} health changed to {}", health.getNodeId(), health.getStatus());
+        }
+    }
+    
     private double getCpuUsage() {
         try {
             double load = osBean.getProcessCpuLoad();
@@ -93,32 +126,54 @@ public class HealthMonitorService {
         }
     }
     
+    /**
+     * Whether the view has {@code nodeId} up and healthy enough to work. A suspected node still
+     * counts until the suspicion is confirmed, and a node the view has never heard of is left to
+     * its lease rather than failed on a guess.
+     */
     public boolean isNodeHealthy(String nodeId) {
-        Optional<NodeHealth> health = nodeHealthRepository.findById(nodeId);
-        if (health.isEmpty()) {
-            return false;
-        }
-        
-        NodeHealth nodeHealth = health.get();
-        
-        // Check if node is stale (missed several heartbeats)
-        if (nodeHealth.isStale(heartbeatInterval * 3 / 1000)) {
-            logger.warn("Node {} is stale, last heartbeat: {}", nodeId, nodeHealth.getLastHeartbeat());
-            return false;
+        return gossipMembership.getMember(nodeId)
+                .map(member -> !member.isDead() && isWorking(member.status()))
+                .orElse(true);
+    }
+    
+    /** Whether this node's latest sample is good enough for it to lead. */
+    public boolean isEligibleForLeadership() {
+        NodeHealth health = localHealth.get();
+        if (health == null) {
+            return true; // not sampled yet, assume healthy
         }
-        
-        // Check health status
-        return nodeHealth.getStatus() == NodeHealth.HealthStatus.HEALTHY ||
-               nodeHealth.getStatus() == NodeHealth.HealthStatus.DEGRADED;
+        return health.getStatus() == NodeHealth.HealthStatus.HEALTHY &&
+               health.getCpuUsage() < 80.0 &&
+               health.getMemoryUsage() < 85.0;
     }
     
     public List<NodeHealth> getHealthyNodes() {
-        return nodeHealthRepository.findHealthyNodes().stream()
-                .filter(health -> !health.isStale(heartbeatInterval * 3 / 1000))
+        return getAllNodeHealth().stream()
+                .filter(health -> health.getStatus() == NodeHealth.HealthStatus.HEALTHY)
                 .toList();
     }
     
+    /** The membership view, this node first. */
     public List<NodeHealth> getAllNodeHealth() {
-        return nodeHealthRepository.findAll();
+        return gossipMembership.getMembers().stream()
+                .map(this::toNodeHealth)
+                .toList();
+    }
+    
+    private NodeHealth toNodeHealth(GossipMember member) {
+        NodeHealth local = localHealth.get();
+        if (member.nodeId().equals(nodeId) && local != null) {
+            return local;
+        }
+        NodeHealth health = new NodeHealth(member.nodeId());
+        health.setStatus(member.isDead() ? NodeHealth.HealthStatus.UNKNOWN : member.status());
+        health.setLastHeartbeat(LocalDateTime.ofInstant(Instant.ofEpochMilli(member.lastSeenMillis()), ZoneId.systemDefault()));
+        return health;
+    }
+    
+    private static boolean isWorking(NodeHealth.HealthStatus status) {
+        return status == NodeHealth.HealthStatus.HEALTHY ||
+               status == NodeHealth.HealthStatus.DEGRADED;
     }
 }
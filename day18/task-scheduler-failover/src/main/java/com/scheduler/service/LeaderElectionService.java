@@ -1,9 +1,7 @@
 package com.scheduler.service;
 
 import com.scheduler.model.Leader;
-import com.scheduler.model.NodeHealth;
 import com.scheduler.repository.LeaderRepository;
-import com.scheduler.repository.NodeHealthRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +11,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -22,7 +19,6 @@ public class LeaderElectionService {
     private static final Logger logger = LoggerFactory.getLogger(LeaderElectionService.class);
     
     private final LeaderRepository leaderRepository;
-    private final NodeHealthRepository nodeHealthRepository;
     private final HealthMonitorService healthMonitorService;
     
     @Value("${scheduler.node.id}")
@@ -38,10 +34,8 @@ public class LeaderElectionService {
     private volatile boolean isCandidate = false;
     
     public LeaderElectionService(LeaderRepository leaderRepository,
-                               NodeHealthRepository nodeHealthRepository,
                                HealthMonitorService healthMonitorService) {
         this.leaderRepository = leaderRepository;
-        this.nodeHealthRepository = nodeHealthRepository;
         this.healthMonitorService = healthMonitorService;
     }
     
@@ -111,12 +105,7 @@ public class LeaderElectionService {
     
     private boolean isEligibleForLeadership() {
         // Check if this node is healthy and capable of leadership
-        Optional<NodeHealth> nodeHealth = nodeHealthRepository.findById(nodeId);
-        return nodeHealth.map(health -> 
-            health.getStatus() == NodeHealth.HealthStatus.HEALTHY &&
-            (health.getCpuUsage() == null || health.getCpuUsage() < 80.0) &&
-            (health.getMemoryUsage() == null || health.getMemoryUsage() < 85.0)
-        ).orElse(true); // If no health record, assume healthy
+        return healthMonitorService.isEligibleForLeadership();
     }
     
     private void electNewLeader() {
@@ -0,0 +1,113 @@
+package com.scheduler.gossip;
+
+import com.scheduler.model.NodeHealth;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GossipMembershipTest {
+    
+    private static final long PERIOD = 200;
+    private static final long SUSPICION_TIMEOUT = 600;
+    
+    private final List<GossipMembership> nodes = new ArrayList<>();
+    private final List<GossipMember> changes = new ArrayList<>();
+    
+    @AfterEach
+    void stopNodes() {
+        nodes.forEach(GossipMembership::stop);
+    }
+    
+    @Test
+    void membersConvergeAndShareStatusChanges() throws Exception {
+        startCluster(4);
+        await(() -> everyoneSees(4), 3000);
+        
+        nodes.get(1).setLocalStatus(NodeHealth.HealthStatus.DEGRADED);
+        await(() -> nodes.stream().allMatch(node -> statusOf(node, "node-2") == NodeHealth.HealthStatus.DEGRADED), 2000);
+        
+        // A healthy cluster should not fail anyone, whatever it suspects along the way
+        Thread.sleep(4 * PERIOD);
+        synchronized (changes) {
+            assertTrue(changes.stream().noneMatch(GossipMember::isDead), "false failures: " + changes);
+        }
+    }
+    
+    @Test
+    void crashedNodeIsDeclaredDeadWithinSuspicionTimeout() throws Exception {
+        startCluster(4);
+        await(() -> everyoneSees(4), 3000);
+        
+        long crashedAt = System.nanoTime();
+        nodes.get(3).stop();
+        List<GossipMembership> survivors = nodes.subList(0, 3);
+        await(() -> survivors.stream().allMatch(node -> isDead(node, "node-4")), 5000);
+        long detectionMillis = (System.nanoTime() - crashedAt) / 1_000_000;
+        
+        // Probe, suspect, then wait out the suspicion; bounded by a few periods beyond that
+        assertTrue(detectionMillis < 4 * PERIOD + SUSPICION_TIMEOUT + 1000, "detection took " + detectionMillis + "ms");
+        assertTrue(survivors.stream().noneMatch(node -> isDead(node, "node-1") || isDead(node, "node-2") || isDead(node, "node-3")));
+    }
+    
+    @Test
+    void gracefulLeaveIsSeenAtOnce() throws Exception {
+        startCluster(3);
+        await(() -> everyoneSees(3), 3000);
+        
+        long leftAt = System.nanoTime();
+        nodes.get(2).shutdown();
+        await(() -> isDead(nodes.get(0), "node-3") && isDead(nodes.get(1), "node-3"), 1000);
+        long millis = (System.nanoTime() - leftAt) / 1_000_000;
+        assertTrue(millis < SUSPICION_TIMEOUT, "leave took " + millis + "ms to be seen");
+    }
+    
+    private void startCluster(int size) throws SocketException {
+        GossipMembership seed = start("node-1", List.of());
+        String seedAddress = "127.0.0.1:" + seed.getLocalPort();
+        for (int i = 2; i <= size; i++) {
+            start("node-" + i, List.of(seedAddress));
+        }
+    }
+    
+    private GossipMembership start(String nodeId, List<String> seeds) throws SocketException {
+        GossipMembership node = new GossipMembership(nodeId, 0, seeds, PERIOD, 60, 2, SUSPICION_TIMEOUT);
+        node.addListener(member -> {
+            synchronized (changes) {
+                changes.add(member);
+            }
+        });
+        node.start();
+        nodes.add(node);
+        return node;
+    }
+    
+    private boolean everyoneSees(int size) {
+        return nodes.stream().allMatch(node -> node.getMembers().stream()
+            .filter(member -> member.state() == GossipMember.State.ALIVE)
+            .count() == size);
+    }
+    
+    private static NodeHealth.HealthStatus statusOf(GossipMembership node, String memberId) {
+        return node.getMember(memberId).map(GossipMember::status).orElse(null);
+    }
+    
+    private static boolean isDead(GossipMembership node, String memberId) {
+        Optional<GossipMember> member = node.getMember(memberId);
+        return member.isPresent() && member.get().isDead();
+    }
+    
+    private static void await(BooleanSupplier condition, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met within " + timeoutMillis + "ms");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -2,11 +2,11 @@ package com.scheduler.service;
 
 import com.scheduler.model.Leader;
 import com.scheduler.repository.LeaderRepository;
-import com.scheduler.repository.NodeHealthRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -17,25 +17,24 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @TestPropertySource(properties = {
     "scheduler.node.id=test-node",
-    "scheduler.leader.lease-duration=15000"
+    "scheduler.leader.lease-duration=15000",
+    "scheduler.gossip.port=0"
 })
 class LeaderElectionServiceTest {
 
     @MockBean
     private LeaderRepository leaderRepository;
 
-    @MockBean 
-    private NodeHealthRepository nodeHealthRepository;
-
     @MockBean
     private HealthMonitorService healthMonitorService;
 
     @Test
     void testLeaderElectionWhenNoLeaderExists() {
         when(leaderRepository.findCurrentLeader()).thenReturn(Optional.empty());
+        when(healthMonitorService.isEligibleForLeadership()).thenReturn(true);
         
         LeaderElectionService service = new LeaderElectionService(
-            leaderRepository, nodeHealthRepository, healthMonitorService);
+            leaderRepository, healthMonitorService);
         
         service.attemptLeadershipAcquisition();
         
@@ -48,7 +47,9 @@ class LeaderElectionServiceTest {
         when(leaderRepository.findCurrentLeader()).thenReturn(Optional.of(existingLeader));
         
         LeaderElectionService service = new LeaderElectionService(
-            leaderRepository, nodeHealthRepository, healthMonitorService);
+            leaderRepository, healthMonitorService);
+        ReflectionTestUtils.setField(service, "nodeId", "test-node");
+        ReflectionTestUtils.setField(service, "leaseDuration", 15000);
         
         service.renewLeadership();
         
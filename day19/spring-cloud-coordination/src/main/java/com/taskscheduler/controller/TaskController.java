@@ -53,6 +53,8 @@ public class TaskController {
     public ResponseEntity<Map<String, Object>> getSystemStatus() {
         return ResponseEntity.ok(Map.of(
             "isLeader", taskSchedulerService.isCurrentlyLeader(),
+            "partitions", taskSchedulerService.getPartitionCount(),
+            "runningTasks", taskSchedulerService.getRunningTaskCount(),
             "timestamp", LocalDateTime.now()
         ));
     }
@@ -2,8 +2,10 @@ package com.taskscheduler.repository;
 
 import com.taskscheduler.model.ScheduledTask;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -13,6 +15,13 @@ public interface TaskRepository extends JpaRepository<ScheduledTask, Long> {
     @Query("SELECT t FROM ScheduledTask t WHERE t.status = 'PENDING' AND t.scheduledTime <= :now ORDER BY t.scheduledTime ASC")
     List<ScheduledTask> findPendingTasksBeforeTime(LocalDateTime now);
     
+    /** Moves a task from PENDING to RUNNING for {@code instance}; 0 if someone else got there first. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScheduledTask t SET t.status = 'RUNNING', t.executorInstance = :instance, t.executedTime = :now " +
+           "WHERE t.id = :id AND t.status = 'PENDING'")
+    int claimTask(Long id, String instance, LocalDateTime now);
+    
     List<ScheduledTask> findByStatus(String status);
     
     @Query("SELECT t FROM ScheduledTask t WHERE t.executorInstance = :instance AND t.status = 'RUNNING'")
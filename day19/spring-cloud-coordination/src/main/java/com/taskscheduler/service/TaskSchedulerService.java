@@ -11,8 +11,18 @@ import org.springframework.integration.leader.event.OnGrantedEvent;
 import org.springframework.integration.leader.event.OnRevokedEvent;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -30,7 +40,31 @@ public class TaskSchedulerService {
     @Value("${spring.application.name:unknown}")
     private String instanceId;
     
+    @Value("${coordination.tasks.partitions:16}")
+    private int partitionCount;
+    
+    @Value("${coordination.tasks.max-concurrent:32}")
+    private int maxConcurrentTasks;
+    
     private final AtomicBoolean isLeader = new AtomicBoolean(false);
+    // Virtual threads, bounded by the slots so a node never claims more than it can run
+    private final ExecutorService taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore executionSlots;
+    
+    @PostConstruct
+    public void init() {
+        executionSlots = new Semaphore(maxConcurrentTasks);
+        logger.info("Processing tasks in {} partitions, up to {} at a time on instance: {}",
+            partitionCount, maxConcurrentTasks, instanceId);
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        taskExecutor.shutdown();
+        if (!taskExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Tasks still running at shutdown on instance: {}", instanceId);
+        }
+    }
     
     @EventListener
     public void onLeadershipGranted(OnGrantedEvent event) {
@@ -44,70 +78,107 @@ public class TaskSchedulerService {
         isLeader.set(false);
     }
     
-    @Scheduled(fixedDelay = 5000) // Check every 5 seconds
+    /**
+     * Claims due tasks partition by partition and hands them to the execution pool.
+     *
+     * <p>Every node runs this. Tasks fall into {@code coordination.tasks.partitions} partitions by
+     * {@code hash(taskId) % N}; a node claims a partition's tasks only while holding that
+     * partition's lock, and only as many as it has free execution slots, so other nodes take the
+     * partitions it is not working on and the rest of a partition it cannot keep up with. The
+     * lock is released before any task runs.
+     */
+    @Scheduled(fixedDelayString = "${coordination.tasks.poll-interval:5000}")
     public void processPendingTasks() {
-        if (!isLeader.get()) {
-            logger.debug("Not a leader, skipping task processing");
-            return;
-        }
-        
         try {
-            coordinationService.executeWithLock(
-                "task-processing", 
-                10, 
-                TimeUnit.SECONDS,
-                () -> {
-                    List<ScheduledTask> pendingTasks = taskRepository
-                        .findPendingTasksBeforeTime(LocalDateTime.now());
-                    
-                    logger.info("Found {} pending tasks to process", pendingTasks.size());
-                    
-                    for (ScheduledTask task : pendingTasks) {
-                        processTask(task);
-                    }
+            Map<Integer, List<ScheduledTask>> pendingByPartition = new TreeMap<>();
+            for (ScheduledTask task : taskRepository.findPendingTasksBeforeTime(LocalDateTime.now())) {
+                pendingByPartition.computeIfAbsent(partitionOf(task.getTaskId(), partitionCount), partition -> new ArrayList<>())
+                    .add(task);
+            }
+            if (pendingByPartition.isEmpty()) {
+                logger.debug("No pending tasks to process");
+                return;
+            }
+            
+            // Start somewhere different each pass so nodes spread out rather than queue for the same partition
+            List<Integer> partitions = new ArrayList<>(pendingByPartition.keySet());
+            Collections.rotate(partitions, ThreadLocalRandom.current().nextInt(partitions.size()));
+            
+            List<ScheduledTask> claimed = new ArrayList<>();
+            for (int partition : partitions) {
+                if (executionSlots.availablePermits() == 0) {
+                    break;
+                }
+                boolean locked = coordinationService.tryExecuteWithLock(partitionLockKey(partition),
+                    () -> claimed.addAll(claimTasks(pendingByPartition.get(partition))));
+                if (!locked) {
+                    logger.debug("Partition {} is being claimed by another instance", partition);
                 }
-            );
+            }
+            
+            logger.info("Claimed {} of {} pending tasks in {} partitions",
+                claimed.size(), pendingByPartition.values().stream().mapToInt(List::size).sum(), partitions.size());
+            for (ScheduledTask task : claimed) {
+                taskExecutor.execute(() -> executeTask(task));
+            }
         } catch (Exception e) {
             logger.error("Error processing pending tasks", e);
         }
     }
     
-    private void processTask(ScheduledTask task) {
-        String taskLockKey = "task-execution-" + task.getTaskId();
-        
-        boolean executed = coordinationService.tryExecuteWithLock(taskLockKey, () -> {
-            try {
-                logger.info("Executing task: {} of type: {}", task.getTaskId(), task.getTaskType());
-                
-                // Update task status
-                task.setStatus("RUNNING");
-                task.setExecutorInstance(instanceId);
-                task.setExecutedTime(LocalDateTime.now());
-                taskRepository.save(task);
-                
-                // Simulate task execution
-                executeTaskLogic(task);
-                
-                // Mark as completed
-                task.setStatus("COMPLETED");
-                taskRepository.save(task);
-                
-                logger.info("Completed task: {}", task.getTaskId());
-                
-            } catch (Exception e) {
-                logger.error("Error executing task: " + task.getTaskId(), e);
-                task.setStatus("FAILED");
-                task.setErrorMessage(e.getMessage());
-                task.setRetryCount(task.getRetryCount() + 1);
-                taskRepository.save(task);
+    // Takes one execution slot per task claimed
+    private List<ScheduledTask> claimTasks(List<ScheduledTask> tasks) {
+        List<ScheduledTask> claimed = new ArrayList<>();
+        for (ScheduledTask task : tasks) {
+            if (!executionSlots.tryAcquire()) {
+                break;
             }
-        });
-        
-        if (!executed) {
-            logger.debug("Task {} is being processed by another instance", task.getTaskId());
+            LocalDateTime now = LocalDateTime.now();
+            if (taskRepository.claimTask(task.getId(), instanceId, now) == 0) {
+                executionSlots.release();
+                logger.debug("Task {} was claimed by another instance", task.getTaskId());
+                continue;
+            }
+            task.setStatus("RUNNING");
+            task.setExecutorInstance(instanceId);
+            task.setExecutedTime(now);
+            claimed.add(task);
+        }
+        return claimed;
+    }
+    
+    private void executeTask(ScheduledTask task) {
+        try {
+            logger.info("Executing task: {} of type: {}", task.getTaskId(), task.getTaskType());
+            
+            // Simulate task execution
+            executeTaskLogic(task);
+            
+            // Mark as completed
+            task.setStatus("COMPLETED");
+            taskRepository.save(task);
+            
+            logger.info("Completed task: {}", task.getTaskId());
+            
+        } catch (Exception e) {
+            logger.error("Error executing task: " + task.getTaskId(), e);
+            task.setStatus("FAILED");
+            task.setErrorMessage(e.getMessage());
+            task.setRetryCount(task.getRetryCount() + 1);
+            taskRepository.save(task);
+        } finally {
+            executionSlots.release();
         }
     }
     
+    static int partitionOf(String taskId, int partitionCount) {
+        return Math.floorMod(taskId.hashCode(), partitionCount);
+    }
+    
+    private static String partitionLockKey(int partition) {
+        return "task-partition-" + partition;
+    }
+    
     private void executeTaskLogic(ScheduledTask task) throws InterruptedException {
         // Simulate different task types
         switch (task.getTaskType()) {
@@ -148,4 +219,12 @@ public class TaskSchedulerService {
     public boolean isCurrentlyLeader() {
         return isLeader.get();
     }
+    
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+    
+    public int getRunningTaskCount() {
+        return maxConcurrentTasks - executionSlots.availablePermits();
+    }
 }
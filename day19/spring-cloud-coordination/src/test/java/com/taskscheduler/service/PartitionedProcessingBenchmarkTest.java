@@ -0,0 +1,177 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.ScheduledTask;
+import com.taskscheduler.repository.TaskRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.integration.jdbc.lock.DefaultLockRepository;
+import org.springframework.integration.jdbc.lock.JdbcLockRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Simulated nodes, each with its own {@link JdbcLockRegistry} client, draining the same backlog
+ * of half-second tasks from H2.
+ *
+ * <p>The throughput comparison depends on the machine's timing and is tagged {@code benchmark},
+ * which the build skips unless run with {@code -Pbenchmark}.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:partition-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.redis.port=6370",
+    "spring.jpa.show-sql=false",
+    "coordination.tasks.poll-interval=3600000"
+})
+class PartitionedProcessingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedProcessingBenchmarkTest.class);
+
+    private static final int TASKS = 96;
+    private static final int PARTITIONS = 16;
+    private static final int SLOTS_PER_NODE = 8;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Successful claims per task row, across every node
+    private final Map<Long, Integer> claims = new ConcurrentHashMap<>();
+
+    @Test
+    void everyTaskRunsOnceAndEveryNodeTakesWork() throws Exception {
+        drainBacklog(4);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void throughputScalesWithNodeCount() throws Exception {
+        Map<Integer, Double> throughput = new TreeMap<>();
+        for (int nodes : new int[] { 1, 2, 4 }) {
+            throughput.put(nodes, drainBacklog(nodes));
+        }
+        logger.info("Tasks per second by node count: {}", throughput);
+
+        // One node at a time, as with a single leader and a global lock, would stay flat
+        assertTrue(throughput.get(2) > 1.5 * throughput.get(1), "2 nodes: " + throughput);
+        assertTrue(throughput.get(4) > 2.5 * throughput.get(1), "4 nodes: " + throughput);
+    }
+
+    private double drainBacklog(int nodeCount) throws Exception {
+        taskRepository.deleteAll();
+        claims.clear();
+        LocalDateTime due = LocalDateTime.now().minusSeconds(1);
+        List<ScheduledTask> backlog = new ArrayList<>();
+        for (int i = 0; i < TASKS; i++) {
+            backlog.add(new ScheduledTask("bench-" + nodeCount + "-" + i, "DEFAULT", "PENDING", "payload-" + i, due));
+        }
+        taskRepository.saveAll(backlog);
+
+        List<TaskSchedulerService> nodes = new ArrayList<>();
+        for (int i = 1; i <= nodeCount; i++) {
+            nodes.add(node("node-" + i));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> pollers = new ArrayList<>();
+        long start = System.nanoTime();
+        for (TaskSchedulerService node : nodes) {
+            pollers.add(Thread.ofPlatform().start(() -> {
+                while (running.get()) {
+                    node.processPendingTasks();
+                    sleep(25);
+                }
+            }));
+        }
+
+        try {
+            long deadline = System.currentTimeMillis() + 60_000;
+            while (taskRepository.countByStatus("COMPLETED") < TASKS) {
+                assertTrue(System.currentTimeMillis() < deadline, "backlog not drained by " + nodeCount + " nodes");
+                sleep(10);
+            }
+        } finally {
+            running.set(false);
+            for (Thread poller : pollers) {
+                poller.join();
+            }
+            for (TaskSchedulerService node : nodes) {
+                node.shutdown();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Long> perNode = taskRepository.findAll().stream()
+            .collect(Collectors.groupingBy(ScheduledTask::getExecutorInstance, TreeMap::new, Collectors.counting()));
+        logger.info("{} node(s): {} tasks in {}s, by node {}", nodeCount, TASKS, String.format("%.2f", seconds), perNode);
+        assertEquals(TASKS, taskRepository.countByStatus("COMPLETED"));
+        assertEquals(TASKS, claims.size(), "every task should have been claimed");
+        assertTrue(claims.values().stream().allMatch(count -> count == 1), "tasks claimed more than once: " + claims);
+        assertEquals(nodeCount, perNode.size(), "every node should have taken work");
+        return TASKS / seconds;
+    }
+
+    private TaskSchedulerService node(String instanceId) {
+        DefaultLockRepository lockRepository = new DefaultLockRepository(dataSource);
+        lockRepository.setTransactionManager(transactionManager);
+        lockRepository.afterPropertiesSet();
+        lockRepository.afterSingletonsInstantiated();
+
+        CoordinationService coordination = new CoordinationService();
+        ReflectionTestUtils.setField(coordination, "lockRegistry", new JdbcLockRegistry(lockRepository));
+
+        TaskSchedulerService service = new TaskSchedulerService();
+        ReflectionTestUtils.setField(service, "taskRepository", countingClaims());
+        ReflectionTestUtils.setField(service, "coordinationService", coordination);
+        ReflectionTestUtils.setField(service, "instanceId", instanceId);
+        ReflectionTestUtils.setField(service, "partitionCount", PARTITIONS);
+        ReflectionTestUtils.setField(service, "maxConcurrentTasks", SLOTS_PER_NODE);
+        service.init();
+        return service;
+    }
+
+    private TaskRepository countingClaims() {
+        TaskRepository repository = mock(TaskRepository.class, delegatesTo(taskRepository));
+        doAnswer(invocation -> {
+            int updated = taskRepository.claimTask(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            if (updated == 1) {
+                claims.merge(invocation.getArgument(0), 1, Integer::sum);
+            }
+            return updated;
+        }).when(repository).claimTask(anyLong(), anyString(), any());
+        return repository;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.TaskExecution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Execution history of the scheduled jobs, one {@link ExecutionRingBuffer} per task.
+ *
+ * <p>Jobs register once and record into their own buffer from then on. A task keeps
+ * {@code scheduler.history.default-capacity} executions unless
+ * {@code scheduler.history.capacity.<key>} says otherwise.
+ */
+@Component
+public class ExecutionHistory {
+
+    private static final int DASHBOARD_LIMIT = 50;
+
+    private final Environment environment;
+    private final int defaultCapacity;
+    private final Map<String, ExecutionRingBuffer> buffers = new ConcurrentHashMap<>();
+
+    // Wall-clock time of one nanoTime reading, so records need only nanoTime
+    private final long anchorNanoTime = System.nanoTime();
+    private final long anchorEpochNanos = ChronoUnit.NANOS.between(Instant.EPOCH, Instant.now());
+
+    public ExecutionHistory(Environment environment,
+                            @Value("${scheduler.history.default-capacity:50}") int defaultCapacity) {
+        this.environment = environment;
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    public ExecutionRingBuffer register(String key, String taskName, String executionType) {
+        int capacity = environment.getProperty("scheduler.history.capacity." + key, Integer.class, defaultCapacity);
+        return buffers.computeIfAbsent(key, k ->
+            new ExecutionRingBuffer(taskName, executionType, capacity, anchorEpochNanos, anchorNanoTime));
+    }
+
+    /** The newest executions across all tasks, oldest first, as the dashboard lists them. */
+    public List<TaskExecution> getRecentExecutions() {
+        List<TaskExecution> executions = new ArrayList<>();
+        buffers.values().forEach(buffer -> executions.addAll(buffer.snapshot()));
+        executions.sort(Comparator.comparing(TaskExecution::getExecutionTime));
+        return executions.size() > DASHBOARD_LIMIT
+            ? new ArrayList<>(executions.subList(executions.size() - DASHBOARD_LIMIT, executions.size()))
+            : executions;
+    }
+}
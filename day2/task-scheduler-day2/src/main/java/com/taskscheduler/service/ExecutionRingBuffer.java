@@ -0,0 +1,109 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.TaskExecution;
+
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The last {@code capacity} executions of one task, kept in primitive columns.
+ *
+ * <p>{@link #record} claims a sequence number, overwrites the oldest slot and publishes it, all
+ * without locks or allocation; a writer only waits if another one is a full turn of the ring
+ * behind it in the same slot. Each slot carries the sequence of the record in it, seqlock
+ * style: a reader checks it before and after copying the columns and drops the slot if a
+ * writer got there in between, so {@link #snapshot()} never returns a torn record and never
+ * blocks the scheduler threads.
+ */
+public final class ExecutionRingBuffer {
+
+    public enum Outcome { SUCCESS, ERROR }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+    private static final long WRITING = -1;
+
+    private final String taskName;
+    private final String executionType;
+    private final int capacity;
+    private final long anchorEpochNanos;
+    private final long anchorNanoTime;
+
+    private final long[] startedAt;
+    private final long[] durations;
+    private final byte[] outcomes;
+    // sequence + 1 of the record in each slot; 0 while empty, WRITING while being overwritten
+    private final AtomicLongArray published;
+    private final AtomicLong next = new AtomicLong();
+
+    ExecutionRingBuffer(String taskName, String executionType, int capacity,
+                        long anchorEpochNanos, long anchorNanoTime) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.taskName = taskName;
+        this.executionType = executionType;
+        this.capacity = capacity;
+        this.anchorEpochNanos = anchorEpochNanos;
+        this.anchorNanoTime = anchorNanoTime;
+        this.startedAt = new long[capacity];
+        this.durations = new long[capacity];
+        this.outcomes = new byte[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Records one execution from its {@link System#nanoTime()} start and end; the wall-clock
+     * start is worked out only when the history is read.
+     */
+    public void record(long startNanoTime, long endNanoTime, Outcome outcome) {
+        long sequence = next.getAndIncrement();
+        int slot = (int) (sequence % capacity);
+        long previous = sequence < capacity ? 0 : sequence - capacity + 1;
+        while (!published.compareAndSet(slot, previous, WRITING)) {
+            // Only when lapped: the writer one full turn back has not published yet
+            Thread.onSpinWait();
+        }
+        startedAt[slot] = startNanoTime;
+        durations[slot] = endNanoTime - startNanoTime;
+        outcomes[slot] = (byte) outcome.ordinal();
+        published.setRelease(slot, sequence + 1);
+    }
+
+    /** The retained executions, oldest first. */
+    public List<TaskExecution> snapshot() {
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+        List<TaskExecution> executions = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence % capacity);
+            if (published.getAcquire(slot) != sequence + 1) {
+                continue; // still being written, or already overwritten
+            }
+            long started = startedAt[slot];
+            long duration = durations[slot];
+            Outcome outcome = OUTCOMES[outcomes[slot]];
+            VarHandle.acquireFence();
+            if (published.getOpaque(slot) != sequence + 1) {
+                continue;
+            }
+            executions.add(new TaskExecution(taskName, executionType, toLocalDateTime(started),
+                outcome.name(), duration / 1_000_000));
+        }
+        return executions;
+    }
+
+    public String getTaskName() { return taskName; }
+    public int getCapacity() { return capacity; }
+    public long getRecordedCount() { return next.get(); }
+
+    private LocalDateTime toLocalDateTime(long nanoTime) {
+        long epochNanos = anchorEpochNanos + (nanoTime - anchorNanoTime);
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,80 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.model.TaskExecution;
+import com.taskscheduler.service.ExecutionRingBuffer.Outcome;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionRingBufferTest {
+
+    private static final long ANCHOR = System.nanoTime();
+    private static final long ANCHOR_EPOCH_NANOS = 1_700_000_000_000_000_000L;
+    private static final LocalDateTime ANCHOR_TIME =
+        LocalDateTime.ofInstant(Instant.ofEpochSecond(0, ANCHOR_EPOCH_NANOS), ZoneId.systemDefault());
+
+    private static ExecutionRingBuffer buffer(int capacity) {
+        return new ExecutionRingBuffer("Task", "FIXED_RATE", capacity, ANCHOR_EPOCH_NANOS, ANCHOR);
+    }
+
+    @Test
+    void keepsOnlyTheNewestExecutionsOldestFirst() {
+        ExecutionRingBuffer buffer = buffer(3);
+        for (int i = 1; i <= 5; i++) {
+            buffer.record(ANCHOR + i * 1_000_000_000L, ANCHOR + i * 1_000_000_000L + i * 1_000_000L,
+                i == 4 ? Outcome.ERROR : Outcome.SUCCESS);
+        }
+
+        List<TaskExecution> executions = buffer.snapshot();
+
+        assertEquals(5, buffer.getRecordedCount());
+        assertEquals(List.of(3L, 4L, 5L), executions.stream().map(TaskExecution::getExecutionDuration).toList());
+        assertEquals(List.of("SUCCESS", "ERROR", "SUCCESS"), executions.stream().map(TaskExecution::getStatus).toList());
+        assertEquals(ANCHOR_TIME.plusSeconds(3), executions.get(0).getExecutionTime());
+    }
+
+    @Test
+    void snapshotsNeverSeeTornRecordsWhileWritersRun() throws Exception {
+        ExecutionRingBuffer buffer = buffer(16);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] writers = new Thread[2];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                // Every record's duration equals its start offset in ms, so a torn one shows
+                for (long i = 1; running.get(); i++) {
+                    long start = ANCHOR + i * 1_000_000L;
+                    buffer.record(start, start + i * 1_000_000L, i % 2 == 0 ? Outcome.SUCCESS : Outcome.ERROR);
+                }
+            });
+            writers[w].start();
+        }
+
+        try {
+            long deadline = System.nanoTime() + 500_000_000L;
+            int reads = 0;
+            while (System.nanoTime() < deadline) {
+                List<TaskExecution> executions = buffer.snapshot();
+                assertTrue(executions.size() <= 16);
+                for (TaskExecution execution : executions) {
+                    long offsetMs = Duration.between(ANCHOR_TIME, execution.getExecutionTime()).toMillis();
+                    assertEquals(offsetMs, execution.getExecutionDuration());
+                    assertEquals(offsetMs % 2 == 0 ? "SUCCESS" : "ERROR", execution.getStatus());
+                }
+                reads++;
+            }
+            assertTrue(reads > 0);
+        } finally {
+            running.set(false);
+            for (Thread writer : writers) {
+                writer.join();
+            }
+        }
+    }
+}
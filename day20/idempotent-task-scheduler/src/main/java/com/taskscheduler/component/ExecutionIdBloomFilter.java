@@ -0,0 +1,85 @@
+package com.taskscheduler.component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over execution IDs. An ID the filter has never been given is reported
+ * as absent for certain; one it reports as present may still be new, at the configured rate.
+ *
+ * <p>The bit positions come from the two 64-bit halves of the ID itself (double hashing), which
+ * is already a uniformly distributed 128-bit hash, so nothing is hashed again.
+ */
+public class ExecutionIdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public ExecutionIdBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs positive insertions and a rate in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String executionId) {
+        long h1 = high(executionId);
+        long h2 = low(executionId);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            long mask = 1L << bit;
+            words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+        }
+    }
+
+    public boolean mightContain(String executionId) {
+        long h1 = high(executionId);
+        long h2 = low(executionId);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    // IDs are 32 hex digits; anything else falls back to a mixed String.hashCode
+    private static long high(String executionId) {
+        return isHex128(executionId) ? Long.parseUnsignedLong(executionId, 0, 16, 16) : mix(executionId.hashCode());
+    }
+
+    private static long low(String executionId) {
+        // Odd, so successive probes never collapse onto one position
+        return (isHex128(executionId) ? Long.parseUnsignedLong(executionId, 16, 32, 16) : mix(~executionId.hashCode())) | 1;
+    }
+
+    private static boolean isHex128(String executionId) {
+        if (executionId.length() != 32) {
+            return false;
+        }
+        for (int i = 0; i < 32; i++) {
+            if (Character.digit(executionId.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
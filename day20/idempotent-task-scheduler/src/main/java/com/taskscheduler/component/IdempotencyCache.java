@@ -0,0 +1,54 @@
+package com.taskscheduler.component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * In-memory front of the execution table: a Bloom filter of every execution ID this instance has
+ * seen, and a bounded cache of the results of completed executions.
+ *
+ * <p>Neither is authoritative. An ID the filter has not seen may still be in the table (written
+ * by another instance, or before a restart), which the claim's conflict check catches, and a
+ * cache miss only means a read.
+ */
+@Component
+public class IdempotencyCache {
+
+    private final ExecutionIdBloomFilter seenExecutions;
+    private final Cache<String, String> completedResults;
+
+    public IdempotencyCache(@Value("${idempotency.bloom.expected-executions:1000000}") long expectedExecutions,
+                            @Value("${idempotency.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${idempotency.cache.maximum-results:10000}") long maximumResults) {
+        this.seenExecutions = new ExecutionIdBloomFilter(expectedExecutions, falsePositiveRate);
+        this.completedResults = Caffeine.newBuilder()
+            .maximumSize(maximumResults)
+            .build();
+    }
+
+    /** Whether this instance may have handled the execution before; {@code false} is certain. */
+    public boolean mightHaveSeen(String executionId) {
+        return seenExecutions.mightContain(executionId);
+    }
+
+    public void markSeen(String executionId) {
+        seenExecutions.put(executionId);
+    }
+
+    public Optional<String> completedResult(String executionId) {
+        return Optional.ofNullable(completedResults.getIfPresent(executionId));
+    }
+
+    public void putCompleted(String executionId, String result) {
+        markSeen(executionId);
+        completedResults.put(executionId, result);
+    }
+
+    public long cachedResultCount() {
+        return completedResults.estimatedSize();
+    }
+}
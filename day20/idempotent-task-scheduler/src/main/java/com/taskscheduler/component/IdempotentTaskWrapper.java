@@ -7,6 +7,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -21,14 +23,27 @@ public class IdempotentTaskWrapper {
     @Autowired
     private ExecutionTracker executionTracker;
     
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+    
     // Synchronization for concurrent executions
     private final ConcurrentHashMap<String, ReentrantLock> executionLocks = new ConcurrentHashMap<>();
 
     /**
-     * Executes a task with idempotency guarantees
+     * Executes a task with idempotency guarantees.
+     *
+     * <p>A repeat of an execution completed on this instance is answered from memory. A first
+     * execution, which the Bloom filter can tell apart from a repeat, is claimed with a single
+     * insert; only an ID that may have been seen before is read first.
      */
     public <T> T executeIdempotent(String taskName, Supplier<T> task, Object... parameters) {
         String executionId = executionTracker.generateExecutionId(taskName, parameters);
+        
+        Optional<String> cached = idempotencyCache.completedResult(executionId);
+        if (cached.isPresent()) {
+            logger.debug("Task already completed, returning cached result: {}", executionId);
+            return parseResult(cached.get());
+        }
         logger.info("Executing idempotent task: {} with ID: {}", taskName, executionId);
         
         // Get or create lock for this execution ID to handle concurrent access
@@ -36,34 +51,42 @@ public class IdempotentTaskWrapper {
         
         lock.lock();
         try {
-            // Check for existing execution
-            Optional<TaskExecution> existing = executionTracker.checkExistingExecution(executionId);
-            if (existing.isPresent()) {
-                TaskExecution execution = existing.get();
-                
-                if (execution.getStatus() == ExecutionStatus.COMPLETED) {
-                    logger.info("Task already completed, returning cached result: {}", executionId);
-                    executionTracker.recordSkipped(executionId, "Already completed successfully");
-                    // For idempotent execution, we need to return the same result as before
-                    // Since we stored the result as string, we need to reconstruct it
-                    // In a real implementation, you'd serialize/deserialize properly
-                    return parseResult(execution.getResult());
-                } else if (execution.getStatus() == ExecutionStatus.RUNNING) {
+            // Another caller may have completed it while we waited
+            cached = idempotencyCache.completedResult(executionId);
+            if (cached.isPresent()) {
+                return parseResult(cached.get());
+            }
+            
+            String parameterList = String.join(",", java.util.Arrays.stream(parameters)
+                                        .map(String::valueOf).toArray(String[]::new));
+            boolean claimed = !idempotencyCache.mightHaveSeen(executionId)
+                && executionTracker.claimExecution(executionId, taskName, parameterList);
+            idempotencyCache.markSeen(executionId);
+            
+            if (!claimed) {
+                // Seen before, or someone else inserted it first
+                Optional<TaskExecution> existing = executionTracker.checkExistingExecution(executionId);
+                if (existing.isEmpty()) {
+                    claimed = executionTracker.claimExecution(executionId, taskName, parameterList);
+                } else if (existing.get().getStatus() == ExecutionStatus.COMPLETED) {
+                    logger.info("Task already completed, returning stored result: {}", executionId);
+                    idempotencyCache.putCompleted(executionId, existing.get().getResult());
+                    return parseResult(existing.get().getResult());
+                } else if (existing.get().getStatus() != ExecutionStatus.RUNNING) {
+                    claimed = executionTracker.reclaimExecution(executionId);
+                }
+                if (!claimed) {
                     logger.warn("Task already running, skipping duplicate execution: {}", executionId);
-                    executionTracker.recordSkipped(executionId, "Concurrent execution detected");
                     return null; // or throw exception based on your needs
                 }
             }
             
-            // Start new execution
-            TaskExecution execution = executionTracker.startExecution(executionId, taskName, 
-                                        String.join(",", java.util.Arrays.stream(parameters)
-                                        .map(String::valueOf).toArray(String[]::new)));
-            
             try {
                 T result = task.get();
                 String resultStr = result != null ? result.toString() : "Success";
-                executionTracker.recordSuccess(executionId, resultStr);
+                if (executionTracker.recordSuccess(executionId, resultStr)) {
+                    cacheCompleted(executionId, resultStr);
+                }
                 return result;
             } catch (Exception e) {
                 executionTracker.recordFailure(executionId, e.getMessage());
@@ -86,6 +109,20 @@ public class IdempotentTaskWrapper {
         }, parameters);
     }
 
+    // Inside a caller's transaction the COMPLETED row may yet roll back, so cache only once it commits
+    private void cacheCompleted(String executionId, String result) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            idempotencyCache.putCompleted(executionId, result);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idempotencyCache.putCompleted(executionId, result);
+            }
+        });
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T parseResult(String result) {
         // For idempotent execution, we need to return the same type as the original task
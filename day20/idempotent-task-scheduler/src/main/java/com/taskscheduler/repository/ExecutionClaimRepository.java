@@ -0,0 +1,62 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.model.ExecutionStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Claims an execution ID by inserting its RUNNING row; whoever inserts it first runs the task.
+ *
+ * <p>On PostgreSQL the insert is {@code ON CONFLICT DO NOTHING}, so a lost race is an update
+ * count of 0 rather than an error that would abort the surrounding transaction. Databases
+ * without it (H2 here) use a plain insert and treat the duplicate key as the lost race.
+ */
+@Repository
+public class ExecutionClaimRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionClaimRepository.class);
+
+    private static final String INSERT_RUNNING =
+        "INSERT INTO task_executions (execution_id, task_name, parameters, status, start_time, retry_count, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String claimSql;
+    private final boolean conflictClause;
+
+    public ExecutionClaimRepository(DataSource dataSource) throws SQLException {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        String product;
+        try (Connection connection = dataSource.getConnection()) {
+            product = connection.getMetaData().getDatabaseProductName();
+        }
+        this.conflictClause = "PostgreSQL".equals(product);
+        this.claimSql = conflictClause ? INSERT_RUNNING + " ON CONFLICT (execution_id) DO NOTHING" : INSERT_RUNNING;
+        logger.info("Claiming executions on {} with {}", product, conflictClause ? "ON CONFLICT DO NOTHING" : "duplicate-key detection");
+    }
+
+    /**
+     * @return {@code true} if this call created the row, {@code false} if the ID was already there
+     */
+    public boolean claim(String executionId, String taskName, String parameters) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            return jdbcTemplate.update(claimSql, executionId, taskName, parameters,
+                ExecutionStatus.RUNNING.name(), now, now, now) == 1;
+        } catch (DuplicateKeyException e) {
+            if (conflictClause) {
+                throw e;
+            }
+            return false;
+        }
+    }
+}
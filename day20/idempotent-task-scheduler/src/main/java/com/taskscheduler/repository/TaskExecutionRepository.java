@@ -5,11 +5,14 @@ import com.taskscheduler.model.TaskExecution;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,20 @@ public interface TaskExecutionRepository extends JpaRepository<TaskExecution, Lo
     
     Optional<TaskExecution> findByExecutionId(String executionId);
     
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE TaskExecution te SET te.status = :running, te.retryCount = te.retryCount + 1, te.startTime = :now, te.updatedAt = :now " +
+           "WHERE te.executionId = :executionId AND te.status IN :retryable")
+    int reclaim(@Param("executionId") String executionId, @Param("running") ExecutionStatus running,
+                @Param("retryable") Collection<ExecutionStatus> retryable, @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE TaskExecution te SET te.status = :status, te.result = :result, te.errorMessage = :errorMessage, " +
+           "te.endTime = :now, te.updatedAt = :now WHERE te.executionId = :executionId")
+    int finish(@Param("executionId") String executionId, @Param("status") ExecutionStatus status,
+               @Param("result") String result, @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+    
     List<TaskExecution> findByTaskNameAndStatusOrderByCreatedAtDesc(String taskName, ExecutionStatus status);
     
     @Query("SELECT te FROM TaskExecution te WHERE te.taskName = :taskName AND te.createdAt >= :since ORDER BY te.createdAt DESC")
@@ -2,6 +2,7 @@ package com.taskscheduler.service;
 
 import com.taskscheduler.model.ExecutionStatus;
 import com.taskscheduler.model.TaskExecution;
+import com.taskscheduler.repository.ExecutionClaimRepository;
 import com.taskscheduler.repository.TaskExecutionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,9 +10,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -19,41 +22,75 @@ public class ExecutionTracker {
     
     private static final Logger logger = LoggerFactory.getLogger(ExecutionTracker.class);
     
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    
+    private static final List<ExecutionStatus> RETRYABLE =
+        List.of(ExecutionStatus.PENDING, ExecutionStatus.FAILED, ExecutionStatus.SKIPPED);
+    
+    // MessageDigest is not thread-safe and costly to look up, so each thread keeps one
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+    });
+    
     @Autowired
     private TaskExecutionRepository repository;
+    
+    @Autowired
+    private ExecutionClaimRepository claimRepository;
 
     /**
-     * Generates a deterministic execution ID based on task name and parameters
+     * Generates a deterministic execution ID based on task name and parameters: the first 128 bits
+     * of the SHA-256 of {@code taskName|param|...}, as 32 hex digits
      */
     public String generateExecutionId(String taskName, Object... parameters) {
-        try {
-            StringBuilder input = new StringBuilder(taskName);
-            for (Object param : parameters) {
-                if (param != null) {
-                    input.append("|").append(param.toString());
-                }
+        MessageDigest digest = DIGEST.get();
+        // A call that threw part-way, say in a parameter's toString, leaves its input behind
+        digest.reset();
+        digest.update(taskName.getBytes(StandardCharsets.UTF_8));
+        for (Object param : parameters) {
+            if (param != null) {
+                digest.update((byte) '|');
+                digest.update(param.toString().getBytes(StandardCharsets.UTF_8));
             }
-            
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(input.toString().getBytes());
-            
-            // Convert to hex string
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            
-            return hexString.toString().substring(0, 32); // First 32 characters
-        } catch (NoSuchAlgorithmException e) {
-            logger.error("SHA-256 algorithm not available", e);
-            return String.valueOf(Math.abs((taskName + String.join("", 
-                java.util.Arrays.stream(parameters).map(String::valueOf).toArray(String[]::new))
-                ).hashCode()));
         }
+        byte[] hash = digest.digest();
+        
+        char[] hex = new char[32];
+        for (int i = 0; i < 16; i++) {
+            hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Claims a first execution by inserting its RUNNING row
+     *
+     * @return {@code false} if the execution ID already has a row
+     */
+    public boolean claimExecution(String executionId, String taskName, String parameters) {
+        boolean claimed = claimRepository.claim(executionId, taskName, parameters);
+        if (claimed) {
+            logger.info("Starting new execution: {}", executionId);
+        }
+        return claimed;
+    }
+
+    /**
+     * Claims a retry of an execution that failed or was skipped
+     *
+     * @return {@code false} if it is running or completed, possibly by another caller just now
+     */
+    public boolean reclaimExecution(String executionId) {
+        boolean claimed = repository.reclaim(executionId, ExecutionStatus.RUNNING, RETRYABLE, LocalDateTime.now()) == 1;
+        if (claimed) {
+            logger.info("Retrying execution: {}", executionId);
+        }
+        return claimed;
     }
 
     /**
@@ -90,32 +127,25 @@ public class ExecutionTracker {
 
     /**
      * Records successful completion of a task execution
+     *
+     * @return {@code false} if the execution ID has no row to complete
      */
-    @Transactional
-    public void recordSuccess(String executionId, String result) {
-        repository.findByExecutionId(executionId).ifPresent(execution -> {
-            execution.setStatus(ExecutionStatus.COMPLETED);
-            execution.setResult(result);
-            execution.setEndTime(LocalDateTime.now());
-            execution.setUpdatedAt(LocalDateTime.now());
-            repository.save(execution);
+    public boolean recordSuccess(String executionId, String result) {
+        if (repository.finish(executionId, ExecutionStatus.COMPLETED, result, null, LocalDateTime.now()) == 1) {
             logger.info("Execution completed successfully: {}", executionId);
-        });
+            return true;
+        }
+        logger.warn("No execution row to complete for {}", executionId);
+        return false;
     }
 
     /**
      * Records failure of a task execution
      */
-    @Transactional
     public void recordFailure(String executionId, String errorMessage) {
-        repository.findByExecutionId(executionId).ifPresent(execution -> {
-            execution.setStatus(ExecutionStatus.FAILED);
-            execution.setErrorMessage(errorMessage);
-            execution.setEndTime(LocalDateTime.now());
-            execution.setUpdatedAt(LocalDateTime.now());
-            repository.save(execution);
+        if (repository.finish(executionId, ExecutionStatus.FAILED, null, errorMessage, LocalDateTime.now()) > 0) {
             logger.error("Execution failed: {} - {}", executionId, errorMessage);
-        });
+        }
     }
 
     /**
@@ -1,5 +1,7 @@
 package com.taskscheduler;
 
+import com.taskscheduler.component.ExecutionIdBloomFilter;
+import com.taskscheduler.component.IdempotencyCache;
 import com.taskscheduler.component.IdempotentTaskWrapper;
 import com.taskscheduler.model.ExecutionStatus;
 import com.taskscheduler.model.TaskExecution;
@@ -8,6 +10,8 @@ import com.taskscheduler.service.ExecutionTracker;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.concurrent.CountDownLatch;
@@ -16,6 +20,10 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @SpringBootTest
 @Transactional
@@ -28,6 +36,9 @@ public class IdempotencyTest {
     private ExecutionTracker executionTracker;
 
     @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @SpyBean
     private TaskExecutionRepository repository;
 
     @Test
@@ -100,4 +111,54 @@ public class IdempotencyTest {
         assertEquals(ExecutionStatus.COMPLETED, completed.getStatus());
         assertEquals("Test Success", completed.getResult());
     }
+
+    // Results are cached only once committed, which the test transaction never is
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testFirstExecutionIsOneClaimAndRepeatsStayInMemory() {
+        String executionId = executionTracker.generateExecutionId("round_trip_test", "param");
+        AtomicInteger executionCount = new AtomicInteger(0);
+        
+        for (int i = 0; i < 3; i++) {
+            String result = taskWrapper.executeIdempotent("round_trip_test", () -> {
+                executionCount.incrementAndGet();
+                return "Once";
+            }, "param");
+            assertEquals("Once", result);
+        }
+        
+        assertEquals(1, executionCount.get());
+        // Claimed by insert without reading first, and never read again
+        verify(repository, never()).findByExecutionId(executionId);
+        verify(repository, times(1)).finish(eq(executionId), eq(ExecutionStatus.COMPLETED), eq("Once"), any(), any());
+        verify(repository, never()).reclaim(anyString(), any(), any(), any());
+        assertEquals(ExecutionStatus.COMPLETED, repository.findByExecutionId(executionId).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testResultIsNotCachedBeforeCommit() {
+        String executionId = executionTracker.generateExecutionId("uncommitted_test", "param");
+        
+        assertEquals("Pending", taskWrapper.executeIdempotent("uncommitted_test", () -> "Pending", "param"));
+        
+        assertEquals(ExecutionStatus.COMPLETED, repository.findByExecutionId(executionId).orElseThrow().getStatus());
+        assertTrue(idempotencyCache.completedResult(executionId).isEmpty(), "cached before the transaction committed");
+    }
+
+    @Test
+    public void testBloomFilterHasNoFalseNegatives() {
+        ExecutionIdBloomFilter filter = new ExecutionIdBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(executionTracker.generateExecutionId("bloom_test", i));
+        }
+        
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(executionTracker.generateExecutionId("bloom_test", i)));
+            if (filter.mightContain(executionTracker.generateExecutionId("bloom_other", i))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positive rate " + falsePositives / 100.0 + "%");
+    }
 }
@@ -0,0 +1,75 @@
+package com.taskscheduler.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ThreadPoolTaskScheduler} that accounts for the time its threads spend running
+ * tasks, so the pool can be sized from measured load instead of a fixed property.
+ */
+public class InstrumentedTaskScheduler extends ThreadPoolTaskScheduler {
+
+    private final LongAdder completedRuns = new LongAdder();
+
+    // Integral of the number of running tasks over time, advanced on every start and finish
+    private final Object busyLock = new Object();
+    private int running;
+    private long busyNanos;
+    private long lastTransitionNanos = System.nanoTime();
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+        super.beforeExecute(thread, task);
+        transition(1);
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable ex) {
+        transition(-1);
+        completedRuns.increment();
+        super.afterExecute(task, ex);
+    }
+
+    private void transition(int delta) {
+        synchronized (busyLock) {
+            long now = System.nanoTime();
+            busyNanos += running * (now - lastTransitionNanos);
+            lastTransitionNanos = now;
+            running += delta;
+        }
+    }
+
+    /**
+     * Total time spent running tasks, summed over all pool threads and including the
+     * elapsed part of runs still in progress.
+     */
+    public long getBusyNanos() {
+        synchronized (busyLock) {
+            return busyNanos + running * (System.nanoTime() - lastTransitionNanos);
+        }
+    }
+
+    public long getCompletedRuns() {
+        return completedRuns.sum();
+    }
+
+    /**
+     * Tasks whose trigger time has passed but that are still waiting for a free thread.
+     * The raw queue size is not useful here because every periodic task sits in the
+     * queue between runs.
+     */
+    public int getReadyTaskCount() {
+        ScheduledThreadPoolExecutor executor = getScheduledThreadPoolExecutor();
+        int ready = 0;
+        for (Runnable queued : executor.getQueue()) {
+            if (queued instanceof Delayed delayed && delayed.getDelay(TimeUnit.NANOSECONDS) <= 0) {
+                ready++;
+            }
+        }
+        return ready;
+    }
+}
@@ -0,0 +1,138 @@
+package com.taskscheduler.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free latency histogram in the style of HdrHistogram.
+ *
+ * Values (microseconds) are mapped to log-linear buckets: exact below 2^SUB_BUCKET_BITS,
+ * then 2^(SUB_BUCKET_BITS-1) linear sub-buckets per power of two, which bounds the
+ * relative error of any reported percentile to about 1.6%. Recording threads are spread
+ * over a few stripes so concurrent scheduler threads do not contend on the same cache
+ * lines. Recording only increments pre-allocated counters and never allocates; merging
+ * the stripes happens on the read path.
+ */
+public class StripedLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_VALUE_BITS = 36;                                 // ~19 hours in micros
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT =
+            SUB_BUCKET_COUNT + (MAX_VALUE_BITS - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT;
+
+    // count, sum and max per stripe, padded to a cache line each
+    private static final int STAT_STRIDE = 8;
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int MAX = 2;
+
+    private final int stripeMask;
+    private final AtomicLongArray[] buckets;
+    private final AtomicLongArray stats;
+
+    public StripedLatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public StripedLatencyHistogram(int concurrency) {
+        int stripes = Integer.highestOneBit(Math.max(1, Math.min(concurrency, 4)) * 2 - 1);
+        this.stripeMask = stripes - 1;
+        this.buckets = new AtomicLongArray[stripes];
+        for (int i = 0; i < stripes; i++) {
+            buckets[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+        this.stats = new AtomicLongArray(stripes * STAT_STRIDE);
+    }
+
+    public void record(long valueMicros) {
+        long value = Math.min(Math.max(valueMicros, 0), MAX_VALUE);
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+
+        buckets[stripe].incrementAndGet(bucketIndex(value));
+
+        int base = stripe * STAT_STRIDE;
+        stats.incrementAndGet(base + COUNT);
+        stats.addAndGet(base + SUM, value);
+        long max;
+        while (value > (max = stats.get(base + MAX))) {
+            if (stats.compareAndSet(base + MAX, max, value)) {
+                break;
+            }
+        }
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            count += stats.get(stripe * STAT_STRIDE + COUNT);
+        }
+        return count;
+    }
+
+    public long getTotalMicros() {
+        long sum = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            sum += stats.get(stripe * STAT_STRIDE + SUM);
+        }
+        return sum;
+    }
+
+    public long getMaxMicros() {
+        long max = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            max = Math.max(max, stats.get(stripe * STAT_STRIDE + MAX));
+        }
+        return max;
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.99
+     * @return the highest value in the bucket holding the given quantile, capped at the
+     *         recorded maximum, or 0 if nothing was recorded
+     */
+    public long getValueAtQuantile(double quantile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (AtomicLongArray stripe : buckets) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                long count = stripe.get(i);
+                counts[i] += count;
+                total += count;
+            }
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(quantile, 0.0), 1.0) * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(i), getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        long mantissa = value >>> shift;
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_SUB_BUCKET_COUNT + (int) (mantissa - HALF_SUB_BUCKET_COUNT);
+    }
+
+    static long highestValueInBucket(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / HALF_SUB_BUCKET_COUNT + 1;
+        long mantissa = HALF_SUB_BUCKET_COUNT + offset % HALF_SUB_BUCKET_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
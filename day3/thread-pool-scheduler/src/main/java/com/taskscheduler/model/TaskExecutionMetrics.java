@@ -1,38 +1,120 @@
 package com.taskscheduler.model;
 
+import com.taskscheduler.metrics.StripedLatencyHistogram;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.concurrent.atomic.AtomicLong;
 
-public class TaskExecutionMetrics {
+/**
+ * Per-task execution statistics. Durations go into a fixed-size striped histogram and the
+ * most recent sample is kept in plain fields guarded by a sequence counter, so recording
+ * an execution never takes a lock and never allocates.
+ */
+public class TaskExecutionMetrics implements MeterBinder {
+    private static final double MICROS_PER_MS = 1000.0;
+
     private final String taskName;
-    private final AtomicLong executionCount = new AtomicLong(0);
-    private final AtomicLong totalExecutionTime = new AtomicLong(0);
-    private volatile LocalDateTime lastExecution;
+    private final StripedLatencyHistogram histogram = new StripedLatencyHistogram();
+
+    // Last sample: odd sequence while a writer is updating the fields below
+    private final AtomicLong lastSampleSequence = new AtomicLong(0);
+    private volatile long lastExecutionEpochMs;
     private volatile String lastExecutingThread;
-    private volatile long lastExecutionDuration;
-    
+    private volatile long lastExecutionMicros;
+
     public TaskExecutionMetrics(String taskName) {
         this.taskName = taskName;
     }
-    
-    public void recordExecution(long durationMs, String threadName) {
-        executionCount.incrementAndGet();
-        totalExecutionTime.addAndGet(durationMs);
-        lastExecution = LocalDateTime.now();
-        lastExecutingThread = threadName;
-        lastExecutionDuration = durationMs;
+
+    public void recordExecution(long durationNanos, String threadName) {
+        long micros = durationNanos / 1000;
+        histogram.record(micros);
+
+        // If another thread is writing the last sample right now, its sample wins
+        long sequence = lastSampleSequence.get();
+        if ((sequence & 1) == 0 && lastSampleSequence.compareAndSet(sequence, sequence + 1)) {
+            lastExecutionEpochMs = System.currentTimeMillis();
+            lastExecutingThread = threadName;
+            lastExecutionMicros = micros;
+            lastSampleSequence.set(sequence + 2);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("scheduled.task.executions", histogram, StripedLatencyHistogram::getCount)
+                .description("Number of executions of a scheduled task")
+                .tag("task", taskName)
+                .register(registry);
+        registerLatencyGauge(registry, "0.5");
+        registerLatencyGauge(registry, "0.99");
+        registerLatencyGauge(registry, "0.999");
+        Gauge.builder("scheduled.task.latency.max", this, TaskExecutionMetrics::getMaxExecutionTime)
+                .description("Longest execution time of a scheduled task")
+                .tag("task", taskName)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    private void registerLatencyGauge(MeterRegistry registry, String quantile) {
+        double q = Double.parseDouble(quantile);
+        Gauge.builder("scheduled.task.latency", this, metrics -> metrics.getExecutionTimeAtQuantile(q))
+                .description("Execution time percentile of a scheduled task")
+                .tag("task", taskName)
+                .tag("quantile", quantile)
+                .baseUnit("milliseconds")
+                .register(registry);
     }
-    
+
     public double getAverageExecutionTime() {
-        long count = executionCount.get();
-        return count > 0 ? (double) totalExecutionTime.get() / count : 0.0;
+        long count = histogram.getCount();
+        return count > 0 ? histogram.getTotalMicros() / MICROS_PER_MS / count : 0.0;
     }
-    
+
+    public double getExecutionTimeAtQuantile(double quantile) {
+        return histogram.getValueAtQuantile(quantile) / MICROS_PER_MS;
+    }
+
+    public LocalDateTime getLastExecution() {
+        long epochMs = readLastSample().epochMs;
+        return epochMs > 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault()) : null;
+    }
+
+    public String getLastExecutingThread() {
+        return readLastSample().thread;
+    }
+
+    public long getLastExecutionDuration() {
+        return readLastSample().micros / 1000;
+    }
+
+    private LastSample readLastSample() {
+        while (true) {
+            long before = lastSampleSequence.get();
+            if ((before & 1) == 0) {
+                LastSample sample = new LastSample(lastExecutionEpochMs, lastExecutingThread, lastExecutionMicros);
+                if (lastSampleSequence.get() == before) {
+                    return sample;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private record LastSample(long epochMs, String thread, long micros) {}
+
     // Getters
     public String getTaskName() { return taskName; }
-    public long getExecutionCount() { return executionCount.get(); }
-    public long getTotalExecutionTime() { return totalExecutionTime.get(); }
-    public LocalDateTime getLastExecution() { return lastExecution; }
-    public String getLastExecutingThread() { return lastExecutingThread; }
-    public long getLastExecutionDuration() { return lastExecutionDuration; }
+    public long getExecutionCount() { return histogram.getCount(); }
+    public long getTotalExecutionTime() { return histogram.getTotalMicros() / 1000; }
+    public double getP50ExecutionTime() { return getExecutionTimeAtQuantile(0.5); }
+    public double getP99ExecutionTime() { return getExecutionTimeAtQuantile(0.99); }
+    public double getP999ExecutionTime() { return getExecutionTimeAtQuantile(0.999); }
+    public double getMaxExecutionTime() { return histogram.getMaxMicros() / MICROS_PER_MS; }
 }
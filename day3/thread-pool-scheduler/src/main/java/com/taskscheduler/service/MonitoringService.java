@@ -16,14 +16,17 @@ public class MonitoringService {
     private final MeterRegistry meterRegistry;
     private final ThreadPoolTaskScheduler customTaskScheduler;
     private final ScheduledTasksService scheduledTasksService;
+    private final PoolAutotuner poolAutotuner;
     private final Counter taskExecutionCounter;
     
     public MonitoringService(MeterRegistry meterRegistry,
                            @Qualifier("customTaskScheduler") ThreadPoolTaskScheduler customTaskScheduler,
-                           ScheduledTasksService scheduledTasksService) {
+                           ScheduledTasksService scheduledTasksService,
+                           PoolAutotuner poolAutotuner) {
         this.meterRegistry = meterRegistry;
         this.customTaskScheduler = customTaskScheduler;
         this.scheduledTasksService = scheduledTasksService;
+        this.poolAutotuner = poolAutotuner;
         this.taskExecutionCounter = Counter.builder("scheduled.tasks.executed")
                 .description("Total number of scheduled tasks executed")
                 .register(meterRegistry);
@@ -70,7 +73,7 @@ public class MonitoringService {
             executor.getActiveCount(),
             executor.getPoolSize(),
             executor.getCorePoolSize(),
-            executor.getMaximumPoolSize(),
+            poolAutotuner.getMaxPoolSize(),
             executor.getQueue().size()
         );
     }
@@ -0,0 +1,177 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.config.InstrumentedTaskScheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Resizes the core pool of the custom scheduler from measured load.
+ *
+ * Every sample takes the mean number of busy threads since the last sample (Little's law:
+ * arrival rate times run time, read directly from accumulated busy time) and the number of
+ * tasks that are due but waiting for a thread. The target is the larger of the mean load
+ * plus headroom and the peak demand seen over the last window, so bursts such as every
+ * cron task firing at the top of the minute are provisioned for ahead of time. The pool
+ * grows as soon as the target rises and shrinks one thread at a time once a full window
+ * has passed below it. The loop runs on the single-threaded default scheduler so it keeps
+ * sampling while the custom pool is saturated.
+ */
+@Service
+public class PoolAutotuner implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PoolAutotuner.class);
+
+    private final InstrumentedTaskScheduler taskScheduler;
+    private final ThreadPoolTaskScheduler controlScheduler;
+    private final boolean enabled;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final long sampleIntervalMs;
+    private final double headroom;
+    private final int[] demandWindow;
+    private final Counter growCounter;
+    private final Counter shrinkCounter;
+
+    private volatile ScheduledFuture<?> control;
+    private volatile int targetPoolSize;
+    private int windowIndex;
+    private int samplesBelowTarget;
+    private long lastSampleNanos;
+    private long lastBusyNanos;
+
+    public PoolAutotuner(MeterRegistry meterRegistry,
+                         @Qualifier("customTaskScheduler") InstrumentedTaskScheduler taskScheduler,
+                         @Qualifier("defaultTaskScheduler") ThreadPoolTaskScheduler controlScheduler,
+                         @Value("${task.scheduler.autotune.enabled:true}") boolean enabled,
+                         @Value("${task.scheduler.autotune.min-pool-size:2}") int minPoolSize,
+                         @Value("${task.scheduler.max-pool-size:20}") int maxPoolSize,
+                         @Value("${task.scheduler.autotune.sample-interval-ms:250}") long sampleIntervalMs,
+                         @Value("${task.scheduler.autotune.peak-window-seconds:60}") long peakWindowSeconds,
+                         @Value("${task.scheduler.autotune.headroom:0.25}") double headroom) {
+        if (minPoolSize < 1 || maxPoolSize < minPoolSize) {
+            throw new IllegalArgumentException(
+                    "Invalid autotune bounds: min-pool-size=" + minPoolSize + ", max-pool-size=" + maxPoolSize);
+        }
+        this.taskScheduler = taskScheduler;
+        this.controlScheduler = controlScheduler;
+        this.enabled = enabled;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.sampleIntervalMs = sampleIntervalMs;
+        this.headroom = headroom;
+        this.demandWindow = new int[(int) Math.max(1, peakWindowSeconds * 1000 / sampleIntervalMs)];
+        this.targetPoolSize = taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize();
+
+        this.growCounter = Counter.builder("thread.pool.resize")
+                .description("Core pool size changes made by the autotuner")
+                .tag("direction", "grow")
+                .register(meterRegistry);
+        this.shrinkCounter = Counter.builder("thread.pool.resize")
+                .description("Core pool size changes made by the autotuner")
+                .tag("direction", "shrink")
+                .register(meterRegistry);
+        Gauge.builder("thread.pool.target.size", this, PoolAutotuner::getTargetPoolSize)
+                .description("Core pool size the autotuner is steering towards")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || control != null) {
+            return;
+        }
+        lastSampleNanos = System.nanoTime();
+        lastBusyNanos = taskScheduler.getBusyNanos();
+        control = controlScheduler.scheduleWithFixedDelay(this::sample, Duration.ofMillis(sampleIntervalMs));
+        logger.info("Pool autotuner started (bounds {}..{}, sample every {}ms)", minPoolSize, maxPoolSize, sampleIntervalMs);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> current = control;
+        if (current != null) {
+            current.cancel(false);
+            control = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return control != null;
+    }
+
+    public int getTargetPoolSize() {
+        return targetPoolSize;
+    }
+
+    /**
+     * Upper bound for the core pool size. The executor's own maximum is meaningless here:
+     * a scheduled executor never grows past its core size because its queue is unbounded.
+     */
+    public int getMaxPoolSize() {
+        return enabled ? maxPoolSize : taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize();
+    }
+
+    void sample() {
+        try {
+            long now = System.nanoTime();
+            long busy = taskScheduler.getBusyNanos();
+            double meanBusyThreads = now > lastSampleNanos
+                    ? (double) (busy - lastBusyNanos) / (now - lastSampleNanos) : 0.0;
+            lastSampleNanos = now;
+            lastBusyNanos = busy;
+
+            int demand = taskScheduler.getScheduledThreadPoolExecutor().getActiveCount()
+                    + taskScheduler.getReadyTaskCount();
+            demandWindow[windowIndex] = demand;
+            windowIndex = (windowIndex + 1) % demandWindow.length;
+
+            int current = taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize();
+            int target = targetSize(meanBusyThreads, peak(demandWindow), headroom, minPoolSize, maxPoolSize);
+            targetPoolSize = target;
+
+            if (target > current) {
+                samplesBelowTarget = 0;
+                resize(current, target, meanBusyThreads, demand);
+            } else if (target < current && ++samplesBelowTarget >= demandWindow.length) {
+                samplesBelowTarget = 0;
+                resize(current, current - 1, meanBusyThreads, demand);
+            } else if (target == current) {
+                samplesBelowTarget = 0;
+            }
+        } catch (Exception e) {
+            logger.error("Pool autotuner sample failed", e);
+        }
+    }
+
+    private void resize(int from, int to, double meanBusyThreads, int demand) {
+        taskScheduler.setPoolSize(to);
+        (to > from ? growCounter : shrinkCounter).increment();
+        logger.info("Resized scheduler pool {} -> {} (mean busy {}, demand {})",
+                from, to, String.format("%.2f", meanBusyThreads), demand);
+    }
+
+    static int targetSize(double meanBusyThreads, int peakDemand, double headroom, int min, int max) {
+        int fromLoad = (int) Math.ceil(meanBusyThreads * (1 + headroom));
+        return Math.max(min, Math.min(max, Math.max(fromLoad, peakDemand)));
+    }
+
+    private static int peak(int[] window) {
+        int peak = 0;
+        for (int demand : window) {
+            peak = Math.max(peak, demand);
+        }
+        return peak;
+    }
+}
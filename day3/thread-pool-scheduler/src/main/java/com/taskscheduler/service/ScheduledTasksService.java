@@ -1,6 +1,7 @@
 package com.taskscheduler.service;
 
 import com.taskscheduler.model.TaskExecutionMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -15,6 +16,11 @@ public class ScheduledTasksService {
     
     private static final Logger logger = LoggerFactory.getLogger(ScheduledTasksService.class);
     private final Map<String, TaskExecutionMetrics> metricsMap = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    
+    public ScheduledTasksService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
     
     @Scheduled(fixedRate = 2000) // Every 2 seconds
     public void quickTask() {
@@ -47,7 +53,7 @@ public class ScheduledTasksService {
     }
     
     private void executeTask(String taskName, int minDuration, int maxDuration) {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         String threadName = Thread.currentThread().getName();
         
         try {
@@ -55,13 +61,14 @@ public class ScheduledTasksService {
             int duration = ThreadLocalRandom.current().nextInt(minDuration, maxDuration + 1);
             Thread.sleep(duration);
             
-            long executionTime = System.currentTimeMillis() - startTime;
+            long executionTime = System.nanoTime() - startTime;
             
             // Record metrics
-            metricsMap.computeIfAbsent(taskName, TaskExecutionMetrics::new)
-                     .recordExecution(executionTime, threadName);
+            metricsFor(taskName).recordExecution(executionTime, threadName);
             
-            logger.debug("Task '{}' executed in {}ms by thread '{}'", taskName, executionTime, threadName);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Task '{}' executed in {}ms by thread '{}'", taskName, executionTime / 1_000_000, threadName);
+            }
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -71,6 +78,18 @@ public class ScheduledTasksService {
         }
     }
     
+    private TaskExecutionMetrics metricsFor(String taskName) {
+        TaskExecutionMetrics metrics = metricsMap.get(taskName);
+        if (metrics != null) {
+            return metrics;
+        }
+        return metricsMap.computeIfAbsent(taskName, name -> {
+            TaskExecutionMetrics created = new TaskExecutionMetrics(name);
+            created.bindTo(meterRegistry);
+            return created;
+        });
+    }
+    
     public Map<String, TaskExecutionMetrics> getMetrics() {
         return Map.copyOf(metricsMap);
     }
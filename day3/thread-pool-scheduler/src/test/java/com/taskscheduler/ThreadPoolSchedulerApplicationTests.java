@@ -11,7 +11,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 @TestPropertySource(properties = {
-    "task.scheduler.pool-size=5"
+    "task.scheduler.pool-size=5",
+    "task.scheduler.autotune.enabled=false"
 })
 class ThreadPoolSchedulerApplicationTests {
 
@@ -0,0 +1,67 @@
+package com.taskscheduler.model;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TaskExecutionMetricsTest {
+
+    @Test
+    void percentilesStayWithinHistogramPrecision() {
+        TaskExecutionMetrics metrics = new TaskExecutionMetrics("test");
+        for (int ms = 1; ms <= 1000; ms++) {
+            metrics.recordExecution(TimeUnit.MILLISECONDS.toNanos(ms), "worker-1");
+        }
+
+        assertThat(metrics.getExecutionCount()).isEqualTo(1000);
+        assertThat(metrics.getAverageExecutionTime()).isCloseTo(500.5, within(0.01));
+        assertThat(metrics.getP50ExecutionTime()).isCloseTo(500, within(500 * 0.02));
+        assertThat(metrics.getP99ExecutionTime()).isCloseTo(990, within(990 * 0.02));
+        assertThat(metrics.getMaxExecutionTime()).isEqualTo(1000.0);
+        assertThat(metrics.getLastExecutionDuration()).isEqualTo(1000);
+        assertThat(metrics.getLastExecutingThread()).isEqualTo("worker-1");
+        assertThat(metrics.getLastExecution()).isNotNull();
+    }
+
+    @Test
+    void concurrentRecordingLosesNoSamples() throws InterruptedException {
+        TaskExecutionMetrics metrics = new TaskExecutionMetrics("test");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    metrics.recordExecution(TimeUnit.MICROSECONDS.toNanos(100 + i % 50), "worker");
+                }
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+
+        assertThat(metrics.getExecutionCount()).isEqualTo(80_000);
+        assertThat(metrics.getMaxExecutionTime()).isEqualTo(0.149);
+    }
+
+    @Test
+    void publishesPercentileGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskExecutionMetrics metrics = new TaskExecutionMetrics("quickTask");
+        metrics.bindTo(registry);
+        metrics.recordExecution(TimeUnit.MILLISECONDS.toNanos(200), "worker-1");
+
+        assertThat(registry.get("scheduled.task.latency").tag("task", "quickTask").tag("quantile", "0.99")
+                .gauge().value()).isCloseTo(200, within(4.0));
+        assertThat(registry.get("scheduled.task.latency.max").tag("task", "quickTask").gauge().value())
+                .isEqualTo(200.0);
+        assertThat(registry.get("scheduled.task.executions").tag("task", "quickTask").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+}
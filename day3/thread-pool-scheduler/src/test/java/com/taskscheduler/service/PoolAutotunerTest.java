@@ -0,0 +1,26 @@
+package com.taskscheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PoolAutotunerTest {
+
+    @Test
+    void sizesFromMeanLoadWithHeadroom() {
+        // 3.2 threads busy on average, 25% headroom -> 4
+        assertThat(PoolAutotuner.targetSize(3.2, 0, 0.25, 2, 20)).isEqualTo(4);
+    }
+
+    @Test
+    void peakDemandWinsOverMeanLoad() {
+        // Mostly idle, but six tasks were due at once in the last window
+        assertThat(PoolAutotuner.targetSize(0.4, 6, 0.25, 2, 20)).isEqualTo(6);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        assertThat(PoolAutotuner.targetSize(0.0, 0, 0.25, 2, 20)).isEqualTo(2);
+        assertThat(PoolAutotuner.targetSize(40.0, 50, 0.25, 2, 20)).isEqualTo(20);
+    }
+}
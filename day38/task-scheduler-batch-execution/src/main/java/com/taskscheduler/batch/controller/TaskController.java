@@ -45,6 +45,7 @@ public class TaskController {
         
         return ResponseEntity.ok(Map.of(
                 "pending", stats.pending(),
+                "queued", stats.queued(),
                 "processing", stats.processing(),
                 "completed", stats.completed(),
                 "failed", stats.failed(),
@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "tasks", indexes = {
     @Index(name = "idx_status", columnList = "status"),
-    @Index(name = "idx_batch_id", columnList = "batchId")
+    @Index(name = "idx_batch_id", columnList = "batchId"),
+    @Index(name = "idx_status_created_id", columnList = "status, createdAt, id")
 })
 @Data
 @NoArgsConstructor
@@ -44,6 +45,13 @@ public class Task {
     private String errorMessage;
     
     private LocalDateTime createdAt;
+    private LocalDateTime queuedAt;
+    
+    // Instance holding a QUEUED claim, and when it last confirmed it still holds it
+    @Column(length = 64)
+    private String claimedBy;
+    private LocalDateTime claimRenewedAt;
+    
     private LocalDateTime processedAt;
     private Long processingDurationMs;
     
@@ -58,6 +66,7 @@ public class Task {
     
     public enum TaskStatus {
         PENDING,
+        QUEUED,
         PROCESSING,
         COMPLETED,
         FAILED,
@@ -0,0 +1,111 @@
+package com.taskscheduler.batch.processor;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the batch size from observed per-type task latency.
+ *
+ * For every task type it keeps an exponentially weighted average of execution time and of
+ * the type's share of recent tasks. Types in a batch run side by side, each limited to its
+ * own concurrency, so a batch of n tasks takes roughly the slowest of
+ * n * share * latency / concurrency over all types. The size is chosen so that estimate
+ * hits the target batch time, which keeps both the execute phase and the write
+ * transaction that follows it short.
+ */
+@Component
+@Slf4j
+public class AdaptiveBatchSizer {
+    
+    private static final double ALPHA = 0.2;
+    
+    private final TypeConcurrencyLimits concurrencyLimits;
+    private final Map<String, TypeStats> statsByType = new ConcurrentHashMap<>();
+    private final int minSize;
+    private final int maxSize;
+    private final long targetBatchMs;
+    
+    private volatile int batchSize;
+    
+    public AdaptiveBatchSizer(TypeConcurrencyLimits concurrencyLimits,
+                              MeterRegistry meterRegistry,
+                              @Value("${batch.sizer.initial-size:100}") int initialSize,
+                              @Value("${batch.sizer.min-size:10}") int minSize,
+                              @Value("${batch.sizer.max-size:500}") int maxSize,
+                              @Value("${batch.sizer.target-batch-ms:1000}") long targetBatchMs) {
+        this.concurrencyLimits = concurrencyLimits;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetBatchMs = targetBatchMs;
+        this.batchSize = Math.max(minSize, Math.min(maxSize, initialSize));
+        
+        Gauge.builder("batch.size.target", this, AdaptiveBatchSizer::getBatchSize)
+                .description("Batch size currently chosen by the adaptive sizer")
+                .register(meterRegistry);
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    /**
+     * Folds the executions of one batch into the per-type averages and recomputes the size.
+     */
+    public synchronized void record(List<TaskTiming> timings) {
+        if (timings.isEmpty()) {
+            return;
+        }
+        
+        Map<String, int[]> countByType = new HashMap<>();
+        for (TaskTiming timing : timings) {
+            statsByType.computeIfAbsent(timing.taskType(), type -> new TypeStats())
+                    .recordLatency(timing.durationMs());
+            countByType.computeIfAbsent(timing.taskType(), type -> new int[1])[0]++;
+        }
+        statsByType.forEach((type, stats) -> {
+            int[] count = countByType.get(type);
+            stats.recordShare(count != null ? (double) count[0] / timings.size() : 0.0);
+        });
+        
+        double slowestMsPerTask = 0.0;
+        for (Map.Entry<String, TypeStats> entry : statsByType.entrySet()) {
+            TypeStats stats = entry.getValue();
+            double msPerTask = stats.share * stats.latencyMs / concurrencyLimits.limitFor(entry.getKey());
+            slowestMsPerTask = Math.max(slowestMsPerTask, msPerTask);
+        }
+        
+        int previous = batchSize;
+        int next = slowestMsPerTask > 0
+                ? (int) Math.max(minSize, Math.min(maxSize, targetBatchMs / slowestMsPerTask))
+                : maxSize;
+        batchSize = next;
+        
+        if (next != previous) {
+            log.debug("Batch size {} -> {} ({} ms per task on the slowest type)",
+                    previous, next, String.format("%.2f", slowestMsPerTask));
+        }
+    }
+    
+    public record TaskTiming(String taskType, long durationMs) {}
+    
+    private static class TypeStats {
+        private double latencyMs = -1;
+        private double share;
+        
+        void recordLatency(long durationMs) {
+            latencyMs = latencyMs < 0 ? durationMs : latencyMs + ALPHA * (durationMs - latencyMs);
+        }
+        
+        void recordShare(double batchShare) {
+            share = share + ALPHA * (batchShare - share);
+        }
+    }
+}
@@ -7,15 +7,24 @@ import com.taskscheduler.batch.repository.TaskRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 @Component
@@ -24,18 +33,29 @@ public class BatchProcessor {
     
     private final TaskRepository taskRepository;
     private final BatchMetricsRepository metricsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TypeConcurrencyLimits concurrencyLimits;
+    private final AdaptiveBatchSizer batchSizer;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
     private final Counter batchProcessedCounter;
     private final Counter tasksProcessedCounter;
     private final Timer batchProcessingTimer;
+    private final Timer writeTimer;
     
     @Value("${batch.processor.max-retries:3}")
     private int maxRetries;
     
     public BatchProcessor(TaskRepository taskRepository,
                          BatchMetricsRepository metricsRepository,
+                         TransactionTemplate transactionTemplate,
+                         TypeConcurrencyLimits concurrencyLimits,
+                         AdaptiveBatchSizer batchSizer,
                          MeterRegistry meterRegistry) {
         this.taskRepository = taskRepository;
         this.metricsRepository = metricsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.concurrencyLimits = concurrencyLimits;
+        this.batchSizer = batchSizer;
         this.batchProcessedCounter = Counter.builder("batch.processed.total")
                 .description("Total number of batches processed")
                 .register(meterRegistry);
@@ -45,11 +65,19 @@ public class BatchProcessor {
         this.batchProcessingTimer = Timer.builder("batch.processing.time")
                 .description("Time taken to process a batch")
                 .register(meterRegistry);
+        this.writeTimer = Timer.builder("batch.write.time")
+                .description("Time the write transaction of a batch is open")
+                .register(meterRegistry);
     }
     
-    @Transactional
-    public BatchResult processBatch(List<Task> tasks) {
-        if (tasks == null || tasks.isEmpty()) {
+    /**
+     * Runs a batch in three steps. The batch's rows are marked PROCESSING in one short
+     * transaction, which also drops any task whose claim was lost since it was queued. Tasks
+     * then execute in parallel on virtual threads, each type limited by its own permits, with
+     * no transaction open. Their results are finally written in one short transaction.
+     */
+    public BatchResult processBatch(List<Task> queued) {
+        if (queued == null || queued.isEmpty()) {
             return BatchResult.empty();
         }
         
@@ -57,58 +85,49 @@ public class BatchProcessor {
         LocalDateTime startTime = LocalDateTime.now();
         long startNanos = System.nanoTime();
         
-        log.info("Processing batch {} with {} tasks", batchId, tasks.size());
+        List<Task> tasks = transactionTemplate.execute(status -> startTasks(queued, batchId));
+        if (tasks.isEmpty()) {
+            return BatchResult.empty();
+        }
         
-        List<Task> successTasks = new ArrayList<>();
-        List<Task> failedTasks = new ArrayList<>();
+        log.info("Processing batch {} with {} tasks", batchId, tasks.size());
         
-        // Process each task in the batch
+        // Execute
+        List<Future<AdaptiveBatchSizer.TaskTiming>> executions = new ArrayList<>(tasks.size());
         for (Task task : tasks) {
+            executions.add(executor.submit(() -> runTask(task)));
+        }
+        
+        List<AdaptiveBatchSizer.TaskTiming> timings = new ArrayList<>(tasks.size());
+        for (int i = 0; i < executions.size(); i++) {
             try {
-                task.setBatchId(batchId);
-                task.setStatus(Task.TaskStatus.PROCESSING);
-                
-                long taskStartNanos = System.nanoTime();
-                
-                // Simulate task execution (in real-world: call external API, process data, etc.)
-                executeTask(task);
-                
-                long taskDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - taskStartNanos);
-                
-                task.setStatus(Task.TaskStatus.COMPLETED);
-                task.setProcessedAt(LocalDateTime.now());
-                task.setProcessingDurationMs(taskDurationMs);
-                successTasks.add(task);
-                
-            } catch (Exception e) {
-                log.error("Task {} failed: {}", task.getTaskId(), e.getMessage());
-                task.setErrorMessage(e.getMessage());
-                
-                if (task.getRetryCount() < maxRetries) {
-                    task.setStatus(Task.TaskStatus.RETRY);
-                    task.setRetryCount(task.getRetryCount() + 1);
-                } else {
-                    task.setStatus(Task.TaskStatus.FAILED);
-                }
-                failedTasks.add(task);
+                timings.add(executions.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while executing batch " + batchId, e);
+            } catch (ExecutionException e) {
+                // Only an Error or an interrupted task gets here; the rest of the batch is still written
+                recordFailure(tasks.get(i), e.getCause());
             }
         }
+        batchSizer.record(timings);
         
-        // Batch save all tasks (leveraging JPA batch operations)
-        List<Task> allTasks = new ArrayList<>();
-        allTasks.addAll(successTasks);
-        allTasks.addAll(failedTasks);
-        taskRepository.saveAll(allTasks);
+        int successCount = 0;
+        for (Task task : tasks) {
+            if (task.getStatus() == Task.TaskStatus.COMPLETED) {
+                successCount++;
+            }
+        }
+        int failureCount = tasks.size() - successCount;
         
         long totalDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
         double avgTaskTime = tasks.isEmpty() ? 0.0 : (double) totalDurationMs / tasks.size();
         
-        // Save batch metrics
         BatchMetrics metrics = BatchMetrics.builder()
                 .batchId(batchId)
                 .batchSize(tasks.size())
-                .successCount(successTasks.size())
-                .failureCount(failedTasks.size())
+                .successCount(successCount)
+                .failureCount(failureCount)
                 .totalProcessingTimeMs(totalDurationMs)
                 .avgTaskProcessingTimeMs(avgTaskTime)
                 .startTime(startTime)
@@ -116,17 +135,123 @@ public class BatchProcessor {
                 .processorInfo(Thread.currentThread().getName())
                 .build();
         
-        metricsRepository.save(metrics);
+        // Write
+        long writeStartNanos = System.nanoTime();
+        int written = transactionTemplate.execute(status -> writeResults(tasks, metrics));
+        writeTimer.record(System.nanoTime() - writeStartNanos, TimeUnit.NANOSECONDS);
         
         // Update metrics
         batchProcessedCounter.increment();
         tasksProcessedCounter.increment(tasks.size());
         batchProcessingTimer.record(totalDurationMs, TimeUnit.MILLISECONDS);
         
-        log.info("Batch {} completed: {} successful, {} failed, {}ms total",
-                batchId, successTasks.size(), failedTasks.size(), totalDurationMs);
+        log.info("Batch {} completed: {} successful, {} failed, {} written, {}ms total",
+                batchId, successCount, failureCount, written, totalDurationMs);
+        
+        return new BatchResult(batchId, tasks.size(), successCount, failureCount, totalDurationMs);
+    }
+    
+    private AdaptiveBatchSizer.TaskTiming runTask(Task task) throws InterruptedException {
+        Semaphore permits = concurrencyLimits.permitsFor(task.getTaskType());
+        permits.acquire();
+        long taskStartNanos = System.nanoTime();
+        try {
+            // Simulate task execution (in real-world: call external API, process data, etc.)
+            executeTask(task);
+            
+            task.setStatus(Task.TaskStatus.COMPLETED);
+            task.setProcessedAt(LocalDateTime.now());
+            task.setProcessingDurationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - taskStartNanos));
+            
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            recordFailure(task, e);
+        } finally {
+            permits.release();
+        }
+        return new AdaptiveBatchSizer.TaskTiming(task.getTaskType(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - taskStartNanos));
+    }
+    
+    private void recordFailure(Task task, Throwable failure) {
+        log.error("Task {} failed: {}", task.getTaskId(), failure.getMessage());
+        task.setErrorMessage(failure.getMessage());
+        
+        if (task.getRetryCount() < maxRetries) {
+            task.setStatus(Task.TaskStatus.RETRY);
+            task.setRetryCount(task.getRetryCount() + 1);
+        } else {
+            task.setStatus(Task.TaskStatus.FAILED);
+        }
+    }
+    
+    /**
+     * Moves the batch's rows from QUEUED to PROCESSING and returns them, with the versions the
+     * write phase checks against. A row whose version moved since it was queued had its claim
+     * released and was picked up elsewhere, so it is not run here.
+     */
+    private List<Task> startTasks(List<Task> queued, String batchId) {
+        Map<Long, Task> current = currentRows(queued);
+        LocalDateTime now = LocalDateTime.now();
+        
+        List<Task> started = new ArrayList<>(queued.size());
+        for (Task task : queued) {
+            Task row = current.get(task.getId());
+            if (row != null && Objects.equals(row.getVersion(), task.getVersion())
+                    && row.getStatus() == Task.TaskStatus.QUEUED) {
+                row.setStatus(Task.TaskStatus.PROCESSING);
+                row.setBatchId(batchId);
+                row.setClaimRenewedAt(now);
+                started.add(row);
+            } else {
+                log.warn("Task {} lost its claim while queued, not running it in batch {}",
+                        task.getTaskId(), batchId);
+            }
+        }
+        taskRepository.saveAllAndFlush(started);
+        return started;
+    }
+    
+    private Map<Long, Task> currentRows(List<Task> tasks) {
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            ids.add(task.getId());
+        }
+        Map<Long, Task> rows = new HashMap<>();
+        for (Task row : taskRepository.findAllById(ids)) {
+            rows.put(row.getId(), row);
+        }
+        return rows;
+    }
+    
+    /**
+     * Loads the batch's rows with one IN query so the merges below stay inside the
+     * persistence context, then writes them as JDBC batch updates. Rows whose version moved
+     * since they were started were released and re-claimed elsewhere and are left alone.
+     */
+    private int writeResults(List<Task> tasks, BatchMetrics metrics) {
+        Map<Long, Task> current = currentRows(tasks);
         
-        return new BatchResult(batchId, tasks.size(), successTasks.size(), failedTasks.size(), totalDurationMs);
+        List<Task> toSave = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task row = current.get(task.getId());
+            if (row != null && Objects.equals(row.getVersion(), task.getVersion())) {
+                toSave.add(task);
+            } else {
+                log.warn("Task {} changed while batch {} was executing, dropping its result",
+                        task.getTaskId(), metrics.getBatchId());
+            }
+        }
+        
+        taskRepository.saveAll(toSave);
+        metricsRepository.save(metrics);
+        return toSave.size();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
     }
     
     private void executeTask(Task task) throws Exception {
@@ -0,0 +1,45 @@
+package com.taskscheduler.batch.processor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Per-task-type execution limits shared by all batch processor threads, configured as
+ * {@code batch.processor.type-concurrency=REPORT:8,EMAIL:32}. Types that are not listed
+ * get {@code batch.processor.default-type-concurrency}.
+ */
+@Component
+public class TypeConcurrencyLimits {
+    
+    private final Map<String, Integer> limits = new HashMap<>();
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+    private final int defaultLimit;
+    
+    public TypeConcurrencyLimits(@Value("${batch.processor.type-concurrency:}") String typeConcurrency,
+                                 @Value("${batch.processor.default-type-concurrency:16}") int defaultLimit) {
+        this.defaultLimit = defaultLimit;
+        for (String entry : typeConcurrency.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid batch.processor.type-concurrency entry: " + entry);
+            }
+            limits.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+    }
+    
+    public int limitFor(String taskType) {
+        return limits.getOrDefault(taskType, defaultLimit);
+    }
+    
+    public Semaphore permitsFor(String taskType) {
+        return permits.computeIfAbsent(taskType, type -> new Semaphore(limitFor(type)));
+    }
+}
@@ -1,13 +1,19 @@
 package com.taskscheduler.batch.repository;
 
 import com.taskscheduler.batch.model.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,11 +21,53 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     List<Task> findByStatusOrderByCreatedAtAsc(Task.TaskStatus status);
     
+    /**
+     * Next page of tasks in the given status after the (createdAt, id) cursor, locked for
+     * update. Lock timeout -2 is Hibernate's SKIP LOCKED, so concurrent loaders claim
+     * disjoint rows on databases that support it; on H2 it degrades to FOR UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM Task t WHERE t.status = :status " +
+           "AND (t.createdAt > :afterCreatedAt OR (t.createdAt = :afterCreatedAt AND t.id > :afterId)) " +
+           "ORDER BY t.createdAt ASC, t.id ASC")
+    List<Task> findPageForClaim(@Param("status") Task.TaskStatus status,
+                                @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+    
+    /**
+     * Heartbeat for the claims an instance still holds. Not a versioned update, so the
+     * in-memory copies of those rows stay current.
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.claimRenewedAt = :now WHERE t.claimedBy = :owner AND t.status IN :statuses")
+    int renewClaims(@Param("owner") String owner,
+                    @Param("statuses") Collection<Task.TaskStatus> statuses,
+                    @Param("now") LocalDateTime now);
+    
+    /**
+     * Releases claims whose owner has stopped renewing them. The version is bumped so a
+     * late result from the old owner no longer matches the row.
+     */
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :newStatus, t.queuedAt = null, t.claimedBy = null, " +
+           "t.claimRenewedAt = null, t.version = t.version + 1 " +
+           "WHERE t.status = :oldStatus AND t.claimRenewedAt < :timeout")
+    int releaseStaleClaims(@Param("oldStatus") Task.TaskStatus oldStatus,
+                           @Param("newStatus") Task.TaskStatus newStatus,
+                           @Param("timeout") LocalDateTime timeout);
+    
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
     long countByStatus(@Param("status") Task.TaskStatus status);
     
+    /**
+     * Moves tasks whose owner stopped renewing its claim mid-batch on to the given status,
+     * bumping the version so the old owner's result is dropped if it ever arrives.
+     */
     @Modifying
-    @Query("UPDATE Task t SET t.status = :newStatus WHERE t.status = :oldStatus AND t.createdAt < :timeout")
+    @Query("UPDATE Task t SET t.status = :newStatus, t.version = t.version + 1 " +
+           "WHERE t.status = :oldStatus AND t.claimRenewedAt < :timeout")
     int resetStuckTasks(@Param("oldStatus") Task.TaskStatus oldStatus, 
                        @Param("newStatus") Task.TaskStatus newStatus,
                        @Param("timeout") LocalDateTime timeout);
@@ -1,6 +1,7 @@
 package com.taskscheduler.batch.service;
 
 import com.taskscheduler.batch.model.Task;
+import com.taskscheduler.batch.processor.AdaptiveBatchSizer;
 import com.taskscheduler.batch.processor.BatchProcessor;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -18,11 +19,9 @@ import java.util.concurrent.TimeUnit;
 public class BatchAccumulator {
     
     private final BatchProcessor batchProcessor;
+    private final AdaptiveBatchSizer batchSizer;
     private final BlockingQueue<Task> taskQueue;
     
-    @Value("${batch.processor.size:100}")
-    private int batchSize;
-    
     @Value("${batch.processor.timeout-ms:3000}")
     private long batchTimeoutMs;
     
@@ -31,33 +30,34 @@ public class BatchAccumulator {
     
     private volatile boolean running = true;
     
-    public BatchAccumulator(BatchProcessor batchProcessor) {
+    public BatchAccumulator(BatchProcessor batchProcessor,
+                            AdaptiveBatchSizer batchSizer,
+                            @Value("${batch.accumulator.capacity:10000}") int capacity) {
         this.batchProcessor = batchProcessor;
-        this.taskQueue = new LinkedBlockingQueue<>(10000);
+        this.batchSizer = batchSizer;
+        this.taskQueue = new LinkedBlockingQueue<>(capacity);
     }
     
     @PostConstruct
     public void startProcessing() {
-        log.info("Starting batch accumulator with batch size: {}, timeout: {}ms, threads: {}",
-                batchSize, batchTimeoutMs, threadPoolSize);
+        log.info("Starting batch accumulator with initial batch size: {}, timeout: {}ms, threads: {}",
+                batchSizer.getBatchSize(), batchTimeoutMs, threadPoolSize);
         
         for (int i = 0; i < threadPoolSize; i++) {
             Thread.ofVirtual().name("batch-processor-" + i).start(this::processBatches);
         }
     }
     
+    /**
+     * Never blocks: callers size their loads with {@link #getRemainingCapacity()} and get
+     * {@code false} back if the queue filled up in the meantime.
+     */
     public boolean addTask(Task task) {
-        try {
-            return taskQueue.offer(task, 1, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Interrupted while adding task to queue", e);
-            return false;
-        }
+        return taskQueue.offer(task);
     }
     
     private void processBatches() {
-        List<Task> batch = new ArrayList<>(batchSize);
+        List<Task> batch = new ArrayList<>(batchSizer.getBatchSize());
         long lastBatchTime = System.currentTimeMillis();
         
         while (running) {
@@ -69,7 +69,7 @@ public class BatchAccumulator {
                 }
                 
                 long timeSinceLastBatch = System.currentTimeMillis() - lastBatchTime;
-                boolean sizeThresholdReached = batch.size() >= batchSize;
+                boolean sizeThresholdReached = batch.size() >= batchSizer.getBatchSize();
                 boolean timeoutReached = timeSinceLastBatch >= batchTimeoutMs && !batch.isEmpty();
                 
                 if (sizeThresholdReached || timeoutReached) {
@@ -100,4 +100,8 @@ public class BatchAccumulator {
     public int getQueueSize() {
         return taskQueue.size();
     }
+    
+    public int getRemainingCapacity() {
+        return taskQueue.remainingCapacity();
+    }
 }
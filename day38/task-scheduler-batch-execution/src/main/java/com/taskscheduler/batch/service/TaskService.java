@@ -2,23 +2,45 @@ package com.taskscheduler.batch.service;
 
 import com.taskscheduler.batch.model.Task;
 import com.taskscheduler.batch.repository.TaskRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TaskService {
     
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final List<Task.TaskStatus> HELD_STATUSES = List.of(Task.TaskStatus.QUEUED, Task.TaskStatus.PROCESSING);
+    
     private final TaskRepository taskRepository;
     private final BatchAccumulator batchAccumulator;
+    private final TransactionTemplate transactionTemplate;
+    // Owner recorded on this instance's claims; a restart starts with none
+    private final String instanceId = UUID.randomUUID().toString();
+    
+    @Value("${batch.loader.page-size:500}")
+    private int loaderPageSize;
+    
+    @Value("${batch.loader.claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+    
+    public TaskService(TaskRepository taskRepository,
+                       BatchAccumulator batchAccumulator,
+                       TransactionTemplate transactionTemplate) {
+        this.taskRepository = taskRepository;
+        this.batchAccumulator = batchAccumulator;
+        this.transactionTemplate = transactionTemplate;
+    }
     
     @Transactional
     public Task createTask(String taskType, String payload) {
@@ -35,23 +57,93 @@ public class TaskService {
         return task;
     }
     
+    /**
+     * Claims PENDING tasks up to the accumulator's free capacity and hands them over.
+     * Each page is marked QUEUED in its own short transaction, so a task is offered once
+     * no matter how large the backlog is, and nothing is loaded that cannot be queued.
+     */
     @Scheduled(fixedDelay = 2000)
-    @Transactional(readOnly = true)
     public void loadPendingTasks() {
-        List<Task> pendingTasks = taskRepository.findByStatusOrderByCreatedAtAsc(Task.TaskStatus.PENDING);
+        LocalDateTime afterCreatedAt = CURSOR_START;
+        long afterId = 0L;
+        int loaded = 0;
         
-        if (!pendingTasks.isEmpty()) {
-            log.info("Loading {} pending tasks into batch accumulator", pendingTasks.size());
+        int capacity;
+        while ((capacity = batchAccumulator.getRemainingCapacity()) > 0) {
+            List<Task> claimed = claimPage(afterCreatedAt, afterId, Math.min(capacity, loaderPageSize));
+            if (claimed.isEmpty()) {
+                break;
+            }
             
-            for (Task task : pendingTasks) {
-                batchAccumulator.addTask(task);
+            List<Task> rejected = new ArrayList<>();
+            for (Task task : claimed) {
+                if (!batchAccumulator.addTask(task)) {
+                    rejected.add(task);
+                }
+            }
+            if (!rejected.isEmpty()) {
+                releaseClaims(rejected);
+            }
+            
+            loaded += claimed.size() - rejected.size();
+            Task last = claimed.get(claimed.size() - 1);
+            afterCreatedAt = last.getCreatedAt();
+            afterId = last.getId();
+            
+            if (claimed.size() < Math.min(capacity, loaderPageSize)) {
+                break;
             }
         }
+        
+        if (loaded > 0) {
+            log.info("Claimed {} pending tasks into batch accumulator", loaded);
+        }
+    }
+    
+    private List<Task> claimPage(LocalDateTime afterCreatedAt, long afterId, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<Task> page = taskRepository.findPageForClaim(
+                    Task.TaskStatus.PENDING, afterCreatedAt, afterId, PageRequest.of(0, limit));
+            LocalDateTime now = LocalDateTime.now();
+            for (Task task : page) {
+                task.setStatus(Task.TaskStatus.QUEUED);
+                task.setQueuedAt(now);
+                task.setClaimedBy(instanceId);
+                task.setClaimRenewedAt(now);
+            }
+            return page;
+        });
+    }
+    
+    private void releaseClaims(List<Task> tasks) {
+        log.warn("Accumulator full, releasing {} claimed tasks", tasks.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Task task : tasks) {
+                task.setStatus(Task.TaskStatus.PENDING);
+                task.setQueuedAt(null);
+                task.setClaimedBy(null);
+                task.setClaimRenewedAt(null);
+            }
+            taskRepository.saveAll(tasks);
+        });
+    }
+    
+    /**
+     * Keeps this instance's claims alive for as long as it runs, however long the tasks wait
+     * in its accumulator or take to execute. Only claims whose owner stops renewing them (a crash, or a pause
+     * longer than the claim timeout) are ever released to other loaders.
+     */
+    @Scheduled(fixedDelayString = "${batch.loader.claim-heartbeat-ms:30000}")
+    @Transactional
+    public void renewClaims() {
+        int renewed = taskRepository.renewClaims(instanceId, HELD_STATUSES, LocalDateTime.now());
+        log.debug("Renewed {} claims held by {}", renewed, instanceId);
     }
     
     @Scheduled(fixedDelay = 30000)
     @Transactional
     public void resetStuckTasks() {
+        // Batches whose instance stopped renewing them partway through
         LocalDateTime timeout = LocalDateTime.now().minusMinutes(5);
         int resetCount = taskRepository.resetStuckTasks(
                 Task.TaskStatus.PROCESSING, 
@@ -62,18 +154,30 @@ public class TaskService {
         if (resetCount > 0) {
             log.warn("Reset {} stuck tasks", resetCount);
         }
+        
+        // Claims whose owner stopped before processing them and no longer renews them
+        int releasedCount = taskRepository.releaseStaleClaims(
+                Task.TaskStatus.QUEUED,
+                Task.TaskStatus.PENDING,
+                LocalDateTime.now().minusMinutes(claimTimeoutMinutes)
+        );
+        
+        if (releasedCount > 0) {
+            log.warn("Released {} queued tasks whose owner stopped renewing them", releasedCount);
+        }
     }
     
     public TaskStats getStats() {
         long pending = taskRepository.countByStatus(Task.TaskStatus.PENDING);
+        long queued = taskRepository.countByStatus(Task.TaskStatus.QUEUED);
         long processing = taskRepository.countByStatus(Task.TaskStatus.PROCESSING);
         long completed = taskRepository.countByStatus(Task.TaskStatus.COMPLETED);
         long failed = taskRepository.countByStatus(Task.TaskStatus.FAILED);
         long retry = taskRepository.countByStatus(Task.TaskStatus.RETRY);
         int queueSize = batchAccumulator.getQueueSize();
         
-        return new TaskStats(pending, processing, completed, failed, retry, queueSize);
+        return new TaskStats(pending, queued, processing, completed, failed, retry, queueSize);
     }
     
-    public record TaskStats(long pending, long processing, long completed, long failed, long retry, int queueSize) {}
+    public record TaskStats(long pending, long queued, long processing, long completed, long failed, long retry, int queueSize) {}
 }
@@ -1,5 +1,6 @@
 package com.ultrascale.scheduler.demo.controller;
 
+import com.ultrascale.scheduler.demo.guard.ExecutionGuard;
 import com.ultrascale.scheduler.demo.model.TaskExecutionRecord;
 import com.ultrascale.scheduler.demo.service.TaskExecutionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,9 @@ public class TaskMonitoringController {
     @Autowired
     private TaskExecutionRepository taskExecutionRepository;
     
+    @Autowired(required = false)
+    private ExecutionGuard executionGuard;
+    
     @Value("${app.instance.id:UNKNOWN}")
     private String instanceId;
     
@@ -57,6 +61,9 @@ public class TaskMonitoringController {
         status.put("dailyReportExecutions", taskExecutionRepository.countExecutionsSince("DAILY_REPORT_GENERATION", since));
         status.put("billingExecutions", taskExecutionRepository.countExecutionsSince("CUSTOMER_BILLING", since));
         status.put("cleanupExecutions", taskExecutionRepository.countExecutionsSince("DATA_CLEANUP", since));
+        if (executionGuard != null) {
+            status.put("guard", executionGuard.getStats());
+        }
         
         return status;
     }
@@ -0,0 +1,192 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This instance's entry in the shared {@code scheduler_members} table, and an in-memory copy
+ * of everyone else's.
+ *
+ * <p>A background thread heartbeats every {@code heartbeatInterval} and reads the whole table
+ * back in the same round trip, so callers can look at {@link #snapshot()} without touching the
+ * database. All timestamps come from the database clock, and the snapshot extrapolates it with
+ * {@link System#nanoTime()}, so instances never compare their own clocks with each other.
+ *
+ * <p>If this instance misses heartbeats for longer than {@code rejoinAfter} (a long GC pause, a
+ * database outage) it rejoins with a fresh join time instead of reappearing as an established
+ * member, because other instances may already have counted it out.
+ */
+public class ClusterMembership {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembership.class);
+
+    private static final int CLEANUP_EVERY_BEATS = 60;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final Duration heartbeatInterval;
+    private final Duration rejoinAfter;
+    private final Duration expireAfter;
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "guard-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+    private volatile boolean leaving;
+    private long lastBeatNanos;
+    private int beats;
+
+    public ClusterMembership(JdbcTemplate jdbcTemplate, String nodeId, Duration heartbeatInterval,
+                             Duration rejoinAfter, Duration expireAfter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.heartbeatInterval = heartbeatInterval;
+        this.rejoinAfter = rejoinAfter;
+        this.expireAfter = expireAfter;
+    }
+
+    public void start() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_members (" +
+            "node_id VARCHAR(128) PRIMARY KEY, joined_at TIMESTAMP NOT NULL, " +
+            "heartbeat_at TIMESTAMP NOT NULL, left_at TIMESTAMP)");
+        heartbeat();
+        long period = heartbeatInterval.toMillis();
+        heartbeats.scheduleWithFixedDelay(this::heartbeatQuietly, period, period, TimeUnit.MILLISECONDS);
+        logger.info("Node {} joined the scheduler cluster", nodeId);
+    }
+
+    /**
+     * Leaves the cluster: from now on this instance owns nothing, and the others take over its
+     * jobs once they see {@code left_at} instead of waiting for its heartbeat to time out.
+     */
+    public void leave() {
+        leaving = true;
+        stop();
+        // Serialized with an in-flight heartbeat, which could otherwise clear left_at again
+        synchronized (this) {
+            try {
+                jdbcTemplate.update("UPDATE scheduler_members SET left_at = LOCALTIMESTAMP WHERE node_id = ?", nodeId);
+                logger.info("Node {} left the scheduler cluster", nodeId);
+            } catch (DataAccessException e) {
+                logger.warn("Node {} could not record leaving, others will time it out: {}", nodeId, e.getMessage());
+            }
+        }
+    }
+
+    /** Stops heartbeating without leaving, as if the instance had crashed. */
+    public void stop() {
+        heartbeats.shutdownNow();
+    }
+
+    public boolean isLeaving() {
+        return leaving;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    /**
+     * The latest membership, read again first if the background heartbeat has fallen more than
+     * two intervals behind. Returns null if it is that stale and the database cannot be reached.
+     */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.ageNanos() <= heartbeatInterval.toNanos() * 2) {
+            return current;
+        }
+        try {
+            return heartbeat();
+        } catch (DataAccessException e) {
+            logger.warn("Node {} has no fresh membership view: {}", nodeId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void heartbeatQuietly() {
+        try {
+            heartbeat();
+        } catch (DataAccessException e) {
+            logger.warn("Heartbeat of node {} failed: {}", nodeId, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Heartbeat of node {} failed", nodeId, e);
+        }
+    }
+
+    private synchronized Snapshot heartbeat() {
+        if (leaving) {
+            return snapshot;
+        }
+        long sentNanos = System.nanoTime();
+        boolean rejoin = lastBeatNanos == 0 || sentNanos - lastBeatNanos > rejoinAfter.toNanos();
+        int updated = rejoin
+            ? jdbcTemplate.update("UPDATE scheduler_members SET joined_at = LOCALTIMESTAMP, " +
+                "heartbeat_at = LOCALTIMESTAMP, left_at = NULL WHERE node_id = ?", nodeId)
+            : jdbcTemplate.update("UPDATE scheduler_members SET heartbeat_at = LOCALTIMESTAMP WHERE node_id = ?", nodeId);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO scheduler_members (node_id, joined_at, heartbeat_at) " +
+                "VALUES (?, LOCALTIMESTAMP, LOCALTIMESTAMP)", nodeId);
+        }
+        if (rejoin && lastBeatNanos != 0) {
+            logger.warn("Node {} missed its heartbeats for too long and rejoined", nodeId);
+        }
+        lastBeatNanos = sentNanos;
+
+        // Our own row is always there, so db_now always comes back with at least one row
+        LocalDateTime[] dbNow = new LocalDateTime[1];
+        List<Member> members = jdbcTemplate.query(
+            "SELECT node_id, joined_at, heartbeat_at, left_at, LOCALTIMESTAMP AS db_now FROM scheduler_members",
+            (rs, rowNum) -> {
+                dbNow[0] = rs.getTimestamp("db_now").toLocalDateTime();
+                return new Member(rs.getString("node_id"),
+                    rs.getTimestamp("joined_at").toLocalDateTime(),
+                    rs.getTimestamp("heartbeat_at").toLocalDateTime(),
+                    toLocalDateTime(rs.getTimestamp("left_at")));
+            });
+        Snapshot fresh = new Snapshot(List.copyOf(members), dbNow[0], System.nanoTime());
+        snapshot = fresh;
+
+        if (++beats % CLEANUP_EVERY_BEATS == 0) {
+            jdbcTemplate.update("DELETE FROM scheduler_members WHERE heartbeat_at < ?",
+                Timestamp.valueOf(dbNow[0].minus(expireAfter)));
+        }
+        return fresh;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    public record Member(String nodeId, LocalDateTime joinedAt, LocalDateTime heartbeatAt, LocalDateTime leftAt) {
+    }
+
+    /** The membership table as read at {@code dbNow}, database clock. */
+    public record Snapshot(List<Member> members, LocalDateTime dbNow, long receivedNanos) {
+
+        long ageNanos() {
+            return System.nanoTime() - receivedNanos;
+        }
+
+        /** The database clock now, extrapolated from when the snapshot was read. */
+        public LocalDateTime estimatedDbNow() {
+            return dbNow.plusNanos(ageNanos());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import com.ultrascale.scheduler.demo.guard.ClusterMembership.Member;
+import com.ultrascale.scheduler.demo.guard.ClusterMembership.Snapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides, per fire slot of a job, whether this instance runs it.
+ *
+ * <p>Ownership is evaluated at the slot time against the in-memory membership snapshot. A
+ * member counts as <em>certain</em> if it joined at least {@code joinSettle} before the slot,
+ * heartbeated within {@code memberTtl} of it and had not left by then, each with a safety band
+ * of {@code k * margin} in the strict direction; it counts as <em>possible</em> with the band in
+ * the lenient direction. The candidates for a job are the rendezvous owner among the certain
+ * members plus every possible member that outranks it. Then:
+ * <ul>
+ *   <li>not a candidate with {@code k = 1}: skip, another instance owns the job;</li>
+ *   <li>the only candidate with {@code k = 2}: run, without any database access;</li>
+ *   <li>otherwise membership is changing around this job: run only with the {@link SlotLock}.</li>
+ * </ul>
+ *
+ * <p>Two instances' views of a heartbeat differ by less than {@code margin}, so one instance's
+ * {@code k = 2} view brackets every other instance's {@code k = 1} view. If one instance is the
+ * sole wide candidate, every other instance sees it as the narrow owner and skips, so a local
+ * run can never coincide with a locked run of the same slot.
+ */
+public class ExecutionGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionGuard.class);
+
+    public enum Decision {
+        /** This instance owns the job outright. */
+        RUN_LOCAL,
+        /** Ownership was in doubt and this instance claimed the slot lock. */
+        RUN_LOCKED,
+        /** Ownership was in doubt and another candidate claimed the slot first. */
+        LOCKED_OUT,
+        /** Another instance owns the job, or this one is leaving or has no fresh view. */
+        SKIP;
+
+        public boolean runs() {
+            return this == RUN_LOCAL || this == RUN_LOCKED;
+        }
+    }
+
+    private final ClusterMembership membership;
+    private final SlotLock slotLock;
+    private final Duration margin;
+    private final Duration joinSettle;
+    private final Duration memberTtl;
+
+    private final Map<String, LocalDateTime> lastRunSlot = new ConcurrentHashMap<>();
+    private final AtomicLong localRuns = new AtomicLong();
+    private final AtomicLong lockedRuns = new AtomicLong();
+    private final AtomicLong lockedOut = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public ExecutionGuard(ClusterMembership membership, SlotLock slotLock,
+                          Duration margin, Duration joinSettle, Duration memberTtl) {
+        // A view lags the database by up to one heartbeat of the member plus two of our own
+        // (snapshot() refreshes beyond that), and the bands must cover that lag
+        Duration maxLag = membership.getHeartbeatInterval().multipliedBy(3);
+        if (margin.compareTo(maxLag) <= 0) {
+            throw new IllegalArgumentException("margin must exceed three heartbeat intervals (" + maxLag + ")");
+        }
+        if (joinSettle.minus(margin.multipliedBy(2)).compareTo(maxLag) < 0) {
+            throw new IllegalArgumentException("joinSettle must be at least 2 * margin + " + maxLag);
+        }
+        if (memberTtl.minus(margin.multipliedBy(2)).compareTo(maxLag) <= 0) {
+            throw new IllegalArgumentException("memberTtl must exceed 2 * margin + " + maxLag);
+        }
+        this.membership = membership;
+        this.slotLock = slotLock;
+        this.margin = margin;
+        this.joinSettle = joinSettle;
+        this.memberTtl = memberTtl;
+    }
+
+    public Decision decide(String job, LocalDateTime slot) {
+        Decision decision = evaluate(job, slot);
+        switch (decision) {
+            case RUN_LOCAL -> localRuns.incrementAndGet();
+            case RUN_LOCKED -> lockedRuns.incrementAndGet();
+            case LOCKED_OUT -> lockedOut.incrementAndGet();
+            case SKIP -> skipped.incrementAndGet();
+        }
+        return decision;
+    }
+
+    private Decision evaluate(String job, LocalDateTime slot) {
+        if (membership.isLeaving()) {
+            return Decision.SKIP;
+        }
+        Snapshot snapshot = membership.snapshot();
+        if (snapshot == null) {
+            return Decision.SKIP;
+        }
+        String self = membership.getNodeId();
+        if (!candidates(snapshot, job, slot, 1).contains(self) || alreadyRan(job, slot)) {
+            return Decision.SKIP;
+        }
+        if (candidates(snapshot, job, slot, 2).equals(Set.of(self))) {
+            return markRun(job, slot) ? Decision.RUN_LOCAL : Decision.SKIP;
+        }
+        try {
+            if (slotLock.tryClaim(job, slot, self)) {
+                return markRun(job, slot) ? Decision.RUN_LOCKED : Decision.SKIP;
+            }
+            return Decision.LOCKED_OUT;
+        } catch (DataAccessException e) {
+            logger.warn("Could not lock {} for slot {}, skipping: {}", job, slot, e.getMessage());
+            return Decision.SKIP;
+        }
+    }
+
+    /** The database clock now, as far as the current snapshot can tell; null without one. */
+    public LocalDateTime estimatedDbNow() {
+        Snapshot snapshot = membership.snapshot();
+        return snapshot != null ? snapshot.estimatedDbNow() : null;
+    }
+
+    Set<String> candidates(Snapshot snapshot, String job, LocalDateTime slot, int k) {
+        Duration band = margin.multipliedBy(k);
+        List<String> certain = new ArrayList<>();
+        List<String> possible = new ArrayList<>();
+        for (Member member : snapshot.members()) {
+            if (isPresent(member, slot, band.negated())) {
+                certain.add(member.nodeId());
+            } else if (isPresent(member, slot, band)) {
+                possible.add(member.nodeId());
+            }
+        }
+        String owner = RendezvousHashing.owner(job, certain);
+        Set<String> candidates = new HashSet<>();
+        if (owner != null) {
+            candidates.add(owner);
+        }
+        for (String member : possible) {
+            if (owner == null || RendezvousHashing.outranks(member, owner, job)) {
+                candidates.add(member);
+            }
+        }
+        return candidates;
+    }
+
+    // Positive slack makes every test more lenient, negative slack stricter
+    private boolean isPresent(Member member, LocalDateTime slot, Duration slack) {
+        return !member.joinedAt().isAfter(slot.minus(joinSettle).plus(slack))
+            && !member.heartbeatAt().isBefore(slot.minus(memberTtl).minus(slack))
+            && (member.leftAt() == null || member.leftAt().isAfter(slot.minus(slack)));
+    }
+
+    private boolean alreadyRan(String job, LocalDateTime slot) {
+        LocalDateTime last = lastRunSlot.get(job);
+        return last != null && !slot.isAfter(last);
+    }
+
+    // A timer firing twice within one slot must not run it twice here either
+    private boolean markRun(String job, LocalDateTime slot) {
+        LocalDateTime previous = lastRunSlot.get(job);
+        while (previous == null || slot.isAfter(previous)) {
+            if (previous == null ? lastRunSlot.putIfAbsent(job, slot) == null
+                                 : lastRunSlot.replace(job, previous, slot)) {
+                return true;
+            }
+            previous = lastRunSlot.get(job);
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodeId", membership.getNodeId());
+        stats.put("leaving", membership.isLeaving());
+        Snapshot snapshot = membership.snapshot();
+        if (snapshot != null) {
+            stats.put("members", snapshot.members().stream()
+                .filter(member -> isPresent(member, snapshot.estimatedDbNow(), Duration.ZERO))
+                .map(Member::nodeId)
+                .sorted()
+                .toList());
+        }
+        stats.put("localRuns", localRuns.get());
+        stats.put("lockedRuns", lockedRuns.get());
+        stats.put("lockedOut", lockedOut.get());
+        stats.put("skipped", skipped.get());
+        return stats;
+    }
+}
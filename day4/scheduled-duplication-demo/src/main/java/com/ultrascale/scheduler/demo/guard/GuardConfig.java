@@ -0,0 +1,100 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Wires the execution guard. Its tables live in their own database because each instance's
+ * application database is a private in-memory H2; every instance must point
+ * {@code app.guard.datasource.url} at the same one.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.guard.enabled", havingValue = "true", matchIfMissing = true)
+public class GuardConfig implements DisposableBean {
+
+    @Value("${app.guard.datasource.url}")
+    private String url;
+
+    @Value("${app.guard.datasource.username:sa}")
+    private String username;
+
+    @Value("${app.guard.datasource.password:}")
+    private String password;
+
+    @Value("${app.instance.id:UNKNOWN}")
+    private String instanceId;
+
+    @Value("${app.guard.heartbeat-interval:1s}")
+    private Duration heartbeatInterval;
+
+    @Value("${app.guard.margin:4s}")
+    private Duration margin;
+
+    @Value("${app.guard.join-settle:12s}")
+    private Duration joinSettle;
+
+    @Value("${app.guard.member-ttl:15s}")
+    private Duration memberTtl;
+
+    private HikariDataSource guardDataSource;
+    private JdbcTemplate guardJdbcTemplate;
+
+    @Bean(initMethod = "start", destroyMethod = "leave")
+    public ClusterMembership clusterMembership() {
+        // A restarted instance must not inherit its previous incarnation's join time
+        String nodeId = instanceId + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return new ClusterMembership(guardJdbcTemplate(), nodeId, heartbeatInterval,
+            margin.minus(heartbeatInterval.multipliedBy(2)), memberTtl.multipliedBy(10));
+    }
+
+    @Bean
+    public ExecutionGuard executionGuard(ClusterMembership clusterMembership) {
+        SlotLock slotLock = new SlotLock(guardJdbcTemplate());
+        slotLock.createTable();
+        return new ExecutionGuard(clusterMembership, slotLock, margin, joinSettle, memberTtl);
+    }
+
+    // Static so that registering the post-processor does not instantiate this configuration early
+    @Bean
+    public static GuardedExecutionPostProcessor guardedExecutionPostProcessor(
+            ObjectProvider<ExecutionGuard> executionGuard, Environment environment) {
+        return new GuardedExecutionPostProcessor(
+            new GuardedExecutionInterceptor(executionGuard, environment::resolvePlaceholders));
+    }
+
+    // Not a bean: a DataSource bean would replace the application's auto-configured one.
+    // Heartbeats and slot claims run every second, so the guard keeps a small pool of its own.
+    private synchronized JdbcTemplate guardJdbcTemplate() {
+        if (guardJdbcTemplate == null) {
+            guardDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+            guardDataSource.setPoolName("guard");
+            guardDataSource.setMaximumPoolSize(4);
+            guardJdbcTemplate = new JdbcTemplate(guardDataSource);
+        }
+        return guardJdbcTemplate;
+    }
+
+    // Destroyed after the membership bean, whose leave() still needs the pool
+    @Override
+    public synchronized void destroy() {
+        if (guardDataSource != null) {
+            guardDataSource.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a {@code @Scheduled} method on one instance of the cluster instead of on every one.
+ *
+ * <p>Each job is owned by the instance that rendezvous hashing picks from the current
+ * membership, so in steady state an instance decides from memory whether to run a fire. Only
+ * while an instance is joining, leaving or timing out, and only for the jobs whose owner that
+ * could change, the instances that might own the job take a lease lock in the database first.
+ *
+ * <p>A job runs at most once per slot: per cron time for cron jobs, per period-long window for
+ * fixed-rate and fixed-delay jobs. In steady state it runs exactly once per slot. An instance
+ * that crashes still owns its jobs until its heartbeat times out, so their slots are lost
+ * for that long.
+ *
+ * <p>The method must also carry exactly one {@code @Scheduled}; its return value is dropped
+ * when the fire is skipped.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface GuardedExecution {
+
+    /**
+     * Job name used for ownership and locking; must be the same on every instance.
+     * Defaults to {@code ClassName.methodName}.
+     */
+    String name() default "";
+}
@@ -0,0 +1,72 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.StringValueResolver;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asks the {@link ExecutionGuard} before every fire of a {@link GuardedExecution} method and
+ * drops the fire unless this instance should run it.
+ */
+class GuardedExecutionInterceptor implements MethodInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GuardedExecutionInterceptor.class);
+
+    private final ObjectProvider<ExecutionGuard> guard;
+    private final StringValueResolver resolver;
+    private final Map<Method, GuardedJob> jobs = new ConcurrentHashMap<>();
+
+    GuardedExecutionInterceptor(ObjectProvider<ExecutionGuard> guard, StringValueResolver resolver) {
+        this.guard = guard;
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ExecutionGuard executionGuard = guard.getObject();
+        GuardedJob job = jobs.computeIfAbsent(invocation.getMethod(),
+            method -> resolve(method, invocation.getThis()));
+
+        LocalDateTime now = executionGuard.estimatedDbNow();
+        if (now == null) {
+            logger.warn("Skipping {}: no membership view", job.name());
+            return null;
+        }
+        LocalDateTime slot = job.schedule().slotAt(now);
+        ExecutionGuard.Decision decision = executionGuard.decide(job.name(), slot);
+        logger.debug("{} slot {}: {}", job.name(), slot, decision);
+        return decision.runs() ? invocation.proceed() : null;
+    }
+
+    private GuardedJob resolve(Method method, Object target) {
+        Class<?> targetClass = ClassUtils.getUserClass(AopUtils.getTargetClass(target));
+        Method specific = AopUtils.getMostSpecificMethod(method, targetClass);
+        GuardedExecution guarded = AnnotatedElementUtils.findMergedAnnotation(specific, GuardedExecution.class);
+        Set<Scheduled> schedules = AnnotatedElementUtils.getMergedRepeatableAnnotations(specific, Scheduled.class);
+        if (schedules.size() != 1) {
+            throw new IllegalStateException("@GuardedExecution method " + specific +
+                " needs exactly one @Scheduled, found " + schedules.size());
+        }
+        String name = guarded != null && StringUtils.hasText(guarded.name())
+            ? guarded.name()
+            : targetClass.getSimpleName() + "." + specific.getName();
+        return new GuardedJob(name, JobSchedule.of(schedules.iterator().next(), resolver));
+    }
+
+    private record GuardedJob(String name, JobSchedule schedule) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.core.Ordered;
+
+/**
+ * Proxies beans with {@link GuardedExecution} methods.
+ *
+ * <p>Runs just before {@code ScheduledAnnotationBeanPostProcessor}, which then registers the
+ * proxy's methods with the task scheduler, so every fire passes through the guard.
+ */
+class GuardedExecutionPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    GuardedExecutionPostProcessor(GuardedExecutionInterceptor interceptor) {
+        this.advisor = new DefaultPointcutAdvisor(
+            new AnnotationMatchingPointcut(null, GuardedExecution.class, true), interceptor);
+        setBeforeExistingAdvisors(true);
+        // Scheduled services are plain classes, not interfaces
+        setProxyTargetClass(true);
+        setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+    }
+}
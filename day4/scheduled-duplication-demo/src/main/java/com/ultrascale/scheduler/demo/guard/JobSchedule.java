@@ -0,0 +1,89 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.util.StringUtils;
+import org.springframework.util.StringValueResolver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Maps a fire of a {@code @Scheduled} method to the slot it belongs to, so that every instance
+ * names the same slot for the same fire however much their timers drift.
+ *
+ * <p>A cron fire belongs to the cron time at or just before it. A fixed-rate or fixed-delay fire
+ * belongs to the period-long window it falls into; each instance keeps its own timer, so the job
+ * runs at most once per window, on whichever fire of the owner lands in it.
+ */
+final class JobSchedule {
+
+    private static final Duration MAX_CRON_TOLERANCE = Duration.ofSeconds(30);
+
+    private final CronExpression cron;
+    private final ZoneId zone;
+    private final Duration cronTolerance;
+    private final long periodMillis;
+
+    private JobSchedule(CronExpression cron, ZoneId zone, long periodMillis) {
+        this.cron = cron;
+        this.zone = zone;
+        this.periodMillis = periodMillis;
+        this.cronTolerance = cron != null ? cronTolerance(cron) : Duration.ZERO;
+    }
+
+    static JobSchedule of(Scheduled scheduled, StringValueResolver resolver) {
+        String cron = resolver.resolveStringValue(scheduled.cron());
+        if (StringUtils.hasText(cron)) {
+            String zone = resolver.resolveStringValue(scheduled.zone());
+            return new JobSchedule(CronExpression.parse(cron),
+                StringUtils.hasText(zone) ? ZoneId.of(zone) : null, 0);
+        }
+        long period = scheduled.fixedRate() > 0 ? scheduled.timeUnit().toMillis(scheduled.fixedRate())
+            : scheduled.fixedDelay() > 0 ? scheduled.timeUnit().toMillis(scheduled.fixedDelay())
+            : parsePeriod(resolver.resolveStringValue(scheduled.fixedRateString()), scheduled)
+            + parsePeriod(resolver.resolveStringValue(scheduled.fixedDelayString()), scheduled);
+        if (period <= 0) {
+            throw new IllegalStateException("@GuardedExecution needs a cron, fixedRate or fixedDelay schedule");
+        }
+        return new JobSchedule(null, null, period);
+    }
+
+    LocalDateTime slotAt(LocalDateTime now) {
+        if (cron == null) {
+            long millis = now.toInstant(ZoneOffset.UTC).toEpochMilli();
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis - Math.floorMod(millis, periodMillis)), ZoneOffset.UTC);
+        }
+        LocalDateTime from = now.minus(cronTolerance);
+        if (zone == null) {
+            LocalDateTime slot = cron.next(from);
+            return slot != null ? slot : now;
+        }
+        var slot = cron.next(from.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone));
+        return slot != null ? slot.withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : now;
+    }
+
+    // Half the gap to the following cron time, so instances whose clocks disagree by less than
+    // that still name the same slot
+    private static Duration cronTolerance(CronExpression cron) {
+        LocalDateTime first = cron.next(LocalDateTime.now());
+        LocalDateTime second = first != null ? cron.next(first) : null;
+        if (second == null) {
+            return MAX_CRON_TOLERANCE;
+        }
+        Duration half = Duration.between(first, second).dividedBy(2);
+        return half.compareTo(MAX_CRON_TOLERANCE) < 0 ? half : MAX_CRON_TOLERANCE;
+    }
+
+    private static long parsePeriod(String value, Scheduled scheduled) {
+        if (!StringUtils.hasText(value)) {
+            return 0;
+        }
+        return value.startsWith("P") || value.startsWith("p")
+            ? Duration.parse(value).toMillis()
+            : scheduled.timeUnit().toMillis(Long.parseLong(value.trim()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Highest-random-weight hashing: a job belongs to the member with the highest score for it.
+ * Adding or removing a member only moves the jobs that member wins or owned.
+ */
+final class RendezvousHashing {
+
+    private RendezvousHashing() {
+    }
+
+    static long score(String member, String job) {
+        return mix(hash(member) * 31 + hash(job));
+    }
+
+    /** Whether {@code member} wins {@code job} over {@code other}; ties go to the greater id. */
+    static boolean outranks(String member, String other, String job) {
+        long score = score(member, job);
+        long otherScore = score(other, job);
+        return score > otherScore || (score == otherScore && member.compareTo(other) > 0);
+    }
+
+    /** The owner of {@code job} among {@code members}, or null if there are none. */
+    static String owner(String job, Collection<String> members) {
+        String owner = null;
+        for (String member : members) {
+            if (owner == null || outranks(member, owner, job)) {
+                owner = member;
+            }
+        }
+        return owner;
+    }
+
+    // 64-bit FNV-1a; String.hashCode has too few bits for well-spread scores
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
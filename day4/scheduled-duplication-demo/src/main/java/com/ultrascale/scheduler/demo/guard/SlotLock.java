@@ -0,0 +1,50 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Database lock for one fire slot of a job, taken only while ownership of that job is in doubt.
+ *
+ * <p>The row for a job remembers the newest slot claimed; claiming a slot succeeds only if that
+ * slot is newer. The lease therefore ends with the slot itself, nothing needs to expire or be
+ * released, and a holder that crashes mid-run cannot block the next slot.
+ */
+public class SlotLock {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SlotLock(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS scheduler_slot_locks (" +
+            "job_name VARCHAR(200) PRIMARY KEY, fire_slot TIMESTAMP NOT NULL, " +
+            "locked_by VARCHAR(128) NOT NULL, locked_at TIMESTAMP NOT NULL)");
+    }
+
+    /** Claims {@code slot} of {@code job} for {@code nodeId}; false if someone already has it. */
+    public boolean tryClaim(String job, LocalDateTime slot, String nodeId) {
+        if (claimExisting(job, slot, nodeId)) {
+            return true;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO scheduler_slot_locks (job_name, fire_slot, locked_by, locked_at) " +
+                "VALUES (?, ?, ?, LOCALTIMESTAMP)", job, Timestamp.valueOf(slot), nodeId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Lost the race to create the row; it may still hold an older slot
+            return claimExisting(job, slot, nodeId);
+        }
+    }
+
+    private boolean claimExisting(String job, LocalDateTime slot, String nodeId) {
+        return jdbcTemplate.update("UPDATE scheduler_slot_locks SET fire_slot = ?, locked_by = ?, " +
+            "locked_at = LOCALTIMESTAMP WHERE job_name = ? AND fire_slot < ?",
+            Timestamp.valueOf(slot), nodeId, job, Timestamp.valueOf(slot)) == 1;
+    }
+}
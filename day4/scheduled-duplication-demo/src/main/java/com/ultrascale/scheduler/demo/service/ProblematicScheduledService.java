@@ -1,5 +1,6 @@
 package com.ultrascale.scheduler.demo.service;
 
+import com.ultrascale.scheduler.demo.guard.GuardedExecution;
 import com.ultrascale.scheduler.demo.model.TaskExecutionRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +29,7 @@ public class ProblematicScheduledService {
      * This task should run once per day across all instances, but will run
      * once per day PER INSTANCE, causing duplicate reports
      */
+    @GuardedExecution
     @Scheduled(cron = "0 */2 * * * *") // Every 2 minutes for demo purposes
     public void generateDailyReport() {
         long executionNumber = executionCounter.incrementAndGet();
@@ -70,6 +72,7 @@ public class ProblematicScheduledService {
      * Multiple instances will process the same billing data, potentially
      * charging customers multiple times
      */
+    @GuardedExecution
     @Scheduled(fixedRate = 90000) // Every 1.5 minutes for demo
     public void processBilling() {
         LocalDateTime now = LocalDateTime.now();
@@ -107,6 +110,7 @@ public class ProblematicScheduledService {
      * Data Cleanup - Another problematic scenario
      * Multiple instances cleaning the same data can cause race conditions
      */
+    @GuardedExecution
     @Scheduled(fixedDelay = 120000) // Every 2 minutes after completion
     public void cleanupExpiredData() {
         LocalDateTime now = LocalDateTime.now();
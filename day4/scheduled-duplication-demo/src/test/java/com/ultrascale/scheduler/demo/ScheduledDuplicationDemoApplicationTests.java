@@ -1,7 +1,9 @@
 package com.ultrascale.scheduler.demo;
 
+import com.ultrascale.scheduler.demo.service.ProblematicScheduledService;
 import com.ultrascale.scheduler.demo.service.TaskExecutionRepository;
 import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
@@ -11,13 +13,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 @SpringBootTest
 @TestPropertySource(properties = {
     "spring.datasource.url=jdbc:h2:mem:testdb",
-    "app.instance.id=TEST-INSTANCE"
+    "app.instance.id=TEST-INSTANCE",
+    "app.guard.datasource.url=jdbc:h2:mem:guarddb;DB_CLOSE_DELAY=-1"
 })
 class ScheduledDuplicationDemoApplicationTests {
 
     @Autowired
     private TaskExecutionRepository taskExecutionRepository;
 
+    @Autowired
+    private ProblematicScheduledService problematicScheduledService;
+
     @Test
     void contextLoads() {
         assertThat(taskExecutionRepository).isNotNull();
@@ -28,4 +34,9 @@ class ScheduledDuplicationDemoApplicationTests {
         // This test will be enhanced as we build more functionality
         assertThat(taskExecutionRepository.findAll()).isNotNull();
     }
+
+    @Test
+    void scheduledJobsRunThroughTheExecutionGuard() {
+        assertThat(AopUtils.isCglibProxy(problematicScheduledService)).isTrue();
+    }
 }
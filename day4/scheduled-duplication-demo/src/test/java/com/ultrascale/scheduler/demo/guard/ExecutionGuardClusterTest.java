@@ -0,0 +1,161 @@
+package com.ultrascale.scheduler.demo.guard;
+
+import com.ultrascale.scheduler.demo.guard.ExecutionGuard.Decision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Several guarded nodes in one JVM sharing one H2 database, each firing the same jobs every
+ * slot with its own jitter, while nodes join, leave and crash. Timings are scaled down from
+ * the defaults by 20x.
+ */
+class ExecutionGuardClusterTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+    private static final Duration MARGIN = Duration.ofMillis(300);
+    private static final Duration JOIN_SETTLE = Duration.ofMillis(900);
+    private static final Duration MEMBER_TTL = Duration.ofMillis(1000);
+    private static final long SLOT_MILLIS = 100;
+    private static final List<String> JOBS = List.of("dailyReport", "billing", "cleanup");
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(
+        new DriverManagerDataSource("jdbc:h2:mem:guard-cluster;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final Queue<Fire> fires = new ConcurrentLinkedQueue<>();
+    private final List<Node> nodes = new ArrayList<>();
+    private LocalDateTime base;
+    private long baseNanos;
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(Node::crash);
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void shouldRunEachSlotOnceThroughJoinsLeavesAndCrashes() throws Exception {
+        new SlotLock(jdbcTemplate).createTable();
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        baseNanos = System.nanoTime() + Duration.between(LocalDateTime.now(), base).toNanos();
+
+        Node a = start("A");
+        Node b = start("B");
+        Node c = start("C");
+        sleepUntil(3_000);
+        start("D");
+        sleepUntil(6_000);
+        b.leave();
+        sleepUntil(8_000);
+        c.crash();
+        sleepUntil(11_000);
+        assertThat(a.guard.getStats()).containsEntry("members", List.of("A", "D"));
+        nodes.forEach(Node::crash);
+
+        Map<String, List<Fire>> runsBySlot = fires.stream()
+            .filter(fire -> fire.decision().runs())
+            .collect(Collectors.groupingBy(fire -> fire.job() + "@" + fire.slot()));
+        assertThat(runsBySlot.values()).allSatisfy(runs -> assertThat(runs).hasSize(1));
+
+        // Settled windows: A, B, C; then with D; then without B; then without C
+        for (long[] window : new long[][]{{1_800, 2_800}, {4_800, 5_800}, {7_000, 7_800}, {9_800, 10_800}}) {
+            for (long slot = window[0] / SLOT_MILLIS; slot < window[1] / SLOT_MILLIS; slot++) {
+                for (String job : JOBS) {
+                    assertThat(runsBySlot.get(job + "@" + slot))
+                        .as("runs of %s in slot %d", job, slot)
+                        .singleElement()
+                        .extracting(Fire::decision).isEqualTo(Decision.RUN_LOCAL);
+                }
+            }
+            long from = window[0] / SLOT_MILLIS;
+            long to = window[1] / SLOT_MILLIS;
+            assertThat(fires).filteredOn(fire -> fire.slot() >= from && fire.slot() < to)
+                .extracting(Fire::decision)
+                .as("no lock attempts while membership is settled")
+                .doesNotContain(Decision.RUN_LOCKED, Decision.LOCKED_OUT);
+        }
+
+        // The lock was needed while the first members settled and around each change
+        assertThat(fires).extracting(Fire::decision).contains(Decision.RUN_LOCKED);
+        assertThat(fires).filteredOn(fire -> fire.node().equals("B") && fire.slot() > 60)
+            .extracting(Fire::decision).containsOnly(Decision.SKIP);
+    }
+
+    private Node start(String id) {
+        ClusterMembership membership = new ClusterMembership(new JdbcTemplate(jdbcTemplate.getDataSource()), id,
+            HEARTBEAT, MARGIN.minus(HEARTBEAT.multipliedBy(2)), MEMBER_TTL.multipliedBy(10));
+        membership.start();
+        ExecutionGuard guard = new ExecutionGuard(membership, new SlotLock(jdbcTemplate),
+            MARGIN, JOIN_SETTLE, MEMBER_TTL);
+        Node node = new Node(id, membership, guard);
+        nodes.add(node);
+        node.driver.start();
+        return node;
+    }
+
+    private void sleepUntil(long millis) {
+        long deadline = baseNanos + millis * 1_000_000;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(deadline - System.nanoTime());
+        }
+    }
+
+    private record Fire(String node, String job, long slot, Decision decision) {
+    }
+
+    private class Node {
+
+        private final String id;
+        private final ClusterMembership membership;
+        private final ExecutionGuard guard;
+        private final Thread driver;
+        private volatile boolean firing = true;
+
+        Node(String id, ClusterMembership membership, ExecutionGuard guard) {
+            this.id = id;
+            this.membership = membership;
+            this.guard = guard;
+            this.driver = new Thread(this::fireEverySlot, "scheduler-" + id);
+            this.driver.setDaemon(true);
+        }
+
+        // Like each instance's own @Scheduled timer: every job, every slot, a little late
+        private void fireEverySlot() {
+            long slot = Math.max(0, (System.nanoTime() - baseNanos) / 1_000_000 / SLOT_MILLIS + 1);
+            while (firing) {
+                sleepUntil(slot * SLOT_MILLIS + ThreadLocalRandom.current().nextLong(30));
+                for (String job : JOBS) {
+                    if (!firing) {
+                        return;
+                    }
+                    LocalDateTime slotTime = base.plus(slot * SLOT_MILLIS, ChronoUnit.MILLIS);
+                    fires.add(new Fire(id, job, slot, guard.decide(job, slotTime)));
+                }
+                slot++;
+            }
+        }
+
+        void leave() {
+            membership.leave();
+        }
+
+        void crash() {
+            firing = false;
+            membership.stop();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.taskscheduler.common.dispatch;
+
+/**
+ * Outcome of one task execution, reported by a worker on the {@code task-completions} topic.
+ */
+public record TaskCompletion(long taskId, long executionId, boolean success, String message, long finishedAtMs) {
+}
@@ -0,0 +1,77 @@
+package com.taskscheduler.common.dispatch;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary codec for {@link TaskCompletion}, following the same conventions as
+ * {@link TaskEnvelopeCodec}.
+ *
+ * <pre>
+ * byte    version
+ * byte    flags            bit 0: success, bit 1: message present
+ * varint  taskId
+ * varint  executionId
+ * int64   finishedAtMs
+ * [varint message length, message UTF-8 bytes]
+ * </pre>
+ */
+public final class TaskCompletionCodec {
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_SUCCESS = 0x01;
+    private static final int FLAG_MESSAGE = 0x02;
+
+    private TaskCompletionCodec() {
+    }
+
+    public static byte[] encode(TaskCompletion completion) {
+        String message = completion.message();
+        int messageLength = message != null ? TaskEnvelopeCodec.utf8Length(message) : 0;
+
+        int size = 2 + TaskEnvelopeCodec.varintSize(completion.taskId())
+            + TaskEnvelopeCodec.varintSize(completion.executionId()) + 8;
+        if (message != null) {
+            size += TaskEnvelopeCodec.varintSize(messageLength) + messageLength;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(VERSION);
+        out.put((byte) ((completion.success() ? FLAG_SUCCESS : 0) | (message != null ? FLAG_MESSAGE : 0)));
+        TaskEnvelopeCodec.writeVarint(out, completion.taskId());
+        TaskEnvelopeCodec.writeVarint(out, completion.executionId());
+        out.putLong(completion.finishedAtMs());
+        if (message != null) {
+            TaskEnvelopeCodec.writeVarint(out, messageLength);
+            TaskEnvelopeCodec.writeUtf8(out, message);
+        }
+        return out.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the version is not supported or the message is
+     *         truncated or malformed
+     */
+    public static TaskCompletion decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate();
+        try {
+            int version = in.get();
+            if (version < 1) {
+                throw new IllegalArgumentException("Unsupported task completion version: " + version);
+            }
+            int flags = in.get();
+            long taskId = TaskEnvelopeCodec.readVarint(in);
+            long executionId = TaskEnvelopeCodec.readVarint(in);
+            long finishedAtMs = in.getLong();
+
+            String message = null;
+            if ((flags & FLAG_MESSAGE) != 0) {
+                int length = TaskEnvelopeCodec.readLength(in);
+                message = TaskEnvelopeCodec.readUtf8(in, in.position(), length);
+            }
+            return new TaskCompletion(taskId, executionId, (flags & FLAG_SUCCESS) != 0, message, finishedAtMs);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated task completion", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.taskscheduler.common.dispatch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A decoded dispatch message. Numeric fields are read eagerly; the handler and parameter
+ * strings stay in the source buffer until they are asked for, so a worker that only routes
+ * on the handler never materialises the parameters.
+ */
+public final class TaskEnvelope {
+    private final ByteBuffer buffer;
+    private final int version;
+    private final long taskId;
+    private final long executionId;
+    private final int handlerOffset;
+    private final int handlerLength;
+    private final int paramsOffset;
+    private final int paramsLength;
+    private final TraceContext trace;
+
+    private String handler;
+
+    TaskEnvelope(ByteBuffer buffer, int version, long taskId, long executionId,
+                 int handlerOffset, int handlerLength, int paramsOffset, int paramsLength,
+                 TraceContext trace) {
+        this.buffer = buffer;
+        this.version = version;
+        this.taskId = taskId;
+        this.executionId = executionId;
+        this.handlerOffset = handlerOffset;
+        this.handlerLength = handlerLength;
+        this.paramsOffset = paramsOffset;
+        this.paramsLength = paramsLength;
+        this.trace = trace;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public long getExecutionId() {
+        return executionId;
+    }
+
+    public String getHandler() {
+        if (handler == null) {
+            handler = TaskEnvelopeCodec.readUtf8(buffer, handlerOffset, handlerLength);
+        }
+        return handler;
+    }
+
+    public boolean hasParams() {
+        return paramsOffset >= 0;
+    }
+
+    /**
+     * @return a read-only view of the UTF-8 encoded parameters, or {@code null} if the
+     *         task has none
+     */
+    public ByteBuffer getParams() {
+        if (!hasParams()) {
+            return null;
+        }
+        return buffer.asReadOnlyBuffer().position(paramsOffset).limit(paramsOffset + paramsLength).slice();
+    }
+
+    public String getParamsAsString() {
+        return hasParams() ? TaskEnvelopeCodec.readUtf8(buffer, paramsOffset, paramsLength) : null;
+    }
+
+    public TraceContext getTrace() {
+        return trace;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEnvelope{taskId=" + taskId + ", executionId=" + executionId
+            + ", handler=" + getHandler()
+            + ", paramsBytes=" + (hasParams() ? paramsLength : 0)
+            + (trace != null ? ", traceId=" + trace.traceId() : "") + "}";
+    }
+}
@@ -0,0 +1,206 @@
+package com.taskscheduler.common.dispatch;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary codec for the task dispatch message exchanged between scheduler-core and
+ * scheduler-worker on the {@code task-executions} topic.
+ *
+ * <pre>
+ * byte    version
+ * byte    flags            bit 0: params present, bit 1: trace present
+ * varint  taskId
+ * varint  executionId
+ * varint  handler length, handler UTF-8 bytes
+ * [varint params length, params UTF-8 bytes]
+ * [int64 traceIdHigh, int64 traceIdLow, int64 spanId, byte traceFlags]
+ * </pre>
+ *
+ * New fields are only ever appended and announced by a higher version; a decoder reads
+ * the fields it knows and ignores the rest. Encoding sizes the output exactly and writes
+ * strings without intermediate byte arrays.
+ */
+public final class TaskEnvelopeCodec {
+    public static final byte VERSION = 1;
+
+    private static final int FLAG_PARAMS = 0x01;
+    private static final int FLAG_TRACE = 0x02;
+    private static final int TRACE_BYTES = 8 + 8 + 8 + 1;
+
+    private TaskEnvelopeCodec() {
+    }
+
+    public static byte[] encode(long taskId, long executionId, String handler, String params, TraceContext trace) {
+        int handlerLength = utf8Length(handler);
+        int paramsLength = params != null ? utf8Length(params) : 0;
+
+        int size = 2 + varintSize(taskId) + varintSize(executionId)
+            + varintSize(handlerLength) + handlerLength;
+        if (params != null) {
+            size += varintSize(paramsLength) + paramsLength;
+        }
+        if (trace != null) {
+            size += TRACE_BYTES;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(VERSION);
+        out.put((byte) ((params != null ? FLAG_PARAMS : 0) | (trace != null ? FLAG_TRACE : 0)));
+        writeVarint(out, taskId);
+        writeVarint(out, executionId);
+        writeVarint(out, handlerLength);
+        writeUtf8(out, handler);
+        if (params != null) {
+            writeVarint(out, paramsLength);
+            writeUtf8(out, params);
+        }
+        if (trace != null) {
+            out.putLong(trace.traceIdHigh());
+            out.putLong(trace.traceIdLow());
+            out.putLong(trace.spanId());
+            out.put(trace.flags());
+        }
+        return out.array();
+    }
+
+    /**
+     * Decodes an envelope in place. The returned envelope keeps a reference to
+     * {@code buffer} and reads strings from it on demand; the buffer's position is
+     * not modified.
+     *
+     * @throws IllegalArgumentException if the version is not supported or the message is
+     *         truncated or malformed
+     */
+    public static TaskEnvelope decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate();
+        try {
+            int version = in.get();
+            if (version < 1) {
+                throw new IllegalArgumentException("Unsupported task envelope version: " + version);
+            }
+            int flags = in.get();
+            long taskId = readVarint(in);
+            long executionId = readVarint(in);
+
+            int handlerLength = readLength(in);
+            int handlerOffset = in.position();
+            in.position(handlerOffset + handlerLength);
+
+            int paramsOffset = -1;
+            int paramsLength = 0;
+            if ((flags & FLAG_PARAMS) != 0) {
+                paramsLength = readLength(in);
+                paramsOffset = in.position();
+                in.position(paramsOffset + paramsLength);
+            }
+
+            TraceContext trace = null;
+            if ((flags & FLAG_TRACE) != 0) {
+                trace = new TraceContext(in.getLong(), in.getLong(), in.getLong(), in.get());
+            }
+
+            return new TaskEnvelope(buffer, version, taskId, executionId,
+                handlerOffset, handlerLength, paramsOffset, paramsLength, trace);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated task envelope", e);
+        }
+    }
+
+    static String readUtf8(ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in task envelope");
+    }
+
+    /** Reads a string length and checks that many bytes actually follow. */
+    static int readLength(ByteBuffer in) {
+        long length = readVarint(in);
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("String length " + length + " exceeds the "
+                + in.remaining() + " bytes left in the message");
+        }
+        return (int) length;
+    }
+
+    static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 2;
+                i++;
+            }
+            // an unpaired surrogate is written as a single '?'
+        }
+        return bytes;
+    }
+
+    static void writeUtf8(ByteBuffer out, String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
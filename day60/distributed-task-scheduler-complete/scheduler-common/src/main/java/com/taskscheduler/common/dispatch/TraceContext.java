@@ -0,0 +1,25 @@
+package com.taskscheduler.common.dispatch;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace-context identifiers carried with a dispatched task so that core and worker
+ * log lines for one execution can be correlated.
+ */
+public record TraceContext(long traceIdHigh, long traceIdLow, long spanId, byte flags) {
+
+    public static final byte SAMPLED = 0x01;
+
+    public static TraceContext newRoot() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(random.nextLong(), random.nextLong(), random.nextLong(), SAMPLED);
+    }
+
+    public String traceId() {
+        return String.format("%016x%016x", traceIdHigh, traceIdLow);
+    }
+
+    public String traceparent() {
+        return String.format("00-%016x%016x-%016x-%02x", traceIdHigh, traceIdLow, spanId, flags);
+    }
+}
@@ -0,0 +1,91 @@
+package com.taskscheduler.common.dispatch;
+
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskCompletionCodecTest {
+
+    @Test
+    void roundTripsSuccessWithoutMessage() {
+        TaskCompletion completion = new TaskCompletion(42, 7, true, null, 1_700_000_000_000L);
+
+        assertEquals(completion, roundTrip(completion));
+    }
+
+    @Test
+    void roundTripsFailureWithMessage() {
+        TaskCompletion completion = new TaskCompletion(42, 7, false, "Handler threw: timeout", 1_700_000_000_000L);
+
+        assertEquals(completion, roundTrip(completion));
+    }
+
+    @Test
+    void keepsEmptyMessageDistinctFromNone() {
+        TaskCompletion completion = new TaskCompletion(1, 2, false, "", 0);
+
+        assertEquals("", roundTrip(completion).message());
+    }
+
+    @Test
+    void roundTripsNonAsciiMessages() {
+        TaskCompletion completion = new TaskCompletion(1, 2, false, "échec: 任务 🚀 failed", 3);
+
+        assertEquals(completion, roundTrip(completion));
+    }
+
+    @Test
+    void roundTripsExtremeValues() {
+        for (long value : new long[] {0, 127, 128, Long.MAX_VALUE, -1, Long.MIN_VALUE}) {
+            TaskCompletion completion = new TaskCompletion(value, value, true, null, value);
+            assertEquals(completion, roundTrip(completion), "value " + value);
+        }
+    }
+
+    @Test
+    void decodesSliceWithoutMovingIt() {
+        byte[] encoded = TaskCompletionCodec.encode(new TaskCompletion(5, 6, true, "ok", 9));
+        byte[] framed = new byte[encoded.length + 2];
+        System.arraycopy(encoded, 0, framed, 2, encoded.length);
+        ByteBuffer buffer = ByteBuffer.wrap(framed, 2, encoded.length).slice();
+
+        assertEquals("ok", TaskCompletionCodec.decode(buffer).message());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] encoded = TaskCompletionCodec.encode(new TaskCompletion(1, 2, true, null, 3));
+        for (byte version : new byte[] {0, -1}) {
+            encoded[0] = version;
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TaskCompletionCodec.decode(ByteBuffer.wrap(encoded)));
+            assertTrue(e.getMessage().contains("version"), e.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] encoded = TaskCompletionCodec.encode(new TaskCompletion(Long.MAX_VALUE, 300, false, "boom-é", 3));
+        for (int length = 0; length < encoded.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(encoded, length));
+            assertThrows(IllegalArgumentException.class, () -> TaskCompletionCodec.decode(truncated),
+                "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsMessageLengthBeyondTheMessage() {
+        byte[] encoded = TaskCompletionCodec.encode(new TaskCompletion(1, 2, false, "x", 3));
+        // version, flags, taskId, executionId, finishedAtMs, then the message length
+        encoded[2 + 1 + 1 + 8] = 0x7F;
+
+        assertThrows(IllegalArgumentException.class, () -> TaskCompletionCodec.decode(ByteBuffer.wrap(encoded)));
+    }
+
+    private static TaskCompletion roundTrip(TaskCompletion completion) {
+        return TaskCompletionCodec.decode(ByteBuffer.wrap(TaskCompletionCodec.encode(completion)));
+    }
+}
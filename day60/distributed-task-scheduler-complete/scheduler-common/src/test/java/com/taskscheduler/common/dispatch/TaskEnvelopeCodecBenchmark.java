@@ -0,0 +1,78 @@
+package com.taskscheduler.common.dispatch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip of one dispatch message: the previous {@code String.format} JSON plus
+ * {@code ObjectMapper} map parsing against the binary envelope.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.taskscheduler.common.dispatch.TaskEnvelopeCodecBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskEnvelopeCodecBenchmark {
+    private static final String HANDLER = "com.taskscheduler.handlers.ReportGenerationHandler";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Param({"32", "512"})
+    private int paramsLength;
+
+    private String params;
+    private long taskId;
+    private long executionId;
+    private TraceContext trace;
+
+    @Setup
+    public void setUp() {
+        params = "p".repeat(paramsLength);
+        taskId = 1_234_567L;
+        executionId = 98_765_432L;
+        trace = TraceContext.newRoot();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void jsonStringFormat(Blackhole blackhole) throws Exception {
+        String message = String.format("{\"taskId\":%d,\"executionId\":%d,\"handler\":\"%s\",\"params\":\"%s\"}",
+            taskId, executionId, HANDLER, params);
+        byte[] wire = message.getBytes(StandardCharsets.UTF_8);
+
+        Map<String, Object> taskData = objectMapper.readValue(new String(wire, StandardCharsets.UTF_8), Map.class);
+        blackhole.consume(((Number) taskData.get("taskId")).longValue());
+        blackhole.consume(((Number) taskData.get("executionId")).longValue());
+        blackhole.consume(taskData.get("handler"));
+        blackhole.consume(taskData.get("params"));
+    }
+
+    @Benchmark
+    public void binaryEnvelope(Blackhole blackhole) {
+        byte[] wire = TaskEnvelopeCodec.encode(taskId, executionId, HANDLER, params, trace);
+
+        TaskEnvelope envelope = TaskEnvelopeCodec.decode(ByteBuffer.wrap(wire));
+        blackhole.consume(envelope.getTaskId());
+        blackhole.consume(envelope.getExecutionId());
+        blackhole.consume(envelope.getHandler());
+        blackhole.consume(envelope.getParams());
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+            .include(TaskEnvelopeCodecBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build()).run();
+    }
+}
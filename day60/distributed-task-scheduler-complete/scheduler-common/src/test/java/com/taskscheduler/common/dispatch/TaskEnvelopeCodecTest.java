@@ -0,0 +1,155 @@
+package com.taskscheduler.common.dispatch;
+
+import org.junit.jupiter.api.Test;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskEnvelopeCodecTest {
+    private static final TraceContext TRACE =
+        new TraceContext(0x0123456789abcdefL, -1L, Long.MIN_VALUE, TraceContext.SAMPLED);
+
+    @Test
+    void roundTripsAllFields() {
+        TaskEnvelope envelope = roundTrip(42, 7, "report", "{\"region\":\"eu\"}", TRACE);
+
+        assertEquals(TaskEnvelopeCodec.VERSION, envelope.getVersion());
+        assertEquals(42, envelope.getTaskId());
+        assertEquals(7, envelope.getExecutionId());
+        assertEquals("report", envelope.getHandler());
+        assertEquals("{\"region\":\"eu\"}", envelope.getParamsAsString());
+        assertEquals(TRACE, envelope.getTrace());
+    }
+
+    @Test
+    void absentParamsAndTraceStayAbsent() {
+        TaskEnvelope envelope = roundTrip(1, 2, "noop", null, null);
+
+        assertFalse(envelope.hasParams());
+        assertNull(envelope.getParams());
+        assertNull(envelope.getParamsAsString());
+        assertNull(envelope.getTrace());
+    }
+
+    @Test
+    void emptyStringsAreNotAbsent() {
+        TaskEnvelope envelope = roundTrip(1, 2, "", "", null);
+
+        assertEquals("", envelope.getHandler());
+        assertTrue(envelope.hasParams());
+        assertEquals("", envelope.getParamsAsString());
+        assertEquals(0, envelope.getParams().remaining());
+    }
+
+    @Test
+    void encodesNonAsciiAsStandardUtf8() {
+        String handler = "résumé-任务";
+        String params = "{\"emoji\":\"🚀\",\"math\":\"𝒜\"}";
+
+        byte[] encoded = TaskEnvelopeCodec.encode(1, 2, handler, params, null);
+        TaskEnvelope envelope = TaskEnvelopeCodec.decode(ByteBuffer.wrap(encoded));
+
+        assertEquals(handler, envelope.getHandler());
+        assertEquals(params, envelope.getParamsAsString());
+        ByteBuffer paramsBytes = envelope.getParams();
+        byte[] raw = new byte[paramsBytes.remaining()];
+        paramsBytes.get(raw);
+        assertArrayEquals(params.getBytes(StandardCharsets.UTF_8), raw);
+    }
+
+    @Test
+    void unpairedSurrogatesAreWrittenLikeTheJdkDoes() {
+        String handler = "a\ud83db\ude80";
+
+        TaskEnvelope envelope = roundTrip(1, 2, handler, null, null);
+
+        assertEquals(new String(handler.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), envelope.getHandler());
+        assertEquals("a?b?", envelope.getHandler());
+    }
+
+    @Test
+    void roundTripsVarintBoundaries() {
+        long[] values = {0, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+        for (long value : values) {
+            TaskEnvelope envelope = roundTrip(value, value, "h", null, null);
+            assertEquals(value, envelope.getTaskId(), "taskId " + value);
+            assertEquals(value, envelope.getExecutionId(), "executionId " + value);
+        }
+        assertEquals(10, TaskEnvelopeCodec.varintSize(-1));
+        assertEquals(10, TaskEnvelopeCodec.varintSize(Long.MIN_VALUE));
+    }
+
+    @Test
+    void decodesFromTheBufferPositionWithoutMovingIt() {
+        byte[] encoded = TaskEnvelopeCodec.encode(5, 6, "h", "p", null);
+        byte[] framed = new byte[encoded.length + 3];
+        System.arraycopy(encoded, 0, framed, 3, encoded.length);
+        ByteBuffer buffer = ByteBuffer.wrap(framed, 3, encoded.length).slice();
+
+        TaskEnvelope envelope = TaskEnvelopeCodec.decode(buffer);
+
+        assertEquals("h", envelope.getHandler());
+        assertEquals("p", envelope.getParamsAsString());
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void readsNewerVersionsAndIgnoresAppendedFields() {
+        byte[] encoded = TaskEnvelopeCodec.encode(3, 4, "h", "p", TRACE);
+        byte[] newer = Arrays.copyOf(encoded, encoded.length + 4);
+        newer[0] = TaskEnvelopeCodec.VERSION + 1;
+
+        TaskEnvelope envelope = TaskEnvelopeCodec.decode(ByteBuffer.wrap(newer));
+
+        assertEquals(TaskEnvelopeCodec.VERSION + 1, envelope.getVersion());
+        assertEquals("p", envelope.getParamsAsString());
+        assertEquals(TRACE, envelope.getTrace());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] encoded = TaskEnvelopeCodec.encode(3, 4, "h", null, null);
+        for (byte version : new byte[] {0, -1}) {
+            encoded[0] = version;
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TaskEnvelopeCodec.decode(ByteBuffer.wrap(encoded)));
+            assertTrue(e.getMessage().contains("version"), e.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsEveryTruncation() {
+        byte[] encoded = TaskEnvelopeCodec.encode(Long.MAX_VALUE, 300, "handler-é", "params", TRACE);
+        for (int length = 0; length < encoded.length; length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(encoded, length));
+            assertThrows(IllegalArgumentException.class, () -> TaskEnvelopeCodec.decode(truncated),
+                "truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsLengthsBeyondTheMessage() {
+        // version, no flags, taskId 1, executionId 1, handler length 2^31 + 1
+        byte[] oversized = {TaskEnvelopeCodec.VERSION, 0, 1, 1, (byte) 0x81, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x08};
+
+        assertThrows(IllegalArgumentException.class, () -> TaskEnvelopeCodec.decode(ByteBuffer.wrap(oversized)));
+    }
+
+    @Test
+    void rejectsOverlongVarint() {
+        byte[] overlong = new byte[14];
+        overlong[0] = TaskEnvelopeCodec.VERSION;
+        Arrays.fill(overlong, 2, overlong.length, (byte) 0x80);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> TaskEnvelopeCodec.decode(ByteBuffer.wrap(overlong)));
+        assertTrue(e.getMessage().contains("varint"), e.getMessage());
+    }
+
+    private static TaskEnvelope roundTrip(long taskId, long executionId, String handler, String params, TraceContext trace) {
+        byte[] encoded = TaskEnvelopeCodec.encode(taskId, executionId, handler, params, trace);
+        return TaskEnvelopeCodec.decode(ByteBuffer.wrap(encoded));
+    }
+}
@@ -50,6 +50,7 @@ public class Task {
     
     private String createdBy;
     private String leaderInstance;
+    private Long fencingToken;
     
     @Column(length = 2000)
     private String taskParameters;
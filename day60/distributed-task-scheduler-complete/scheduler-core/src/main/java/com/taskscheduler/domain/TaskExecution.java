@@ -36,6 +36,7 @@ public class TaskExecution {
     
     private String executorInstance;
     private Long durationMs;
+    private Long fencingToken;
     
     public enum ExecutionStatus {
         STARTED, SUCCESS, FAILED, TIMEOUT, CANCELLED
@@ -0,0 +1,34 @@
+package com.taskscheduler.listener;
+
+import com.taskscheduler.common.dispatch.TaskCompletion;
+import com.taskscheduler.common.dispatch.TaskCompletionCodec;
+import com.taskscheduler.service.TaskSchedulerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCompletionListener {
+    private final TaskSchedulerService taskSchedulerService;
+    
+    @KafkaListener(topics = "task-completions", groupId = "scheduler-core", batch = "true")
+    public void onCompletions(List<ByteBuffer> messages) {
+        List<TaskCompletion> completions = new ArrayList<>(messages.size());
+        for (ByteBuffer message : messages) {
+            try {
+                completions.add(TaskCompletionCodec.decode(message));
+            } catch (Exception e) {
+                log.error("Dropping undecodable task completion", e);
+            }
+        }
+        
+        taskSchedulerService.completeTasks(completions);
+        log.debug("Applied {} task completions", completions.size());
+    }
+}
@@ -1,9 +1,13 @@
 package com.taskscheduler.repository;
 
 import com.taskscheduler.domain.Task;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -13,6 +17,19 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
            "AND t.nextExecution <= :now ORDER BY t.priority DESC, t.nextExecution ASC")
     List<Task> findDueTasks(LocalDateTime now);
     
+    @Query("SELECT t.id AS id, t.nextExecution AS nextExecution FROM Task t " +
+           "WHERE t.enabled = true AND t.status = 'SCHEDULED' AND t.nextExecution <= :until " +
+           "AND (t.nextExecution > :afterTime OR (t.nextExecution = :afterTime AND t.id > :afterId)) " +
+           "ORDER BY t.nextExecution ASC, t.id ASC")
+    List<TaskScheduleView> findScheduleWindow(LocalDateTime afterTime, Long afterId,
+                                              LocalDateTime until, Pageable pageable);
+    
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.fencingToken = :token " +
+           "WHERE t.id IN :ids AND (t.fencingToken IS NULL OR t.fencingToken <= :token)")
+    int stampFencingToken(Collection<Long> ids, long token);
+    
     List<Task> findByCreatedBy(String username);
     
     @Query("SELECT COUNT(t) FROM Task t WHERE t.status = :status")
@@ -0,0 +1,8 @@
+package com.taskscheduler.repository;
+
+import java.time.LocalDateTime;
+
+public interface TaskScheduleView {
+    Long getId();
+    LocalDateTime getNextExecution();
+}
@@ -0,0 +1,115 @@
+package com.taskscheduler.scheduling;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical timing wheel keyed by task id.
+ *
+ * <p>Arming and cancelling a task is O(1). Expired slots are surfaced through a
+ * {@link DelayQueue} of buckets, so a single reaper thread sleeps until the next
+ * populated slot is due instead of ticking every millisecond. Re-arming a task id
+ * replaces its previous entry.
+ */
+public class HierarchicalTimingWheel {
+    private final DelayQueue<TimerBucket> queue = new DelayQueue<>();
+    private final Map<Long, TimerEntry> entries = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TimingWheel wheel;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize) {
+        this(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.wheel = new TimingWheel(tickMs, wheelSize, startMs, queue);
+    }
+
+    /**
+     * @return false if {@code expirationMs} is already due; the task is then not armed
+     *         and the caller should dispatch it directly
+     */
+    public boolean schedule(long taskId, long expirationMs) {
+        TimerEntry entry = new TimerEntry(taskId, expirationMs);
+        lock.readLock().lock();
+        try {
+            TimerEntry previous = entries.put(taskId, entry);
+            if (previous != null) {
+                previous.remove();
+            }
+            if (!wheel.add(entry)) {
+                entries.remove(taskId, entry);
+                return false;
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean cancel(long taskId) {
+        lock.readLock().lock();
+        try {
+            TimerEntry entry = entries.remove(taskId);
+            if (entry == null) {
+                return false;
+            }
+            entry.remove();
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} for the next slot to expire and drains every slot that
+     * is due by then, appending the ids of expired tasks to {@code expired}.
+     *
+     * @return the number of task ids appended
+     */
+    public int advance(long timeoutMs, List<Long> expired) throws InterruptedException {
+        TimerBucket bucket = queue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return 0;
+        }
+        int before = expired.size();
+        lock.writeLock().lock();
+        try {
+            while (bucket != null) {
+                wheel.advanceClock(bucket.getExpiration());
+                bucket.flush(entry -> {
+                    if (!wheel.add(entry) && entries.remove(entry.taskId, entry)) {
+                        expired.add(entry.taskId);
+                    }
+                });
+                bucket = queue.poll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return expired.size() - before;
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            wheel.clear();
+            queue.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long taskId) {
+        return entries.containsKey(taskId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,70 @@
+package com.taskscheduler.scheduling;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * One slot of a {@link TimingWheel}. A bucket is queued in the shared delay queue once
+ * per expiration, not once per entry, so the queue only ever holds as many elements as
+ * there are populated slots.
+ */
+final class TimerBucket implements Delayed {
+    private final AtomicLong expiration = new AtomicLong(-1L);
+    private final TimerEntry root = new TimerEntry(-1L, -1L);
+
+    TimerBucket() {
+        root.next = root;
+        root.prev = root;
+    }
+
+    boolean setExpiration(long expirationMs) {
+        return expiration.getAndSet(expirationMs) != expirationMs;
+    }
+
+    long getExpiration() {
+        return expiration.get();
+    }
+
+    synchronized void add(TimerEntry entry) {
+        entry.remove();
+        TimerEntry tail = root.prev;
+        entry.next = root;
+        entry.prev = tail;
+        entry.bucket = this;
+        tail.next = entry;
+        root.prev = entry;
+    }
+
+    synchronized void remove(TimerEntry entry) {
+        if (entry.bucket != this) {
+            return;
+        }
+        entry.next.prev = entry.prev;
+        entry.prev.next = entry.next;
+        entry.next = null;
+        entry.prev = null;
+        entry.bucket = null;
+    }
+
+    synchronized void flush(Consumer<TimerEntry> consumer) {
+        TimerEntry head = root.next;
+        while (head != root) {
+            remove(head);
+            consumer.accept(head);
+            head = root.next;
+        }
+        expiration.set(-1L);
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+        return Long.compare(getExpiration(), ((TimerBucket) other).getExpiration());
+    }
+}
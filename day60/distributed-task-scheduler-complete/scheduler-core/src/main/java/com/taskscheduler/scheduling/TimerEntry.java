@@ -0,0 +1,34 @@
+package com.taskscheduler.scheduling;
+
+/**
+ * A task armed in the timing wheel. Entries are nodes of an intrusive doubly linked
+ * list owned by their {@link TimerBucket}, so insert and cancel are both O(1).
+ */
+public final class TimerEntry {
+    final long taskId;
+    final long expirationMs;
+
+    volatile TimerBucket bucket;
+    TimerEntry prev;
+    TimerEntry next;
+
+    TimerEntry(long taskId, long expirationMs) {
+        this.taskId = taskId;
+        this.expirationMs = expirationMs;
+    }
+
+    public long getTaskId() {
+        return taskId;
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    void remove() {
+        TimerBucket current = bucket;
+        if (current != null) {
+            current.remove(this);
+        }
+    }
+}
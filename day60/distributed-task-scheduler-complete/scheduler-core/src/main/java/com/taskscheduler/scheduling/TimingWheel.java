@@ -0,0 +1,81 @@
+package com.taskscheduler.scheduling;
+
+import java.util.concurrent.DelayQueue;
+
+/**
+ * A single level of the hierarchy. Entries that do not fit into this level's interval
+ * are handed to a lazily created overflow wheel whose tick equals this wheel's interval.
+ */
+final class TimingWheel {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final TimerBucket[] buckets;
+    private final DelayQueue<TimerBucket> queue;
+
+    private long currentTime;
+    private volatile TimingWheel overflowWheel;
+
+    TimingWheel(long tickMs, int wheelSize, long startMs, DelayQueue<TimerBucket> queue) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.queue = queue;
+        this.buckets = new TimerBucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new TimerBucket();
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * @return false if the entry is already due and must be fired by the caller
+     */
+    boolean add(TimerEntry entry) {
+        long expiration = entry.expirationMs;
+        if (expiration < currentTime + tickMs) {
+            return false;
+        }
+        if (expiration < currentTime + interval) {
+            long virtualId = expiration / tickMs;
+            TimerBucket bucket = buckets[(int) (virtualId % wheelSize)];
+            bucket.add(entry);
+            if (bucket.setExpiration(virtualId * tickMs)) {
+                queue.offer(bucket);
+            }
+            return true;
+        }
+        return overflow().add(entry);
+    }
+
+    void advanceClock(long timeMs) {
+        if (timeMs >= currentTime + tickMs) {
+            currentTime = timeMs - (timeMs % tickMs);
+            TimingWheel overflow = overflowWheel;
+            if (overflow != null) {
+                overflow.advanceClock(currentTime);
+            }
+        }
+    }
+
+    void clear() {
+        for (TimerBucket bucket : buckets) {
+            bucket.flush(entry -> { });
+        }
+        TimingWheel overflow = overflowWheel;
+        if (overflow != null) {
+            overflow.clear();
+        }
+    }
+
+    private TimingWheel overflow() {
+        if (overflowWheel == null) {
+            synchronized (this) {
+                if (overflowWheel == null) {
+                    overflowWheel = new TimingWheel(interval, wheelSize, currentTime, queue);
+                }
+            }
+        }
+        return overflowWheel;
+    }
+}
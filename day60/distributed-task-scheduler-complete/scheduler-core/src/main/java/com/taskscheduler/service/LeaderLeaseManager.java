@@ -0,0 +1,129 @@
+package com.taskscheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.net.InetAddress;
+import java.util.List;
+
+/**
+ * Holds the scheduler leader lease in Redis and renews it in the background.
+ *
+ * <p>Acquisition and renewal are one Lua compare-and-extend, so there is no window between
+ * reading the owner and extending the TTL. Every new lease takes the next value of a Redis
+ * counter as its fencing token; writes made on behalf of the leader carry that token so a
+ * paused or partitioned former leader is rejected by the database. The scheduling tick only
+ * reads volatile fields.
+ */
+@Service
+@Slf4j
+public class LeaderLeaseManager {
+    static final String LEADER_KEY = "scheduler:leader";
+    static final String FENCING_KEY = "scheduler:leader:fencing";
+
+    private static final RedisScript<Long> ACQUIRE_OR_EXTEND = new DefaultRedisScript<>(
+        "local current = redis.call('GET', KEYS[1]) " +
+        "local prefix = ARGV[1] .. '|' " +
+        "if not current then " +
+        "  local token = redis.call('INCR', KEYS[2]) " +
+        "  redis.call('SET', KEYS[1], prefix .. token, 'PX', ARGV[2]) " +
+        "  return token " +
+        "end " +
+        "if string.sub(current, 1, string.len(prefix)) == prefix then " +
+        "  redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+        "  return tonumber(string.sub(current, string.len(prefix) + 1)) " +
+        "end " +
+        "return -1",
+        Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+        "local current = redis.call('GET', KEYS[1]) " +
+        "if current and string.sub(current, 1, string.len(ARGV[1]) + 1) == ARGV[1] .. '|' then " +
+        "  return redis.call('DEL', KEYS[1]) " +
+        "end " +
+        "return 0",
+        Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String instanceId;
+    private final long leaseMs;
+    private final long safetyMarginMs;
+
+    private volatile boolean leader;
+    private volatile long fencingToken = -1;
+    private volatile long leaseDeadlineNanos;
+
+    public LeaderLeaseManager(RedisTemplate<String, String> redisTemplate,
+                              @Value("${scheduler.leader.lease-ms:10000}") long leaseMs,
+                              @Value("${scheduler.leader.safety-margin-ms:1000}") long safetyMarginMs) {
+        this.redisTemplate = redisTemplate;
+        this.leaseMs = leaseMs;
+        this.safetyMarginMs = safetyMarginMs;
+        this.instanceId = resolveInstanceId();
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.leader.renew-interval-ms:3000}")
+    public void renewLease() {
+        long startedAt = System.nanoTime();
+        try {
+            Long token = redisTemplate.execute(ACQUIRE_OR_EXTEND, List.of(LEADER_KEY, FENCING_KEY),
+                instanceId, Long.toString(leaseMs));
+
+            if (token != null && token > 0) {
+                leaseDeadlineNanos = startedAt + (leaseMs - safetyMarginMs) * 1_000_000;
+                if (!leader || token != fencingToken) {
+                    fencingToken = token;
+                    leader = true;
+                    log.info("Acquired scheduler leadership as {} with fencing token {}", instanceId, token);
+                }
+            } else if (leader) {
+                leader = false;
+                log.warn("Lost scheduler leadership ({})", instanceId);
+            }
+        } catch (Exception e) {
+            // Keep the current view until the local deadline passes; isLeader() enforces it.
+            log.error("Error renewing leader lease", e);
+        }
+    }
+
+    public boolean isLeader() {
+        return leader && System.nanoTime() - leaseDeadlineNanos < 0;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    @PreDestroy
+    public void release() {
+        if (!leader) {
+            return;
+        }
+        leader = false;
+        try {
+            redisTemplate.execute(RELEASE, List.of(LEADER_KEY), instanceId);
+            log.info("Released scheduler leadership ({})", instanceId);
+        } catch (Exception e) {
+            log.warn("Error releasing leader lease", e);
+        }
+    }
+
+    private static String resolveInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
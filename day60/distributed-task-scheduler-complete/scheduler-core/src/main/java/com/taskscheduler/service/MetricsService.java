@@ -33,4 +33,12 @@ public class MetricsService {
     public void recordSchedulerError() {
         meterRegistry.counter("scheduler.errors").increment();
     }
+    
+    public void recordTasksFired(int count) {
+        meterRegistry.counter("tasks.timing-wheel.fired").increment(count);
+    }
+    
+    public void recordDispatchLag(long lagMs) {
+        meterRegistry.timer("tasks.dispatch.lag").record(Math.max(lagMs, 0), TimeUnit.MILLISECONDS);
     }
+}
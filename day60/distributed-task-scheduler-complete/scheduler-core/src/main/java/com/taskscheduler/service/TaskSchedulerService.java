@@ -1,22 +1,41 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.common.dispatch.TaskCompletion;
+import com.taskscheduler.common.dispatch.TaskEnvelopeCodec;
+import com.taskscheduler.common.dispatch.TraceContext;
 import com.taskscheduler.domain.Task;
 import com.taskscheduler.domain.TaskExecution;
 import com.taskscheduler.repository.TaskRepository;
 import com.taskscheduler.repository.TaskExecutionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.net.InetAddress;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,29 +44,49 @@ public class TaskSchedulerService {
     private final TaskRepository taskRepository;
     private final TaskExecutionRepository executionRepository;
     private final RedisTemplate<String, String> redisTemplate;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
     private final MetricsService metricsService;
+    private final TimingWheelDispatcher timingWheelDispatcher;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderLeaseManager leaderLeaseManager;
+    
+    @Value("${scheduler.dispatch.batch-enabled:true}")
+    private boolean batchDispatchEnabled;
+    
+    @Value("${scheduler.timing-wheel.enabled:true}")
+    private boolean timingWheelEnabled;
+    
+    @Value("${scheduler.timing-wheel.overdue-sweep-seconds:60}")
+    private long overdueSweepSeconds;
+    
+    private volatile long lastOverdueSweep;
     
-    private static final String LEADER_KEY = "scheduler:leader";
     private static final String LOCK_PREFIX = "task:lock:";
+    private static final byte[] LOCK_VALUE = "locked".getBytes(StandardCharsets.UTF_8);
+    private static final long LOCK_TTL_SECONDS = 60;
+    private static final long KAFKA_ACK_TIMEOUT_SECONDS = 30;
+    private static final Duration DUE_TOLERANCE = Duration.ofMillis(100);
+    private static final long OVERDUE_GRACE_SECONDS = 5;
     
     @Scheduled(fixedDelay = 5000)
     public void scheduleTasksIfLeader() {
-        if (!tryAcquireLeadership()) {
+        if (!leaderLeaseManager.isLeader()) {
+            timingWheelDispatcher.stop();
             return;
         }
         
         try {
+            if (timingWheelEnabled) {
+                refillTimingWheel();
+                return;
+            }
+            
             LocalDateTime now = LocalDateTime.now();
             List<Task> dueTasks = taskRepository.findDueTasks(now);
             
             log.info("Found {} due tasks", dueTasks.size());
             
-            for (Task task : dueTasks) {
-                if (acquireTaskLock(task.getId())) {
-                    dispatchTask(task);
-                }
-            }
+            dispatchAll(dueTasks);
             
             metricsService.recordTasksScheduled(dueTasks.size());
         } catch (Exception e) {
@@ -56,30 +95,70 @@ public class TaskSchedulerService {
         }
     }
     
-    private boolean tryAcquireLeadership() {
+    private void refillTimingWheel() {
+        timingWheelDispatcher.start(this::dispatchDueTasks);
+        List<Long> overdue = timingWheelDispatcher.refill();
+        
+        long now = System.currentTimeMillis();
+        if (now - lastOverdueSweep >= overdueSweepSeconds * 1000) {
+            lastOverdueSweep = now;
+            // Tasks re-armed on another node inside the already-loaded window never reach
+            // this wheel; they show up here once they are overdue.
+            taskRepository.findDueTasks(LocalDateTime.now().minusSeconds(OVERDUE_GRACE_SECONDS))
+                .forEach(task -> overdue.add(task.getId()));
+        }
+        
+        if (!overdue.isEmpty()) {
+            dispatchDueTasks(overdue);
+        }
+    }
+    
+    public void dispatchDueTasks(List<Long> taskIds) {
+        if (!leaderLeaseManager.isLeader()) {
+            log.warn("Dropping {} fired tasks: leadership lost", taskIds.size());
+            return;
+        }
+        
         try {
-            String instance = InetAddress.getLocalHost().getHostName();
-            Boolean acquired = redisTemplate.opsForValue()
-                .setIfAbsent(LEADER_KEY, instance, 10, TimeUnit.SECONDS);
-            
-            if (Boolean.TRUE.equals(acquired)) {
-                log.debug("Acquired leadership: {}", instance);
-                return true;
-            }
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime dueBy = now.plus(DUE_TOLERANCE);
+            List<Task> tasks = taskRepository.findAllById(taskIds).stream()
+                .filter(task -> isDue(task, dueBy))
+                .sorted(Comparator.comparing(Task::getPriority).reversed())
+                .collect(Collectors.toList());
             
-            String currentLeader = redisTemplate.opsForValue().get(LEADER_KEY);
-            if (instance.equals(currentLeader)) {
-                redisTemplate.expire(LEADER_KEY, 10, TimeUnit.SECONDS);
-                return true;
-            }
+            tasks.forEach(task -> metricsService.recordDispatchLag(
+                Duration.between(task.getNextExecution(), now).toMillis()));
+            dispatchAll(tasks);
             
-            return false;
+            metricsService.recordTasksScheduled(tasks.size());
         } catch (Exception e) {
-            log.error("Error acquiring leadership", e);
-            return false;
+            log.error("Error dispatching {} fired tasks", taskIds.size(), e);
+            metricsService.recordSchedulerError();
         }
     }
     
+    private void dispatchAll(List<Task> tasks) {
+        long fencingToken = leaderLeaseManager.getFencingToken();
+        if (batchDispatchEnabled) {
+            dispatchBatch(tasks, fencingToken);
+            return;
+        }
+        
+        for (Task task : tasks) {
+            if (acquireTaskLock(task.getId())) {
+                dispatchTask(task, fencingToken);
+            }
+        }
+    }
+    
+    private boolean isDue(Task task, LocalDateTime dueBy) {
+        return task.getStatus() == Task.TaskStatus.SCHEDULED
+            && Boolean.TRUE.equals(task.getEnabled())
+            && task.getNextExecution() != null
+            && !task.getNextExecution().isAfter(dueBy);
+    }
+    
     private boolean acquireTaskLock(Long taskId) {
         try {
             String lockKey = LOCK_PREFIX + taskId;
@@ -92,32 +171,195 @@ public class TaskSchedulerService {
         }
     }
     
-    @Transactional
-    public void dispatchTask(Task task) {
+    private List<Long> acquireTaskLocks(List<Task> tasks) {
+        try {
+            List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Task task : tasks) {
+                    connection.stringCommands().set(
+                        (LOCK_PREFIX + task.getId()).getBytes(StandardCharsets.UTF_8), LOCK_VALUE,
+                        Expiration.seconds(LOCK_TTL_SECONDS), RedisStringCommands.SetOption.ifAbsent());
+                }
+                return null;
+            });
+            
+            List<Long> locked = new ArrayList<>(tasks.size());
+            for (int i = 0; i < tasks.size(); i++) {
+                if (Boolean.TRUE.equals(results.get(i))) {
+                    locked.add(tasks.get(i).getId());
+                }
+            }
+            return locked;
+        } catch (Exception e) {
+            log.error("Error acquiring task locks for {} tasks", tasks.size(), e);
+            return List.of();
+        }
+    }
+    
+    /**
+     * Dispatches a whole tick with one pipelined lock round trip, one transaction whose
+     * task updates and execution inserts go out as JDBC batches, and one producer flush.
+     */
+    public void dispatchBatch(List<Task> tasks, long fencingToken) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        
+        List<Long> lockedIds = acquireTaskLocks(tasks);
+        if (lockedIds.isEmpty()) {
+            return;
+        }
+        
+        List<DispatchedTask> dispatched;
+        try {
+            dispatched = transactionTemplate.execute(status -> markDispatched(lockedIds, fencingToken));
+        } catch (Exception e) {
+            log.error("Error persisting dispatch batch of {} tasks", lockedIds.size(), e);
+            releaseTaskLocks(lockedIds);
+            metricsService.recordSchedulerError();
+            return;
+        }
+        
+        if (dispatched.size() < lockedIds.size()) {
+            Set<Long> accepted = dispatched.stream().map(DispatchedTask::taskId).collect(Collectors.toSet());
+            List<Long> fenced = lockedIds.stream().filter(id -> !accepted.contains(id)).collect(Collectors.toList());
+            log.warn("Fencing token {} rejected for {} tasks; a newer leader owns them", fencingToken, fenced.size());
+            releaseTaskLocks(fenced);
+        }
+        
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(dispatched.size());
+        for (DispatchedTask task : dispatched) {
+            sends.add(kafkaTemplate.send("task-executions", task.taskId().toString(), task.message()));
+        }
+        kafkaTemplate.flush();
+        
+        List<DispatchedTask> failed = new ArrayList<>();
+        String error = null;
         try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(KAFKA_ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        for (int i = 0; i < dispatched.size(); i++) {
+            DispatchedTask task = dispatched.get(i);
+            CompletableFuture<SendResult<String, byte[]>> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                metricsService.recordTaskDispatched(task.priority());
+            } else {
+                failed.add(task);
+            }
+        }
+        
+        if (!failed.isEmpty()) {
+            log.error("Failed to publish {} of {} dispatched tasks: {}", failed.size(), dispatched.size(), error);
+            failDispatch(failed, error);
+        }
+        log.info("Dispatched {} tasks to Kafka", dispatched.size() - failed.size());
+    }
+    
+    private List<DispatchedTask> markDispatched(List<Long> taskIds, long fencingToken) {
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.stampFencingToken(taskIds, fencingToken);
+        List<Task> tasks = taskRepository.findAllById(taskIds).stream()
+            .filter(task -> task.getFencingToken() != null && task.getFencingToken() == fencingToken)
+            .collect(Collectors.toList());
+        List<TaskExecution> executions = new ArrayList<>(tasks.size());
+        
+        for (Task task : tasks) {
             task.setStatus(Task.TaskStatus.RUNNING);
-            task.setLastExecution(LocalDateTime.now());
+            task.setLeaderInstance(leaderLeaseManager.getInstanceId());
+            task.setLastExecution(now);
             task.setExecutionCount(task.getExecutionCount() + 1);
-            taskRepository.save(task);
             
             TaskExecution execution = new TaskExecution();
             execution.setTaskId(task.getId());
-            execution.setStartTime(LocalDateTime.now());
+            execution.setStartTime(now);
             execution.setStatus(TaskExecution.ExecutionStatus.STARTED);
-            executionRepository.save(execution);
-            
-            String message = String.format("{\"taskId\":%d,\"executionId\":%d,\"handler\":\"%s\",\"params\":\"%s\"}",
-                task.getId(), execution.getId(), task.getHandlerClass(), task.getTaskParameters());
-            
-            kafkaTemplate.send("task-executions", task.getId().toString(), message);
-            
-            log.info("Dispatched task {} to Kafka", task.getId());
-            metricsService.recordTaskDispatched(task.getPriority());
-            
+            execution.setFencingToken(fencingToken);
+            executions.add(execution);
+        }
+        executionRepository.saveAll(executions);
+        
+        List<DispatchedTask> dispatched = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            TaskExecution execution = executions.get(i);
+            dispatched.add(new DispatchedTask(task.getId(), execution.getId(), task.getPriority(),
+                buildDispatchMessage(task, execution)));
+        }
+        return dispatched;
+    }
+    
+    /**
+     * Reschedules tasks whose dispatch never reached Kafka and closes the executions
+     * {@link #markDispatched} opened for them, so they do not linger as in-flight work.
+     */
+    private void failDispatch(List<DispatchedTask> failed, String error) {
+        List<Long> taskIds = failed.stream().map(DispatchedTask::taskId).collect(Collectors.toList());
+        List<Long> executionIds = failed.stream().map(DispatchedTask::executionId).collect(Collectors.toList());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                taskRepository.findAllById(taskIds).forEach(task -> handleTaskFailure(task, error));
+                for (TaskExecution execution : executionRepository.findAllById(executionIds)) {
+                    // A send that timed out may still have been delivered and completed
+                    if (execution.getStatus() != TaskExecution.ExecutionStatus.STARTED) {
+                        continue;
+                    }
+                    execution.setStatus(TaskExecution.ExecutionStatus.FAILED);
+                    execution.setErrorMessage(error);
+                    execution.setEndTime(now);
+                    execution.setDurationMs(Duration.between(execution.getStartTime(), now).toMillis());
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error recording dispatch failure for {} tasks", taskIds.size(), e);
+        }
+        releaseTaskLocks(taskIds);
+    }
+    
+    private record DispatchedTask(Long taskId, Long executionId, Task.TaskPriority priority, byte[] message) {
+    }
+    
+    private byte[] buildDispatchMessage(Task task, TaskExecution execution) {
+        return TaskEnvelopeCodec.encode(task.getId(), execution.getId(), task.getHandlerClass(),
+            task.getTaskParameters(), TraceContext.newRoot());
+    }
+    
+    /**
+     * Dispatches one task when batching is off. It goes through the same fenced
+     * {@link #markDispatched} transaction as a batch, so a newer leader's token is never
+     * overwritten, and waits for Kafka's ack so a failed send can be recorded.
+     */
+    public void dispatchTask(Task task, long fencingToken) {
+        List<DispatchedTask> dispatched;
+        try {
+            dispatched = transactionTemplate.execute(status -> markDispatched(List.of(task.getId()), fencingToken));
         } catch (Exception e) {
             log.error("Error dispatching task {}", task.getId(), e);
-            handleTaskFailure(task, e.getMessage());
+            releaseTaskLock(task.getId());
+            metricsService.recordSchedulerError();
+            return;
+        }
+        
+        if (dispatched.isEmpty()) {
+            log.warn("Fencing token {} rejected for task {}; a newer leader owns it", fencingToken, task.getId());
+            releaseTaskLock(task.getId());
+            return;
         }
+        
+        DispatchedTask dispatch = dispatched.get(0);
+        try {
+            kafkaTemplate.send("task-executions", dispatch.taskId().toString(), dispatch.message())
+                .get(KAFKA_ACK_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            log.error("Error publishing task {}", task.getId(), e);
+            failDispatch(dispatched, e.getMessage());
+            return;
+        }
+        
+        log.info("Dispatched task {} to Kafka", task.getId());
+        metricsService.recordTaskDispatched(dispatch.priority());
     }
     
     @Transactional
@@ -125,9 +367,73 @@ public class TaskSchedulerService {
         Task task = taskRepository.findById(taskId).orElseThrow();
         TaskExecution execution = executionRepository.findById(executionId).orElseThrow();
         
-        execution.setEndTime(LocalDateTime.now());
-        execution.setDurationMs(java.time.Duration.between(
-            execution.getStartTime(), execution.getEndTime()).toMillis());
+        applyCompletion(task, execution, success, message, LocalDateTime.now());
+        
+        executionRepository.save(execution);
+        taskRepository.save(task);
+        
+        releaseTaskLock(taskId);
+        timingWheelDispatcher.schedule(task);
+    }
+    
+    /**
+     * Applies a batch of worker completions with one lookup per table and batched updates
+     * at commit. Redelivered completions for executions that already finished are skipped.
+     */
+    public void completeTasks(List<TaskCompletion> completions) {
+        if (completions.isEmpty()) {
+            return;
+        }
+        
+        List<Task> completed = transactionTemplate.execute(status -> applyCompletions(completions));
+        if (completed == null || completed.isEmpty()) {
+            return;
+        }
+        
+        releaseTaskLocks(completed.stream().map(Task::getId).distinct().collect(Collectors.toList()));
+        completed.forEach(timingWheelDispatcher::schedule);
+    }
+    
+    private List<Task> applyCompletions(List<TaskCompletion> completions) {
+        Set<Long> taskIds = new LinkedHashSet<>();
+        Set<Long> executionIds = new LinkedHashSet<>();
+        for (TaskCompletion completion : completions) {
+            taskIds.add(completion.taskId());
+            executionIds.add(completion.executionId());
+        }
+        
+        Map<Long, Task> tasks = taskRepository.findAllById(taskIds).stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<Long, TaskExecution> executions = executionRepository.findAllById(executionIds).stream()
+            .collect(Collectors.toMap(TaskExecution::getId, Function.identity()));
+        
+        List<Task> completed = new ArrayList<>(completions.size());
+        for (TaskCompletion completion : completions) {
+            Task task = tasks.get(completion.taskId());
+            TaskExecution execution = executions.get(completion.executionId());
+            if (task == null || execution == null) {
+                log.warn("Ignoring completion for unknown task {} execution {}",
+                    completion.taskId(), completion.executionId());
+                continue;
+            }
+            if (execution.getStatus() != TaskExecution.ExecutionStatus.STARTED) {
+                log.debug("Ignoring duplicate completion for execution {}", completion.executionId());
+                continue;
+            }
+            
+            LocalDateTime endTime = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(completion.finishedAtMs()), ZoneId.systemDefault());
+            applyCompletion(task, execution, completion.success(), completion.message(), endTime);
+            completed.add(task);
+        }
+        
+        return completed;
+    }
+    
+    private void applyCompletion(Task task, TaskExecution execution, boolean success, String message,
+                                 LocalDateTime endTime) {
+        execution.setEndTime(endTime);
+        execution.setDurationMs(Duration.between(execution.getStartTime(), execution.getEndTime()).toMillis());
         
         if (success) {
             execution.setStatus(TaskExecution.ExecutionStatus.SUCCESS);
@@ -143,11 +449,6 @@ public class TaskSchedulerService {
             execution.setErrorMessage(message);
             handleTaskFailure(task, message);
         }
-        
-        executionRepository.save(execution);
-        taskRepository.save(task);
-        
-        releaseTaskLock(taskId);
     }
     
     private void handleTaskFailure(Task task, String error) {
@@ -181,9 +482,19 @@ public class TaskSchedulerService {
         redisTemplate.delete(lockKey);
     }
     
+    private void releaseTaskLocks(List<Long> taskIds) {
+        try {
+            redisTemplate.delete(taskIds.stream().map(id -> LOCK_PREFIX + id).collect(Collectors.toList()));
+        } catch (Exception e) {
+            log.error("Error releasing {} task locks", taskIds.size(), e);
+        }
+    }
+    
     public Task createTask(Task task) {
         calculateNextExecution(task);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        timingWheelDispatcher.schedule(saved);
+        return saved;
     }
     
     public List<Task> getAllTasks() {
@@ -0,0 +1,174 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.domain.Task;
+import com.taskscheduler.repository.TaskRepository;
+import com.taskscheduler.repository.TaskScheduleView;
+import com.taskscheduler.scheduling.HierarchicalTimingWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Leader-owned in-memory index of upcoming task fires. Tasks are loaded from
+ * {@code tasks.nextExecution} one look-ahead window at a time and fired by a single
+ * reaper thread as soon as their timing-wheel slot expires.
+ */
+@Service
+@Slf4j
+public class TimingWheelDispatcher {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TaskRepository taskRepository;
+    private final MetricsService metricsService;
+    private final long tickMs;
+    private final int wheelSize;
+    private final long lookaheadSeconds;
+    private final int loadPageSize;
+
+    private final ExecutorService dispatchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private volatile HierarchicalTimingWheel wheel;
+    private volatile Thread reaper;
+    private volatile LocalDateTime loadedUntil;
+
+    public TimingWheelDispatcher(TaskRepository taskRepository,
+                                 MetricsService metricsService,
+                                 @Value("${scheduler.timing-wheel.tick-ms:1}") long tickMs,
+                                 @Value("${scheduler.timing-wheel.wheel-size:512}") int wheelSize,
+                                 @Value("${scheduler.timing-wheel.lookahead-seconds:60}") long lookaheadSeconds,
+                                 @Value("${scheduler.timing-wheel.load-page-size:1000}") int loadPageSize) {
+        this.taskRepository = taskRepository;
+        this.metricsService = metricsService;
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.lookaheadSeconds = lookaheadSeconds;
+        this.loadPageSize = loadPageSize;
+    }
+
+    public synchronized void start(Consumer<List<Long>> dispatcher) {
+        if (reaper != null) {
+            return;
+        }
+        HierarchicalTimingWheel timingWheel = new HierarchicalTimingWheel(tickMs, wheelSize);
+        wheel = timingWheel;
+        loadedUntil = null;
+        reaper = Thread.ofPlatform()
+            .name("timing-wheel-reaper")
+            .daemon(true)
+            .start(() -> runReaper(timingWheel, dispatcher));
+        log.info("Timing wheel dispatcher started (tick={}ms, size={})", tickMs, wheelSize);
+    }
+
+    public synchronized void stop() {
+        Thread current = reaper;
+        if (current == null) {
+            return;
+        }
+        reaper = null;
+        current.interrupt();
+        wheel.clear();
+        wheel = null;
+        loadedUntil = null;
+        log.info("Timing wheel dispatcher stopped");
+    }
+
+    public boolean isRunning() {
+        return reaper != null;
+    }
+
+    /**
+     * Loads every scheduled task whose next execution falls between the previously loaded
+     * horizon and {@code now + lookahead}. The first call after {@link #start} also picks up
+     * overdue tasks. Returns the ids that were already due and must be dispatched directly.
+     */
+    public List<Long> refill() {
+        List<Long> overdue = new ArrayList<>();
+        HierarchicalTimingWheel current = wheel;
+        if (current == null) {
+            return overdue;
+        }
+
+        LocalDateTime horizon = LocalDateTime.now().plusSeconds(lookaheadSeconds);
+        LocalDateTime afterTime = loadedUntil != null ? loadedUntil : EPOCH;
+        Long afterId = Long.MAX_VALUE;
+        int loaded = 0;
+
+        List<TaskScheduleView> page;
+        do {
+            page = taskRepository.findScheduleWindow(afterTime, afterId, horizon,
+                PageRequest.of(0, loadPageSize));
+            for (TaskScheduleView view : page) {
+                if (!current.schedule(view.getId(), toEpochMillis(view.getNextExecution()))) {
+                    overdue.add(view.getId());
+                }
+                afterTime = view.getNextExecution();
+                afterId = view.getId();
+            }
+            loaded += page.size();
+        } while (page.size() == loadPageSize);
+
+        loadedUntil = horizon;
+        if (loaded > 0) {
+            log.debug("Loaded {} tasks into timing wheel up to {}", loaded, horizon);
+        }
+        return overdue;
+    }
+
+    /**
+     * Re-arms a task after it was created or completed. Tasks beyond the loaded horizon
+     * are left to the next {@link #refill}.
+     */
+    public boolean schedule(Task task) {
+        HierarchicalTimingWheel current = wheel;
+        LocalDateTime horizon = loadedUntil;
+        if (current == null || horizon == null || task.getNextExecution() == null
+                || task.getNextExecution().isAfter(horizon)) {
+            return false;
+        }
+        if (task.getStatus() != Task.TaskStatus.SCHEDULED || !Boolean.TRUE.equals(task.getEnabled())) {
+            current.cancel(task.getId());
+            return false;
+        }
+        return current.schedule(task.getId(), toEpochMillis(task.getNextExecution()));
+    }
+
+    public int size() {
+        HierarchicalTimingWheel current = wheel;
+        return current != null ? current.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+        dispatchExecutor.shutdown();
+    }
+
+    private void runReaper(HierarchicalTimingWheel timingWheel, Consumer<List<Long>> dispatcher) {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Long> expired = new ArrayList<>();
+                if (timingWheel.advance(200, expired) > 0) {
+                    metricsService.recordTasksFired(expired.size());
+                    dispatchExecutor.execute(() -> dispatcher.accept(expired));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Error advancing timing wheel", e);
+            }
+        }
+    }
+
+    static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
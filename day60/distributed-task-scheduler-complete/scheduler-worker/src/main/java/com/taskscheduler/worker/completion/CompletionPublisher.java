@@ -0,0 +1,32 @@
+package com.taskscheduler.worker.completion;
+
+import com.taskscheduler.common.dispatch.TaskCompletion;
+import com.taskscheduler.common.dispatch.TaskCompletionCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reports execution results to scheduler-core without blocking the caller. Records are
+ * coalesced into producer batches by {@code linger.ms}, so a busy worker sends one request
+ * per batch instead of one HTTP call per task.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompletionPublisher {
+    public static final String TOPIC = "task-completions";
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    public void publish(TaskCompletion completion) {
+        kafkaTemplate.send(TOPIC, Long.toString(completion.taskId()), TaskCompletionCodec.encode(completion))
+            .whenComplete((result, e) -> {
+                if (e != null) {
+                    log.error("Failed to publish completion for task {} execution {}",
+                        completion.taskId(), completion.executionId(), e);
+                }
+            });
+    }
+}
@@ -0,0 +1,39 @@
+package com.taskscheduler.worker.engine;
+
+import java.util.TreeSet;
+
+/**
+ * Tracks records of one partition that were handed to the executor but have not finished.
+ * Records complete out of order; the committable offset is the lowest one still in flight,
+ * so a crash never skips an unfinished record.
+ */
+final class PartitionOffsetTracker {
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long nextOffset = -1;
+    private long committedOffset = -1;
+
+    synchronized void started(long offset) {
+        inFlight.add(offset);
+        nextOffset = Math.max(nextOffset, offset + 1);
+    }
+
+    synchronized void completed(long offset) {
+        inFlight.remove(offset);
+    }
+
+    /**
+     * @return the offset to commit, or -1 if nothing has advanced since the last commit
+     */
+    synchronized long committableOffset() {
+        long candidate = inFlight.isEmpty() ? nextOffset : inFlight.first();
+        return candidate > committedOffset ? candidate : -1;
+    }
+
+    synchronized void committed(long offset) {
+        committedOffset = Math.max(committedOffset, offset);
+    }
+
+    synchronized int inFlightCount() {
+        return inFlight.size();
+    }
+}
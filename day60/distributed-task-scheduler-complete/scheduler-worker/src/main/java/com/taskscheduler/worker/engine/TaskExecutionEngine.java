@@ -0,0 +1,283 @@
+package com.taskscheduler.worker.engine;
+
+import com.taskscheduler.common.dispatch.TaskEnvelope;
+import com.taskscheduler.common.dispatch.TaskEnvelopeCodec;
+import com.taskscheduler.worker.processor.TaskProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Consumes {@code task-executions} and runs every record on its own virtual thread, so a
+ * worker keeps as many I/O-bound tasks in flight as the limits allow rather than one per
+ * partition.
+ *
+ * <p>Concurrency is bounded twice: a semaphore per handler caps how many executions of one
+ * handler run at once, and a worker-wide in-flight limit pauses all assigned partitions
+ * until enough records finish. Offsets are committed per partition up to the lowest record
+ * still in flight. The consumer is only touched from the poll thread.
+ */
+@Component
+@Slf4j
+public class TaskExecutionEngine implements SmartLifecycle {
+    private static final String TOPIC = "task-executions";
+
+    private final ConsumerFactory<String, ByteBuffer> consumerFactory;
+    private final TaskProcessor taskProcessor;
+    private final int maxInFlight;
+    private final int resumeThreshold;
+    private final int handlerConcurrency;
+    private final long commitIntervalMs;
+    private final long shutdownTimeoutSeconds;
+
+    private final Map<TopicPartition, PartitionOffsetTracker> trackers = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> handlerPermits = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private ExecutorService executor;
+    private Consumer<String, ByteBuffer> consumer;
+    private Thread pollThread;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private long lastCommitMs;
+
+    public TaskExecutionEngine(ConsumerFactory<String, ByteBuffer> consumerFactory,
+                               TaskProcessor taskProcessor,
+                               MeterRegistry meterRegistry,
+                               @Value("${worker.engine.max-in-flight:2000}") int maxInFlight,
+                               @Value("${worker.engine.handler-concurrency:500}") int handlerConcurrency,
+                               @Value("${worker.engine.commit-interval-ms:1000}") long commitIntervalMs,
+                               @Value("${worker.engine.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds) {
+        this.consumerFactory = consumerFactory;
+        this.taskProcessor = taskProcessor;
+        this.maxInFlight = maxInFlight;
+        this.resumeThreshold = maxInFlight * 3 / 4;
+        this.handlerConcurrency = handlerConcurrency;
+        this.commitIntervalMs = commitIntervalMs;
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+
+        meterRegistry.gauge("worker.tasks.inflight", inFlight);
+        meterRegistry.gauge("worker.partitions.paused", this, engine -> engine.paused ? 1 : 0);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-exec-", 0).factory());
+        consumer = consumerFactory.createConsumer();
+        running = true;
+        pollThread = Thread.ofPlatform().name("task-engine-poll").start(this::pollLoop);
+        log.info("Task execution engine started (maxInFlight={}, handlerConcurrency={})",
+            maxInFlight, handlerConcurrency);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            thread = pollThread;
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds + 5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Task execution engine stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void pollLoop() {
+        try {
+            consumer.subscribe(List.of(TOPIC), new RebalanceListener());
+            while (running) {
+                ConsumerRecords<String, ByteBuffer> records = consumer.poll(Duration.ofMillis(100));
+                for (ConsumerRecord<String, ByteBuffer> record : records) {
+                    submit(record);
+                }
+                applyBackpressure();
+                commitCompleted(false);
+            }
+        } catch (Exception e) {
+            log.error("Task engine poll loop failed", e);
+        } finally {
+            drainAndClose();
+        }
+    }
+
+    private void submit(ConsumerRecord<String, ByteBuffer> record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionOffsetTracker tracker = trackers.computeIfAbsent(partition, p -> new PartitionOffsetTracker());
+        long offset = record.offset();
+
+        TaskEnvelope envelope;
+        try {
+            envelope = TaskEnvelopeCodec.decode(record.value());
+        } catch (Exception e) {
+            log.error("Skipping undecodable record {}@{}", partition, offset, e);
+            tracker.started(offset);
+            tracker.completed(offset);
+            return;
+        }
+
+        tracker.started(offset);
+        inFlight.incrementAndGet();
+        Semaphore permits = handlerPermits.computeIfAbsent(envelope.getHandler(),
+            handler -> new Semaphore(handlerConcurrency));
+
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+                try {
+                    taskProcessor.execute(envelope);
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                tracker.completed(offset);
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private void applyBackpressure() {
+        int current = inFlight.get();
+        if (!paused && current >= maxInFlight) {
+            consumer.pause(consumer.assignment());
+            paused = true;
+            log.debug("Paused partitions with {} tasks in flight", current);
+        } else if (paused && current <= resumeThreshold) {
+            consumer.resume(consumer.paused());
+            paused = false;
+            log.debug("Resumed partitions with {} tasks in flight", current);
+        }
+    }
+
+    private void commitCompleted(boolean sync) {
+        long now = System.currentTimeMillis();
+        if (!sync && now - lastCommitMs < commitIntervalMs) {
+            return;
+        }
+        lastCommitMs = now;
+
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        trackers.forEach((partition, tracker) -> {
+            long offset = tracker.committableOffset();
+            if (offset >= 0) {
+                offsets.put(partition, new OffsetAndMetadata(offset));
+            }
+        });
+        if (offsets.isEmpty()) {
+            return;
+        }
+
+        if (sync) {
+            consumer.commitSync(offsets);
+            markCommitted(offsets);
+        } else {
+            consumer.commitAsync(offsets, (committed, e) -> {
+                if (e != null) {
+                    log.warn("Offset commit failed, will retry: {}", e.getMessage());
+                } else {
+                    markCommitted(committed);
+                }
+            });
+        }
+    }
+
+    private void markCommitted(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        offsets.forEach((partition, offset) -> {
+            PartitionOffsetTracker tracker = trackers.get(partition);
+            if (tracker != null) {
+                tracker.committed(offset.offset());
+            }
+        });
+    }
+
+    private void drainAndClose() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                log.warn("{} tasks still running at shutdown; they will be redelivered", inFlight.get());
+            }
+            commitCompleted(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error committing offsets at shutdown", e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private class RebalanceListener implements ConsumerRebalanceListener {
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                PartitionOffsetTracker tracker = trackers.remove(partition);
+                if (tracker == null) {
+                    continue;
+                }
+                long offset = tracker.committableOffset();
+                if (offset >= 0) {
+                    offsets.put(partition, new OffsetAndMetadata(offset));
+                }
+                if (tracker.inFlightCount() > 0) {
+                    log.info("Partition {} revoked with {} tasks in flight; they may be redelivered",
+                        partition, tracker.inFlightCount());
+                }
+            }
+            if (!offsets.isEmpty()) {
+                try {
+                    consumer.commitSync(offsets);
+                } catch (Exception e) {
+                    log.warn("Offset commit on revocation failed: {}", e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            if (paused) {
+                consumer.pause(partitions);
+            }
+        }
+    }
+}
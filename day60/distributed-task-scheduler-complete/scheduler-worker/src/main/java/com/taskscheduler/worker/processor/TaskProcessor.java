@@ -1,29 +1,25 @@
 package com.taskscheduler.worker.processor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskscheduler.common.dispatch.TaskCompletion;
+import com.taskscheduler.common.dispatch.TaskEnvelope;
+import com.taskscheduler.worker.completion.CompletionPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TaskProcessor {
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CompletionPublisher completionPublisher;
     
-    @KafkaListener(topics = "task-executions", groupId = "worker-group")
-    public void processTask(String message) {
+    public void execute(TaskEnvelope envelope) {
         try {
-            log.info("Processing task: {}", message);
+            log.info("Processing task: {}", envelope);
             
-            Map<String, Object> taskData = objectMapper.readValue(message, Map.class);
-            Long taskId = ((Number) taskData.get("taskId")).longValue();
-            Long executionId = ((Number) taskData.get("executionId")).longValue();
-            String handler = (String) taskData.get("handler");
+            long taskId = envelope.getTaskId();
+            long executionId = envelope.getExecutionId();
+            String handler = envelope.getHandler();
             
             // Simulate task execution
             Thread.sleep(2000 + (long)(Math.random() * 3000));
@@ -34,12 +30,8 @@ public class TaskProcessor {
                 "Task failed due to simulated error";
             
             // Report back to core
-            String completionUrl = String.format(
-                "http://localhost:8083/api/tasks/%d/executions/%d/complete?success=%b&message=%s",
-                taskId, executionId, success, result
-            );
-            
-            restTemplate.postForEntity(completionUrl, null, String.class);
+            completionPublisher.publish(new TaskCompletion(
+                taskId, executionId, success, result, System.currentTimeMillis()));
             
             log.info("Task {} execution {} {}", taskId, executionId, 
                 success ? "succeeded" : "failed");
@@ -6,6 +6,17 @@ import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
 import org.springframework.context.annotation.Bean;
 import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.taskscheduler.repository.partition.ExecutionPartitions;
+import com.taskscheduler.repository.partition.H2MonthlyExecutionPartitions;
+import com.taskscheduler.repository.partition.PostgresDailyExecutionPartitions;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
 
 @Configuration
 public class DatabaseConfig {
@@ -30,6 +41,23 @@ public class DatabaseConfig {
             flyway.migrate();
         };
     }
+    
+    @Bean
+    public ExecutionPartitions executionPartitions(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                                   PlatformTransactionManager transactionManager)
+            throws MetaDataAccessException {
+        // Same vendor split as the Flyway locations: daily native partitions on PostgreSQL,
+        // a table per month on H2
+        String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        switch (product) {
+            case "PostgreSQL":
+                return new PostgresDailyExecutionPartitions(jdbcTemplate, new TransactionTemplate(transactionManager));
+            case "H2":
+                return new H2MonthlyExecutionPartitions(jdbcTemplate);
+            default:
+                throw new IllegalStateException("Execution history partitioning is not supported on " + product);
+        }
+    }
 }
 
 
@@ -1,17 +1,21 @@
 package com.taskscheduler.controller;
 
 import com.taskscheduler.entity.TaskDefinition;
+import com.taskscheduler.entity.TaskExecution;
 import com.taskscheduler.service.TaskDefinitionService;
+import com.taskscheduler.service.TaskExecutionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -21,10 +25,12 @@ import java.util.Map;
 public class TaskDefinitionController {
     
     private final TaskDefinitionService taskService;
+    private final TaskExecutionService executionService;
     
     @Autowired
-    public TaskDefinitionController(TaskDefinitionService taskService) {
+    public TaskDefinitionController(TaskDefinitionService taskService, TaskExecutionService executionService) {
         this.taskService = taskService;
+        this.executionService = executionService;
     }
     
     @GetMapping
@@ -122,6 +128,31 @@ public class TaskDefinitionController {
         }
     }
     
+    @PostMapping("/{id}/executions")
+    public ResponseEntity<TaskExecution> recordExecution(
+            @PathVariable Long id,
+            @RequestBody TaskExecution execution) {
+        try {
+            TaskExecution recorded = executionService.recordExecution(id, execution);
+            return ResponseEntity.status(HttpStatus.CREATED).body(recorded);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // History is partitioned by start time, so a range is required: it bounds the partitions read
+    @GetMapping("/{id}/executions")
+    public ResponseEntity<List<TaskExecution>> getExecutions(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(executionService.findExecutions(id, from, to, limit));
+    }
+    
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Long>> getTaskStats() {
         Map<String, Long> stats = Map.of(
@@ -0,0 +1,64 @@
+package com.taskscheduler.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * One run of a task definition. Execution history is partitioned by {@code startedAt}, which
+ * JPA cannot route, so it is stored through {@code TaskExecutionRepository} with plain JDBC
+ * rather than mapped as an entity.
+ */
+public class TaskExecution {
+
+    private Long id;
+    private Long taskDefinitionId;
+    private ExecutionStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+    private String errorMessage;
+
+    // Constructors
+    public TaskExecution() {}
+
+    public TaskExecution(Long taskDefinitionId, ExecutionStatus status, LocalDateTime startedAt) {
+        this.taskDefinitionId = taskDefinitionId;
+        this.status = status;
+        this.startedAt = startedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getTaskDefinitionId() { return taskDefinitionId; }
+    public void setTaskDefinitionId(Long taskDefinitionId) { this.taskDefinitionId = taskDefinitionId; }
+
+    public ExecutionStatus getStatus() { return status; }
+    public void setStatus(ExecutionStatus status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    @Override
+    public String toString() {
+        return "TaskExecution{" +
+                "id=" + id +
+                ", taskDefinitionId=" + taskDefinitionId +
+                ", status=" + status +
+                ", startedAt=" + startedAt +
+                '}';
+    }
+
+    public enum ExecutionStatus {
+        RUNNING, SUCCEEDED, FAILED
+    }
+}
@@ -0,0 +1,139 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.entity.TaskExecution;
+import com.taskscheduler.repository.partition.ExecutionPartitions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Execution history access. Every query takes a {@code [from, to)} range on
+ * {@code started_at}, the partition key, and compares it as a plain half-open range so the
+ * database only reads the partitions (or, on H2, the monthly tables) the range overlaps.
+ */
+@Repository
+public class TaskExecutionRepository {
+
+    private static final String COLUMNS =
+        "id, task_definition_id, status, started_at, finished_at, duration_ms, error_message";
+
+    private static final RowMapper<TaskExecution> ROW_MAPPER = (rs, rowNum) -> {
+        TaskExecution execution = new TaskExecution();
+        execution.setId(rs.getLong("id"));
+        execution.setTaskDefinitionId(rs.getLong("task_definition_id"));
+        execution.setStatus(TaskExecution.ExecutionStatus.valueOf(rs.getString("status")));
+        execution.setStartedAt(rs.getTimestamp("started_at").toLocalDateTime());
+        Timestamp finishedAt = rs.getTimestamp("finished_at");
+        execution.setFinishedAt(finishedAt != null ? finishedAt.toLocalDateTime() : null);
+        long durationMs = rs.getLong("duration_ms");
+        execution.setDurationMs(rs.wasNull() ? null : durationMs);
+        execution.setErrorMessage(rs.getString("error_message"));
+        return execution;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExecutionPartitions partitions;
+
+    public TaskExecutionRepository(JdbcTemplate jdbcTemplate, ExecutionPartitions partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+    }
+
+    public TaskExecution save(TaskExecution execution) {
+        String sql = insertSql(partitions.tableFor(execution.getStartedAt()));
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
+            bind(ps, execution);
+            return ps;
+        }, keyHolder);
+        execution.setId(keyHolder.getKey().longValue());
+        return execution;
+    }
+
+    /**
+     * Batch insert, one JDBC batch per target table. Generated ids are not read back.
+     */
+    public void saveAll(List<TaskExecution> executions) {
+        Map<String, List<TaskExecution>> byTable = new LinkedHashMap<>();
+        for (TaskExecution execution : executions) {
+            byTable.computeIfAbsent(partitions.tableFor(execution.getStartedAt()), table -> new ArrayList<>())
+                .add(execution);
+        }
+        byTable.forEach((table, rows) ->
+            jdbcTemplate.batchUpdate(insertSql(table), rows, rows.size(), TaskExecutionRepository::bind));
+    }
+
+    // Executions of one task started in [from, to), newest first
+    public List<TaskExecution> findByTaskDefinitionIdAndStartedAtInRange(
+            Long taskDefinitionId, LocalDateTime from, LocalDateTime to, int limit) {
+        return query("task_definition_id = ? AND started_at >= ? AND started_at < ?",
+            new Object[]{taskDefinitionId, Timestamp.valueOf(from), Timestamp.valueOf(to)}, from, to, limit);
+    }
+
+    // All executions started in [from, to), newest first
+    public List<TaskExecution> findByStartedAtInRange(LocalDateTime from, LocalDateTime to, int limit) {
+        return query("started_at >= ? AND started_at < ?",
+            new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(to)}, from, to, limit);
+    }
+
+    public long countByStatusAndStartedAtInRange(
+            TaskExecution.ExecutionStatus status, LocalDateTime from, LocalDateTime to) {
+        long count = 0;
+        for (String table : partitions.tablesFor(from, to)) {
+            Long tableCount = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE status = ? AND started_at >= ? AND started_at < ?",
+                Long.class, status.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+            count += tableCount != null ? tableCount : 0;
+        }
+        return count;
+    }
+
+    private List<TaskExecution> query(String where, Object[] args, LocalDateTime from, LocalDateTime to, int limit) {
+        List<String> tables = partitions.tablesFor(from, to);
+        if (tables.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> selects = new ArrayList<>(tables.size());
+        List<Object> allArgs = new ArrayList<>();
+        for (String table : tables) {
+            selects.add("SELECT " + COLUMNS + " FROM " + table + " WHERE " + where);
+            allArgs.addAll(List.of(args));
+        }
+        String sql = (tables.size() == 1 ? selects.get(0) : String.join(" UNION ALL ", selects)) +
+            " ORDER BY started_at DESC, id DESC LIMIT ?";
+        allArgs.add(limit);
+        return jdbcTemplate.query(sql, ROW_MAPPER, allArgs.toArray());
+    }
+
+    private static String insertSql(String table) {
+        return "INSERT INTO " + table +
+            " (task_definition_id, status, started_at, finished_at, duration_ms, error_message) VALUES (?, ?, ?, ?, ?, ?)";
+    }
+
+    private static void bind(PreparedStatement ps, TaskExecution execution) throws SQLException {
+        ps.setLong(1, execution.getTaskDefinitionId());
+        ps.setString(2, execution.getStatus().name());
+        ps.setTimestamp(3, Timestamp.valueOf(execution.getStartedAt()));
+        ps.setTimestamp(4, execution.getFinishedAt() != null ? Timestamp.valueOf(execution.getFinishedAt()) : null);
+        if (execution.getDurationMs() != null) {
+            ps.setLong(5, execution.getDurationMs());
+        } else {
+            ps.setNull(5, Types.BIGINT);
+        }
+        ps.setString(6, execution.getErrorMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package com.taskscheduler.repository.partition;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Physical layout of the execution history. Each database gets the time-based partitioning it
+ * supports, and the repository only asks which tables a row or a time range lives in.
+ */
+public interface ExecutionPartitions {
+
+    String BASE_TABLE = "task_executions";
+
+    /**
+     * Table to insert an execution started at {@code startedAt} into. The partition covering
+     * that time is created first if it does not exist yet.
+     *
+     * @throws IllegalArgumentException if that partition lies before the last retention cutoff;
+     *         expired partitions are never re-created for late rows
+     */
+    String tableFor(LocalDateTime startedAt);
+
+    /**
+     * Tables that can hold executions started in {@code [from, to)}. Queries must still filter
+     * on {@code started_at} so the database can skip partitions outside the range.
+     */
+    List<String> tablesFor(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Creates the partitions covering the days {@code [from, to)} that are still missing,
+     * skipping any that lie before the last retention cutoff.
+     */
+    void createPartitions(LocalDate from, LocalDate to);
+
+    /**
+     * Removes every partition whose whole range lies before {@code cutoff}, and from then on
+     * refuses writes that would need one of them.
+     * @return the names of the removed partitions
+     */
+    List<String> removePartitionsBefore(LocalDate cutoff, RetentionMode mode);
+
+    enum RetentionMode {
+        /** Drop expired partitions together with their rows. */
+        DROP,
+        /** Take expired partitions out of the history but keep them as standalone tables, e.g. for archiving. */
+        DETACH
+    }
+}
@@ -0,0 +1,154 @@
+package com.taskscheduler.repository.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Fallback for H2, which has no declarative partitioning: one table per month
+ * ({@code task_executions_YYYY_MM}). Inserts are routed to the month's table and range queries
+ * only read the tables overlapping the range, which is the pruning PostgreSQL does natively.
+ * Retention therefore works in whole months, and a month it has removed is not created again.
+ */
+public class H2MonthlyExecutionPartitions implements ExecutionPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(H2MonthlyExecutionPartitions.class);
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern TABLE_NAME = Pattern.compile("(?i)" + BASE_TABLE + "_(\\d{4}_\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile NavigableSet<YearMonth> months;
+    // Cutoff of the latest retention run; no month wholly before it is created again
+    private volatile LocalDate retentionHorizon;
+
+    public H2MonthlyExecutionPartitions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public String tableFor(LocalDateTime startedAt) {
+        YearMonth month = YearMonth.from(startedAt);
+        if (!months().contains(month)) {
+            if (isExpired(month)) {
+                throw new IllegalArgumentException("Execution started at " + startedAt +
+                    " is before the retention cutoff " + retentionHorizon + "; its table has been removed");
+            }
+            createPartitions(month.atDay(1), month.plusMonths(1).atDay(1));
+        }
+        return tableName(month);
+    }
+
+    @Override
+    public List<String> tablesFor(LocalDateTime from, LocalDateTime to) {
+        List<String> tables = new ArrayList<>();
+        if (!from.isBefore(to)) {
+            return tables;
+        }
+        for (YearMonth month : months().subSet(YearMonth.from(from), true, YearMonth.from(to.minusNanos(1)), true)) {
+            tables.add(tableName(month));
+        }
+        return tables;
+    }
+
+    @Override
+    public synchronized void createPartitions(LocalDate from, LocalDate to) {
+        NavigableSet<YearMonth> known = months();
+        if (!from.isBefore(to)) {
+            return;
+        }
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to.minusDays(1))); month = month.plusMonths(1)) {
+            if (!known.contains(month) && !isExpired(month)) {
+                createTable(month);
+                known.add(month);
+            }
+        }
+    }
+
+    private void createTable(YearMonth month) {
+        String name = tableName(month);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " (" +
+            "id BIGINT DEFAULT NEXT VALUE FOR task_execution_seq PRIMARY KEY, " +
+            "task_definition_id BIGINT NOT NULL, " +
+            "status VARCHAR(20) NOT NULL, " +
+            "started_at TIMESTAMP NOT NULL, " +
+            "finished_at TIMESTAMP, " +
+            "duration_ms BIGINT, " +
+            "error_message VARCHAR(2000), " +
+            "CHECK (started_at >= TIMESTAMP '" + month.atDay(1).atStartOfDay() + "' " +
+            "AND started_at < TIMESTAMP '" + month.plusMonths(1).atDay(1).atStartOfDay() + "'))");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + name + "_task_started ON " + name + " (task_definition_id, started_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + name + "_started ON " + name + " (started_at)");
+        logger.info("Created execution history table {}", name);
+    }
+
+    @Override
+    public synchronized List<String> removePartitionsBefore(LocalDate cutoff, RetentionMode mode) {
+        if (retentionHorizon == null || cutoff.isAfter(retentionHorizon)) {
+            retentionHorizon = cutoff;
+        }
+        List<String> removed = new ArrayList<>();
+        NavigableSet<YearMonth> known = months();
+        for (YearMonth month : new ArrayList<>(known)) {
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                break;
+            }
+            String name = tableName(month);
+            if (mode == RetentionMode.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + BASE_TABLE + "_archived_" + month.format(SUFFIX));
+            }
+            known.remove(month);
+            removed.add(name);
+        }
+        return removed;
+    }
+
+    private boolean isExpired(YearMonth month) {
+        LocalDate horizon = retentionHorizon;
+        return horizon != null && !month.plusMonths(1).atDay(1).isAfter(horizon);
+    }
+
+    private NavigableSet<YearMonth> months() {
+        NavigableSet<YearMonth> current = months;
+        if (current == null) {
+            synchronized (this) {
+                if (months == null) {
+                    months = loadMonths();
+                }
+                current = months;
+            }
+        }
+        return current;
+    }
+
+    private NavigableSet<YearMonth> loadMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA()", String.class);
+
+        NavigableSet<YearMonth> found = new ConcurrentSkipListSet<>();
+        for (String name : names) {
+            Matcher matcher = TABLE_NAME.matcher(name);
+            if (matcher.matches()) {
+                found.add(YearMonth.parse(matcher.group(1), SUFFIX));
+            }
+        }
+        return found;
+    }
+
+    private static String tableName(YearMonth month) {
+        return BASE_TABLE + "_" + month.format(SUFFIX);
+    }
+}
@@ -0,0 +1,169 @@
+package com.taskscheduler.repository.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Native range partitioning: {@code task_executions} is partitioned by day on
+ * {@code started_at}, so inserts and queries go to the parent table and PostgreSQL routes and
+ * prunes on its own. Rows for a day without a partition land in {@code task_executions_default}
+ * and are moved out when that day's partition is created. Days before the last retention
+ * cutoff are never partitioned again, so late rows for them are rejected rather than left in
+ * the default partition.
+ */
+public class PostgresDailyExecutionPartitions implements ExecutionPartitions {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresDailyExecutionPartitions.class);
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM_dd");
+    private static final Pattern PARTITION_NAME = Pattern.compile(BASE_TABLE + "_(\\d{4}_\\d{2}_\\d{2})");
+    private static final String DEFAULT_PARTITION = BASE_TABLE + "_default";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<LocalDate> knownDays = ConcurrentHashMap.newKeySet();
+    // Cutoff of the latest retention run; no partition before it is created again
+    private volatile LocalDate retentionHorizon;
+
+    public PostgresDailyExecutionPartitions(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public String tableFor(LocalDateTime startedAt) {
+        LocalDate day = startedAt.toLocalDate();
+        if (!knownDays.contains(day)) {
+            if (isExpired(day)) {
+                throw new IllegalArgumentException("Execution started at " + startedAt +
+                    " is before the retention cutoff " + retentionHorizon + "; its partition has been removed");
+            }
+            createPartitions(day, day.plusDays(1));
+        }
+        return BASE_TABLE;
+    }
+
+    @Override
+    public List<String> tablesFor(LocalDateTime from, LocalDateTime to) {
+        return List.of(BASE_TABLE);
+    }
+
+    @Override
+    public synchronized void createPartitions(LocalDate from, LocalDate to) {
+        Set<LocalDate> existing = existingDays();
+        knownDays.addAll(existing);
+
+        for (LocalDate day = from; day.isBefore(to); day = day.plusDays(1)) {
+            if (!existing.contains(day) && !isExpired(day)) {
+                createPartition(day);
+                knownDays.add(day);
+            }
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        String name = partitionName(day);
+        String bounds = String.format("FOR VALUES FROM ('%s') TO ('%s')", day, day.plusDays(1));
+
+        // A table of that name that is not a partition was detached by retention (mode DETACH);
+        // CREATE TABLE IF NOT EXISTS would quietly keep it out and leave the day in the default
+        Boolean attached = jdbcTemplate.query(
+            "SELECT c.relispartition FROM pg_class c WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace",
+            rs -> rs.next() ? rs.getBoolean(1) : null, name);
+        if (Boolean.TRUE.equals(attached)) {
+            return;
+        }
+        if (Boolean.FALSE.equals(attached)) {
+            throw new IllegalStateException("Table " + name + " exists but is not a partition of " + BASE_TABLE +
+                "; it was detached by retention and is not reused");
+        }
+
+        Boolean strayRows = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE started_at >= ? AND started_at < ?)",
+            Boolean.class, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+
+        if (!Boolean.TRUE.equals(strayRows)) {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + BASE_TABLE + " " + bounds);
+            logger.info("Created execution history partition {}", name);
+            return;
+        }
+
+        // A new partition may not overlap rows already in the default partition: build it
+        // standalone, move that day's rows into it and attach it in one transaction.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + BASE_TABLE + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update(
+                "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE started_at >= ? AND started_at < ? RETURNING *) " +
+                "INSERT INTO " + name + " SELECT * FROM moved",
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            jdbcTemplate.execute("ALTER TABLE " + BASE_TABLE + " ATTACH PARTITION " + name + " " + bounds);
+            logger.info("Created execution history partition {} with {} rows from the default partition", name, moved);
+        });
+    }
+
+    @Override
+    public synchronized List<String> removePartitionsBefore(LocalDate cutoff, RetentionMode mode) {
+        if (retentionHorizon == null || cutoff.isAfter(retentionHorizon)) {
+            retentionHorizon = cutoff;
+        }
+        List<String> removed = new ArrayList<>();
+        for (LocalDate day : existingDays()) {
+            if (!day.isBefore(cutoff)) {
+                break;
+            }
+            String name = partitionName(day);
+            jdbcTemplate.execute("ALTER TABLE " + BASE_TABLE + " DETACH PARTITION " + name);
+            if (mode == RetentionMode.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+            }
+            knownDays.remove(day);
+            removed.add(name);
+        }
+
+        // Only rows that arrived before their partition existed live here, so this stays small
+        int strays = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + " WHERE started_at < ?", cutoff.atStartOfDay());
+        if (strays > 0) {
+            logger.info("Deleted {} expired rows from {}", strays, DEFAULT_PARTITION);
+        }
+        return removed;
+    }
+
+    private boolean isExpired(LocalDate day) {
+        LocalDate horizon = retentionHorizon;
+        return horizon != null && day.isBefore(horizon);
+    }
+
+    private TreeSet<LocalDate> existingDays() {
+        List<String> names = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ?", String.class, BASE_TABLE);
+
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                days.add(LocalDate.parse(matcher.group(1), SUFFIX));
+            }
+        }
+        return days;
+    }
+
+    private static String partitionName(LocalDate day) {
+        return BASE_TABLE + "_" + day.format(SUFFIX);
+    }
+}
@@ -0,0 +1,56 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.repository.partition.ExecutionPartitions;
+import com.taskscheduler.repository.partition.ExecutionPartitions.RetentionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the execution history partitions in shape: creates the partitions for the coming days
+ * ahead of the inserts, and expires old history by dropping (or detaching) whole partitions
+ * instead of deleting rows.
+ */
+@Component
+public class ExecutionHistoryRetentionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionHistoryRetentionJob.class);
+
+    private final ExecutionPartitions partitions;
+
+    @Value("${history.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${history.retention.mode:DROP}")
+    private RetentionMode retentionMode;
+
+    @Value("${history.partitions.precreate-days:7}")
+    private int precreateDays;
+
+    public ExecutionHistoryRetentionJob(ExecutionPartitions partitions) {
+        this.partitions = partitions;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run();
+    }
+
+    @Scheduled(cron = "${history.retention.cron:0 15 0 * * *}")
+    public void run() {
+        LocalDate today = LocalDate.now();
+        partitions.createPartitions(today, today.plusDays(precreateDays + 1));
+
+        List<String> removed = partitions.removePartitionsBefore(today.minusDays(retentionDays), retentionMode);
+        if (!removed.isEmpty()) {
+            logger.info("Execution history retention ({} days, {}): removed {}", retentionDays, retentionMode, removed);
+        }
+    }
+}
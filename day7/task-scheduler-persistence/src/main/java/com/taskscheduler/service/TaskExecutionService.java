@@ -0,0 +1,52 @@
+package com.taskscheduler.service;
+
+import com.taskscheduler.entity.TaskExecution;
+import com.taskscheduler.repository.TaskDefinitionRepository;
+import com.taskscheduler.repository.TaskExecutionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class TaskExecutionService {
+
+    private static final int MAX_RESULTS = 1000;
+
+    private final TaskExecutionRepository executionRepository;
+    private final TaskDefinitionRepository taskRepository;
+
+    @Autowired
+    public TaskExecutionService(TaskExecutionRepository executionRepository, TaskDefinitionRepository taskRepository) {
+        this.executionRepository = executionRepository;
+        this.taskRepository = taskRepository;
+    }
+
+    public TaskExecution recordExecution(Long taskId, TaskExecution execution) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new IllegalArgumentException("Task not found with id: " + taskId);
+        }
+        execution.setTaskDefinitionId(taskId);
+        if (execution.getStartedAt() == null) {
+            execution.setStartedAt(LocalDateTime.now());
+        }
+        if (execution.getStatus() == null) {
+            execution.setStatus(TaskExecution.ExecutionStatus.RUNNING);
+        }
+        if (execution.getDurationMs() == null && execution.getFinishedAt() != null) {
+            execution.setDurationMs(Duration.between(execution.getStartedAt(), execution.getFinishedAt()).toMillis());
+        }
+        return executionRepository.save(execution);
+    }
+
+    public List<TaskExecution> findExecutions(Long taskId, LocalDateTime from, LocalDateTime to, int limit) {
+        return executionRepository.findByTaskDefinitionIdAndStartedAtInRange(
+            taskId, from, to, Math.min(limit, MAX_RESULTS));
+    }
+
+    public long countExecutions(TaskExecution.ExecutionStatus status, LocalDateTime from, LocalDateTime to) {
+        return executionRepository.countByStatusAndStartedAtInRange(status, from, to);
+    }
+}
@@ -0,0 +1,178 @@
+package com.taskscheduler.benchmark;
+
+import com.taskscheduler.entity.TaskExecution;
+import com.taskscheduler.repository.TaskExecutionRepository;
+import com.taskscheduler.repository.partition.ExecutionPartitions;
+import com.taskscheduler.repository.partition.ExecutionPartitions.RetentionMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares the partitioned execution history with the same rows in one unpartitioned table:
+ * range queries, and expiring the oldest month by dropping partitions versus a row-level DELETE.
+ *
+ * <p>Lives with the tests so it stays out of the application jar. Run it on the test classpath
+ * against an empty scratch database only, it expires part of the history it generates:
+ * {@code mvn spring-boot:test-run -Dspring-boot.run.profiles=dev,benchmark} (file-based H2) or
+ * {@code prod,benchmark} for PostgreSQL.
+ */
+@Component
+@Profile("benchmark")
+public class ExecutionHistoryBenchmark implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionHistoryBenchmark.class);
+
+    private static final String FLAT_TABLE = "task_executions_flat";
+    private static final LocalDate BASE = LocalDate.of(2020, 1, 1);
+    private static final int TASKS = 1_000;
+    private static final int BATCH_SIZE = 10_000;
+
+    private final TaskExecutionRepository repository;
+    private final ExecutionPartitions partitions;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${benchmark.rows:50000000}")
+    private long rows;
+
+    @Value("${benchmark.days:120}")
+    private int days;
+
+    @Value("${benchmark.runs:20}")
+    private int runs;
+
+    public ExecutionHistoryBenchmark(TaskExecutionRepository repository, ExecutionPartitions partitions,
+                                     JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.partitions = partitions;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        long seedStart = System.nanoTime();
+        seed();
+        logger.info("Seeded {} executions over {} days, twice, in {} s",
+            rows, days, (System.nanoTime() - seedStart) / 1_000_000_000);
+
+        LocalDateTime dayStart = BASE.plusDays(days / 2).atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        LocalDateTime weekEnd = dayStart.plusDays(7);
+        long taskId = 42;
+
+        StringBuilder report = new StringBuilder(String.format(
+            "%nExecution history benchmark: %d rows over %d days, median of %d runs (ms)%n", rows, days, runs));
+        report.append(String.format("%-44s %14s %14s%n", "query", "unpartitioned", "partitioned"));
+        report.append(row("one task, one day, newest 100",
+            time(() -> flatQuery("task_definition_id = ? AND", taskId, dayStart, dayEnd)),
+            time(() -> repository.findByTaskDefinitionIdAndStartedAtInRange(taskId, dayStart, dayEnd, 100).size())));
+        report.append(row("all tasks, one day, newest 100",
+            time(() -> flatQuery("", null, dayStart, dayEnd)),
+            time(() -> repository.findByStartedAtInRange(dayStart, dayEnd, 100).size())));
+        report.append(row("count FAILED over one week",
+            time(() -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + FLAT_TABLE + " WHERE status = ? AND started_at >= ? AND started_at < ?",
+                Long.class, "FAILED", Timestamp.valueOf(dayStart), Timestamp.valueOf(weekEnd))),
+            time(() -> repository.countByStatusAndStartedAtInRange(
+                TaskExecution.ExecutionStatus.FAILED, dayStart, weekEnd))));
+
+        // Expire the first month: one DELETE on the flat table, dropping partitions on the other
+        LocalDate cutoff = BASE.plusMonths(1);
+        long deleteStart = System.nanoTime();
+        int deleted = jdbcTemplate.update("DELETE FROM " + FLAT_TABLE + " WHERE started_at < ?",
+            Timestamp.valueOf(cutoff.atStartOfDay()));
+        double deleteMs = (System.nanoTime() - deleteStart) / 1e6;
+
+        long dropStart = System.nanoTime();
+        List<String> dropped = partitions.removePartitionsBefore(cutoff, RetentionMode.DROP);
+        double dropMs = (System.nanoTime() - dropStart) / 1e6;
+
+        report.append(String.format("%-44s %14.2f %14.2f%n",
+            "expire first month (" + deleted + " rows)", deleteMs, dropMs));
+        report.append(String.format("Dropped %d partitions%n", dropped.size()));
+        logger.info(report.toString());
+    }
+
+    private long flatQuery(String taskFilter, Long taskId, LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT id, task_definition_id, status, started_at, finished_at, duration_ms, error_message FROM " +
+            FLAT_TABLE + " WHERE " + taskFilter + " started_at >= ? AND started_at < ? ORDER BY started_at DESC, id DESC LIMIT 100";
+        Object[] args = taskId != null
+            ? new Object[]{taskId, Timestamp.valueOf(from), Timestamp.valueOf(to)}
+            : new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(to)};
+        return jdbcTemplate.queryForList(sql, args).size();
+    }
+
+    private double time(LongSupplier query) {
+        query.getAsLong(); // warm-up
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            query.getAsLong();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[runs / 2] / 1e6;
+    }
+
+    private static String row(String query, double flat, double partitioned) {
+        return String.format("%-44s %14.2f %14.2f%n", query, flat, partitioned);
+    }
+
+    private void seed() {
+        // Retention never re-creates what it removed, so it cannot be used to clear a previous run
+        LocalDateTime seedEnd = BASE.plusDays(days).atStartOfDay();
+        if (!repository.findByStartedAtInRange(BASE.atStartOfDay(), seedEnd, 1).isEmpty()) {
+            throw new IllegalStateException("Execution history already has rows between " + BASE + " and " +
+                seedEnd.toLocalDate() + "; run against an empty database (with dev, delete target/benchmark)");
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + FLAT_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + FLAT_TABLE + " (" +
+            "id BIGINT PRIMARY KEY, task_definition_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL, " +
+            "started_at TIMESTAMP NOT NULL, finished_at TIMESTAMP, duration_ms BIGINT, error_message VARCHAR(2000))");
+        partitions.createPartitions(BASE, BASE.plusDays(days));
+
+        long spacingMillis = days * 86_400_000L / rows;
+        TaskExecution.ExecutionStatus[] statuses = TaskExecution.ExecutionStatus.values();
+        List<TaskExecution> batch = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> flatBatch = new ArrayList<>(BATCH_SIZE);
+
+        for (long i = 0; i < rows; i++) {
+            LocalDateTime startedAt = BASE.atStartOfDay().plusNanos(i * spacingMillis * 1_000_000);
+            TaskExecution execution = new TaskExecution(i % TASKS, statuses[(int) (i % statuses.length)], startedAt);
+            execution.setFinishedAt(startedAt.plusSeconds(1));
+            execution.setDurationMs(1000L);
+            batch.add(execution);
+            flatBatch.add(new Object[]{i + 1, execution.getTaskDefinitionId(), execution.getStatus().name(),
+                Timestamp.valueOf(startedAt), Timestamp.valueOf(execution.getFinishedAt()), 1000L, null});
+
+            if (batch.size() == BATCH_SIZE || i == rows - 1) {
+                repository.saveAll(batch);
+                jdbcTemplate.batchUpdate("INSERT INTO " + FLAT_TABLE +
+                    " (id, task_definition_id, status, started_at, finished_at, duration_ms, error_message) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)", flatBatch);
+                batch.clear();
+                flatBatch.clear();
+            }
+            if ((i + 1) % 5_000_000 == 0) {
+                logger.info("Seeded {} of {} rows", i + 1, rows);
+            }
+        }
+
+        // Indexes on the flat table match what every partition carries; built after the load
+        jdbcTemplate.execute("CREATE INDEX idx_" + FLAT_TABLE + "_task_started ON " + FLAT_TABLE + " (task_definition_id, started_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_" + FLAT_TABLE + "_started ON " + FLAT_TABLE + " (started_at)");
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
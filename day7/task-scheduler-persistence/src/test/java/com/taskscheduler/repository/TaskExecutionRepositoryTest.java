@@ -0,0 +1,126 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.entity.TaskExecution;
+import com.taskscheduler.repository.partition.ExecutionPartitions;
+import com.taskscheduler.repository.partition.ExecutionPartitions.RetentionMode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The tests write long-past history, so retention must not have expired it at startup
+@SpringBootTest(properties = "history.retention.days=36500")
+@ActiveProfiles("dev")
+class TaskExecutionRepositoryTest {
+
+    @Autowired
+    private TaskExecutionRepository repository;
+
+    @Autowired
+    private ExecutionPartitions partitions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Each test works in its own year so the shared in-memory database does not couple them.
+    // Retention runs move the cutoff for the whole context, so tests that run one get a fresh one.
+
+    @Test
+    void shouldRouteByMonthAndQueryOnlyTheRange() {
+        TaskExecution january = repository.save(execution(1L, LocalDateTime.of(2001, 1, 31, 23, 0)));
+        repository.save(execution(1L, LocalDateTime.of(2001, 2, 1, 1, 0)));
+        repository.save(execution(2L, LocalDateTime.of(2001, 2, 1, 2, 0)));
+        repository.save(execution(1L, LocalDateTime.of(2001, 3, 5, 0, 0)));
+
+        assertThat(january.getId()).isNotNull();
+        assertThat(partitions.tablesFor(LocalDateTime.of(2001, 1, 15, 0, 0), LocalDateTime.of(2001, 3, 1, 0, 0)))
+            .containsExactly("task_executions_2001_01", "task_executions_2001_02");
+
+        List<TaskExecution> found = repository.findByTaskDefinitionIdAndStartedAtInRange(
+            1L, LocalDateTime.of(2001, 1, 1, 0, 0), LocalDateTime.of(2001, 3, 5, 0, 0), 10);
+
+        // Newest first, across both monthly tables; the upper bound is exclusive
+        assertThat(found).extracting(TaskExecution::getStartedAt)
+            .containsExactly(LocalDateTime.of(2001, 2, 1, 1, 0), LocalDateTime.of(2001, 1, 31, 23, 0));
+        assertThat(repository.countByStatusAndStartedAtInRange(TaskExecution.ExecutionStatus.SUCCEEDED,
+            LocalDateTime.of(2001, 1, 1, 0, 0), LocalDateTime.of(2002, 1, 1, 0, 0))).isEqualTo(4);
+    }
+
+    @Test
+    void shouldBatchInsertIntoSeveralMonths() {
+        repository.saveAll(List.of(
+            execution(3L, LocalDateTime.of(2002, 6, 30, 12, 0)),
+            execution(3L, LocalDateTime.of(2002, 7, 1, 12, 0)),
+            execution(3L, LocalDateTime.of(2002, 7, 2, 12, 0))));
+
+        assertThat(repository.findByStartedAtInRange(
+            LocalDateTime.of(2002, 1, 1, 0, 0), LocalDateTime.of(2003, 1, 1, 0, 0), 10)).hasSize(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_executions_2002_07", Long.class)).isEqualTo(2);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldDropOnlyWholeMonthsBeforeCutoff() {
+        repository.save(execution(4L, LocalDateTime.of(2003, 1, 10, 0, 0)));
+        repository.save(execution(4L, LocalDateTime.of(2003, 2, 10, 0, 0)));
+
+        // February is only partly expired, so it is kept
+        List<String> removed = partitions.removePartitionsBefore(LocalDate.of(2003, 2, 15), RetentionMode.DROP);
+
+        assertThat(removed).contains("task_executions_2003_01").doesNotContain("task_executions_2003_02");
+        assertThat(repository.findByStartedAtInRange(
+            LocalDateTime.of(2003, 1, 1, 0, 0), LocalDateTime.of(2004, 1, 1, 0, 0), 10))
+            .extracting(TaskExecution::getStartedAt)
+            .containsExactly(LocalDateTime.of(2003, 2, 10, 0, 0));
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldKeepDetachedMonthsAsArchiveTables() {
+        repository.save(execution(5L, LocalDateTime.of(1999, 5, 10, 0, 0)));
+
+        partitions.removePartitionsBefore(LocalDate.of(1999, 6, 1), RetentionMode.DETACH);
+
+        assertThat(partitions.tablesFor(LocalDateTime.of(1999, 5, 1, 0, 0), LocalDateTime.of(1999, 6, 1, 0, 0))).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task_executions_archived_1999_05", Long.class))
+            .isEqualTo(1);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldRejectLateRowsForRemovedMonths() {
+        repository.save(execution(6L, LocalDateTime.of(1998, 1, 10, 0, 0)));
+        repository.save(execution(6L, LocalDateTime.of(1998, 2, 10, 0, 0)));
+
+        partitions.removePartitionsBefore(LocalDate.of(1998, 2, 15), RetentionMode.DROP);
+
+        assertThatThrownBy(() -> repository.save(execution(6L, LocalDateTime.of(1998, 1, 20, 0, 0))))
+            .hasRootCauseInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("retention cutoff");
+        partitions.createPartitions(LocalDate.of(1997, 12, 1), LocalDate.of(1998, 3, 1));
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME IN ('TASK_EXECUTIONS_1997_12', 'TASK_EXECUTIONS_1998_01')",
+            Long.class)).isZero();
+
+        // The month the cutoff falls in is kept, and still takes writes
+        repository.save(execution(6L, LocalDateTime.of(1998, 2, 1, 0, 0)));
+        assertThat(repository.findByStartedAtInRange(
+            LocalDateTime.of(1998, 1, 1, 0, 0), LocalDateTime.of(1999, 1, 1, 0, 0), 10)).hasSize(2);
+    }
+
+    private static TaskExecution execution(Long taskId, LocalDateTime startedAt) {
+        TaskExecution execution = new TaskExecution(taskId, TaskExecution.ExecutionStatus.SUCCEEDED, startedAt);
+        execution.setFinishedAt(startedAt.plusSeconds(5));
+        execution.setDurationMs(5000L);
+        return execution;
+    }
+}
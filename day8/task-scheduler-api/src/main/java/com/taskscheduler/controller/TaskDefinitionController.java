@@ -1,8 +1,12 @@
 package com.taskscheduler.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskscheduler.dto.CursorPage;
 import com.taskscheduler.dto.TaskDefinitionCreateRequest;
 import com.taskscheduler.dto.TaskDefinitionResponse;
 import com.taskscheduler.dto.TaskDefinitionSearchRequest;
+import com.taskscheduler.dto.TaskDefinitionSummary;
 import com.taskscheduler.entity.TaskDefinition;
 import com.taskscheduler.service.TaskDefinitionService;
 import jakarta.validation.Valid;
@@ -10,9 +14,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
@@ -24,10 +32,14 @@ public class TaskDefinitionController {
     
     private static final Logger logger = LoggerFactory.getLogger(TaskDefinitionController.class);
     
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    
     private final TaskDefinitionService taskService;
+    private final ObjectMapper objectMapper;
     
-    public TaskDefinitionController(TaskDefinitionService taskService) {
+    public TaskDefinitionController(TaskDefinitionService taskService, ObjectMapper objectMapper) {
         this.taskService = taskService;
+        this.objectMapper = objectMapper;
     }
     
     @PostMapping
@@ -62,6 +74,7 @@ public class TaskDefinitionController {
     public ResponseEntity<Page<TaskDefinitionResponse>> searchTasks(
             @RequestParam(required = false) TaskDefinition.TaskStatus status,
             @RequestParam(required = false) String namePattern,
+            @RequestParam(required = false) TaskDefinitionSearchRequest.NameMatch nameMatch,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
             @RequestParam(defaultValue = "0") Integer page,
@@ -73,13 +86,54 @@ public class TaskDefinitionController {
         
         // Parse dates manually for simplicity (in production, use proper date handling)
         var searchRequest = new TaskDefinitionSearchRequest(
-            status, namePattern, null, null, page, size, sortBy, sortDir
+            status, namePattern, nameMatch, null, null, page, size, sortBy, sortDir
         );
         
         Page<TaskDefinitionResponse> tasks = taskService.searchTasks(searchRequest);
         return ResponseEntity.ok(tasks);
     }
     
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<TaskDefinitionSummary>> scrollTasks(
+            @RequestParam(required = false) TaskDefinition.TaskStatus status,
+            @RequestParam(required = false) String namePattern,
+            @RequestParam(required = false) TaskDefinitionSearchRequest.NameMatch nameMatch,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer size) {
+        
+        logger.info("GET /tasks/scroll - Scrolling tasks after cursor {}", cursor);
+        
+        var searchRequest = new TaskDefinitionSearchRequest(
+            status, namePattern, nameMatch, null, null, 0, size, null, null
+        );
+        
+        return ResponseEntity.ok(taskService.scrollTasks(searchRequest, cursor));
+    }
+    
+    @GetMapping(value = "/export", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) TaskDefinition.TaskStatus status) {
+        
+        logger.info("GET /tasks/export - Exporting tasks as NDJSON");
+        
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                taskService.exportTasks(status, task -> {
+                    try {
+                        generator.writeObject(task);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+            .body(body);
+    }
+    
     @GetMapping("/status/{status}")
     public ResponseEntity<List<TaskDefinitionResponse>> getTasksByStatus(
             @PathVariable TaskDefinition.TaskStatus status) {
@@ -0,0 +1,13 @@
+package com.taskscheduler.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as {@code cursor} to
+ * read the following page; it is null on the last page.
+ */
+public record CursorPage<T>(
+    List<T> items,
+    int size,
+    String nextCursor
+) {}
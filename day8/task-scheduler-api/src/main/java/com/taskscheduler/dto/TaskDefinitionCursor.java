@@ -0,0 +1,39 @@
+package com.taskscheduler.dto;
+
+import com.taskscheduler.exception.InvalidCursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the (createdAt DESC, id DESC) ordering: the last row of the previous page.
+ * Clients only see it as an opaque URL-safe token.
+ */
+public record TaskDefinitionCursor(LocalDateTime createdAt, Long id) {
+    
+    public static TaskDefinitionCursor of(TaskDefinitionSummary lastRow) {
+        return new TaskDefinitionCursor(lastRow.createdAt(), lastRow.id());
+    }
+    
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static TaskDefinitionCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new InvalidCursorException(token);
+            }
+            return new TaskDefinitionCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.valueOf(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -3,10 +3,12 @@ package com.taskscheduler.dto;
 import com.taskscheduler.entity.TaskDefinition;
 import org.springframework.format.annotation.DateTimeFormat;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 public record TaskDefinitionSearchRequest(
     TaskDefinition.TaskStatus status,
     String namePattern,
+    NameMatch nameMatch,
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
     LocalDateTime startDate,
     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
@@ -16,8 +18,18 @@ public record TaskDefinitionSearchRequest(
     String sortBy,
     String sortDir
 ) {
+    /**
+     * How {@code namePattern} is matched. PREFIX can use the b-tree index on the lower-cased
+     * name; CONTAINS needs a trigram index to avoid a full scan (PostgreSQL only).
+     */
+    public enum NameMatch {
+        CONTAINS, PREFIX
+    }
+    
     public TaskDefinitionSearchRequest {
         // Default values
+        if (namePattern != null && namePattern.isBlank()) namePattern = null;
+        if (nameMatch == null) nameMatch = NameMatch.CONTAINS;
         if (page == null || page < 0) page = 0;
         if (size == null || size <= 0 || size > 100) size = 20;
         if (sortBy == null || sortBy.isBlank()) sortBy = "createdAt";
@@ -25,4 +37,19 @@ public record TaskDefinitionSearchRequest(
             sortDir = "desc";
         }
     }
+    
+    /**
+     * @return the LIKE pattern for the lower-cased name, with wildcards in the user input
+     *         escaped by {@code \}, or null when no name filter was given
+     */
+    public String nameLikePattern() {
+        if (namePattern == null) {
+            return null;
+        }
+        String escaped = namePattern.toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+        return nameMatch == NameMatch.PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
 }
@@ -0,0 +1,16 @@
+package com.taskscheduler.dto;
+
+import com.taskscheduler.entity.TaskDefinition;
+import java.time.LocalDateTime;
+
+/**
+ * List view of a task definition, read with a constructor projection so large pages skip
+ * entity hydration and the long description/parameters columns.
+ */
+public record TaskDefinitionSummary(
+    Long id,
+    String name,
+    String cronExpression,
+    TaskDefinition.TaskStatus status,
+    LocalDateTime createdAt
+) {}
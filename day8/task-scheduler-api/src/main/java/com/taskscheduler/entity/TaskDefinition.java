@@ -4,13 +4,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 @Entity
 @Table(name = "task_definitions", indexes = {
     @Index(name = "idx_task_name", columnList = "name"),
-    @Index(name = "idx_task_status", columnList = "status"),
-    @Index(name = "idx_created_at", columnList = "createdAt")
+    @Index(name = "idx_task_name_lower", columnList = "nameLower"),
+    // Keyset pagination walks (createdAt, id); the status variant serves filtered pages and counts
+    @Index(name = "idx_task_status_created_at_id", columnList = "status, createdAt, id"),
+    @Index(name = "idx_created_at_id", columnList = "createdAt, id")
 })
 public class TaskDefinition {
     
@@ -23,6 +26,10 @@ public class TaskDefinition {
     @Column(nullable = false, length = 255)
     private String name;
     
+    // Lower-cased copy of name, so case-insensitive search can use a plain index
+    @Column(nullable = false, length = 255)
+    private String nameLower;
+    
     @Column(length = 1000)
     private String description;
     
@@ -56,6 +63,7 @@ public class TaskDefinition {
         LocalDateTime now = LocalDateTime.now();
         createdAt = now;
         updatedAt = now;
+        nameLower = lowerName(name);
         if (status == null) {
             status = TaskStatus.INACTIVE;
         }
@@ -64,6 +72,11 @@ public class TaskDefinition {
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        nameLower = lowerName(name);
+    }
+    
+    private static String lowerName(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
     }
     
     // Constructors
@@ -83,6 +96,8 @@ public class TaskDefinition {
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     
+    public String getNameLower() { return nameLower; }
+    
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
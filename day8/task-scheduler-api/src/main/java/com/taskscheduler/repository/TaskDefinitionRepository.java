@@ -1,19 +1,24 @@
 package com.taskscheduler.repository;
 
+import com.taskscheduler.dto.TaskDefinitionResponse;
 import com.taskscheduler.entity.TaskDefinition;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition, Long> {
+public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition, Long>, TaskDefinitionSearchRepository {
     
     // Find by name (case-insensitive)
     Optional<TaskDefinition> findByNameIgnoreCase(String name);
@@ -34,24 +39,46 @@ public interface TaskDefinitionRepository extends JpaRepository<TaskDefinition,
         @Param("endDate") LocalDateTime endDate
     );
     
-    // Complex search with multiple criteria
-    @Query("SELECT t FROM TaskDefinition t WHERE " +
-           "(:status IS NULL OR t.status = :status) AND " +
-           "(:namePattern IS NULL OR LOWER(t.name) LIKE LOWER(CONCAT('%', :namePattern, '%'))) AND " +
-           "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR t.createdAt <= :endDate)")
-    Page<TaskDefinition> findWithFilters(
+    // Optional filters shared by the search query and its count query
+    String FILTERS =
+        "(:status IS NULL OR t.status = :status) AND " +
+        "(:nameLikePattern IS NULL OR t.nameLower LIKE :nameLikePattern ESCAPE '\\') AND " +
+        "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
+        "(:endDate IS NULL OR t.createdAt <= :endDate)";
+    
+    // Complex search with multiple criteria, projected straight into the response DTO
+    @Query(value = "SELECT new com.taskscheduler.dto.TaskDefinitionResponse(" +
+           "t.id, t.name, t.description, t.cronExpression, t.status, t.taskClass, t.parameters, t.createdAt, t.updatedAt) " +
+           "FROM TaskDefinition t WHERE " + FILTERS,
+           countQuery = "SELECT COUNT(t) FROM TaskDefinition t WHERE " + FILTERS)
+    Page<TaskDefinitionResponse> findWithFilters(
         @Param("status") TaskDefinition.TaskStatus status,
-        @Param("namePattern") String namePattern,
+        @Param("nameLikePattern") String nameLikePattern,
         @Param("startDate") LocalDateTime startDate,
         @Param("endDate") LocalDateTime endDate,
         Pageable pageable
     );
     
+    // All tasks as response DTOs, without loading entities into the persistence context
+    @Query("SELECT new com.taskscheduler.dto.TaskDefinitionResponse(" +
+           "t.id, t.name, t.description, t.cronExpression, t.status, t.taskClass, t.parameters, t.createdAt, t.updatedAt) " +
+           "FROM TaskDefinition t ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskDefinitionResponse> findAllResponses();
+    
+    // Export cursor: rows are fetched from the database in batches while the stream is consumed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.taskscheduler.dto.TaskDefinitionResponse(" +
+           "t.id, t.name, t.description, t.cronExpression, t.status, t.taskClass, t.parameters, t.createdAt, t.updatedAt) " +
+           "FROM TaskDefinition t WHERE (:status IS NULL OR t.status = :status) ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<TaskDefinitionResponse> streamResponses(@Param("status") TaskDefinition.TaskStatus status);
+    
     // Count by status
     long countByStatus(TaskDefinition.TaskStatus status);
     
     // Check if name exists (excluding current id for updates)
-    @Query("SELECT COUNT(t) > 0 FROM TaskDefinition t WHERE LOWER(t.name) = LOWER(:name) AND (:excludeId IS NULL OR t.id != :excludeId)")
+    @Query("SELECT COUNT(t) > 0 FROM TaskDefinition t WHERE t.nameLower = LOWER(:name) AND (:excludeId IS NULL OR t.id != :excludeId)")
     boolean existsByNameIgnoreCaseAndIdNot(@Param("name") String name, @Param("excludeId") Long excludeId);
 }
@@ -0,0 +1,20 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.dto.TaskDefinitionCursor;
+import com.taskscheduler.dto.TaskDefinitionSearchRequest;
+import com.taskscheduler.dto.TaskDefinitionSummary;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated search, built per request so only the filters actually given end up in the
+ * SQL and the (status, createdAt, id) / (createdAt, id) indexes stay usable.
+ */
+public interface TaskDefinitionSearchRepository {
+    
+    /**
+     * Reads up to {@code limit} summaries in (createdAt DESC, id DESC) order, starting right
+     * after {@code after}, or from the newest task when it is null.
+     */
+    List<TaskDefinitionSummary> findSummariesAfter(TaskDefinitionSearchRequest filter, TaskDefinitionCursor after, int limit);
+}
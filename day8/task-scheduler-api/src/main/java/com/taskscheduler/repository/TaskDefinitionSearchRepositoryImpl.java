@@ -0,0 +1,67 @@
+package com.taskscheduler.repository;
+
+import com.taskscheduler.dto.TaskDefinitionCursor;
+import com.taskscheduler.dto.TaskDefinitionSearchRequest;
+import com.taskscheduler.dto.TaskDefinitionSummary;
+import com.taskscheduler.entity.TaskDefinition;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class TaskDefinitionSearchRepositoryImpl implements TaskDefinitionSearchRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TaskDefinitionSummary> findSummariesAfter(TaskDefinitionSearchRequest filter, TaskDefinitionCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDefinitionSummary> query = cb.createQuery(TaskDefinitionSummary.class);
+        Root<TaskDefinition> task = query.from(TaskDefinition.class);
+        
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.status()));
+        }
+        String nameLikePattern = filter.nameLikePattern();
+        if (nameLikePattern != null) {
+            predicates.add(cb.like(task.get("nameLower"), nameLikePattern, '\\'));
+        }
+        if (filter.startDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("createdAt"), filter.startDate()));
+        }
+        if (filter.endDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("createdAt"), filter.endDate()));
+        }
+        if (after != null) {
+            // createdAt < :createdAt OR (createdAt = :createdAt AND id < :id)
+            predicates.add(cb.or(
+                cb.lessThan(task.<LocalDateTime>get("createdAt"), after.createdAt()),
+                cb.and(
+                    cb.equal(task.get("createdAt"), after.createdAt()),
+                    cb.lessThan(task.<Long>get("id"), after.id())
+                )
+            ));
+        }
+        
+        query.select(cb.construct(TaskDefinitionSummary.class,
+                task.get("id"),
+                task.get("name"),
+                task.get("cronExpression"),
+                task.get("status"),
+                task.get("createdAt")))
+            .where(predicates.toArray(Predicate[]::new))
+            .orderBy(cb.desc(task.get("createdAt")), cb.desc(task.get("id")));
+        
+        return entityManager.createQuery(query)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+}
@@ -1,8 +1,11 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.dto.CursorPage;
 import com.taskscheduler.dto.TaskDefinitionCreateRequest;
+import com.taskscheduler.dto.TaskDefinitionCursor;
 import com.taskscheduler.dto.TaskDefinitionResponse;
 import com.taskscheduler.dto.TaskDefinitionSearchRequest;
+import com.taskscheduler.dto.TaskDefinitionSummary;
 import com.taskscheduler.entity.TaskDefinition;
 import com.taskscheduler.exception.TaskNameAlreadyExistsException;
 import com.taskscheduler.exception.TaskNotFoundException;
@@ -16,7 +19,10 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -59,10 +65,7 @@ public class TaskDefinitionService {
     public List<TaskDefinitionResponse> getAllTasks() {
         logger.debug("Retrieving all tasks");
         
-        List<TaskDefinition> tasks = repository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
-        return tasks.stream()
-            .map(TaskDefinitionResponse::fromEntity)
-            .toList();
+        return repository.findAllResponses();
     }
     
     @Transactional(readOnly = true)
@@ -79,15 +82,57 @@ public class TaskDefinitionService {
         
         Pageable pageable = PageRequest.of(searchRequest.page(), searchRequest.size(), sort);
         
-        Page<TaskDefinition> tasksPage = repository.findWithFilters(
+        return repository.findWithFilters(
             searchRequest.status(),
-            searchRequest.namePattern(),
+            searchRequest.nameLikePattern(),
             searchRequest.startDate(),
             searchRequest.endDate(),
             pageable
         );
+    }
+    
+    /**
+     * Keyset-paginated search, newest first. Each page seeks straight to the cursor instead of
+     * skipping rows, and no total count is computed, so deep pages cost the same as the first.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDefinitionSummary> scrollTasks(TaskDefinitionSearchRequest searchRequest, String cursor) {
+        logger.debug("Scrolling tasks after cursor {} with criteria: {}", cursor, searchRequest);
+        
+        TaskDefinitionCursor after = cursor == null || cursor.isBlank() ? null : TaskDefinitionCursor.decode(cursor);
+        int size = searchRequest.size();
+        
+        // One extra row tells whether another page follows
+        List<TaskDefinitionSummary> rows = repository.findSummariesAfter(searchRequest, after, size + 1);
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, rows.size(), null);
+        }
+        
+        List<TaskDefinitionSummary> items = rows.subList(0, size);
+        String nextCursor = TaskDefinitionCursor.of(items.get(size - 1)).encode();
+        return new CursorPage<>(List.copyOf(items), size, nextCursor);
+    }
+    
+    /**
+     * Streams every task, newest first, to {@code sink} from a database cursor, so memory use
+     * does not grow with the table.
+     * @return the number of tasks written
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(TaskDefinition.TaskStatus status, Consumer<TaskDefinitionResponse> sink) {
+        logger.debug("Exporting tasks with status: {}", status);
+        
+        long exported = 0;
+        try (Stream<TaskDefinitionResponse> tasks = repository.streamResponses(status)) {
+            Iterator<TaskDefinitionResponse> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(iterator.next());
+                exported++;
+            }
+        }
         
-        return tasksPage.map(TaskDefinitionResponse::fromEntity);
+        logger.info("Exported {} tasks", exported);
+        return exported;
     }
     
     @Transactional(readOnly = true)
@@ -0,0 +1,7 @@
+-- Name search indexes that JPA cannot declare. Runs after Hibernate creates the schema.
+-- Prefix search: LIKE 'abc%' on name_lower, independent of the database collation.
+CREATE INDEX IF NOT EXISTS idx_task_name_lower_prefix ON task_definitions (name_lower text_pattern_ops);
+
+-- Contains search: LIKE '%abc%' on name_lower through trigrams instead of a sequential scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_task_name_lower_trgm ON task_definitions USING gin (name_lower gin_trgm_ops);
@@ -0,0 +1,224 @@
+package com.taskscheduler.benchmark;
+
+import com.taskscheduler.dto.CursorPage;
+import com.taskscheduler.dto.TaskDefinitionCursor;
+import com.taskscheduler.dto.TaskDefinitionResponse;
+import com.taskscheduler.dto.TaskDefinitionSearchRequest;
+import com.taskscheduler.dto.TaskDefinitionSearchRequest.NameMatch;
+import com.taskscheduler.dto.TaskDefinitionSummary;
+import com.taskscheduler.entity.TaskDefinition;
+import com.taskscheduler.service.TaskDefinitionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Before/after timings for the task listing paths on a generated table. The "before" queries
+ * are the entity-based, offset-paged ones the API used previously, run here verbatim.
+ *
+ * <p>Lives with the tests so it stays out of the application jar. Run it on the test classpath
+ * with {@code mvn spring-boot:test-run -Dspring-boot.run.profiles=benchmark} (H2), or with
+ * {@code benchmark,docker} against PostgreSQL.
+ */
+@Component
+@Profile("benchmark")
+public class TaskQueryBenchmark implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskQueryBenchmark.class);
+
+    private static final String[] WORDS = {"invoice", "report", "cleanup", "sync", "backup", "digest", "billing"};
+    private static final String NAME_TERM = "job-12345";
+    private static final int PAGE_SIZE = 20;
+
+    // The previous search query: entities, LOWER(name) on every row, offset paging plus a count
+    private static final String OLD_FILTERS =
+        "(:status IS NULL OR t.status = :status) AND " +
+        "(:namePattern IS NULL OR LOWER(t.name) LIKE LOWER(CONCAT('%', :namePattern, '%'))) AND " +
+        "(:startDate IS NULL OR t.createdAt >= :startDate) AND " +
+        "(:endDate IS NULL OR t.createdAt <= :endDate)";
+
+    private final TaskDefinitionService taskService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${benchmark.rows:1000000}")
+    private int rows;
+
+    @Value("${benchmark.runs:20}")
+    private int runs;
+
+    @Value("${benchmark.list-rows:100000}")
+    private int listRows;
+
+    public TaskQueryBenchmark(TaskDefinitionService taskService, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager) {
+        this.taskService = taskService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    @Override
+    public void run(String... args) {
+        long seedStart = System.nanoTime();
+        seedTasks();
+        logger.info("Seeded {} tasks in {} s", rows, (System.nanoTime() - seedStart) / 1_000_000_000);
+
+        int depth = rows / 10 * 9;
+        TaskDefinitionCursor deepCursor = cursorAtOffset(depth - 1);
+        TaskDefinitionSearchRequest noFilter = request(null, null);
+
+        List<Row> results = new ArrayList<>();
+        results.add(new Row("first page of " + PAGE_SIZE,
+            time(() -> oldSearch(null, 0)),
+            time(() -> taskService.searchTasks(noFilter).getNumberOfElements()),
+            time(() -> taskService.scrollTasks(noFilter, null).size())));
+        results.add(new Row("page at row " + depth,
+            time(() -> oldSearch(null, depth)),
+            null,
+            time(() -> taskService.scrollTasks(noFilter, deepCursor.encode()).size())));
+        results.add(new Row("name contains '" + NAME_TERM + "'",
+            time(() -> oldSearch(NAME_TERM, 0)),
+            time(() -> taskService.searchTasks(request(NAME_TERM, NameMatch.CONTAINS)).getNumberOfElements()),
+            time(() -> taskService.scrollTasks(request(NAME_TERM, NameMatch.CONTAINS), null).size())));
+        results.add(new Row("name prefix '" + NAME_TERM + "'",
+            null,
+            time(() -> taskService.searchTasks(request(NAME_TERM, NameMatch.PREFIX)).getNumberOfElements()),
+            time(() -> taskService.scrollTasks(request(NAME_TERM, NameMatch.PREFIX), null).size())));
+        results.add(new Row("list " + listRows + " tasks",
+            time(() -> oldList(listRows)),
+            time(() -> projectedList(listRows)),
+            null));
+
+        StringBuilder report = new StringBuilder(String.format(
+            "%nTask query benchmark: %d rows, median of %d runs (ms)%n", rows, runs));
+        report.append(String.format("%-32s %14s %14s %14s%n", "query", "before", "after: offset", "after: keyset"));
+        for (Row row : results) {
+            report.append(String.format("%-32s %14s %14s %14s%n",
+                row.query, format(row.before), format(row.afterOffset), format(row.afterKeyset)));
+        }
+
+        long exportStart = System.nanoTime();
+        long exported = taskService.exportTasks(null, task -> { });
+        double exportSeconds = (System.nanoTime() - exportStart) / 1e9;
+        report.append(String.format("NDJSON export source: %d tasks in %.1f s (%.0f tasks/s)%n",
+            exported, exportSeconds, exported / exportSeconds));
+
+        logger.info(report.toString());
+    }
+
+    private int oldSearch(String namePattern, int offset) {
+        return readOnly.execute(status -> {
+            TypedQuery<TaskDefinition> query = entityManager.createQuery(
+                "SELECT t FROM TaskDefinition t WHERE " + OLD_FILTERS + " ORDER BY t.createdAt DESC", TaskDefinition.class);
+            TypedQuery<Long> count = entityManager.createQuery(
+                "SELECT COUNT(t) FROM TaskDefinition t WHERE " + OLD_FILTERS, Long.class);
+            for (TypedQuery<?> q : List.of(query, count)) {
+                q.setParameter("status", null);
+                q.setParameter("namePattern", namePattern);
+                q.setParameter("startDate", null);
+                q.setParameter("endDate", null);
+            }
+            List<TaskDefinitionResponse> page = query.setFirstResult(offset).setMaxResults(PAGE_SIZE)
+                .getResultList().stream()
+                .map(TaskDefinitionResponse::fromEntity)
+                .toList();
+            count.getSingleResult();
+            return page.size();
+        });
+    }
+
+    private int oldList(int limit) {
+        return readOnly.execute(status -> entityManager
+            .createQuery("SELECT t FROM TaskDefinition t ORDER BY t.createdAt DESC", TaskDefinition.class)
+            .setMaxResults(limit)
+            .getResultList().stream()
+            .map(TaskDefinitionResponse::fromEntity)
+            .toList()
+            .size());
+    }
+
+    private int projectedList(int limit) {
+        return readOnly.execute(status -> entityManager
+            .createQuery("SELECT new com.taskscheduler.dto.TaskDefinitionResponse(" +
+                "t.id, t.name, t.description, t.cronExpression, t.status, t.taskClass, t.parameters, t.createdAt, t.updatedAt) " +
+                "FROM TaskDefinition t ORDER BY t.createdAt DESC, t.id DESC", TaskDefinitionResponse.class)
+            .setMaxResults(limit)
+            .getResultList()
+            .size());
+    }
+
+    private static TaskDefinitionSearchRequest request(String namePattern, NameMatch nameMatch) {
+        return new TaskDefinitionSearchRequest(null, namePattern, nameMatch, null, null, 0, PAGE_SIZE, null, null);
+    }
+
+    private TaskDefinitionCursor cursorAtOffset(int offset) {
+        return jdbcTemplate.queryForObject(
+            "SELECT created_at, id FROM task_definitions ORDER BY created_at DESC, id DESC OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY",
+            (rs, rowNum) -> new TaskDefinitionCursor(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)),
+            offset);
+    }
+
+    private Double time(Supplier<Integer> query) {
+        query.get(); // warm-up
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            query.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[runs / 2] / 1e6;
+    }
+
+    private static String format(Double millis) {
+        return millis == null ? "-" : String.format("%.2f", millis);
+    }
+
+    private void seedTasks() {
+        jdbcTemplate.update("DELETE FROM task_definitions");
+        TaskDefinition.TaskStatus[] statuses = TaskDefinition.TaskStatus.values();
+        LocalDateTime base = LocalDateTime.now().minusSeconds(rows);
+        int batchSize = 5_000;
+
+        for (int from = 0; from < rows; from += batchSize) {
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(rows, from + batchSize); i++) {
+                String name = "job-" + i + "-" + WORDS[i % WORDS.length];
+                // Four tasks share each timestamp, so paging has to break ties on id
+                Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(i / 4));
+                batch.add(new Object[]{
+                    (long) i + 1, name, name.toLowerCase(), "Generated task " + i, "0 0 * * * ?",
+                    statuses[i % statuses.length].name(), createdAt, createdAt, "com.example.GeneratedTask", "{}"
+                });
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO task_definitions (id, name, name_lower, description, cron_expression, status, " +
+                "created_at, updated_at, task_class, parameters) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE task_sequence RESTART WITH " + (rows + 1));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private record Row(String query, Double before, Double afterOffset, Double afterKeyset) {
+    }
+}
@@ -11,9 +11,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -89,6 +93,34 @@ class TaskDefinitionControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
     
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportTasks_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        TaskDefinitionResponse task = new TaskDefinitionResponse(
+            1L, "Export Task", null, "0 0 12 * * ?", TaskDefinition.TaskStatus.ACTIVE,
+            null, null, LocalDateTime.now(), LocalDateTime.now()
+        );
+        when(taskService.exportTasks(any(), any())).thenAnswer(invocation -> {
+            Consumer<TaskDefinitionResponse> sink = invocation.getArgument(1);
+            sink.accept(task);
+            sink.accept(task);
+            return 2L;
+        });
+        
+        MvcResult result = mockMvc.perform(get("/tasks/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Export Task", objectMapper.readTree(lines[0]).get("name").asText());
+    }
+    
     @Test
     void healthCheck_ShouldReturnOk() throws Exception {
         mockMvc.perform(get("/tasks/health"))
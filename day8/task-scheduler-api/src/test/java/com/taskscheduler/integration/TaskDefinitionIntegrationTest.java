@@ -74,4 +74,38 @@ class TaskDefinitionIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
     }
+    
+    @Test
+    void scrollTasks_ShouldWalkAllPagesWithCursor() throws Exception {
+        for (String name : new String[]{"Scroll Alpha", "Scroll Beta", "Other Gamma"}) {
+            mockMvc.perform(post("/tasks")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new TaskDefinitionCreateRequest(
+                        name, null, "0 0 12 * * ?", TaskDefinition.TaskStatus.ACTIVE, null, null))))
+                    .andExpect(status().isCreated());
+        }
+        
+        // Newest first, two per page
+        String firstPage = mockMvc.perform(get("/tasks/scroll").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Other Gamma"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+        
+        mockMvc.perform(get("/tasks/scroll").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("Scroll Alpha"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        
+        // Prefix search matches the lower-cased name
+        mockMvc.perform(get("/tasks/scroll").param("namePattern", "scroll").param("nameMatch", "PREFIX"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+        
+        mockMvc.perform(get("/tasks/scroll").param("cursor", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
 }
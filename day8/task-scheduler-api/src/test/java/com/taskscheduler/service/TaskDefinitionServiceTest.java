@@ -1,8 +1,13 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.dto.CursorPage;
 import com.taskscheduler.dto.TaskDefinitionCreateRequest;
+import com.taskscheduler.dto.TaskDefinitionCursor;
 import com.taskscheduler.dto.TaskDefinitionResponse;
+import com.taskscheduler.dto.TaskDefinitionSearchRequest;
+import com.taskscheduler.dto.TaskDefinitionSummary;
 import com.taskscheduler.entity.TaskDefinition;
+import com.taskscheduler.exception.InvalidCursorException;
 import com.taskscheduler.exception.TaskNameAlreadyExistsException;
 import com.taskscheduler.exception.TaskNotFoundException;
 import com.taskscheduler.repository.TaskDefinitionRepository;
@@ -13,6 +18,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -89,4 +96,49 @@ class TaskDefinitionServiceTest {
         assertThrows(TaskNotFoundException.class, 
             () -> service.getTaskById(1L));
     }
+    
+    @Test
+    void scrollTasks_MoreRowsThanPage_ShouldReturnCursorOfLastItem() {
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskDefinitionSummary> rows = List.of(
+            new TaskDefinitionSummary(3L, "c", "0 0 12 * * ?", TaskDefinition.TaskStatus.ACTIVE, now),
+            new TaskDefinitionSummary(2L, "b", "0 0 12 * * ?", TaskDefinition.TaskStatus.ACTIVE, now),
+            new TaskDefinitionSummary(1L, "a", "0 0 12 * * ?", TaskDefinition.TaskStatus.ACTIVE, now.minusSeconds(1))
+        );
+        TaskDefinitionSearchRequest request = new TaskDefinitionSearchRequest(null, null, null, null, null, 0, 2, null, null);
+        when(repository.findSummariesAfter(request, null, 3)).thenReturn(rows);
+        
+        CursorPage<TaskDefinitionSummary> page = service.scrollTasks(request, null);
+        
+        assertEquals(2, page.items().size());
+        assertEquals(new TaskDefinitionCursor(now, 2L), TaskDefinitionCursor.decode(page.nextCursor()));
+    }
+    
+    @Test
+    void scrollTasks_LastPage_ShouldHaveNoCursor() {
+        TaskDefinitionCursor after = new TaskDefinitionCursor(LocalDateTime.now(), 5L);
+        TaskDefinitionSearchRequest request = new TaskDefinitionSearchRequest(null, null, null, null, null, 0, 2, null, null);
+        when(repository.findSummariesAfter(request, after, 3)).thenReturn(List.of());
+        
+        CursorPage<TaskDefinitionSummary> page = service.scrollTasks(request, after.encode());
+        
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+    
+    @Test
+    void scrollTasks_MalformedCursor_ShouldThrowException() {
+        TaskDefinitionSearchRequest request = new TaskDefinitionSearchRequest(null, null, null, null, null, 0, 2, null, null);
+        
+        assertThrows(InvalidCursorException.class, 
+            () -> service.scrollTasks(request, "not-a-cursor"));
+    }
+    
+    @Test
+    void searchRequest_NamePattern_ShouldEscapeWildcards() {
+        assertEquals("%50\\%\\_off%", new TaskDefinitionSearchRequest(
+            null, "50%_OFF", null, null, null, 0, 20, null, null).nameLikePattern());
+        assertEquals("report%", new TaskDefinitionSearchRequest(
+            null, "Report", TaskDefinitionSearchRequest.NameMatch.PREFIX, null, null, 0, 20, null, null).nameLikePattern());
+    }
 }
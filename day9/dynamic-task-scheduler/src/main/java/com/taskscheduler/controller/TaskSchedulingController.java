@@ -97,7 +97,7 @@ public class TaskSchedulingController {
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getSchedulerStatus() {
         Map<String, Object> status = new HashMap<>();
-        status.put("activeScheduledTasks", dynamicScheduler.getScheduledTasks().size());
+        status.put("activeScheduledTasks", dynamicScheduler.getScheduledTaskCount());
         status.put("totalTasksInDB", taskRepository.count());
         status.put("activeTasks", taskRepository.findActiveTasks().size());
         
@@ -114,15 +114,14 @@ public class TaskSchedulingController {
     public ResponseEntity<Map<String, String>> reloadTasks() {
         try {
             // Cancel all current tasks
-            dynamicScheduler.getScheduledTasks().forEach((id, future) -> future.cancel(true));
-            dynamicScheduler.getScheduledTasks().clear();
+            dynamicScheduler.cancelAll();
             
             // Reload from database
             dynamicScheduler.loadAndScheduleActiveTasks();
             
             Map<String, String> response = new HashMap<>();
             response.put("message", "Tasks reloaded successfully");
-            response.put("activeTasksLoaded", String.valueOf(dynamicScheduler.getScheduledTasks().size()));
+            response.put("activeTasksLoaded", String.valueOf(dynamicScheduler.getScheduledTaskCount()));
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -0,0 +1,97 @@
+package com.taskscheduler.cron;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Cron schedule held as one bitmask per field. Finding the next fire time jumps straight
+ * to the next set bit of each field instead of stepping second by second, and matching a
+ * value is a single mask test.
+ */
+final class BitsetCronSchedule implements CronSchedule {
+
+    // Never search further than this; expressions like "0 0 0 30 2 *" have no fire time
+    private static final int MAX_YEARS_AHEAD = 5;
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+
+    BitsetCronSchedule(long seconds, long minutes, long hours, long daysOfMonth, long months, long daysOfWeek) {
+        this.seconds = seconds;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    @Override
+    public LocalDateTime next(LocalDateTime after) {
+        LocalDateTime t = after.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        int lastYear = after.getYear() + MAX_YEARS_AHEAD;
+
+        while (t.getYear() <= lastYear) {
+            int month = t.getMonthValue();
+            if (!isSet(months, month)) {
+                int nextMonth = nextSetBit(months, month + 1);
+                t = nextMonth < 0
+                        ? LocalDateTime.of(t.getYear() + 1, nextSetBit(months, 1), 1, 0, 0)
+                        : LocalDateTime.of(t.getYear(), nextMonth, 1, 0, 0);
+                continue;
+            }
+
+            if (!matchesDay(t.toLocalDate())) {
+                t = t.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+
+            int hour = nextSetBit(hours, t.getHour());
+            if (hour < 0) {
+                t = t.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+            if (hour != t.getHour()) {
+                t = t.toLocalDate().atTime(hour, 0);
+            }
+
+            int minute = nextSetBit(minutes, t.getMinute());
+            if (minute < 0) {
+                t = t.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                continue;
+            }
+            if (minute != t.getMinute()) {
+                t = t.withMinute(minute).withSecond(0);
+            }
+
+            int second = nextSetBit(seconds, t.getSecond());
+            if (second < 0) {
+                t = t.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+                continue;
+            }
+            return t.withSecond(second);
+        }
+        return null;
+    }
+
+    private boolean matchesDay(LocalDate date) {
+        return isSet(daysOfMonth, date.getDayOfMonth())
+                && isSet(daysOfWeek, date.getDayOfWeek().getValue());
+    }
+
+    private static boolean isSet(long mask, int bit) {
+        return (mask & (1L << bit)) != 0;
+    }
+
+    private static int nextSetBit(long mask, int from) {
+        if (from >= Long.SIZE) {
+            return -1;
+        }
+        long remaining = mask & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+}
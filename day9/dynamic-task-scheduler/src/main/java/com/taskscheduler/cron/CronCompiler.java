@@ -0,0 +1,149 @@
+package com.taskscheduler.cron;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles six-field cron expressions (second minute hour day-of-month month day-of-week,
+ * the format {@link CronExpression} accepts) into {@link BitsetCronSchedule}s.
+ *
+ * Lists, ranges, steps, {@code *}, {@code ?}, month and day names and the {@code @daily}
+ * style macros are compiled to bitmasks. Expressions using {@code L}, {@code W} or
+ * {@code #} are delegated to Spring's {@link CronExpression}.
+ */
+public final class CronCompiler {
+
+    private static final Map<String, String> MACROS = Map.of(
+            "@yearly", "0 0 0 1 1 *",
+            "@annually", "0 0 0 1 1 *",
+            "@monthly", "0 0 0 1 * *",
+            "@weekly", "0 0 0 * * 0",
+            "@daily", "0 0 0 * * *",
+            "@midnight", "0 0 0 * * *",
+            "@hourly", "0 0 * * * *");
+
+    private static final String[] MONTH_NAMES =
+            {"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+    // ISO numbering as in java.time: MON is 1, SUN is 7; 0 is accepted for Sunday too
+    private static final String[] DAY_NAMES = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+
+    private CronCompiler() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public static CronSchedule compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("Cron expression must not be empty");
+        }
+        String normalized = MACROS.getOrDefault(expression.trim().toLowerCase(Locale.ROOT), expression.trim());
+        String[] fields = normalized.split("\\s+");
+        if (fields.length != 6) {
+            throw new IllegalArgumentException(
+                    "Cron expression must consist of 6 fields (found " + fields.length + "): " + expression);
+        }
+
+        if (usesCalendarModifiers(fields[3]) || usesCalendarModifiers(fields[5])) {
+            CronExpression fallback = CronExpression.parse(normalized);
+            return fallback::next;
+        }
+
+        try {
+            long daysOfWeek = parseField(fields[5].toUpperCase(Locale.ROOT), 0, 1, 7, DAY_NAMES, true);
+            if ((daysOfWeek & 1L) != 0) {
+                daysOfWeek = (daysOfWeek & ~1L) | (1L << 7);
+            }
+            return new BitsetCronSchedule(
+                    parseField(fields[0], 0, 0, 59, null, false),
+                    parseField(fields[1], 0, 0, 59, null, false),
+                    parseField(fields[2], 0, 0, 23, null, false),
+                    parseField(fields[3], 1, 1, 31, null, true),
+                    parseField(fields[4].toUpperCase(Locale.ROOT), 1, 1, 12, MONTH_NAMES, false),
+                    daysOfWeek);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cron expression '" + expression + "': " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean usesCalendarModifiers(String field) {
+        return field.indexOf('L') >= 0 || field.indexOf('W') >= 0 || field.indexOf('#') >= 0;
+    }
+
+    /**
+     * @param min lowest value accepted explicitly
+     * @param wildcardMin lowest value covered by {@code *}; differs from {@code min} only
+     *                    for day-of-week, where 0 is an alias
+     */
+    private static long parseField(String field, int min, int wildcardMin, int max, String[] names, boolean allowAny) {
+        long mask = 0;
+        for (String part : field.split(",")) {
+            mask |= parsePart(part, min, wildcardMin, max, names, allowAny);
+        }
+        return mask;
+    }
+
+    private static long parsePart(String part, int min, int wildcardMin, int max, String[] names, boolean allowAny) {
+        if (part.isEmpty()) {
+            throw new IllegalArgumentException("empty list element");
+        }
+
+        int step = 1;
+        int slash = part.indexOf('/');
+        String range = part;
+        if (slash >= 0) {
+            step = parseNumber(part.substring(slash + 1));
+            if (step < 1) {
+                throw new IllegalArgumentException("step must be positive: " + part);
+            }
+            range = part.substring(0, slash);
+        }
+
+        int from;
+        int to;
+        if (range.equals("*") || (allowAny && range.equals("?"))) {
+            from = wildcardMin;
+            to = max;
+        } else {
+            int dash = range.indexOf('-');
+            if (dash >= 0) {
+                from = parseValue(range.substring(0, dash), wildcardMin, names);
+                to = parseValue(range.substring(dash + 1), wildcardMin, names);
+            } else {
+                from = parseValue(range, wildcardMin, names);
+                to = slash >= 0 ? max : from;
+            }
+        }
+
+        if (from < min || to > max || from > to) {
+            throw new IllegalArgumentException("range " + part + " outside " + min + "-" + max);
+        }
+
+        long mask = 0;
+        for (int value = from; value <= to; value += step) {
+            mask |= 1L << value;
+        }
+        return mask;
+    }
+
+    private static int parseValue(String value, int firstNameValue, String[] names) {
+        if (names != null) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(value)) {
+                    return i + firstNameValue;
+                }
+            }
+        }
+        return parseNumber(value);
+    }
+
+    private static int parseNumber(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a number: " + value);
+        }
+    }
+}
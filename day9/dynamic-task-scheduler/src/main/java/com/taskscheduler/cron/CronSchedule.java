@@ -0,0 +1,15 @@
+package com.taskscheduler.cron;
+
+import java.time.LocalDateTime;
+
+/**
+ * A compiled cron expression.
+ */
+public interface CronSchedule {
+
+    /**
+     * @return the first fire time strictly after {@code after}, or {@code null} if the
+     *         expression never fires again
+     */
+    LocalDateTime next(LocalDateTime after);
+}
@@ -0,0 +1,32 @@
+package com.taskscheduler.cron;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled schedules keyed by expression text. Dynamic tasks tend to reuse a handful of
+ * expressions, so each is compiled once and the immutable result is shared.
+ */
+@Component
+public class CronScheduleCache {
+
+    private final Map<String, CronSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the expression is not valid
+     */
+    public CronSchedule get(String expression) {
+        CronSchedule schedule = schedules.get(expression);
+        if (schedule == null) {
+            schedule = CronCompiler.compile(expression);
+            schedules.putIfAbsent(expression, schedule);
+        }
+        return schedule;
+    }
+
+    public int size() {
+        return schedules.size();
+    }
+}
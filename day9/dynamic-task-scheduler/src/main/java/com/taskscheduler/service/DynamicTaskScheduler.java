@@ -1,5 +1,7 @@
 package com.taskscheduler.service;
 
+import com.taskscheduler.cron.CronSchedule;
+import com.taskscheduler.cron.CronScheduleCache;
 import com.taskscheduler.entity.TaskDefinition;
 import com.taskscheduler.repository.TaskDefinitionRepository;
 import jakarta.annotation.PostConstruct;
@@ -8,17 +10,28 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Schedules dynamic tasks from one in-memory index ordered by next fire time.
+ *
+ * A single dispatcher thread sleeps until the earliest entry is due, hands due tasks to the
+ * task scheduler pool for execution, and re-inserts each with its next fire time from the
+ * shared compiled cron schedule. Cancelling only marks the entry; the dispatcher drops it
+ * when it reaches the head. Fire times are written back to the database in batches by
+ * {@link TaskExecutionStateWriter}.
+ */
 @Service
 public class DynamicTaskScheduler {
     
@@ -30,61 +43,101 @@ public class DynamicTaskScheduler {
     @Autowired
     private TaskDefinitionRepository taskRepository;
     
-    private final Map<Long, ScheduledFuture<?>> scheduledTasks = new ConcurrentHashMap<>();
+    @Autowired
+    private CronScheduleCache cronScheduleCache;
+    
+    @Autowired
+    private TaskExecutionStateWriter stateWriter;
+    
+    private final Map<Long, ScheduledEntry> scheduledTasks = new ConcurrentHashMap<>();
+    private final PriorityQueue<ScheduledEntry> fireIndex = new PriorityQueue<>();
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private final Condition headChanged = indexLock.newCondition();
+    
+    private int cancelledInIndex;   // guarded by indexLock
+    private volatile Thread dispatcher;
     
     @PostConstruct
     public void initializeScheduler() {
         logger.info("🚀 Initializing Dynamic Task Scheduler...");
+        dispatcher = Thread.ofPlatform()
+                .name("DynamicTask-dispatcher")
+                .daemon(true)
+                .start(this::dispatchLoop);
         loadAndScheduleActiveTasks();
     }
     
     @PreDestroy
     public void cleanup() {
         logger.info("🛑 Shutting down Dynamic Task Scheduler...");
-        scheduledTasks.values().forEach(future -> future.cancel(true));
-        scheduledTasks.clear();
+        Thread current = dispatcher;
+        dispatcher = null;
+        if (current != null) {
+            current.interrupt();
+        }
+        cancelAll();
     }
     
     public void loadAndScheduleActiveTasks() {
         List<TaskDefinition> activeTasks = taskRepository.findActiveTasks();
         logger.info("📋 Loading {} active tasks from database", activeTasks.size());
         
+        int scheduled = 0;
         for (TaskDefinition task : activeTasks) {
             try {
                 scheduleTask(task);
-                logger.info("✅ Successfully scheduled task: {}", task.getTaskName());
+                scheduled++;
             } catch (Exception e) {
                 logger.error("❌ Failed to schedule task: {} - {}", task.getTaskName(), e.getMessage());
                 task.setStatus(TaskDefinition.TaskStatus.ERROR);
                 taskRepository.save(task);
             }
         }
+        logger.info("✅ Scheduled {} tasks using {} distinct cron expressions", scheduled, cronScheduleCache.size());
     }
     
     public void scheduleTask(TaskDefinition taskDef) {
-        validateCronExpression(taskDef.getCronExpression());
+        CronSchedule schedule = compile(taskDef.getCronExpression());
         
-        Runnable taskRunnable = () -> executeTask(taskDef);
-        CronTrigger cronTrigger = new CronTrigger(taskDef.getCronExpression());
+        LocalDateTime next = schedule.next(LocalDateTime.now());
+        if (next == null) {
+            throw new IllegalArgumentException("Cron expression never fires: " + taskDef.getCronExpression());
+        }
         
-        ScheduledFuture<?> scheduledFuture = taskScheduler.schedule(taskRunnable, cronTrigger);
-        scheduledTasks.put(taskDef.getId(), scheduledFuture);
+        ScheduledEntry entry = new ScheduledEntry(taskDef, schedule, next);
+        ScheduledEntry previous = scheduledTasks.put(taskDef.getId(), entry);
+        if (previous != null) {
+            markCancelled(previous);
+        }
+        enqueue(entry);
         
-        // Set next execution time to current time + 1 minute as fallback
-        taskDef.setNextExecution(LocalDateTime.now().plusMinutes(1));
-        taskRepository.save(taskDef);
+        taskDef.setNextExecution(next);
+        stateWriter.record(taskDef.getId(), next, null);
         
-        logger.info("📅 Task '{}' scheduled with cron: {}", taskDef.getTaskName(), taskDef.getCronExpression());
+        logger.debug("📅 Task '{}' scheduled with cron: {}, next run at {}",
+                taskDef.getTaskName(), taskDef.getCronExpression(), next);
     }
     
     public void cancelTask(Long taskId) {
-        ScheduledFuture<?> future = scheduledTasks.remove(taskId);
-        if (future != null && !future.isCancelled()) {
-            future.cancel(true);
+        ScheduledEntry entry = scheduledTasks.remove(taskId);
+        if (entry != null) {
+            markCancelled(entry);
             logger.info("🚫 Cancelled task with ID: {}", taskId);
         }
     }
     
+    public void cancelAll() {
+        scheduledTasks.values().forEach(entry -> entry.cancelled = true);
+        scheduledTasks.clear();
+        indexLock.lock();
+        try {
+            fireIndex.clear();
+            cancelledInIndex = 0;
+        } finally {
+            indexLock.unlock();
+        }
+    }
+    
     public void rescheduleTask(TaskDefinition taskDef) {
         cancelTask(taskDef.getId());
         if (taskDef.getStatus() == TaskDefinition.TaskStatus.ACTIVE) {
@@ -92,7 +145,90 @@ public class DynamicTaskScheduler {
         }
     }
     
-    private void executeTask(TaskDefinition taskDef) {
+    /**
+     * Cancelled entries stay in the index until they reach the head, unless they make up
+     * half of it, in which case they are purged in one pass.
+     */
+    private void markCancelled(ScheduledEntry entry) {
+        entry.cancelled = true;
+        indexLock.lock();
+        try {
+            if (++cancelledInIndex > fireIndex.size() / 2 && cancelledInIndex > 1024) {
+                fireIndex.removeIf(queued -> queued.cancelled);
+                cancelledInIndex = 0;
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+    
+    private void enqueue(ScheduledEntry entry) {
+        indexLock.lock();
+        try {
+            fireIndex.add(entry);
+            if (fireIndex.peek() == entry) {
+                headChanged.signal();
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+    
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ScheduledEntry due = takeDue();
+                if (due.cancelled) {
+                    continue;
+                }
+                
+                // Fire once after a stall rather than replaying every missed slot
+                LocalDateTime now = LocalDateTime.now();
+                LocalDateTime next = due.schedule.next(due.fireTime.isAfter(now) ? due.fireTime : now);
+                taskScheduler.schedule(() -> executeTask(due.taskDef, next), Instant.now());
+                
+                if (next == null) {
+                    scheduledTasks.remove(due.taskDef.getId(), due);
+                    continue;
+                }
+                ScheduledEntry following = new ScheduledEntry(due.taskDef, due.schedule, next);
+                if (scheduledTasks.replace(due.taskDef.getId(), due, following)) {
+                    enqueue(following);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("❌ Dispatcher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+    
+    private ScheduledEntry takeDue() throws InterruptedException {
+        indexLock.lockInterruptibly();
+        try {
+            while (true) {
+                ScheduledEntry head = fireIndex.peek();
+                if (head == null) {
+                    headChanged.await();
+                    continue;
+                }
+                if (head.cancelled) {
+                    fireIndex.poll();
+                    cancelledInIndex = Math.max(0, cancelledInIndex - 1);
+                    continue;
+                }
+                long waitMs = head.fireAtMillis - System.currentTimeMillis();
+                if (waitMs <= 0) {
+                    return fireIndex.poll();
+                }
+                headChanged.await(waitMs, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            indexLock.unlock();
+        }
+    }
+    
+    private void executeTask(TaskDefinition taskDef, LocalDateTime next) {
         try {
             logger.info("🔄 Executing task: {} [{}]", taskDef.getTaskName(), taskDef.getTaskType());
             
@@ -115,13 +251,12 @@ public class DynamicTaskScheduler {
                     break;
             }
             
-            // Update last execution time
-            taskDef.setLastExecuted(LocalDateTime.now());
-            
-            // Set next execution time to current time + 1 minute as fallback
-            taskDef.setNextExecution(LocalDateTime.now().plusMinutes(1));
+            // Record last execution and the fire time the dispatcher has already queued
+            LocalDateTime now = LocalDateTime.now();
+            taskDef.setLastExecuted(now);
+            taskDef.setNextExecution(next);
+            stateWriter.record(taskDef.getId(), next, now);
             
-            taskRepository.save(taskDef);
             logger.info("✅ Task '{}' executed successfully", taskDef.getTaskName());
             
         } catch (Exception e) {
@@ -131,20 +266,40 @@ public class DynamicTaskScheduler {
         }
     }
     
-    private void validateCronExpression(String cronExpression) {
+    private CronSchedule compile(String cronExpression) {
         try {
-            new CronTrigger(cronExpression);
+            return cronScheduleCache.get(cronExpression);
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid cron expression: " + cronExpression);
         }
     }
     
-    public Map<Long, ScheduledFuture<?>> getScheduledTasks() {
-        return scheduledTasks;
+    public int getScheduledTaskCount() {
+        return scheduledTasks.size();
     }
     
     public boolean isTaskScheduled(Long taskId) {
-        ScheduledFuture<?> future = scheduledTasks.get(taskId);
-        return future != null && !future.isCancelled() && !future.isDone();
+        ScheduledEntry entry = scheduledTasks.get(taskId);
+        return entry != null && !entry.cancelled;
+    }
+    
+    private static final class ScheduledEntry implements Comparable<ScheduledEntry> {
+        final TaskDefinition taskDef;
+        final CronSchedule schedule;
+        final LocalDateTime fireTime;
+        final long fireAtMillis;
+        volatile boolean cancelled;
+        
+        ScheduledEntry(TaskDefinition taskDef, CronSchedule schedule, LocalDateTime fireTime) {
+            this.taskDef = taskDef;
+            this.schedule = schedule;
+            this.fireTime = fireTime;
+            this.fireAtMillis = fireTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        
+        @Override
+        public int compareTo(ScheduledEntry other) {
+            return Long.compare(fireAtMillis, other.fireAtMillis);
+        }
     }
 }
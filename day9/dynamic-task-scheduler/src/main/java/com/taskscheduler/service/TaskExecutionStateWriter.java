@@ -0,0 +1,105 @@
+package com.taskscheduler.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects {@code nextExecution} / {@code lastExecuted} changes and writes them as one JDBC
+ * batch, either every flush interval or once enough tasks have changed. Only the latest
+ * state per task is kept, so a task that fires several times between flushes costs one row
+ * update.
+ */
+@Component
+public class TaskExecutionStateWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TaskExecutionStateWriter.class);
+    
+    private static final String UPDATE_SQL =
+            "UPDATE task_definitions SET next_execution = ?, last_executed = COALESCE(?, last_executed) WHERE id = ?";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TaskScheduler taskScheduler;
+    
+    @Value("${scheduler.state-writer.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${scheduler.state-writer.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+    
+    private final Map<Long, ExecutionState> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    
+    @PostConstruct
+    public void start() {
+        taskScheduler.scheduleWithFixedDelay(this::flush, Duration.ofMillis(flushIntervalMs));
+    }
+    
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+    
+    /**
+     * @param lastExecuted {@code null} to keep the stored value
+     */
+    public void record(Long taskId, LocalDateTime nextExecution, LocalDateTime lastExecuted) {
+        pending.merge(taskId, new ExecutionState(nextExecution, lastExecuted),
+                (previous, latest) -> latest.lastExecuted() != null ? latest
+                        : new ExecutionState(latest.nextExecution(), previous.lastExecuted()));
+        
+        if (pending.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+    
+    public synchronized void flush() {
+        flushRequested.set(false);
+        if (pending.isEmpty()) {
+            return;
+        }
+        
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (Long taskId : pending.keySet()) {
+            ExecutionState state = pending.remove(taskId);
+            if (state != null) {
+                rows.add(new Object[] {
+                        toTimestamp(state.nextExecution()), toTimestamp(state.lastExecuted()), taskId});
+            }
+        }
+        
+        try {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+            logger.debug("Persisted execution state of {} tasks", rows.size());
+        } catch (Exception e) {
+            logger.error("Failed to persist execution state of {} tasks: {}", rows.size(), e.getMessage());
+        }
+    }
+    
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(time) : null;
+    }
+    
+    private record ExecutionState(LocalDateTime nextExecution, LocalDateTime lastExecuted) {}
+}
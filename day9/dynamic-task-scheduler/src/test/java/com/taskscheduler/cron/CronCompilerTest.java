@@ -0,0 +1,63 @@
+package com.taskscheduler.cron;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CronCompilerTest {
+
+    private static final List<String> EXPRESSIONS = List.of(
+            "0 */10 * * * *",
+            "*/15 * * * * *",
+            "0 0 9-17 * * MON-FRI",
+            "0 30 2 * * SUN",
+            "0 0 0 1 JAN,JUL *",
+            "5,25,45 1/7 */3 ? * *",
+            "0 0 12 15 * ?",
+            "0 0 0 29 2 *",
+            "0 0 6 * * 0",
+            "0 0 6 * * 7",
+            "0 0 6 * * */2",
+            "0 15 10 ? * 1-5",
+            "@hourly",
+            "@daily",
+            "@weekly",
+            "0 0 0 L * *");
+
+    @Test
+    public void matchesSpringCronExpression() {
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        for (String expression : EXPRESSIONS) {
+            CronSchedule compiled = CronCompiler.compile(expression);
+            CronExpression reference = CronExpression.parse(expression);
+
+            for (int i = 0; i < 200; i++) {
+                LocalDateTime after = base.plusSeconds(random.nextInt(4 * 365 * 24 * 3600));
+                assertThat(compiled.next(after))
+                        .as("%s after %s", expression, after)
+                        .isEqualTo(reference.next(after));
+            }
+        }
+    }
+
+    @Test
+    public void returnsNullWhenExpressionNeverFires() {
+        assertThat(CronCompiler.compile("0 0 0 30 2 *").next(LocalDateTime.now())).isNull();
+    }
+
+    @Test
+    public void rejectsInvalidExpressions() {
+        assertThatThrownBy(() -> CronCompiler.compile("0 0 25 * * *")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CronCompiler.compile("0 */0 * * * *")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CronCompiler.compile("* * * *")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CronCompiler.compile("0 0 0 * FOO *")).isInstanceOf(IllegalArgumentException.class);
+    }
+}